@@ -170,6 +170,30 @@ class JsonOutputWriterTest {
     ])
   }
 
+  @Test
+  void 'should be able to add already rendered JSON to child lists'() {
+    def result = new StringWriter()
+
+    new JsonOutputWriter(result, new TestRequestContext()).forTopLevelObject { writer ->
+      writer
+        .addChildList('parent1') { listWriter ->
+        listWriter.addChild { listChildWriter ->
+          listChildWriter.add('key1', 'value1')
+        }
+        listWriter.addRawJson('{\n  "key1" : "value2"\n}')
+        listWriter.addRawJson('{"key1": "value3"}')
+      }
+    }
+
+    assertThat(fromJSON(result.toString())).isEqualTo([
+      parent1: [
+        [key1: 'value1'],
+        [key1: 'value2'],
+        [key1: 'value3']
+      ]
+    ])
+  }
+
   @Test
   void 'should be able to add links'() {
     def result = new StringWriter()
@@ -19,8 +19,10 @@ import com.thoughtworks.go.api.ApiController;
 import com.thoughtworks.go.api.ApiVersion;
 import com.thoughtworks.go.api.spring.ApiAuthenticationHelper;
 import com.thoughtworks.go.api.util.MessageJson;
+import com.thoughtworks.go.apiv4.dashboard.representers.DashboardChangesRepresenter;
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardFor;
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardRepresenter;
+import com.thoughtworks.go.server.dashboard.GoDashboardChanges;
 import com.thoughtworks.go.server.dashboard.GoDashboardEnvironment;
 import com.thoughtworks.go.server.dashboard.GoDashboardPipelineGroup;
 import com.thoughtworks.go.server.domain.Username;
@@ -29,10 +31,12 @@ import com.thoughtworks.go.server.domain.user.PipelineSelections;
 import com.thoughtworks.go.server.service.GoDashboardService;
 import com.thoughtworks.go.server.service.PipelineSelectionsService;
 import com.thoughtworks.go.server.service.support.toggle.Toggles;
+import com.thoughtworks.go.spark.RequestContext;
 import com.thoughtworks.go.spark.Routes;
 import com.thoughtworks.go.spark.spring.SparkSpringController;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import spark.Request;
@@ -54,6 +58,8 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
     private static final String COOKIE_NAME = "selected_pipelines";
     private static final String SEP_CHAR = "/";
     private static final String VIEW_NAME = "viewName";
+    private static final String SINCE = "since";
+    static final String VERSION_HEADER = "X-GoCD-Dashboard-Version";
 
     private final PipelineSelectionsService pipelineSelectionsService;
     private final GoDashboardService goDashboardService;
@@ -78,8 +84,12 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
             before("", mimeType, this::setContentType);
             before("", mimeType, this::verifyContentType);
             before("", mimeType, apiAuthenticationHelper::checkUserAnd403);
+            before("/*", mimeType, this::setContentType);
+            before("/*", mimeType, this::verifyContentType);
+            before("/*", mimeType, apiAuthenticationHelper::checkUserAnd403);
 
             get("", mimeType, this::index);
+            get(Routes.Dashboard.CHANGES, mimeType, this::changes);
         });
     }
 
@@ -95,6 +105,9 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
         final PipelineSelections personalization = pipelineSelectionsService.load(personalizationCookie, userId);
         final DashboardFilter filter = personalization.namedFilter(getViewName(request));
 
+        // read before rendering, so that a client catching up from this version never misses a change
+        final long version = goDashboardService.currentDashboardVersion();
+
         final boolean allowEmpty = Toggles.isToggleOn(Toggles.ALLOW_EMPTY_PIPELINE_GROUPS_DASHBOARD) &&
                 "true".equalsIgnoreCase(request.queryParams("allowEmpty"));
 
@@ -102,6 +115,7 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
         List<GoDashboardEnvironment> environments = goDashboardService.allEnvironmentsForDashboard(filter, userName);
 
         String etag = calcEtag(userName, pipelineGroups, environments);
+        response.header(VERSION_HEADER, String.valueOf(version));
 
         if (fresh(request, etag)) {
             return notModified(response);
@@ -112,11 +126,36 @@ public class DashboardControllerV4 extends ApiController implements SparkSpringC
         return writerForTopLevelObject(request, response, outputWriter ->
                 DashboardRepresenter.toJSON(
                         outputWriter,
-                        new DashboardFor(pipelineGroups, environments, userName, personalization.etag())
+                        new DashboardFor(pipelineGroups, environments, userName, personalization.etag(), RequestContext.requestContext(request))
                 )
         );
     }
 
+    /**
+     * Returns only the pipelines (visible to the user through the selected view) which changed since the version the
+     * client last saw, either from the <code>X-GoCD-Dashboard-Version</code> header of {@link #index} or from a previous
+     * call to this endpoint. When pipelines were added, removed or regrouped in the meantime, or the version is unknown,
+     * the client is asked to fall back to a full refresh.
+     */
+    public Object changes(Request request, Response response) throws IOException {
+        if (!goDashboardService.hasEverLoadedCurrentState()) {
+            response.status(ACCEPTED);
+            return BEING_PROCESSED;
+        }
+
+        final Username userName = currentUsername();
+        final PipelineSelections personalization = pipelineSelectionsService.load(request.cookie(COOKIE_NAME), currentUserId(request));
+        final DashboardFilter filter = personalization.namedFilter(getViewName(request));
+        final long since = NumberUtils.toLong(request.queryParams(SINCE), -1);
+
+        GoDashboardChanges changes = goDashboardService.dashboardChangesSince(since, filter, userName);
+        response.header(VERSION_HEADER, String.valueOf(changes.version()));
+
+        return writerForTopLevelObject(request, response, outputWriter ->
+                DashboardChangesRepresenter.toJSON(outputWriter, changes, userName)
+        );
+    }
+
     private String calcEtag(Username username, List<GoDashboardPipelineGroup> pipelineGroups, List<GoDashboardEnvironment> environments) {
         final String pipelineSegment = pipelineGroups.stream().
                 map(GoDashboardPipelineGroup::etag).collect(Collectors.joining(SEP_CHAR));
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.apiv4.dashboard.representers;
+
+import com.thoughtworks.go.api.base.JsonOutputWriter;
+import com.thoughtworks.go.server.dashboard.GoDashboardPipeline;
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.spark.RequestContext;
+
+import java.io.StringWriter;
+
+/**
+ * Renders a dashboard pipeline through {@link PipelineRepresenter} once for every set of users who are allowed to do
+ * the same things with it, and keeps that on the cached pipeline. The only user specific parts of the pipeline JSON
+ * are its permission flags, which is what {@link GoDashboardPipeline#permissionFingerprintFor(String)} covers. Anything
+ * else which depends on the user, added to {@link PipelineRepresenter} or below, needs to be added to that too.
+ */
+public class CachedPipelineRepresenter {
+
+    public static String toJSON(GoDashboardPipeline pipeline, Username username, RequestContext requestContext) {
+        String key = requestContext.urlFor("") + "#" + pipeline.permissionFingerprintFor(username.getUsername().toString());
+
+        return pipeline.renderedFragment(key, () -> {
+            StringWriter writer = new StringWriter(1024);
+            new JsonOutputWriter(writer, requestContext).forTopLevelObject(outputWriter -> PipelineRepresenter.toJSON(outputWriter, pipeline, username));
+            return writer.toString();
+        });
+    }
+}
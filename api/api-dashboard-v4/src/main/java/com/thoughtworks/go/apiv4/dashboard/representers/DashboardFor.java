@@ -18,6 +18,7 @@ package com.thoughtworks.go.apiv4.dashboard.representers;
 import com.thoughtworks.go.server.dashboard.DashboardGroup;
 import com.thoughtworks.go.server.dashboard.GoDashboardPipeline;
 import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.spark.RequestContext;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -27,12 +28,18 @@ public class DashboardFor {
     private final Username username;
     private List<? extends DashboardGroup> environments;
     private String personalizationEtag;
+    private RequestContext requestContext;
 
     public DashboardFor(List<? extends DashboardGroup> pipelineGroups, List<? extends DashboardGroup> environments, Username username, String personalizationEtag) {
+        this(pipelineGroups, environments, username, personalizationEtag, null);
+    }
+
+    public DashboardFor(List<? extends DashboardGroup> pipelineGroups, List<? extends DashboardGroup> environments, Username username, String personalizationEtag, RequestContext requestContext) {
         this.pipelineGroups = pipelineGroups;
         this.environments = environments;
         this.username = username;
         this.personalizationEtag = personalizationEtag;
+        this.requestContext = requestContext;
     }
 
     public List<? extends DashboardGroup> getPipelineGroups() {
@@ -54,4 +61,12 @@ public class DashboardFor {
     public String getPersonalizationEtag() {
         return personalizationEtag;
     }
+
+    /**
+     * @return the context pipelines are rendered in, to reuse pipelines rendered for earlier requests, or null to
+     * render them afresh
+     */
+    public RequestContext getRequestContext() {
+        return requestContext;
+    }
 }
@@ -47,7 +47,11 @@ public class DashboardRepresenter {
                             .addChildList("pipelines", listWriter -> {
                                 dashboardFor.getPipelines()
                                         .forEach(pipeline -> {
-                                            listWriter.addChild(childItemWriter -> PipelineRepresenter.toJSON(childItemWriter, pipeline, dashboardFor.getUsername()));
+                                            if (dashboardFor.getRequestContext() == null) {
+                                                listWriter.addChild(childItemWriter -> PipelineRepresenter.toJSON(childItemWriter, pipeline, dashboardFor.getUsername()));
+                                            } else {
+                                                listWriter.addRawJson(CachedPipelineRepresenter.toJSON(pipeline, dashboardFor.getUsername(), dashboardFor.getRequestContext()));
+                                            }
                                         });
                             });
                 });
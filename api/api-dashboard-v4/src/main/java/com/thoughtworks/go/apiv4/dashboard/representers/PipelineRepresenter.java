@@ -55,6 +55,10 @@ public class PipelineRepresenter {
                     .add("config_repo_material_url", configRepo.getMaterial().getUriForDisplay());
         }
 
+        if (model.isHistoryLoading()) {
+            jsonOutputWriter.add("history_loading", true);
+        }
+
         if (model.getTrackingTool().isPresent()) {
             TrackingTool trackingTool = model.getTrackingTool().get();
 
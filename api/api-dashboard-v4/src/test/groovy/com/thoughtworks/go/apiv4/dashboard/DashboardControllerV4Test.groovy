@@ -17,11 +17,13 @@ package com.thoughtworks.go.apiv4.dashboard
 
 import com.thoughtworks.go.api.SecurityTestTrait
 import com.thoughtworks.go.api.spring.ApiAuthenticationHelper
+import com.thoughtworks.go.apiv4.dashboard.representers.DashboardChangesRepresenter
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardFor
 import com.thoughtworks.go.apiv4.dashboard.representers.DashboardRepresenter
 import com.thoughtworks.go.config.security.Permissions
 import com.thoughtworks.go.config.security.permissions.EveryonePermission
 import com.thoughtworks.go.config.security.users.Everyone
+import com.thoughtworks.go.server.dashboard.GoDashboardChanges
 import com.thoughtworks.go.server.dashboard.GoDashboardEnvironment
 import com.thoughtworks.go.server.dashboard.GoDashboardPipelineGroup
 import com.thoughtworks.go.server.domain.user.Filters
@@ -32,6 +34,7 @@ import com.thoughtworks.go.server.service.support.toggle.FeatureToggleService
 import com.thoughtworks.go.server.service.support.toggle.Toggles
 import com.thoughtworks.go.spark.ControllerTrait
 import com.thoughtworks.go.spark.NormalUserSecurity
+import com.thoughtworks.go.spark.Routes
 import com.thoughtworks.go.spark.SecurityServiceTrait
 import org.apache.commons.codec.digest.DigestUtils
 import org.junit.jupiter.api.AfterEach
@@ -197,6 +200,80 @@ class DashboardControllerV4Test implements SecurityServiceTrait, ControllerTrait
     }
   }
 
+  @Nested
+  class Changes {
+
+    @Nested
+    class Security implements SecurityTestTrait, NormalUserSecurity {
+
+      @Override
+      String getControllerMethodUnderTest() {
+        return "changes"
+      }
+
+      @Override
+      void makeHttpCall() {
+        getWithApiHeader(controller.controllerPath(Routes.Dashboard.CHANGES))
+      }
+    }
+
+    @Nested
+    class AsAuthorizedUser {
+      @Test
+      void 'should get the pipelines which changed since the given version'() {
+        loginAsUser()
+
+        def changes = mock(GoDashboardChanges.class)
+        when(changes.version()).thenReturn(1002L)
+        when(changes.isFullRefreshRequired()).thenReturn(false)
+        when(changes.pipelines()).thenReturn([GoDashboardPipelineMother.dashboardPipeline('pipeline1')])
+
+        when(pipelineSelectionsService.load((String) isNull(), any(Long.class))).thenReturn(PipelineSelections.ALL)
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(true)
+        when(goDashboardService.dashboardChangesSince(eq(1000L), eq(Filters.WILDCARD_FILTER), eq(currentUsername()))).thenReturn(changes)
+
+        getWithApiHeader(controller.controllerPath([since: '1000'], Routes.Dashboard.CHANGES))
+
+        assertThatResponse()
+          .isOk()
+          .hasHeader(DashboardControllerV4.VERSION_HEADER, '1002')
+          .hasBodyWithJsonObject(DashboardChangesRepresenter, changes, currentUsername())
+      }
+
+      @Test
+      void 'should ask for a full refresh when the version is not a number'() {
+        loginAsUser()
+
+        def changes = mock(GoDashboardChanges.class)
+        when(changes.version()).thenReturn(1002L)
+        when(changes.isFullRefreshRequired()).thenReturn(true)
+        when(changes.pipelines()).thenReturn([])
+
+        when(pipelineSelectionsService.load((String) isNull(), any(Long.class))).thenReturn(PipelineSelections.ALL)
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(true)
+        when(goDashboardService.dashboardChangesSince(eq(-1L), eq(Filters.WILDCARD_FILTER), eq(currentUsername()))).thenReturn(changes)
+
+        getWithApiHeader(controller.controllerPath([since: 'foo'], Routes.Dashboard.CHANGES))
+
+        assertThatResponse()
+          .isOk()
+          .hasJsonAttribute('full_refresh_required', true)
+      }
+
+      @Test
+      void 'should return 202 when dashboard is not processed (on server start)'() {
+        when(goDashboardService.hasEverLoadedCurrentState()).thenReturn(false)
+
+        loginAsUser()
+        getWithApiHeader(controller.controllerPath(Routes.Dashboard.CHANGES))
+
+        assertThatResponse()
+          .isAccepted()
+          .hasJsonMessage("Dashboard is being processed, this may take a few seconds. Please check back later.")
+      }
+    }
+  }
+
   private static GoDashboardPipelineGroup pipelineGroup(String name) {
     GoDashboardPipelineGroup pipelineGroup = new GoDashboardPipelineGroup(name, permissions(), true)
     pipelineGroup.addPipeline(GoDashboardPipelineMother.dashboardPipeline('pipeline1'))
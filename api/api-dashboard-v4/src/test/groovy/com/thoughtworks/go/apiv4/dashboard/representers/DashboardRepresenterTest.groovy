@@ -23,6 +23,7 @@ import com.thoughtworks.go.config.security.users.Everyone
 import com.thoughtworks.go.server.dashboard.GoDashboardEnvironment
 import com.thoughtworks.go.server.dashboard.GoDashboardPipelineGroup
 import com.thoughtworks.go.server.domain.Username
+import com.thoughtworks.go.spark.mocks.TestRequestContext
 import com.thoughtworks.go.spark.util.SecureRandom
 import org.junit.jupiter.api.Test
 
@@ -32,6 +33,34 @@ import static org.assertj.core.api.Assertions.assertThat
 
 class DashboardRepresenterTest {
 
+  @Test
+  void 'renders the same pipelines when reusing pipelines rendered for earlier requests'() {
+    def user = new Username(new CaseInsensitiveString(SecureRandom.hex()))
+    def anotherUser = new Username(new CaseInsensitiveString(SecureRandom.hex()))
+    def permissions = new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE)
+
+    def group = new GoDashboardPipelineGroup('group1', permissions, true)
+    def pipeline1 = GoDashboardPipelineMother.dashboardPipeline('pipeline1')
+    def pipeline2 = GoDashboardPipelineMother.dashboardPipeline('pipeline2')
+    group.addPipeline(pipeline1)
+    group.addPipeline(pipeline2)
+
+    def expectedJson = toObject({
+      DashboardRepresenter.toJSON(it, new DashboardFor([group], [], user, "etag"))
+    })
+    def firstJson = toObject({
+      DashboardRepresenter.toJSON(it, new DashboardFor([group], [], user, "etag", new TestRequestContext()))
+    })
+    def fragment = CachedPipelineRepresenter.toJSON(pipeline1, user, new TestRequestContext())
+    def secondJson = toObject({
+      DashboardRepresenter.toJSON(it, new DashboardFor([group], [], anotherUser, "etag", new TestRequestContext()))
+    })
+
+    assertThatJson(firstJson).isEqualTo(expectedJson)
+    assertThatJson(secondJson).isEqualTo(expectedJson)
+    assertThat(CachedPipelineRepresenter.toJSON(pipeline1, anotherUser, new TestRequestContext())).isSameAs(fragment)
+  }
+
   @Test
   void 'renders pipeline dashboard with hal representation'() {
     def personalizationEtag = "sha256hash"
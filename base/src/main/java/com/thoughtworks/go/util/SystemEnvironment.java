@@ -127,6 +127,9 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     public static final GoSystemProperty<Boolean> GO_SERVER_SESSION_COOKIE_SECURE = new GoBooleanSystemProperty("go.sessioncookie.secure", false);
     public static final GoSystemProperty<String> AGENT_EXTRA_PROPERTIES = new GoStringSystemProperty("gocd.agent.extra.properties", "");
     public static final GoSystemProperty<Integer> JMS_LISTENER_BACKOFF_TIME = new GoIntSystemProperty("go.jms.listener.backoff.time.in.milliseconds", 5000);
+    public static final GoSystemProperty<String> MESSAGING_SERVICE = new GoStringSystemProperty("go.messaging.service", "activemq");
+    public static final GoSystemProperty<Integer> IN_MEMORY_MESSAGING_DESTINATION_CAPACITY = new GoIntSystemProperty("go.messaging.in.memory.destination.capacity", 100000);
+    public static final GoSystemProperty<Integer> IN_MEMORY_MESSAGING_SEND_TIMEOUT_IN_MILLIS = new GoIntSystemProperty("go.messaging.in.memory.send.timeout.in.milliseconds", 60000);
 
     public static final GoSystemProperty<Integer> GO_SERVER_AUTHORIZATION_EXTENSION_CALLS_CACHE_TIMEOUT_IN_SECONDS = new GoIntSystemProperty("go.server.authorization.extension.calls.cache.timeout.in.secs", 60 * 30);
 
@@ -152,6 +155,18 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     public static GoSystemProperty<Integer> GO_ELASTIC_PLUGIN_CREATE_AGENT_THREADS = new GoIntSystemProperty("go.elasticplugin.createagent.threads", 5);
     public static GoSystemProperty<Integer> GO_ELASTIC_PLUGIN_SERVER_PING_THREADS = new GoIntSystemProperty("go.elasticplugin.serverping.threads", 1);
     public static GoSystemProperty<Integer> GO_ENCRYPTION_API_MAX_REQUESTS = new GoIntSystemProperty("go.encryption.api.max.requests", 30);
+    public static GoSystemProperty<Integer> SERVER_BACKUP_THREADS = new GoIntSystemProperty("go.server.backup.threads", 4);
+    public static GoSystemProperty<Integer> ARTIFACTS_PURGE_THREADS = new GoIntSystemProperty("go.artifacts.purge.threads", 4);
+    public static GoSystemProperty<Boolean> REQUEST_INSTRUMENTATION_ENABLED = new GoBooleanSystemProperty("go.request.instrumentation.enabled", false);
+    public static GoSystemProperty<Boolean> GIT_REMOTE_HEAD_PROBE_ENABLED = new GoBooleanSystemProperty("go.material.git.remote.head.probe.enabled", false);
+    public static GoSystemProperty<Integer> DASHBOARD_HISTORY_LOAD_CHUNK_SIZE = new GoIntSystemProperty("go.dashboard.history.load.chunk.size", 500);
+    public static GoSystemProperty<Integer> DASHBOARD_HISTORY_LOAD_THREADS = new GoIntSystemProperty("go.dashboard.history.load.threads", 2);
+    public static GoSystemProperty<Integer> ACCESS_TOKEN_VERIFICATION_CACHE_TTL_SECONDS = new GoIntSystemProperty("go.access.token.verification.cache.ttl.seconds", 60);
+    public static GoSystemProperty<Integer> ACCESS_TOKEN_VERIFICATION_CACHE_SIZE = new GoIntSystemProperty("go.access.token.verification.cache.size", 1000);
+    public static GoSystemProperty<Boolean> MODIFICATION_SEARCH_INDEX_ENABLED = new GoBooleanSystemProperty("go.modification.search.index.enabled", false);
+    public static GoSystemProperty<Integer> MODIFICATION_SEARCH_INDEX_MAX_CANDIDATES = new GoIntSystemProperty("go.modification.search.index.max.candidates", 1000);
+    public static GoSystemProperty<Long> MODIFICATION_SEARCH_INDEX_MAX_ENTRIES = new GoLongSystemProperty("go.modification.search.index.max.entries", 10_000_000L);
+    public static GoSystemProperty<Boolean> STREAM_ARTIFACT_UPLOADS = new GoBooleanSystemProperty("go.artifact.upload.streaming", false);
 
     public static GoSystemProperty<String> GO_ANALYTICS_PLUGIN_EXTERNAL_ASSETS = new GoStringSystemProperty("go.analytics.plugin.external.assets", "./analytics-assets");
     public static GoSystemProperty<Boolean> AUTO_REGISTER_LOCAL_AGENT_ENABLED = new GoBooleanSystemProperty("go.auto.register.local.agent.enabled", true);
@@ -178,6 +193,9 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
     private static GoSystemProperty<Boolean> AGENT_STATUS_API_ENABLED = new GoBooleanSystemProperty("go.agent.status.api.enabled", true);
     private static GoSystemProperty<String> AGENT_STATUS_API_BIND_HOST = new GoStringSystemProperty("go.agent.status.api.bind.host", "localhost");
     private static GoSystemProperty<Integer> AGENT_STATUS_API_BIND_PORT = new GoIntSystemProperty("go.agent.status.api.bind.port", 8152);
+    private static GoSystemProperty<String> AGENT_ARTIFACT_CACHE_DIR = new GoStringSystemProperty("go.agent.artifact.cache.dir", "artifact-cache");
+    private static GoSystemProperty<Long> AGENT_ARTIFACT_CACHE_SIZE_MB = new GoLongSystemProperty("go.agent.artifact.cache.size.mb", 0L);
+    private static GoSystemProperty<Integer> AGENT_ARTIFACT_PREFETCH_THREADS = new GoIntSystemProperty("go.agent.artifact.prefetch.threads", 0);
 
     private static GoSystemProperty<Integer> GO_SPA_TIMEOUT = new GoIntSystemProperty("go.spa.timeout", 60000);
     private static GoSystemProperty<Integer> GO_SPA_REFRESH_INTERVAL = new GoIntSystemProperty("go.spa.refresh.interval", 10000);
@@ -400,6 +418,54 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
         return CONFIG_MATERIAL_POST_UPDATE_LISTENERS.getValue();
     }
 
+    public int getNumberOfServerBackupThreads() {
+        return SERVER_BACKUP_THREADS.getValue();
+    }
+
+    public int getNumberOfArtifactsPurgeThreads() {
+        return ARTIFACTS_PURGE_THREADS.getValue();
+    }
+
+    public boolean isRequestInstrumentationEnabled() {
+        return REQUEST_INSTRUMENTATION_ENABLED.getValue();
+    }
+
+    public boolean isGitRemoteHeadProbeEnabled() {
+        return GIT_REMOTE_HEAD_PROBE_ENABLED.getValue();
+    }
+
+    public int getDashboardHistoryLoadChunkSize() {
+        return DASHBOARD_HISTORY_LOAD_CHUNK_SIZE.getValue();
+    }
+
+    public int getDashboardHistoryLoadThreads() {
+        return DASHBOARD_HISTORY_LOAD_THREADS.getValue();
+    }
+
+    public int getAccessTokenVerificationCacheTtlSeconds() {
+        return ACCESS_TOKEN_VERIFICATION_CACHE_TTL_SECONDS.getValue();
+    }
+
+    public int getAccessTokenVerificationCacheSize() {
+        return ACCESS_TOKEN_VERIFICATION_CACHE_SIZE.getValue();
+    }
+
+    public boolean isModificationSearchIndexEnabled() {
+        return MODIFICATION_SEARCH_INDEX_ENABLED.getValue();
+    }
+
+    public int getModificationSearchIndexMaxCandidates() {
+        return MODIFICATION_SEARCH_INDEX_MAX_CANDIDATES.getValue();
+    }
+
+    public long getModificationSearchIndexMaxEntries() {
+        return MODIFICATION_SEARCH_INDEX_MAX_ENTRIES.getValue();
+    }
+
+    public boolean shouldStreamArtifactUploads() {
+        return STREAM_ARTIFACT_UPLOADS.getValue();
+    }
+
     public String getAgentMd5() {
         return getPropertyImpl(GoConstants.AGENT_JAR_MD5, BLANK_STRING);
     }
@@ -728,6 +794,18 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
         return AGENT_STATUS_API_BIND_PORT.getValue();
     }
 
+    public File getAgentArtifactCacheDir() {
+        return new File(AGENT_ARTIFACT_CACHE_DIR.getValue());
+    }
+
+    public long getAgentArtifactCacheSizeLimit() {
+        return AGENT_ARTIFACT_CACHE_SIZE_MB.getValue() * 1024 * 1024;
+    }
+
+    public int getAgentArtifactPrefetchThreads() {
+        return AGENT_ARTIFACT_PREFETCH_THREADS.getValue();
+    }
+
     public static Integer goSpaRefreshInterval() {
         return GO_SPA_REFRESH_INTERVAL.getValue();
     }
@@ -740,6 +818,10 @@ public class SystemEnvironment implements Serializable, ConfigDirProvider {
         return Integer.parseInt(getPropertyImpl("plugin." + pluginId + ".notifications.listener.count", "1"));
     }
 
+    public int getNotificationQueueCapacityForPlugin(String pluginId) {
+        return Integer.parseInt(getPropertyImpl("plugin." + pluginId + ".notifications.queue.capacity", "10000"));
+    }
+
     public boolean enableAnalyticsOnlyForAdmins() {
         return ENABLE_ANALYTICS_ONLY_FOR_ADMINS.getValue();
     }
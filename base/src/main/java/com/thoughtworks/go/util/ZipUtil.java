@@ -15,16 +15,21 @@
  */
 package com.thoughtworks.go.util;
 
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 
 import java.io.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.codec.binary.Hex.encodeHexString;
 
 public class ZipUtil {
     private static final Logger LOGGER = org.slf4j.LoggerFactory.getLogger(ZipUtil.class);
@@ -112,11 +117,19 @@ public class ZipUtil {
     }
 
     public void unzip(ZipInputStream zipInputStream, File destDir) throws IOException {
+        unzip(zipInputStream, destDir, null);
+    }
+
+    /**
+     * Unzips the stream into the given directory, handing each extracted file over to the handler along with the md5 of
+     * its content, which is worked out as the file is written rather than by reading it back.
+     */
+    public void unzip(ZipInputStream zipInputStream, File destDir, ExtractedFileHandler extractedFileHandler) throws IOException {
         try(ZipInputStream zis = zipInputStream) {
             destDir.mkdirs();
             ZipEntry zipEntry = zis.getNextEntry();
             while (zipEntry != null) {
-                extractTo(zipEntry, zis, destDir);
+                extractTo(zipEntry, zis, destDir, extractedFileHandler);
                 zipEntry = zis.getNextEntry();
             }
         }
@@ -126,7 +139,7 @@ public class ZipUtil {
         unzip(new ZipInputStream(new BufferedInputStream(new FileInputStream(zip))), destDir);
     }
 
-    private void extractTo(ZipEntry entry, InputStream entryInputStream, File toDir) throws IOException {
+    private void extractTo(ZipEntry entry, InputStream entryInputStream, File toDir, ExtractedFileHandler extractedFileHandler) throws IOException {
         bombIfZipEntryPathContainsDirectoryTraversalCharacters(entry.getName());
         String entryName = nonRootedEntryName(entry);
 
@@ -137,7 +150,8 @@ public class ZipUtil {
         }
         try {
             outputFile.getParentFile().mkdirs();
-            try (FileOutputStream os = new FileOutputStream(outputFile)) {
+            MessageDigest md5 = DigestUtils.getMd5Digest();
+            try (OutputStream os = extractedFileHandler == null ? new FileOutputStream(outputFile) : new DigestOutputStream(new FileOutputStream(outputFile), md5)) {
                 IOUtils.copyLarge(entryInputStream, os);
                 if (zipEntryHandler != null) {
                     FileInputStream stream = null;
@@ -155,8 +169,12 @@ public class ZipUtil {
                     }
                 }
             }
+            if (extractedFileHandler != null) {
+                extractedFileHandler.handleExtractedFile(entryName, outputFile, encodeHexString(md5.digest()));
+            }
         } catch (IOException e) {
             LOGGER.error("Failed to unzip file [{}] to directory [{}]", entryName, toDir.getAbsolutePath(), e);
+            FileUtils.deleteQuietly(outputFile);
             throw e;
         }
     }
@@ -188,4 +206,8 @@ public class ZipUtil {
         void handleEntry(ZipEntry entry, InputStream stream) throws IOException;
     }
 
+    public interface ExtractedFileHandler {
+        void handleExtractedFile(String entryName, File extractedFile, String md5) throws IOException;
+    }
+
 }
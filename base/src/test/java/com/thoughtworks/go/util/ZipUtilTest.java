@@ -26,17 +26,25 @@ import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.migrationsupport.rules.EnableRuleMigrationSupport;
 import org.junit.rules.TemporaryFolder;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
 import static org.assertj.core.api.Assertions.fail;
 
 @EnableRuleMigrationSupport
@@ -98,6 +106,35 @@ public class ZipUtilTest {
         assertThat(fileContent(actual2)).isEqualTo(fileContent(file2));
     }
 
+    @Test
+    void shouldHandOverTheMd5OfEachFileItExtracts() throws IOException {
+        zipFile = zipUtil.zip(srcDir, temporaryFolder.newFile(), Deflater.NO_COMPRESSION);
+        Map<String, String> md5s = new HashMap<>();
+
+        zipUtil.unzip(new ZipInputStream(new FileInputStream(zipFile)), destDir, (entryName, extractedFile, md5) -> {
+            assertThat(extractedFile).isFile();
+            md5s.put(entryName, md5);
+        });
+
+        assertThat(md5s).containsOnly(
+                entry(srcDir.getName() + "/" + file1.getName(), md5Hex("_file1")),
+                entry(srcDir.getName() + "/" + childDir1.getName() + "/" + file2.getName(), md5Hex("_file2")));
+    }
+
+    @Test
+    void shouldRemoveTheFileBeingExtractedWhenTheZipIsCutShort() throws IOException {
+        File bigFileDir = temporaryFolder.newFolder("big");
+        File bigFile = new File(bigFileDir, "big-file");
+        FileUtils.writeStringToFile(bigFile, String.join("", Collections.nCopies(10000, "some content ")), UTF_8);
+        byte[] zip = FileUtils.readFileToByteArray(zipUtil.zip(bigFileDir, temporaryFolder.newFile(), Deflater.NO_COMPRESSION));
+        byte[] truncatedZip = Arrays.copyOf(zip, zip.length / 2);
+
+        assertThatThrownBy(() -> zipUtil.unzip(new ZipInputStream(new ByteArrayInputStream(truncatedZip)), destDir, (entryName, extractedFile, md5) -> fail("should not have handed over a partly extracted file")))
+                .isInstanceOf(IOException.class);
+
+        assertThat(new File(destDir, bigFileDir.getName() + "/" + bigFile.getName())).doesNotExist();
+    }
+
     @Test
     void shouldZipFileContentsAndUnzipIt() throws IOException {
         zipFile = zipUtil.zip(srcDir, temporaryFolder.newFile(), Deflater.NO_COMPRESSION);
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.domain;
+
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static com.thoughtworks.go.util.CachedDigestUtils.md5Hex;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * @understands keeping the most recently fetched artifact files on the agent, addressed by their md5, so that an
+ * identical artifact can be served from the local disk instead of being downloaded from the server again
+ */
+@Component
+public class ArtifactCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ArtifactCache.class);
+    private static final Pattern MD5 = Pattern.compile("[0-9a-f]{32}");
+
+    private final File cacheDir;
+    private final long sizeLimit;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private boolean loaded;
+
+    @Autowired
+    public ArtifactCache(SystemEnvironment systemEnvironment) {
+        this(systemEnvironment.getAgentArtifactCacheDir(), systemEnvironment.getAgentArtifactCacheSizeLimit());
+    }
+
+    ArtifactCache(File cacheDir, long sizeLimit) {
+        this.cacheDir = cacheDir;
+        this.sizeLimit = sizeLimit;
+    }
+
+    public boolean isEnabled() {
+        return sizeLimit > 0;
+    }
+
+    /**
+     * Places a copy of the cached artifact with the given md5 at the destination, which must not exist yet. The cached
+     * copy is verified first, since it may have been changed on disk since it was stored.
+     */
+    public synchronized boolean restore(String md5, File destination) {
+        if (!isEnabled() || !isValidKey(md5)) {
+            return false;
+        }
+        loadIfRequired();
+        if (!entries.containsKey(md5)) {
+            return false;
+        }
+
+        File cached = entryFor(md5);
+        try {
+            if (!md5.equals(md5Of(cached))) {
+                LOG.warn("[Artifact Cache] Cached artifact {} has been modified, discarding it", cached);
+                remove(md5);
+                return false;
+            }
+            copy(cached, destination);
+            cached.setLastModified(System.currentTimeMillis());
+            return true;
+        } catch (IOException e) {
+            LOG.warn("[Artifact Cache] Could not restore cached artifact {} to {}", cached, destination, e);
+            FileUtils.deleteQuietly(destination);
+            return false;
+        }
+    }
+
+    public synchronized boolean contains(String md5) {
+        if (!isEnabled() || !isValidKey(md5)) {
+            return false;
+        }
+        loadIfRequired();
+        return entries.containsKey(md5);
+    }
+
+    public synchronized void store(String md5, File source) {
+        if (!isEnabled() || !isValidKey(md5) || !source.isFile() || source.length() > sizeLimit) {
+            return;
+        }
+        loadIfRequired();
+        if (entries.containsKey(md5)) {
+            touch(md5);
+            return;
+        }
+
+        File tempFile = new File(cacheDir, md5 + ".tmp");
+        try {
+            FileUtils.forceMkdir(cacheDir);
+            copy(source, tempFile);
+            Files.move(tempFile.toPath(), entryFor(md5).toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+            add(md5, source.length());
+            evictIfRequired();
+        } catch (IOException e) {
+            LOG.warn("[Artifact Cache] Could not cache artifact {}", source, e);
+            FileUtils.deleteQuietly(tempFile);
+        }
+    }
+
+    synchronized long size() {
+        loadIfRequired();
+        return size;
+    }
+
+    private void loadIfRequired() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (File file : files) {
+            if (file.isFile() && isValidKey(file.getName())) {
+                add(file.getName(), file.length());
+            } else {
+                FileUtils.deleteQuietly(file);
+            }
+        }
+        evictIfRequired();
+    }
+
+    private void evictIfRequired() {
+        Iterator<Map.Entry<String, Long>> leastRecentlyUsed = entries.entrySet().iterator();
+        while (size > sizeLimit && leastRecentlyUsed.hasNext()) {
+            Map.Entry<String, Long> entry = leastRecentlyUsed.next();
+            LOG.debug("[Artifact Cache] Evicting cached artifact {}", entry.getKey());
+            FileUtils.deleteQuietly(entryFor(entry.getKey()));
+            size -= entry.getValue();
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    private void touch(String md5) {
+        entries.get(md5); // marks the entry as the most recently used one
+        entryFor(md5).setLastModified(System.currentTimeMillis());
+    }
+
+    private void add(String md5, long length) {
+        entries.put(md5, length);
+        size += length;
+    }
+
+    private void remove(String md5) {
+        Long length = entries.remove(md5);
+        if (length != null) {
+            size -= length;
+        }
+        FileUtils.deleteQuietly(entryFor(md5));
+    }
+
+    private File entryFor(String md5) {
+        return new File(cacheDir, md5);
+    }
+
+    private boolean isValidKey(String md5) {
+        return md5 != null && MD5.matcher(md5).matches();
+    }
+
+    private String md5Of(File file) throws IOException {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return md5Hex(inputStream);
+        }
+    }
+
+    // always a copy, never a link, so that a job changing its artifact in place cannot change the cached one
+    private void copy(File source, File destination) throws IOException {
+        FileUtils.forceMkdirParent(destination.getAbsoluteFile());
+        FileUtils.copyFile(source, destination);
+    }
+}
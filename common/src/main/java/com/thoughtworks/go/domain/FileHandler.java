@@ -42,6 +42,7 @@ public class FileHandler implements FetchHandler {
     private static final Logger LOG = LoggerFactory.getLogger(FileHandler.class);
     private ArtifactMd5Checksums artifactMd5Checksums;
     private ChecksumValidationPublisher checksumValidationPublisher;
+    private transient ArtifactCache artifactCache;
 
     public FileHandler(File artifact, String srcFile) {
         this.artifact = artifact;
@@ -73,6 +74,23 @@ public class FileHandler implements FetchHandler {
 
         String artifactMD5 = Hex.encodeHexString(digest.digest());
         new ChecksumValidator(artifactMd5Checksums).validate(srcFile, artifactMD5, checksumValidationPublisher);
+        if (isCacheable() && artifactMD5.equals(artifactMd5Checksums.md5For(srcFile))) {
+            artifactCache.store(artifactMD5, artifact);
+        }
+    }
+
+    /**
+     * A restored artifact is sent to the server with its sha1, which makes the server skip sending the file again.
+     */
+    @Override
+    public void restoreFromArtifactCache() {
+        if (isCacheable() && !artifact.exists() && artifactCache.restore(artifactMd5Checksums.md5For(srcFile), artifact)) {
+            LOG.info("[Artifact File Download] Restored artifact {} from the agent artifact cache", artifact.getName());
+        }
+    }
+
+    private boolean isCacheable() {
+        return artifactCache != null && artifactCache.isEnabled() && artifactMd5Checksums != null;
     }
 
     private MessageDigest getMd5() {
@@ -95,6 +113,11 @@ public class FileHandler implements FetchHandler {
         this.artifactMd5Checksums = artifactMd5Checksums;
     }
 
+    @Override
+    public void useArtifactCache(ArtifactCache artifactCache) {
+        this.artifactCache = artifactCache;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.domain;
+
+import com.thoughtworks.go.util.GoConstants;
+
+import java.util.*;
+
+/**
+ * @understands which of the users subscribing to notifications have a filter for a given pipeline and stage,
+ * without going through the filters of every user
+ */
+public class NotificationSubscriptions {
+    private final Map<String, Map<String, List<Integer>>> userPositionsByPipelineAndStage = new HashMap<>();
+    private final List<User> users;
+
+    public NotificationSubscriptions(Users users) {
+        this.users = new ArrayList<>(users);
+        for (int position = 0; position < this.users.size(); position++) {
+            for (NotificationFilter filter : this.users.get(position).getNotificationFilters()) {
+                List<Integer> positions = userPositionsByPipelineAndStage
+                        .computeIfAbsent(filter.getPipelineName(), pipelineName -> new HashMap<>())
+                        .computeIfAbsent(filter.getStageName(), stageName -> new ArrayList<>());
+                if (positions.isEmpty() || positions.get(positions.size() - 1) != position) {
+                    positions.add(position);
+                }
+            }
+        }
+    }
+
+    public Users subscribersFor(String pipelineName, String stageName) {
+        SortedSet<Integer> positions = new TreeSet<>();
+        for (String pipeline : Arrays.asList(pipelineName, GoConstants.ANY_PIPELINE)) {
+            Map<String, List<Integer>> byStage = userPositionsByPipelineAndStage.getOrDefault(pipeline, Collections.emptyMap());
+            positions.addAll(byStage.getOrDefault(stageName, Collections.emptyList()));
+            positions.addAll(byStage.getOrDefault(GoConstants.ANY_STAGE, Collections.emptyList()));
+        }
+
+        List<User> subscribers = new ArrayList<>(positions.size());
+        for (Integer position : positions) {
+            subscribers.add(users.get(position));
+        }
+        return new Users(subscribers);
+    }
+}
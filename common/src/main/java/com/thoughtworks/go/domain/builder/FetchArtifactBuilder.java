@@ -23,6 +23,8 @@ import com.thoughtworks.go.util.URLService;
 import com.thoughtworks.go.util.command.EnvironmentVariableContext;
 import com.thoughtworks.go.work.DefaultGoPublisher;
 
+import java.io.IOException;
+
 public class FetchArtifactBuilder extends Builder {
     private final JobIdentifier jobIdentifier;
     private String srcdir;
@@ -53,6 +55,7 @@ public class FetchArtifactBuilder extends Builder {
 
     private void downloadArtifact(DownloadAction downloadAction, String baseRemoteUrl) throws Exception {
         handler.useArtifactMd5Checksums(checksumFileHandler.getArtifactMd5Checksums());
+        handler.restoreFromArtifactCache();
         pullArtifact(downloadAction, handler.url(baseRemoteUrl, artifactLocator()), handler);
     }
 
@@ -65,6 +68,14 @@ public class FetchArtifactBuilder extends Builder {
         downloadAction.perform(url, checksumFileHandler);
     }
 
+    public String checksumFileUrl(String baseRemoteUrl) {
+        return checksumFileHandler.url(baseRemoteUrl, jobIdentifier.buildLocator());
+    }
+
+    public String artifactUrl(String baseRemoteUrl) throws IOException {
+        return handler.url(baseRemoteUrl, artifactLocator());
+    }
+
     public String artifactLocator() {
         return jobIdentifier.artifactLocator(getSrc());
     }
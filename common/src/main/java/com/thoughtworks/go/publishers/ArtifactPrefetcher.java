@@ -0,0 +1,190 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.publishers;
+
+import com.thoughtworks.go.config.RunIfConfig;
+import com.thoughtworks.go.domain.ArtifactCache;
+import com.thoughtworks.go.domain.ArtifactMd5Checksums;
+import com.thoughtworks.go.domain.DownloadAction;
+import com.thoughtworks.go.domain.DownloadHandler;
+import com.thoughtworks.go.domain.FetchHandler;
+import com.thoughtworks.go.domain.builder.Builder;
+import com.thoughtworks.go.domain.builder.FetchArtifactBuilder;
+import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.FileUtil;
+import com.thoughtworks.go.util.HttpService;
+import com.thoughtworks.go.util.URLService;
+import com.thoughtworks.go.work.GoPublisher;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @understands downloading the artifacts of a job's fetch artifact tasks in the background while the job is being
+ * prepared, so that the tasks can use the downloaded content once they run in their usual order.
+ * Only tasks which run when the job is passing are prefetched. Each url is requested the way its task would request
+ * it, so an artifact already in the working directory is answered with a 304, and an artifact held by the agent
+ * artifact cache is not prefetched at all. Responses are keyed by their full url: should the working directory change
+ * before the task runs, the task computes another url and downloads it itself.
+ */
+public class ArtifactPrefetcher implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactPrefetcher.class);
+    private static final ThreadFactory THREAD_FACTORY = new BasicThreadFactory.Builder()
+            .namingPattern("artifact-prefetch-%d")
+            .daemon(true)
+            .build();
+    private static final int DOWNLOAD_SLEEP_MILLIS = 5000;
+
+    private final HttpService httpService;
+    private final URLService urlService;
+    private final ArtifactCache artifactCache;
+    private final Clock clock;
+    private final ExecutorService executor;
+    private final File stagingDir;
+    private final AtomicInteger stagedFiles = new AtomicInteger();
+    private final Map<String, Future<PrefetchedResponse>> responses = new ConcurrentHashMap<>();
+
+    ArtifactPrefetcher(HttpService httpService, URLService urlService, ArtifactCache artifactCache, Clock clock, int threads) {
+        this.httpService = httpService;
+        this.urlService = urlService;
+        this.artifactCache = artifactCache;
+        this.clock = clock;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, threads), THREAD_FACTORY);
+        this.stagingDir = FileUtil.createTempFolder();
+    }
+
+    public void prefetch(List<Builder> builders) {
+        for (Builder builder : builders) {
+            if (builder instanceof FetchArtifactBuilder && runsWhenPassing(builder)) {
+                FetchArtifactBuilder fetchArtifactBuilder = (FetchArtifactBuilder) builder;
+                try {
+                    String baseRemoteUrl = urlService.baseRemoteURL();
+                    // the checksum file is submitted first, so the artifact waiting on it can never starve it of a thread
+                    Future<PrefetchedResponse> checksumFile = responses.computeIfAbsent(fetchArtifactBuilder.checksumFileUrl(baseRemoteUrl),
+                            url -> executor.submit(() -> download(url)));
+                    responses.computeIfAbsent(fetchArtifactBuilder.artifactUrl(baseRemoteUrl),
+                            url -> executor.submit(() -> isInArtifactCache(fetchArtifactBuilder, checksumFile.get()) ? null : download(url)));
+                } catch (Exception e) {
+                    LOGGER.warn("[Artifact Prefetch] Could not prefetch artifact [{}], it will be fetched when its task runs", fetchArtifactBuilder.getSrc(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands the prefetched response for the url to the handler, as a download would have. Returns false when nothing
+     * usable was prefetched, in which case the caller should download the url itself.
+     */
+    public boolean replay(String url, FetchHandler handler, GoPublisher goPublisher) {
+        Future<PrefetchedResponse> future = responses.get(url);
+        if (future == null) {
+            return false;
+        }
+        try {
+            PrefetchedResponse response = future.get();
+            if (response == null) {
+                return false;
+            }
+            if (response.content != null) {
+                try (InputStream stream = new FileInputStream(response.content)) {
+                    handler.handle(stream);
+                }
+            }
+            return handler.handleResult(response.statusCode, goPublisher);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            LOGGER.warn("[Artifact Prefetch] Could not use the prefetched response for [{}], downloading it again", url, e);
+            return false;
+        }
+    }
+
+    /**
+     * A download action which replays what was prefetched, and downloads whatever was not.
+     */
+    public DownloadAction downloadAction(HttpService httpService, GoPublisher goPublisher, Clock clock) {
+        return new DownloadAction(httpService, goPublisher, clock) {
+            @Override
+            public void perform(String url, FetchHandler handler) throws InterruptedException {
+                if (!replay(url, handler, goPublisher)) {
+                    super.perform(url, handler);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        FileUtils.deleteQuietly(stagingDir);
+    }
+
+    private boolean runsWhenPassing(Builder builder) {
+        RunIfConfig runIf = builder.resolvedRunIfConfig();
+        return runIf == RunIfConfig.PASSED || runIf == RunIfConfig.ANY;
+    }
+
+    private boolean isInArtifactCache(FetchArtifactBuilder builder, PrefetchedResponse checksumFile) {
+        if (artifactCache == null || !artifactCache.isEnabled() || checksumFile == null || checksumFile.content == null) {
+            return false;
+        }
+        return artifactCache.contains(new ArtifactMd5Checksums(checksumFile.content).md5For(builder.getSrc()));
+    }
+
+    private PrefetchedResponse download(String url) throws IOException, InterruptedException {
+        File stagedFile = new File(stagingDir, String.valueOf(stagedFiles.incrementAndGet()));
+        DownloadHandler stagingHandler = stream -> Files.copy(stream, stagedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+        int statusCode = httpService.download(url, stagingHandler);
+        while (statusCode == HttpServletResponse.SC_ACCEPTED) {
+            clock.sleepForMillis(DOWNLOAD_SLEEP_MILLIS);
+            statusCode = httpService.download(url, stagingHandler);
+        }
+        LOGGER.debug("[Artifact Prefetch] Prefetched [{}] with status {}", url, statusCode);
+        if (statusCode == HttpServletResponse.SC_OK && stagedFile.exists()) {
+            return new PrefetchedResponse(statusCode, stagedFile);
+        }
+        if (statusCode == HttpServletResponse.SC_NOT_MODIFIED) {
+            return new PrefetchedResponse(statusCode, null);
+        }
+        return null;
+    }
+
+    private static class PrefetchedResponse {
+        private final int statusCode;
+        private final File content;
+
+        private PrefetchedResponse(int statusCode, File content) {
+            this.statusCode = statusCode;
+            this.content = content;
+        }
+    }
+}
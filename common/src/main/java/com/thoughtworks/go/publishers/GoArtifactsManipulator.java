@@ -15,8 +15,10 @@
  */
 package com.thoughtworks.go.publishers;
 
+import com.thoughtworks.go.domain.ArtifactCache;
 import com.thoughtworks.go.domain.DownloadAction;
 import com.thoughtworks.go.domain.JobIdentifier;
+import com.thoughtworks.go.domain.builder.Builder;
 import com.thoughtworks.go.domain.builder.FetchArtifactBuilder;
 import com.thoughtworks.go.remote.AgentIdentifier;
 import com.thoughtworks.go.remote.work.ConsoleOutputTransmitter;
@@ -36,6 +38,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Properties;
 import java.util.zip.Deflater;
 
@@ -52,13 +55,19 @@ public class GoArtifactsManipulator {
     private final HttpService httpService;
     private final URLService urlService;
     private final ZipUtil zipUtil;
+    private final ArtifactCache artifactCache;
     private static final Logger LOGGER = LoggerFactory.getLogger(GoArtifactsManipulator.class);
 
-    @Autowired
     public GoArtifactsManipulator(HttpService httpService, URLService urlService, ZipUtil zipUtil) {
+        this(httpService, urlService, zipUtil, null);
+    }
+
+    @Autowired
+    public GoArtifactsManipulator(HttpService httpService, URLService urlService, ZipUtil zipUtil, ArtifactCache artifactCache) {
         this.httpService = httpService;
         this.urlService = urlService;
         this.zipUtil = zipUtil;
+        this.artifactCache = artifactCache;
     }
 
     public void publish(DefaultGoPublisher goPublisher, String destPath, File source, JobIdentifier jobIdentifier) {
@@ -160,12 +169,26 @@ public class GoArtifactsManipulator {
     }
 
 
+    public ArtifactPrefetcher prefetch(List<Builder> builders, int threads) {
+        ArtifactPrefetcher prefetcher = new ArtifactPrefetcher(httpService, urlService, artifactCache, new SystemTimeClock(), threads);
+        prefetcher.prefetch(builders);
+        return prefetcher;
+    }
+
     public void fetch(DefaultGoPublisher goPublisher, FetchArtifactBuilder fetchArtifactBuilder) {
+        fetch(goPublisher, fetchArtifactBuilder, null);
+    }
+
+    public void fetch(DefaultGoPublisher goPublisher, FetchArtifactBuilder fetchArtifactBuilder, ArtifactPrefetcher prefetcher) {
         try {
             String fetchMsg = String.format("Fetching artifact [%s] from [%s]", fetchArtifactBuilder.getSrc(),
                     fetchArtifactBuilder.jobLocatorForDisplay());
             goPublisher.taggedConsumeLineWithPrefix(DefaultGoPublisher.OUT, fetchMsg);
-            fetchArtifactBuilder.fetch(new DownloadAction(httpService, goPublisher, new SystemTimeClock()), urlService);
+            fetchArtifactBuilder.getHandler().useArtifactCache(artifactCache);
+            DownloadAction downloadAction = prefetcher == null
+                    ? new DownloadAction(httpService, goPublisher, new SystemTimeClock())
+                    : prefetcher.downloadAction(httpService, goPublisher, new SystemTimeClock());
+            fetchArtifactBuilder.fetch(downloadAction, urlService);
         } catch (Exception e) {
             String fetchMsg = String.format("Failed to save artifact [%s] to [%s]",
                     fetchArtifactBuilder.getSrc(), fetchArtifactBuilder.getDest());
@@ -16,8 +16,12 @@
 package com.thoughtworks.go.remote.work;
 
 import com.thoughtworks.go.domain.*;
+import com.thoughtworks.go.domain.builder.Builder;
+import com.thoughtworks.go.domain.builder.FetchArtifactBuilder;
 import com.thoughtworks.go.domain.materials.MaterialAgentFactory;
 import com.thoughtworks.go.plugin.access.scm.SCMExtension;
+import com.thoughtworks.go.publishers.ArtifactPrefetcher;
+import com.thoughtworks.go.publishers.GoArtifactsManipulator;
 import com.thoughtworks.go.remote.AgentIdentifier;
 import com.thoughtworks.go.remote.work.artifact.ArtifactsPublisher;
 import com.thoughtworks.go.server.service.AgentBuildingInfo;
@@ -54,6 +58,7 @@ public class BuildWork implements Work {
     private transient MaterialRevisions materialRevisions;
     private transient Builders builders;
     private ArtifactsPublisher artifactsPublisher;
+    private transient GoArtifactsManipulator artifactsManipulator;
 
     public BuildWork(BuildAssignment assignment, String consoleLogCharset) {
         this.assignment = assignment;
@@ -67,6 +72,7 @@ public class BuildWork implements Work {
         agentWorkContext.getAgentRuntimeInfo().busy(new AgentBuildingInfo(jobIdentifier.buildLocatorForDisplay(), jobIdentifier.buildLocator()));
         this.workingDirectory = assignment.getWorkingDirectory();
         this.materialRevisions = assignment.materialRevisions();
+        this.artifactsManipulator = agentWorkContext.getArtifactsManipulator();
         this.goPublisher = new DefaultGoPublisher(agentWorkContext.getArtifactsManipulator(), jobIdentifier, agentWorkContext.getRepositoryRemote(), agentWorkContext.getAgentRuntimeInfo(), consoleLogCharset);
         this.artifactsPublisher = new ArtifactsPublisher(goPublisher, agentWorkContext.getArtifactExtension(), assignment.getArtifactStores(), agentWorkContext.getPluginRequestProcessorRegistry(), workingDirectory);
         this.builders = new Builders(assignment.getBuilders(), goPublisher, agentWorkContext.getTaskExtension(), agentWorkContext.getArtifactExtension(), agentWorkContext.getPluginRequestProcessorRegistry());
@@ -115,18 +121,30 @@ public class BuildWork implements Work {
 
         goPublisher.consumeLineWithPrefix(format("Job Started: %s\n", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss z").format(timeProvider.currentTime())));
 
-        prepareJob(agentIdentifier, scmExtension);
+        try (ArtifactPrefetcher prefetcher = prefetchArtifacts()) {
+            goPublisher.useArtifactPrefetcher(prefetcher);
+            prepareJob(agentIdentifier, scmExtension);
 
-        setupEnvrionmentContext(environmentVariableContext);
+            setupEnvrionmentContext(environmentVariableContext);
 
-        dumpEnvironmentVariables(environmentVariableContext);
+            dumpEnvironmentVariables(environmentVariableContext);
 
-        if (this.goPublisher.isIgnored()) {
-            goPublisher.reportJobCancelled();
-            return null;
+            if (this.goPublisher.isIgnored()) {
+                goPublisher.reportJobCancelled();
+                return null;
+            }
+
+            return completeJob(buildJob(environmentVariableContext, consoleLogCharset), environmentVariableContext);
         }
+    }
 
-        return completeJob(buildJob(environmentVariableContext, consoleLogCharset), environmentVariableContext);
+    private ArtifactPrefetcher prefetchArtifacts() {
+        int threads = new SystemEnvironment().getAgentArtifactPrefetchThreads();
+        List<Builder> jobBuilders = assignment.getBuilders();
+        if (threads <= 0 || jobBuilders.stream().noneMatch(FetchArtifactBuilder.class::isInstance)) {
+            return null;
+        }
+        return artifactsManipulator.prefetch(jobBuilders, threads);
     }
 
     private void dumpEnvironmentVariables(EnvironmentVariableContext environmentVariableContext) {
@@ -18,7 +18,7 @@ package com.thoughtworks.go.util;
 import com.thoughtworks.go.agent.common.ssl.GoAgentServerHttpClient;
 import com.thoughtworks.go.agent.common.ssl.GoAgentServerHttpClientBuilder;
 import com.thoughtworks.go.config.AgentRegistry;
-import com.thoughtworks.go.domain.FetchHandler;
+import com.thoughtworks.go.domain.DownloadHandler;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -87,7 +87,7 @@ public class HttpService {
         return filePost;
     }
 
-    public int download(String url, FetchHandler handler) throws IOException {
+    public int download(String url, DownloadHandler handler) throws IOException {
         HttpGet toGet = null;
         try {
             toGet = httpClientFactory.createGet(url);
@@ -154,12 +154,13 @@ public class HttpService {
 
         public HttpEntity createMultipartRequestEntity(File artifact, Properties artifactChecksums) throws IOException {
             MultipartEntityBuilder entityBuilder = MultipartEntityBuilder.create();
-            entityBuilder.addPart(GoConstants.ZIP_MULTIPART_FILENAME, new FileBody(artifact));
+            // checksums go first, so that a server streaming the upload can verify files as it unzips them
             if (artifactChecksums != null) {
                 ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
                 artifactChecksums.store(outputStream, "");
                 entityBuilder.addPart(GoConstants.CHECKSUM_MULTIPART_FILENAME, new ByteArrayBody(outputStream.toByteArray(), "checksum_file"));
             }
+            entityBuilder.addPart(GoConstants.ZIP_MULTIPART_FILENAME, new FileBody(artifact));
             return entityBuilder.build();
         }
     }
@@ -20,6 +20,7 @@ import com.thoughtworks.go.domain.JobIdentifier;
 import com.thoughtworks.go.domain.JobResult;
 import com.thoughtworks.go.domain.JobState;
 import com.thoughtworks.go.domain.builder.FetchArtifactBuilder;
+import com.thoughtworks.go.publishers.ArtifactPrefetcher;
 import com.thoughtworks.go.publishers.GoArtifactsManipulator;
 import com.thoughtworks.go.remote.AgentIdentifier;
 import com.thoughtworks.go.remote.BuildRepositoryRemote;
@@ -45,6 +46,7 @@ public class DefaultGoPublisher implements GoPublisher {
     private BuildRepositoryRemote remoteBuildRepository;
     private ConsoleOutputTransmitter consoleOutputTransmitter;
     private String currentWorkingDirectory = SystemUtil.currentWorkingDirectory();
+    private ArtifactPrefetcher artifactPrefetcher;
 
     public DefaultGoPublisher(GoArtifactsManipulator manipulator, JobIdentifier jobIdentifier,
                               BuildRepositoryRemote remoteBuildRepository,
@@ -69,7 +71,11 @@ public class DefaultGoPublisher implements GoPublisher {
     }
 
     public void fetch(FetchArtifactBuilder fetchArtifact) {
-        manipulator.fetch(this, fetchArtifact);
+        manipulator.fetch(this, fetchArtifact, artifactPrefetcher);
+    }
+
+    public void useArtifactPrefetcher(ArtifactPrefetcher artifactPrefetcher) {
+        this.artifactPrefetcher = artifactPrefetcher;
     }
 
     @Override
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.domain;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static com.thoughtworks.go.util.CachedDigestUtils.md5Hex;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ArtifactCacheTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File cacheDir;
+    private File workDir;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = temporaryFolder.newFolder("cache");
+        workDir = temporaryFolder.newFolder("work");
+    }
+
+    @Test
+    public void shouldRestoreAStoredArtifactByItsMd5() throws IOException {
+        ArtifactCache cache = new ArtifactCache(cacheDir, 1024);
+        File fetched = artifact("fetched.txt", "Hello world");
+        cache.store(md5Hex("Hello world"), fetched);
+
+        File destination = new File(workDir, "another/dest.txt");
+        assertThat(cache.restore(md5Hex("Hello world"), destination), is(true));
+
+        assertThat(FileUtils.readFileToString(destination, UTF_8), is("Hello world"));
+        assertThat(cache.restore(md5Hex("Something else"), new File(workDir, "missing.txt")), is(false));
+    }
+
+    @Test
+    public void shouldKeepTheCachedArtifactApartFromTheFilesItWasStoredFromAndRestoredTo() throws IOException {
+        ArtifactCache cache = new ArtifactCache(cacheDir, 1024);
+        File fetched = artifact("fetched.txt", "Hello world");
+        cache.store(md5Hex("Hello world"), fetched);
+        File restored = new File(workDir, "restored.txt");
+        cache.restore(md5Hex("Hello world"), restored);
+
+        FileUtils.writeStringToFile(fetched, "Changed by one job", UTF_8);
+        FileUtils.writeStringToFile(restored, "Changed by another job", UTF_8);
+
+        File restoredAgain = new File(workDir, "restored-again.txt");
+        assertThat(cache.restore(md5Hex("Hello world"), restoredAgain), is(true));
+        assertThat(FileUtils.readFileToString(restoredAgain, UTF_8), is("Hello world"));
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedArtifactsOnceTheSizeLimitIsExceeded() throws IOException {
+        ArtifactCache cache = new ArtifactCache(cacheDir, 30);
+        cache.store(md5Hex("first-artifact"), artifact("first", "first-artifact"));
+        cache.store(md5Hex("second-art"), artifact("second", "second-art"));
+        cache.restore(md5Hex("first-artifact"), new File(workDir, "first-again"));
+
+        cache.store(md5Hex("third-one"), artifact("third", "third-one"));
+
+        assertThat(cache.size(), is(23L));
+        assertThat(cache.restore(md5Hex("second-art"), new File(workDir, "second-again")), is(false));
+        assertThat(cache.restore(md5Hex("first-artifact"), new File(workDir, "first-once-more")), is(true));
+    }
+
+    @Test
+    public void shouldDiscardACachedArtifactWhichWasModifiedAfterItWasStored() throws IOException {
+        ArtifactCache cache = new ArtifactCache(cacheDir, 1024);
+        cache.store(md5Hex("Hello world"), artifact("fetched.txt", "Hello world"));
+        FileUtils.writeStringToFile(new File(cacheDir, md5Hex("Hello world")), "Tampered", UTF_8);
+
+        assertThat(cache.restore(md5Hex("Hello world"), new File(workDir, "dest.txt")), is(false));
+        assertThat(new File(workDir, "dest.txt").exists(), is(false));
+        assertThat(cache.size(), is(0L));
+    }
+
+    @Test
+    public void shouldPickUpArtifactsCachedByAPreviousRunOfTheAgent() throws IOException {
+        new ArtifactCache(cacheDir, 1024).store(md5Hex("Hello world"), artifact("fetched.txt", "Hello world"));
+
+        ArtifactCache cache = new ArtifactCache(cacheDir, 1024);
+
+        assertThat(cache.size(), is(11L));
+        assertThat(cache.restore(md5Hex("Hello world"), new File(workDir, "dest.txt")), is(true));
+    }
+
+    @Test
+    public void shouldDoNothingWhenDisabled() throws IOException {
+        ArtifactCache cache = new ArtifactCache(cacheDir, 0);
+        cache.store(md5Hex("Hello world"), artifact("fetched.txt", "Hello world"));
+
+        assertThat(cache.isEnabled(), is(false));
+        assertThat(cacheDir.list().length, is(0));
+        assertThat(cache.restore(md5Hex("Hello world"), new File(workDir, "dest.txt")), is(false));
+    }
+
+    @Test
+    public void shouldIgnoreKeysWhichAreNotMd5Checksums() throws IOException {
+        ArtifactCache cache = new ArtifactCache(cacheDir, 1024);
+        cache.store("../escape", artifact("fetched.txt", "Hello world"));
+
+        assertThat(cacheDir.list().length, is(0));
+    }
+
+    private File artifact(String name, String content) throws IOException {
+        File file = new File(workDir, name);
+        FileUtils.writeStringToFile(file, content, UTF_8);
+        return file;
+    }
+}
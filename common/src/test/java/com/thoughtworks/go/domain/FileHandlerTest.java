@@ -19,7 +19,9 @@ import com.thoughtworks.go.util.CachedDigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -35,6 +37,9 @@ import static org.mockito.Mockito.*;
 
 public class FileHandlerTest {
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private File artifact;
     private ArtifactMd5Checksums checksums;
     private FileHandler fileHandler;
@@ -67,6 +72,55 @@ public class FileHandlerTest {
         verifyNoMoreInteractions(checksums);
     }
 
+    @Test
+    public void shouldCacheAVerifiedArtifactAndRestoreItBeforeTheNextFetch() throws IOException {
+        ArtifactCache artifactCache = new ArtifactCache(temporaryFolder.newFolder("cache"), 1024);
+        when(checksums.md5For("src/file/path")).thenReturn(CachedDigestUtils.md5Hex("Hello world"));
+        fileHandler.useArtifactMd5Checksums(checksums);
+        fileHandler.useArtifactCache(artifactCache);
+        fileHandler.handle(new ByteArrayInputStream("Hello world".getBytes()));
+        FileUtils.deleteQuietly(artifact);
+
+        fileHandler.restoreFromArtifactCache();
+        String url = fileHandler.url("http://foo.bar:8153/go", "cruise/1/stage/1/job/src/file/path");
+
+        assertThat(FileUtils.readFileToString(artifact, UTF_8), is("Hello world"));
+        assertThat(url, containsString("?sha1="));
+    }
+
+    @Test
+    public void shouldNotRestoreFromTheArtifactCacheWhenOnlyAskedForTheUrl() throws IOException {
+        ArtifactCache artifactCache = new ArtifactCache(temporaryFolder.newFolder("cache"), 1024);
+        when(checksums.md5For("src/file/path")).thenReturn(CachedDigestUtils.md5Hex("Hello world"));
+        fileHandler.useArtifactMd5Checksums(checksums);
+        fileHandler.useArtifactCache(artifactCache);
+        fileHandler.handle(new ByteArrayInputStream("Hello world".getBytes()));
+        FileUtils.deleteQuietly(artifact);
+
+        String url = fileHandler.url("http://foo.bar:8153/go", "cruise/1/stage/1/job/src/file/path");
+
+        assertThat(artifact.exists(), is(false));
+        assertThat(url, not(containsString("?sha1=")));
+    }
+
+    @Test
+    public void shouldNotChangeTheCachedArtifactWhenARestoredArtifactIsDownloadedAgain() throws IOException {
+        ArtifactCache artifactCache = new ArtifactCache(temporaryFolder.newFolder("cache"), 1024);
+        when(checksums.md5For("src/file/path")).thenReturn(CachedDigestUtils.md5Hex("Hello world"));
+        fileHandler.useArtifactMd5Checksums(checksums);
+        fileHandler.useArtifactCache(artifactCache);
+        fileHandler.handle(new ByteArrayInputStream("Hello world".getBytes()));
+        FileUtils.deleteQuietly(artifact);
+        fileHandler.restoreFromArtifactCache();
+
+        fileHandler.handle(new ByteArrayInputStream("Hello there".getBytes()));
+        assertThat(FileUtils.readFileToString(artifact, UTF_8), is("Hello there"));
+        FileUtils.deleteQuietly(artifact);
+        fileHandler.restoreFromArtifactCache();
+
+        assertThat(FileUtils.readFileToString(artifact, UTF_8), is("Hello world"));
+    }
+
     @Test
     public void shouldWarnWhenChecksumsFileIsNotPresent() throws IOException {
         fileHandler.handle(new ByteArrayInputStream("Hello world".getBytes()));
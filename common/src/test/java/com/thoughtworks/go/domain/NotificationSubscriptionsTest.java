@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.domain;
+
+import com.thoughtworks.go.util.GoConstants;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationSubscriptionsTest {
+    @Test
+    void shouldFindUsersWithAFilterForThePipelineAndStage() {
+        User foo = user("foo", new NotificationFilter("p1", "s1", StageEvent.Fails, false));
+        User bar = user("bar", new NotificationFilter("p1", "s2", StageEvent.Fails, false));
+        User baz = user("baz", new NotificationFilter("P1", "s1", StageEvent.Fails, false));
+
+        NotificationSubscriptions subscriptions = new NotificationSubscriptions(new Users(Arrays.asList(foo, bar, baz)));
+
+        assertThat(subscriptions.subscribersFor("p1", "s1")).containsExactly(foo);
+        assertThat(subscriptions.subscribersFor("p1", "s2")).containsExactly(bar);
+        assertThat(subscriptions.subscribersFor("p2", "s1")).isEmpty();
+    }
+
+    @Test
+    void shouldFindUsersSubscribingToAnyPipelineOrStageOnlyOnceAndInTheirOriginalOrder() {
+        User anyStage = user("any-stage", new NotificationFilter("p1", GoConstants.ANY_STAGE, StageEvent.All, false));
+        User anyPipeline = user("any-pipeline", new NotificationFilter(GoConstants.ANY_PIPELINE, GoConstants.ANY_STAGE, StageEvent.Breaks, true));
+        User many = user("many",
+                new NotificationFilter("p1", "s1", StageEvent.Fails, false),
+                new NotificationFilter("p1", GoConstants.ANY_STAGE, StageEvent.Passes, false));
+
+        NotificationSubscriptions subscriptions = new NotificationSubscriptions(new Users(Arrays.asList(anyStage, anyPipeline, many)));
+
+        assertThat(subscriptions.subscribersFor("p1", "s1")).containsExactly(anyStage, anyPipeline, many);
+        assertThat(subscriptions.subscribersFor("p2", "s1")).containsExactly(anyPipeline);
+    }
+
+    @Test
+    void shouldMatchTheSameUsersAsTheirOwnFilters() {
+        User foo = user("foo", new NotificationFilter("p1", "s1", StageEvent.Fails, false));
+        User bar = user("bar", new NotificationFilter(GoConstants.ANY_PIPELINE, "s2", StageEvent.Fails, false));
+        Users users = new Users(Arrays.asList(foo, bar));
+        NotificationSubscriptions subscriptions = new NotificationSubscriptions(users);
+
+        for (String pipeline : Arrays.asList("p1", "p2")) {
+            for (String stage : Arrays.asList("s1", "s2", "s3")) {
+                assertThat(subscriptions.subscribersFor(pipeline, stage))
+                        .isEqualTo(users.filter(user -> user.hasSubscribedFor(pipeline, stage)));
+            }
+        }
+    }
+
+    private User user(String name, NotificationFilter... filters) {
+        User user = new User(name, new String[0], name + "@example.com", true);
+        for (NotificationFilter filter : filters) {
+            user.addNotificationFilter(filter);
+        }
+        return user;
+    }
+}
@@ -225,7 +225,7 @@ public class FetchArtifactBuilderTest {
 
     private class StubFetchZipHttpService extends HttpService {
         @Override
-        public int download(String url, FetchHandler handler) throws IOException {
+        public int download(String url, DownloadHandler handler) throws IOException {
             handler.handle(new FileInputStream(zip));
             return SC_OK;
         }
@@ -655,6 +655,14 @@ public class GitCommandTest {
             assertThrows(Exception.class, () -> gitCommand.checkConnection(new UrlArgument(repoUrl)));
         }
 
+        @Test
+        void shouldFindTheRevisionTheRemoteBranchPointsToWithoutFetching() throws Exception {
+            String latestRevision = git.latestModification().get(0).getRevision();
+
+            assertEquals(latestRevision, withBranch("master").remoteHeadRevision(new UrlArgument(repoUrl)));
+            assertNull(withBranch("Invalid_Branch").remoteHeadRevision(new UrlArgument(repoUrl)));
+        }
+
 
         @Test
         void shouldIncludeNewChangesInModificationCheck() throws Exception {
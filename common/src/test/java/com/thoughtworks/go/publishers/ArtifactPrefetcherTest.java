@@ -0,0 +1,218 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.publishers;
+
+import com.thoughtworks.go.agent.common.ssl.GoAgentServerHttpClient;
+import com.thoughtworks.go.config.RunIfConfig;
+import com.thoughtworks.go.domain.*;
+import com.thoughtworks.go.domain.builder.Builder;
+import com.thoughtworks.go.domain.builder.FetchArtifactBuilder;
+import com.thoughtworks.go.domain.builder.NullBuilder;
+import com.thoughtworks.go.util.HttpService;
+import com.thoughtworks.go.util.TestingClock;
+import com.thoughtworks.go.util.URLService;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.servlet.http.HttpServletResponse.SC_ACCEPTED;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ArtifactPrefetcherTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private URLService urlService;
+    private StubGoPublisher publisher;
+    private File artifact;
+    private ArtifactPrefetcher prefetcher;
+
+    @Before
+    public void setUp() throws IOException {
+        urlService = mock(URLService.class);
+        when(urlService.baseRemoteURL()).thenReturn("http://foo.bar:8153/go");
+        publisher = new StubGoPublisher();
+        artifact = new File(temporaryFolder.newFolder("work"), "a.jar");
+    }
+
+    @After
+    public void tearDown() {
+        if (prefetcher != null) {
+            prefetcher.close();
+        }
+    }
+
+    @Test
+    public void shouldLetTheFetchUseTheArtifactDownloadedAheadOfTime() throws Exception {
+        FetchArtifactBuilder builder = fetchArtifactBuilder();
+        prefetcher = new ArtifactPrefetcher(new RecordingHttpService(SC_OK), urlService, null, new TestingClock(), 2);
+        prefetcher.prefetch(Collections.singletonList((Builder) builder));
+
+        RecordingHttpService downloadsDuringTheTask = new RecordingHttpService(SC_OK);
+        builder.fetch(prefetcher.downloadAction(downloadsDuringTheTask, publisher, new TestingClock()), urlService);
+
+        assertThat(FileUtils.readFileToString(artifact, UTF_8), is("content of http://foo.bar:8153/go/remoting/files/cruise/1/dev/1/linux/a.jar"));
+        assertThat(downloadsDuringTheTask.urls, is(empty()));
+    }
+
+    @Test
+    public void shouldDownloadDuringTheFetchWhenThePrefetchWasNotSuccessful() throws Exception {
+        FetchArtifactBuilder builder = fetchArtifactBuilder();
+        prefetcher = new ArtifactPrefetcher(new RecordingHttpService(SC_NOT_FOUND), urlService, null, new TestingClock(), 2);
+        prefetcher.prefetch(Collections.singletonList((Builder) builder));
+
+        RecordingHttpService downloadsDuringTheTask = new RecordingHttpService(SC_OK);
+        builder.fetch(prefetcher.downloadAction(downloadsDuringTheTask, publisher, new TestingClock()), urlService);
+
+        assertThat(downloadsDuringTheTask.urls, contains(
+                "http://foo.bar:8153/go/remoting/files/cruise/1/dev/1/linux/cruise-output/md5.checksum",
+                "http://foo.bar:8153/go/remoting/files/cruise/1/dev/1/linux/a.jar"));
+        assertThat(artifact.isFile(), is(true));
+    }
+
+    @Test
+    public void shouldKeepPollingWhileTheServerIsStillPreparingTheArtifact() throws Exception {
+        FetchArtifactBuilder builder = fetchArtifactBuilder();
+        RecordingHttpService prefetches = new RecordingHttpService(SC_ACCEPTED, SC_ACCEPTED, SC_OK);
+        TestingClock clock = new TestingClock();
+        prefetcher = new ArtifactPrefetcher(prefetches, urlService, null, clock, 1);
+        prefetcher.prefetch(Collections.singletonList((Builder) builder));
+
+        RecordingHttpService downloadsDuringTheTask = new RecordingHttpService(SC_OK);
+        builder.fetch(prefetcher.downloadAction(downloadsDuringTheTask, publisher, new TestingClock()), urlService);
+
+        assertThat(downloadsDuringTheTask.urls, is(empty()));
+        assertThat(FileUtils.readFileToString(artifact, UTF_8), is("content of http://foo.bar:8153/go/remoting/files/cruise/1/dev/1/linux/a.jar"));
+        assertThat(clock.getSleeps(), contains(5000L, 5000L));
+    }
+
+    @Test
+    public void shouldDownloadTheArtifactDuringTheFetchWhenTheWorkingDirectoryChangedAfterThePrefetch() throws Exception {
+        FileUtils.writeStringToFile(artifact, "stale content", UTF_8);
+        FetchArtifactBuilder builder = fetchArtifactBuilder();
+        RecordingHttpService prefetches = new RecordingHttpService(SC_OK);
+        prefetcher = new ArtifactPrefetcher(prefetches, urlService, null, new TestingClock(), 1);
+        prefetcher.prefetch(Collections.singletonList((Builder) builder));
+
+        FileUtils.writeStringToFile(artifact, "content written by the material checkout", UTF_8);
+        String artifactUrlOfTheTask = builder.artifactUrl("http://foo.bar:8153/go");
+        RecordingHttpService downloadsDuringTheTask = new RecordingHttpService(SC_OK);
+        builder.fetch(prefetcher.downloadAction(downloadsDuringTheTask, publisher, new TestingClock()), urlService);
+
+        assertThat(downloadsDuringTheTask.urls, contains(artifactUrlOfTheTask));
+        assertThat(FileUtils.readFileToString(artifact, UTF_8), is("content of " + artifactUrlOfTheTask));
+    }
+
+    @Test
+    public void shouldReplayANotModifiedResponseForAnArtifactAlreadyInTheWorkingDirectory() throws Exception {
+        FileUtils.writeStringToFile(artifact, "up to date content", UTF_8);
+        FetchArtifactBuilder builder = fetchArtifactBuilder();
+        RecordingHttpService prefetches = new RecordingHttpService(SC_OK, SC_NOT_MODIFIED);
+        prefetcher = new ArtifactPrefetcher(prefetches, urlService, null, new TestingClock(), 1);
+        prefetcher.prefetch(Collections.singletonList((Builder) builder));
+
+        RecordingHttpService downloadsDuringTheTask = new RecordingHttpService(SC_OK);
+        builder.fetch(prefetcher.downloadAction(downloadsDuringTheTask, publisher, new TestingClock()), urlService);
+
+        assertThat(prefetches.urls, hasItem(builder.artifactUrl("http://foo.bar:8153/go")));
+        assertThat(downloadsDuringTheTask.urls, is(empty()));
+        assertThat(FileUtils.readFileToString(artifact, UTF_8), is("up to date content"));
+    }
+
+    @Test
+    public void shouldNotPrefetchAnArtifactHeldByTheArtifactCache() throws Exception {
+        FetchArtifactBuilder builder = fetchArtifactBuilder();
+        String checksumFileUrl = builder.checksumFileUrl("http://foo.bar:8153/go");
+        RecordingHttpService prefetches = new RecordingHttpService(SC_OK);
+        prefetches.bodies.put(checksumFileUrl, "a.jar=0123456789abcdef0123456789abcdef");
+        ArtifactCache artifactCache = mock(ArtifactCache.class);
+        when(artifactCache.isEnabled()).thenReturn(true);
+        when(artifactCache.contains("0123456789abcdef0123456789abcdef")).thenReturn(true);
+        prefetcher = new ArtifactPrefetcher(prefetches, urlService, artifactCache, new TestingClock(), 1);
+        prefetcher.prefetch(Collections.singletonList((Builder) builder));
+
+        assertThat(prefetcher.replay(builder.artifactUrl("http://foo.bar:8153/go"), new FileHandler(artifact, "a.jar"), publisher), is(false));
+        assertThat(prefetches.urls, contains(checksumFileUrl));
+    }
+
+    @Test
+    public void shouldNotPrefetchForATaskWhichOnlyRunsWhenTheJobFails() throws Exception {
+        File checksumFile = new File(temporaryFolder.newFolder("checksums"), "md5.checksum");
+        FetchArtifactBuilder builder = new FetchArtifactBuilder(new RunIfConfigs(RunIfConfig.FAILED), new NullBuilder(), "", new JobIdentifier("cruise", 1, "1", "dev", "1", "linux", 1L),
+                "a.jar", "", new FileHandler(artifact, "a.jar"), new ChecksumFileHandler(checksumFile));
+        RecordingHttpService prefetches = new RecordingHttpService(SC_OK);
+        prefetcher = new ArtifactPrefetcher(prefetches, urlService, null, new TestingClock(), 1);
+        prefetcher.prefetch(Collections.singletonList((Builder) builder));
+
+        assertThat(prefetcher.replay(builder.checksumFileUrl("http://foo.bar:8153/go"), new ChecksumFileHandler(checksumFile), publisher), is(false));
+        assertThat(prefetches.urls, is(empty()));
+    }
+
+    @Test
+    public void shouldNotReplayAnythingForAUrlWhichWasNotPrefetched() {
+        prefetcher = new ArtifactPrefetcher(new RecordingHttpService(SC_OK), urlService, null, new TestingClock(), 1);
+
+        assertThat(prefetcher.replay("http://foo.bar:8153/go/remoting/files/unknown", new FileHandler(artifact, "a.jar"), publisher), is(false));
+    }
+
+    private FetchArtifactBuilder fetchArtifactBuilder() throws IOException {
+        File checksumFile = new File(temporaryFolder.newFolder("checksums"), "md5.checksum");
+        return new FetchArtifactBuilder(new RunIfConfigs(), new NullBuilder(), "", new JobIdentifier("cruise", 1, "1", "dev", "1", "linux", 1L),
+                "a.jar", "", new FileHandler(artifact, "a.jar"), new ChecksumFileHandler(checksumFile));
+    }
+
+    private static class RecordingHttpService extends HttpService {
+        private final Queue<Integer> statusCodes;
+        private final List<String> urls = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, String> bodies = new HashMap<>();
+
+        private RecordingHttpService(Integer... statusCodes) {
+            super((GoAgentServerHttpClient) null, null);
+            this.statusCodes = new LinkedList<>(Arrays.asList(statusCodes));
+        }
+
+        @Override
+        public synchronized int download(String url, DownloadHandler handler) throws IOException {
+            int statusCode = statusCodes.size() > 1 ? statusCodes.remove() : statusCodes.peek();
+            if (statusCode == SC_ACCEPTED) {
+                return statusCode;
+            }
+            urls.add(url);
+            if (statusCode == SC_OK) {
+                handler.handle(new ByteArrayInputStream(bodies.getOrDefault(url, "content of " + url).getBytes(UTF_8)));
+            }
+            return statusCode;
+        }
+    }
+}
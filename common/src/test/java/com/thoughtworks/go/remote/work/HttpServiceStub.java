@@ -15,7 +15,7 @@
  */
 package com.thoughtworks.go.remote.work;
 
-import com.thoughtworks.go.domain.FetchHandler;
+import com.thoughtworks.go.domain.DownloadHandler;
 import com.thoughtworks.go.util.HttpService;
 import org.apache.commons.io.IOUtils;
 
@@ -54,7 +54,7 @@ public class HttpServiceStub extends HttpService {
     }
 
     @Override
-    public int download(String url, FetchHandler handler) throws IOException {
+    public int download(String url, DownloadHandler handler) throws IOException {
         byte[] body = downloadFiles.get(url);
         if(body == null) {
             return HttpServletResponse.SC_NOT_FOUND;
@@ -107,6 +107,9 @@ public class BasicCruiseConfig implements CruiseConfig {
     @IgnoreTraversal
     private transient AllTemplatesWithAssociatedPipelines allTemplatesWithAssociatedPipelines;
 
+    @IgnoreTraversal
+    private transient CruiseConfigIndex index;
+
     public BasicCruiseConfig() {
         strategy = new BasicStrategy();
     }
@@ -159,6 +162,7 @@ public class BasicCruiseConfig implements CruiseConfig {
         allPipelineConfigs = null;
         pipelineNameToConfigMap = null;
         allTemplatesWithAssociatedPipelines = null;
+        index = null;
     }
 
     private void createMergedConfig(BasicCruiseConfig main, List<PartialConfig> partList, boolean forEdit) {
@@ -501,6 +505,11 @@ public class BasicCruiseConfig implements CruiseConfig {
         return configForValidation;
     }
 
+    @Override
+    public void markAsLoadedSnapshot() {
+        index = new CruiseConfigIndex(this);
+    }
+
     @Override
     public boolean canViewAndEditTemplates(CaseInsensitiveString username) {
         return isAdministrator(username.toString()) || getTemplates().canViewAndEditTemplate(username, rolesForUser(username));
@@ -624,6 +633,12 @@ public class BasicCruiseConfig implements CruiseConfig {
 
     @Override
     public JobConfig findJob(String pipelineName, String stageName, String jobName) {
+        if (index != null) {
+            JobConfig jobConfig = index.findJob(pipelineName, stageName, jobName);
+            if (jobConfig != null) {
+                return jobConfig;
+            }
+        }
         return pipelineConfigByName(new CaseInsensitiveString(pipelineName))
                 .findBy(new CaseInsensitiveString(stageName))
                 .jobConfigByConfigName(new CaseInsensitiveString(jobName));
@@ -798,6 +813,7 @@ public class BasicCruiseConfig implements CruiseConfig {
 
     @Override
     public void setConfigRepos(ConfigReposConfig repos) {
+        resetAllPipelineConfigsCache();
         configRepos = repos;
     }
 
@@ -844,6 +860,7 @@ public class BasicCruiseConfig implements CruiseConfig {
 
     @Override
     public void setGroup(PipelineGroups pipelineGroups) {
+        resetAllPipelineConfigsCache();
         groups = pipelineGroups;
     }
 
@@ -867,16 +884,19 @@ public class BasicCruiseConfig implements CruiseConfig {
 
     @Override
     public void addPipeline(String groupName, PipelineConfig pipelineConfig) {
+        resetAllPipelineConfigsCache();
         groups.addPipeline(groupName, pipelineConfig);
     }
 
     @Override
     public void deletePipeline(PipelineConfig pipelineConfig) {
+        resetAllPipelineConfigsCache();
         groups.deletePipeline(pipelineConfig);
     }
 
     @Override
     public void deletePipelineGroup(String groupName) {
+        resetAllPipelineConfigsCache();
         groups.deleteGroup(groupName);
     }
 
@@ -892,11 +912,13 @@ public class BasicCruiseConfig implements CruiseConfig {
 
     @Override
     public void addPipelineWithoutValidation(String groupName, PipelineConfig pipelineConfig) {
+        resetAllPipelineConfigsCache();
         groups.addPipelineWithoutValidation(sanitizedGroupName(groupName), pipelineConfig);
     }
 
     @Override
     public void update(String groupName, String pipelineName, PipelineConfig pipeline) {
+        resetAllPipelineConfigsCache();
         if (groups.isEmpty()) {
             PipelineConfigs configs = new BasicPipelineConfigs();
             configs.add(pipeline);
@@ -1006,6 +1028,7 @@ public class BasicCruiseConfig implements CruiseConfig {
 
     @Override
     public void updateGroup(PipelineConfigs pipelineConfigs, String groupName) {
+        resetAllPipelineConfigsCache();
         PipelineConfigs old = groups.findGroup(groupName);
         int index = groups.indexOf(old);
         groups.set(index, pipelineConfigs);
@@ -1038,6 +1061,9 @@ public class BasicCruiseConfig implements CruiseConfig {
 
     @Override
     public List<CaseInsensitiveString> getAllPipelineNames() {
+        if (index != null) {
+            return index.allPipelineNames();
+        }
         List<CaseInsensitiveString> names = new ArrayList<>();
         for (PipelineConfig config : getAllPipelineConfigs()) {
             names.add(config.name());
@@ -1082,6 +1108,13 @@ public class BasicCruiseConfig implements CruiseConfig {
     }
 
     private Set<MaterialConfig> getUniqueMaterials(boolean ignoreManualPipelines, boolean ignoreConfigRepos) {
+        if (index != null) {
+            return index.uniqueMaterialsOf(ignoreManualPipelines, ignoreConfigRepos);
+        }
+        return findUniqueMaterials(ignoreManualPipelines, ignoreConfigRepos);
+    }
+
+    Set<MaterialConfig> findUniqueMaterials(boolean ignoreManualPipelines, boolean ignoreConfigRepos) {
         Set<MaterialConfig> materialConfigs = new HashSet<>();
         Set<Map> uniqueMaterials = new HashSet<>();
         for (PipelineConfig pipelineConfig : pipelinesFromAllGroups()) {
@@ -1213,6 +1246,9 @@ public class BasicCruiseConfig implements CruiseConfig {
 
     @Override
     public Iterable<PipelineConfig> getDownstreamPipelines(String pipelineName) {
+        if (index != null) {
+            return index.downstreamPipelinesOf(new CaseInsensitiveString(pipelineName));
+        }
         ArrayList<PipelineConfig> configs = new ArrayList<>();
         for (PipelineConfig pipelineConfig : pipelinesFromAllGroups()) {
             if (pipelineConfig.dependsOn(new CaseInsensitiveString(pipelineName))) {
@@ -1296,12 +1332,22 @@ public class BasicCruiseConfig implements CruiseConfig {
 
     @Override
     public PipelineConfigs findGroupOfPipeline(PipelineConfig pipelineConfig) {
+        if (index != null) {
+            PipelineConfigs group = index.groupOf(pipelineConfig.name());
+            if (group != null) {
+                return group;
+            }
+        }
         String groupName = getGroups().findGroupNameByPipeline(pipelineConfig.name());
         return findGroup(groupName);
     }
 
     @Override
     public PipelineConfig findPipelineUsingThisPipelineAsADependency(String pipelineName) {
+        if (index != null) {
+            List<PipelineConfig> downstreams = index.downstreamPipelinesOf(new CaseInsensitiveString(pipelineName));
+            return downstreams.isEmpty() ? null : downstreams.get(0);
+        }
         List<PipelineConfig> configs = getAllPipelineConfigs();
         for (PipelineConfig config : configs) {
             DependencyMaterialConfig materialConfig = config.materialConfigs().findDependencyMaterial(new CaseInsensitiveString(pipelineName));
@@ -1404,6 +1450,9 @@ public class BasicCruiseConfig implements CruiseConfig {
 
     @Override
     public MaterialConfig materialConfigFor(String fingerprint) {
+        if (index != null) {
+            return index.materialConfigFor(fingerprint);
+        }
         for (MaterialConfig materialConfig : getUniqueMaterialConfigs(false)) {
             if (materialConfig.getFingerprint().equals(fingerprint)) {
                 return materialConfig;
@@ -280,6 +280,12 @@ public interface CruiseConfig extends Validatable, ConfigOriginTraceable {
 
     CruiseConfig cloneForValidation();
 
+    /**
+     * Marks this config as a loaded snapshot which is not going to be changed any more, so that lookups derived
+     * from it (downstream pipelines, groups, unique materials etc.) can be answered from an index built for it.
+     */
+    void markAsLoadedSnapshot();
+
     boolean canViewAndEditTemplates(CaseInsensitiveString username);
 
     boolean isAuthorizedToEditTemplate(CaseInsensitiveString templateName, CaseInsensitiveString username);
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.google.common.base.Supplier;
+import com.thoughtworks.go.config.materials.dependency.DependencyMaterialConfig;
+import com.thoughtworks.go.domain.materials.MaterialConfig;
+
+import java.util.*;
+
+import static com.google.common.base.Suppliers.memoize;
+
+/**
+ * @understands lookups derived from a loaded config snapshot, each built once on first use instead of scanning
+ * every pipeline on every call
+ */
+public class CruiseConfigIndex {
+    private final BasicCruiseConfig config;
+    private final Supplier<List<CaseInsensitiveString>> allPipelineNames = memoize(this::buildAllPipelineNames);
+    private final Supplier<Map<CaseInsensitiveString, PipelineConfigs>> groupOfPipeline = memoize(this::buildGroupOfPipeline);
+    private final Supplier<Map<CaseInsensitiveString, List<PipelineConfig>>> downstreamPipelines = memoize(this::buildDownstreamPipelines);
+    private final Supplier<Map<String, MaterialConfig>> materialConfigByFingerprint = memoize(this::buildMaterialConfigByFingerprint);
+    private final Supplier<Map<String, JobConfig>> jobs = memoize(this::buildJobs);
+    private final List<Supplier<Set<MaterialConfig>>> uniqueMaterials = Arrays.asList(
+            memoize(() -> uniqueMaterials(false, false)),
+            memoize(() -> uniqueMaterials(false, true)),
+            memoize(() -> uniqueMaterials(true, false)),
+            memoize(() -> uniqueMaterials(true, true)));
+
+    CruiseConfigIndex(BasicCruiseConfig config) {
+        this.config = config;
+    }
+
+    public List<CaseInsensitiveString> allPipelineNames() {
+        return allPipelineNames.get();
+    }
+
+    public PipelineConfigs groupOf(CaseInsensitiveString pipelineName) {
+        return groupOfPipeline.get().get(pipelineName);
+    }
+
+    public List<PipelineConfig> downstreamPipelinesOf(CaseInsensitiveString pipelineName) {
+        return downstreamPipelines.get().getOrDefault(pipelineName, Collections.emptyList());
+    }
+
+    public MaterialConfig materialConfigFor(String fingerprint) {
+        return materialConfigByFingerprint.get().get(fingerprint);
+    }
+
+    public JobConfig findJob(String pipelineName, String stageName, String jobName) {
+        if (pipelineName == null || stageName == null || jobName == null) {
+            return null;
+        }
+        return jobs.get().get(jobKey(new CaseInsensitiveString(pipelineName), new CaseInsensitiveString(stageName), new CaseInsensitiveString(jobName)));
+    }
+
+    public Set<MaterialConfig> uniqueMaterialsOf(boolean ignoreManualPipelines, boolean ignoreConfigRepos) {
+        return new HashSet<>(uniqueMaterials.get((ignoreManualPipelines ? 2 : 0) + (ignoreConfigRepos ? 1 : 0)).get());
+    }
+
+    private Set<MaterialConfig> uniqueMaterials(boolean ignoreManualPipelines, boolean ignoreConfigRepos) {
+        return Collections.unmodifiableSet(config.findUniqueMaterials(ignoreManualPipelines, ignoreConfigRepos));
+    }
+
+    private List<CaseInsensitiveString> buildAllPipelineNames() {
+        List<CaseInsensitiveString> names = new ArrayList<>();
+        for (PipelineConfig pipelineConfig : config.getAllPipelineConfigs()) {
+            names.add(pipelineConfig.name());
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    private Map<CaseInsensitiveString, PipelineConfigs> buildGroupOfPipeline() {
+        Map<CaseInsensitiveString, PipelineConfigs> groups = new HashMap<>();
+        for (PipelineConfigs group : config.getGroups()) {
+            PipelineConfigs namedGroup = config.findGroup(group.getGroup());
+            for (PipelineConfig pipelineConfig : group) {
+                groups.putIfAbsent(pipelineConfig.name(), namedGroup);
+            }
+        }
+        return groups;
+    }
+
+    private Map<CaseInsensitiveString, List<PipelineConfig>> buildDownstreamPipelines() {
+        Map<CaseInsensitiveString, List<PipelineConfig>> downstreams = new HashMap<>();
+        for (PipelineConfig pipelineConfig : config.getAllPipelineConfigs()) {
+            Set<CaseInsensitiveString> upstreams = new HashSet<>();
+            for (MaterialConfig materialConfig : pipelineConfig.materialConfigs()) {
+                if (materialConfig instanceof DependencyMaterialConfig) {
+                    CaseInsensitiveString upstream = ((DependencyMaterialConfig) materialConfig).getPipelineName();
+                    if (upstream != null && upstreams.add(upstream)) {
+                        downstreams.computeIfAbsent(upstream, name -> new ArrayList<>()).add(pipelineConfig);
+                    }
+                }
+            }
+        }
+        downstreams.replaceAll((upstream, pipelines) -> Collections.unmodifiableList(pipelines));
+        return downstreams;
+    }
+
+    private Map<String, MaterialConfig> buildMaterialConfigByFingerprint() {
+        Map<String, MaterialConfig> materialConfigs = new HashMap<>();
+        for (PipelineConfig pipelineConfig : config.getAllPipelineConfigs()) {
+            for (MaterialConfig materialConfig : pipelineConfig.materialConfigs()) {
+                materialConfigs.putIfAbsent(materialConfig.getFingerprint(), materialConfig);
+            }
+        }
+        return materialConfigs;
+    }
+
+    private Map<String, JobConfig> buildJobs() {
+        Map<String, JobConfig> jobConfigs = new HashMap<>();
+        for (PipelineConfig pipelineConfig : config.getAllPipelineConfigs()) {
+            for (StageConfig stageConfig : pipelineConfig) {
+                for (JobConfig jobConfig : stageConfig.getJobs()) {
+                    jobConfigs.putIfAbsent(jobKey(pipelineConfig.name(), stageConfig.name(), jobConfig.name()), jobConfig);
+                }
+            }
+        }
+        return jobConfigs;
+    }
+
+    private static String jobKey(CaseInsensitiveString pipelineName, CaseInsensitiveString stageName, CaseInsensitiveString jobName) {
+        return pipelineName.toLower() + "/" + stageName.toLower() + "/" + jobName.toLower();
+    }
+}
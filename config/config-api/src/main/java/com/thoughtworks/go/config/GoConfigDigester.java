@@ -0,0 +1,169 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.thoughtworks.go.config.ConfigCache.annotationFor;
+import static com.thoughtworks.go.config.ConfigCache.isAnnotationPresent;
+import static com.thoughtworks.go.util.ExceptionUtils.bomb;
+import static com.thoughtworks.go.util.ExceptionUtils.bombIf;
+
+/**
+ * @understands computing a digest of a config entity from the same annotated fields that make up its xml, by feeding
+ * them straight into the digest instead of building the xml first
+ */
+public class GoConfigDigester {
+    private static final byte ELEMENT = 1;
+    private static final byte END_OF_ELEMENT = 2;
+    private static final byte ATTRIBUTE = 3;
+    private static final byte VALUE = 4;
+    private static final byte SUBTAG = 5;
+    private static final byte NULL = 6;
+
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> DigestUtils.getDigest(MessageDigestAlgorithms.SHA_512_256));
+
+    private final ConfigCache configCache;
+    private final Map<Class<?>, Field> attributeValueFields = new ConcurrentHashMap<>();
+
+    public GoConfigDigester(ConfigCache configCache) {
+        this.configCache = configCache;
+    }
+
+    public String digest(Object entity) {
+        bombIf(!isAnnotationPresent(entity.getClass(), ConfigTag.class), () -> "Object " + entity + " does not have a ConfigTag");
+        MessageDigest digest = DIGEST.get();
+        try {
+            writeElement(digest, entity);
+            return Hex.encodeHexString(digest.digest());
+        } finally {
+            digest.reset();
+        }
+    }
+
+    private void writeElement(MessageDigest digest, Object element) {
+        Class<?> elementClass = element.getClass();
+        digest.update(ELEMENT);
+        writeString(digest, tagFor(elementClass));
+
+        for (Field field : configCache.getFieldCache().valuesFor(elementClass)) {
+            if (isAnnotationPresent(field, ConfigAttribute.class)) {
+                digest.update(ATTRIBUTE);
+                writeString(digest, annotationFor(field, ConfigAttribute.class).value());
+                writeValue(digest, valueOf(field, element));
+            } else if (isAnnotationPresent(field, ConfigValue.class)) {
+                digest.update(VALUE);
+                writeValue(digest, valueOf(field, element));
+            } else if (isAnnotationPresent(field, ConfigSubtag.class)) {
+                digest.update(SUBTAG);
+                writeString(digest, field.getName());
+                writeChild(digest, valueOf(field, element));
+            }
+        }
+
+        if (element instanceof Collection && isAnnotationPresent(elementClass, ConfigCollection.class)) {
+            for (Object item : (Collection<?>) element) {
+                writeChild(digest, item);
+            }
+        }
+        digest.update(END_OF_ELEMENT);
+    }
+
+    private void writeChild(MessageDigest digest, Object child) {
+        if (child == null) {
+            digest.update(NULL);
+        } else if (isElement(child.getClass())) {
+            writeElement(digest, child);
+        } else {
+            digest.update(VALUE);
+            writeValue(digest, child);
+        }
+    }
+
+    private void writeValue(MessageDigest digest, Object value) {
+        if (value == null) {
+            digest.update(NULL);
+            return;
+        }
+        writeString(digest, valueString(value));
+    }
+
+    private void writeString(MessageDigest digest, String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) (bytes.length >>> 24));
+        digest.update((byte) (bytes.length >>> 16));
+        digest.update((byte) (bytes.length >>> 8));
+        digest.update((byte) bytes.length);
+        digest.update(bytes);
+    }
+
+    private String valueString(Object value) {
+        Field attributeValueField = attributeValueFieldOf(value.getClass());
+        if (attributeValueField == null) {
+            return value.toString();
+        }
+        return String.valueOf(valueOf(attributeValueField, value));
+    }
+
+    private Field attributeValueFieldOf(Class<?> valueClass) {
+        ConfigAttributeValue attributeValue = valueClass.getAnnotation(ConfigAttributeValue.class);
+        if (attributeValue == null) {
+            return null;
+        }
+        return attributeValueFields.computeIfAbsent(valueClass, klass -> {
+            for (Class<?> current = klass; current != null; current = current.getSuperclass()) {
+                try {
+                    Field field = current.getDeclaredField(attributeValue.fieldName());
+                    field.setAccessible(true);
+                    return field;
+                } catch (NoSuchFieldException ignored) {
+                }
+            }
+            throw bomb("Unable to find field " + attributeValue.fieldName() + " on " + klass.getName());
+        });
+    }
+
+    private Object valueOf(Field field, Object instance) {
+        try {
+            field.setAccessible(true);
+            return field.get(instance);
+        } catch (IllegalAccessException e) {
+            throw bomb(e);
+        }
+    }
+
+    private boolean isElement(Class<?> klass) {
+        return isAnnotationPresent(klass, ConfigTag.class) || isAnnotationPresent(klass, AttributeAwareConfigTag.class) || isAnnotationPresent(klass, ConfigCollection.class);
+    }
+
+    private String tagFor(Class<?> klass) {
+        AttributeAwareConfigTag attributeAwareConfigTag = annotationFor(klass, AttributeAwareConfigTag.class);
+        if (attributeAwareConfigTag != null) {
+            return attributeAwareConfigTag.value() + "[" + attributeAwareConfigTag.attribute() + "=" + attributeAwareConfigTag.attributeValue() + "]";
+        }
+        ConfigTag configTag = annotationFor(klass, ConfigTag.class);
+        return configTag == null ? klass.getName() : configTag.value();
+    }
+}
@@ -19,11 +19,15 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.collect.Multimaps.synchronizedSetMultimap;
 
 public class PluginRoleUsersStore {
     private final SetMultimap<PluginRoleConfig, RoleUser> roleToUsersMappings = synchronizedSetMultimap(HashMultimap.create());
+    private final AtomicLong rolesRevision = new AtomicLong();
+    private final Map<CaseInsensitiveString, Long> userRevisions = new ConcurrentHashMap<>();
 
     private PluginRoleUsersStore() {
 
@@ -35,6 +39,7 @@ public class PluginRoleUsersStore {
 
     public void assignRole(String user, PluginRoleConfig pluginRoleConfig) {
         roleToUsersMappings.put(pluginRoleConfig, new RoleUser(user));
+        userChanged(user);
     }
 
     public List<RoleUser> usersInRole(PluginRoleConfig pluginRoleConfig) {
@@ -51,6 +56,7 @@ public class PluginRoleUsersStore {
 
     public void remove(PluginRoleConfig pluginRole) {
         roleToUsersMappings.removeAll(pluginRole);
+        rolesRevision.incrementAndGet();
     }
 
     public void remove(Collection<PluginRoleConfig> pluginRoles) {
@@ -67,6 +73,26 @@ public class PluginRoleUsersStore {
                 roleToUsersMappings.get(pluginRole).remove(roleUser);
             }
         }
+        userChanged(username);
+    }
+
+    /**
+     * Changes whenever a plugin role is dropped along with all of its users. Anything derived from the membership of
+     * plugin roles is stale once this moves on.
+     */
+    public long rolesRevision() {
+        return rolesRevision.get();
+    }
+
+    /**
+     * Changes whenever plugin roles are assigned to or revoked from the given user.
+     */
+    public long revisionFor(CaseInsensitiveString username) {
+        return userRevisions.getOrDefault(username, 0L);
+    }
+
+    private void userChanged(String username) {
+        userRevisions.merge(new CaseInsensitiveString(username), 1L, Long::sum);
     }
 
     protected Set<PluginRoleConfig> pluginRoles() {
@@ -76,6 +102,7 @@ public class PluginRoleUsersStore {
 //    Used only in tests
     public void clearAll() {
         roleToUsersMappings.clear();
+        rolesRevision.incrementAndGet();
     }
 
     private static class PluginRoleUsersStoreHolder {
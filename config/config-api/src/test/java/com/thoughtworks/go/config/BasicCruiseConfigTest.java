@@ -29,6 +29,7 @@ import com.thoughtworks.go.domain.config.Configuration;
 import com.thoughtworks.go.domain.config.ConfigurationKey;
 import com.thoughtworks.go.domain.config.ConfigurationProperty;
 import com.thoughtworks.go.domain.config.ConfigurationValue;
+import com.thoughtworks.go.domain.materials.MaterialConfig;
 import com.thoughtworks.go.helper.GoConfigMother;
 import com.thoughtworks.go.helper.PartialConfigMother;
 import com.thoughtworks.go.helper.StageConfigMother;
@@ -57,6 +58,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.thoughtworks.go.helper.MaterialConfigsMother.*;
 import static com.thoughtworks.go.helper.PipelineConfigMother.*;
@@ -608,4 +610,69 @@ public class BasicCruiseConfigTest extends CruiseConfigTestBase {
         assertThat(pipelineConfigs.get(0).getName(), is(new CaseInsensitiveString("p1")));
         assertThat(pipelineConfigs.get(1).getName(), is(new CaseInsensitiveString("p3")));
     }
+
+    @Test
+    public void shouldAnswerDerivedLookupsOfALoadedSnapshotJustLikeItDoesWithoutTheIndex() {
+        PipelineConfig p1 = createPipelineConfig("p1", "s1", "j1");
+        p1.addMaterialConfig(git("http://example.com/p1.git"));
+        PipelineConfig p2 = createPipelineConfig("p2", "s2", "j2");
+        p2.addMaterialConfig(new DependencyMaterialConfig(new CaseInsensitiveString("p1"), new CaseInsensitiveString("s1")));
+        PipelineConfig p3 = createPipelineConfig("p3", "s3", "j3");
+        p3.addMaterialConfig(new DependencyMaterialConfig(new CaseInsensitiveString("p1"), new CaseInsensitiveString("s1")));
+        p3.addMaterialConfig(git("http://example.com/p1.git"));
+        pipelines.addAll(asList(p1, p2));
+        cruiseConfig.addPipeline("another_group", p3);
+
+        List<PipelineConfig> downstreams = (List<PipelineConfig>) cruiseConfig.getDownstreamPipelines("p1");
+        PipelineConfig firstDownstream = cruiseConfig.findPipelineUsingThisPipelineAsADependency("p1");
+        PipelineConfigs groupOfP3 = cruiseConfig.findGroupOfPipeline(p3);
+        List<CaseInsensitiveString> pipelineNames = cruiseConfig.getAllPipelineNames();
+        Set<MaterialConfig> uniqueMaterials = cruiseConfig.getAllUniqueMaterials();
+        Set<MaterialConfig> uniqueAutoMaterials = cruiseConfig.getAllUniqueMaterialsBelongingToAutoPipelinesAndConfigRepos();
+        String fingerprint = git("http://example.com/p1.git").getFingerprint();
+
+        cruiseConfig.markAsLoadedSnapshot();
+
+        assertThat((List<PipelineConfig>) cruiseConfig.getDownstreamPipelines("P1"), is(downstreams));
+        assertThat(cruiseConfig.getDownstreamPipelines("p3"), is(emptyIterable()));
+        assertThat(cruiseConfig.findPipelineUsingThisPipelineAsADependency("p1"), is(sameInstance(firstDownstream)));
+        assertThat(cruiseConfig.findPipelineUsingThisPipelineAsADependency("p3"), is(nullValue()));
+        assertThat(cruiseConfig.findGroupOfPipeline(p3), is(sameInstance(groupOfP3)));
+        assertThat(cruiseConfig.getAllPipelineNames(), is(pipelineNames));
+        assertThat(cruiseConfig.getAllUniqueMaterials(), is(uniqueMaterials));
+        assertThat(cruiseConfig.getAllUniqueMaterialsBelongingToAutoPipelinesAndConfigRepos(), is(uniqueAutoMaterials));
+        assertThat(cruiseConfig.materialConfigFor(fingerprint).getFingerprint(), is(fingerprint));
+        assertThat(cruiseConfig.materialConfigFor("unknown"), is(nullValue()));
+        assertThat(cruiseConfig.findJob("P2", "S2", "J2"), is(sameInstance(p2.getStage("s2").jobConfigByConfigName("j2"))));
+    }
+
+    @Test
+    public void shouldStopUsingTheIndexOnceTheConfigIsChanged() {
+        PipelineConfig p1 = createPipelineConfig("p1", "s1", "j1");
+        pipelines.add(p1);
+        cruiseConfig.markAsLoadedSnapshot();
+        assertThat(cruiseConfig.getDownstreamPipelines("p1"), is(emptyIterable()));
+
+        PipelineConfig p2 = createPipelineConfig("p2", "s2", "j2");
+        p2.addMaterialConfig(new DependencyMaterialConfig(new CaseInsensitiveString("p1"), new CaseInsensitiveString("s1")));
+        cruiseConfig.addPipeline("existing_group", p2);
+
+        assertThat(cruiseConfig.getDownstreamPipelines("p1"), contains(p2));
+        assertThat(cruiseConfig.findPipelineUsingThisPipelineAsADependency("p1"), is(p2));
+    }
+
+    @Test
+    public void shouldNotCarryTheIndexOverToAConfigClonedForValidation() {
+        PipelineConfig p1 = createPipelineConfig("p1", "s1", "j1");
+        pipelines.add(p1);
+        cruiseConfig.markAsLoadedSnapshot();
+        assertThat(cruiseConfig.getDownstreamPipelines("p1"), is(emptyIterable()));
+
+        CruiseConfig clone = cruiseConfig.cloneForValidation();
+        PipelineConfig p2 = createPipelineConfig("p2", "s2", "j2");
+        p2.addMaterialConfig(new DependencyMaterialConfig(new CaseInsensitiveString("p1"), new CaseInsensitiveString("s1")));
+        clone.getGroups().get(0).add(p2);
+
+        assertThat(clone.getDownstreamPipelines("p1"), contains(p2));
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.config;
+
+import com.thoughtworks.go.helper.PipelineConfigMother;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GoConfigDigesterTest {
+    private GoConfigDigester digester;
+
+    @BeforeEach
+    void setUp() {
+        digester = new GoConfigDigester(new ConfigCache());
+    }
+
+    @Test
+    void shouldDigestStructurallyEqualEntitiesTheSame() {
+        assertThat(digester.digest(PipelineConfigMother.createPipelineConfig("up42", "stage", "job")))
+                .isEqualTo(digester.digest(PipelineConfigMother.createPipelineConfig("up42", "stage", "job")))
+                .matches("[a-f0-9]{64}");
+    }
+
+    @Test
+    void shouldDigestEntitiesWhichDifferInAnyOfTheirConfigDifferently() {
+        PipelineConfig pipeline = PipelineConfigMother.createPipelineConfig("up42", "stage", "job");
+        String digest = digester.digest(pipeline);
+
+        pipeline.setLabelTemplate("${COUNT}-label");
+        String digestWithNewAttribute = digester.digest(pipeline);
+        assertThat(digestWithNewAttribute).isNotEqualTo(digest);
+
+        pipeline.first().getJobs().first().addTask(new ExecTask("ls", "-la", (String) null));
+        assertThat(digester.digest(pipeline)).isNotEqualTo(digestWithNewAttribute);
+    }
+
+    @Test
+    void shouldIgnoreStateWhichIsNotPartOfTheConfig() {
+        PipelineConfig pipeline = PipelineConfigMother.createPipelineConfig("up42", "stage", "job");
+        String digest = digester.digest(pipeline);
+
+        pipeline.addError("name", "some error");
+
+        assertThat(digester.digest(pipeline)).isEqualTo(digest);
+    }
+
+    @Test
+    void shouldTellItemsOfACollectionApartFromEachOther() {
+        assertThat(digester.digest(new ParamsConfig(new ParamConfig("a", "bc"))))
+                .isNotEqualTo(digester.digest(new ParamsConfig(new ParamConfig("ab", "c"))));
+        assertThat(digester.digest(new ParamsConfig(new ParamConfig("a", "1"), new ParamConfig("b", "2"))))
+                .isNotEqualTo(digester.digest(new ParamsConfig(new ParamConfig("b", "2"), new ParamConfig("a", "1"))));
+    }
+
+    @Test
+    void shouldOnlyDigestConfigEntities() {
+        assertThatThrownBy(() -> digester.digest("not a config entity"))
+                .hasMessageContaining("does not have a ConfigTag");
+    }
+}
@@ -35,6 +35,7 @@ public class GoConfigCloner extends Cloner {
         nullInsteadOfClone(AllPipelineConfigs.class,
                 AllTemplatesWithAssociatedPipelines.class,
                 PipelineNameToConfigMap.class,
+                CruiseConfigIndex.class,
                 CachedPluggableArtifactConfigs.class,
                 CachedFetchPluggableArtifactTasks.class);
         ClonerFactory.applyFixes(this);
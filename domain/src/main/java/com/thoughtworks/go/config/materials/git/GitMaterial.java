@@ -157,6 +157,22 @@ public class GitMaterial extends ScmMaterial implements PasswordAwareMaterial {
         }
     }
 
+    /**
+     * Asks the remote repository which revision the branch points to, without fetching anything. Returns null when
+     * that cannot be told, for instance when the branch is a refspec matching several refs.
+     */
+    public String remoteHeadRevision() {
+        if (isSubmoduleFolder()) {
+            return null;
+        }
+        try {
+            return new GitCommand(null, null, refSpecOrBranch, false, secrets()).remoteHeadRevision(new UrlArgument(urlForCommandLine()));
+        } catch (Exception e) {
+            LOG.debug("Could not find the remote head revision of {}", getUriForDisplay(), e);
+            return null;
+        }
+    }
+
     public ValidationBean checkConnection(final SubprocessExecutionContext execCtx) {
         GitCommand gitCommand = new GitCommand(null, null, refSpecOrBranch, false, secrets());
         try {
@@ -223,6 +223,16 @@ public class GitCommand extends SCMCommand {
         }
     }
 
+    public String remoteHeadRevision(UrlArgument repoUrl) {
+        final CommandLine commandLine = git().withArgs("ls-remote").withArg(repoUrl).withArg(fullUpstreamRef());
+        final ConsoleResult result = commandLine.runOrBomb(new NamedProcessTag(repoUrl.forDisplay()));
+
+        if (!hasExactlyOneMatchingBranch(result)) {
+            return null;
+        }
+        return result.output().get(0).trim().split("\\s+")[0];
+    }
+
     public GitVersion version() {
         CommandLine gitVersion = git().withArgs("version");
 
@@ -184,6 +184,7 @@ public class CachedGoConfig {
         if (configHolder != null) {
             LOGGER.debug("[Config Save] Saving config to the cache");
             this.lastException = null;
+            configHolder.config.markAsLoadedSnapshot();
             this.configHolder = configHolder;
             this.currentConfig = this.configHolder.config;
             this.currentConfigForEdit = this.configHolder.configForEdit;
@@ -50,7 +50,7 @@ public class CcTrayStageStatusLoader {
             return new ArrayList<>();
         }
 
-        return stageChangeHandler.statusesOfStageAndItsJobsFor(stageDao.stageById(stageId));
+        return stageChangeHandler.statusesOfStageAndItsJobsFor(stageDao.readOnlyStageById(stageId));
     }
 
     private Long findStageIdOf(PipelineConfig pipelineConfig, StageConfig stageConfig) {
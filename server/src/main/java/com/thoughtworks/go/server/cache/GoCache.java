@@ -17,6 +17,7 @@ package com.thoughtworks.go.server.cache;
 
 import com.thoughtworks.go.domain.NullUser;
 import com.thoughtworks.go.domain.PersistentObject;
+import com.thoughtworks.go.server.perf.RequestMetrics;
 import com.thoughtworks.go.server.transaction.TransactionSynchronizationManager;
 import net.sf.ehcache.Ehcache;
 import net.sf.ehcache.Element;
@@ -142,6 +143,17 @@ public class GoCache {
     }
 
     public Object get(String key) {
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics == null) {
+            return getServingForTransaction(key);
+        }
+        long startedAt = System.nanoTime();
+        Object value = getServingForTransaction(key);
+        metrics.cacheLookedUp(value != null, System.nanoTime() - startedAt);
+        return value;
+    }
+
+    private Object getServingForTransaction(String key) {
         if (doNotServeForTransaction()) {
             return null;
         }
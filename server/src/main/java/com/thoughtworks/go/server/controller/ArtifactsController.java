@@ -25,6 +25,7 @@ import com.thoughtworks.go.server.service.ArtifactsService;
 import com.thoughtworks.go.server.service.ConsoleActivityMonitor;
 import com.thoughtworks.go.server.service.ConsoleService;
 import com.thoughtworks.go.server.service.RestfulService;
+import com.thoughtworks.go.server.service.UploadedArtifactChecksums;
 import com.thoughtworks.go.server.util.ErrorHandler;
 import com.thoughtworks.go.server.view.artifacts.ArtifactsView;
 import com.thoughtworks.go.server.view.artifacts.LocalArtifactsView;
@@ -33,6 +34,12 @@ import com.thoughtworks.go.server.web.FileModelAndView;
 import com.thoughtworks.go.server.web.ResponseCodeView;
 import com.thoughtworks.go.util.ArtifactLogUtil;
 import com.thoughtworks.go.util.SystemEnvironment;
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,12 +53,14 @@ import org.springframework.web.servlet.ModelAndView;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 import static com.thoughtworks.go.server.web.ZipArtifactFolderViewFactory.zipViewFactory;
 import static com.thoughtworks.go.util.ArtifactLogUtil.isConsoleOutput;
@@ -144,7 +153,7 @@ public class ArtifactsController {
                                      @RequestParam(value = "buildId", required = false) Long buildId,
                                      @RequestParam("filePath") String filePath,
                                      @RequestParam(value = "attempt", required = false) Integer attempt,
-                                     MultipartHttpServletRequest request) throws Exception {
+                                     HttpServletRequest request) throws Exception {
         JobIdentifier jobIdentifier;
         if (!headerConstraint.isSatisfied(request)) {
             return ResponseCodeView.create(HttpServletResponse.SC_BAD_REQUEST, "Missing required header 'Confirm'");
@@ -165,7 +174,12 @@ public class ArtifactsController {
                 return FileModelAndView.fileAlreadyExists(filePath);
             }
 
-            MultipartFile multipartFile = multipartFile(request);
+            if (!(request instanceof MultipartHttpServletRequest)) {
+                return streamArtifact(request, jobIdentifier, filePath, artifact, convertedAttempt);
+            }
+
+            MultipartHttpServletRequest multipartRequest = (MultipartHttpServletRequest) request;
+            MultipartFile multipartFile = multipartFile(multipartRequest);
             if (multipartFile == null) {
                 return FileModelAndView.invalidUploadRequest();
             }
@@ -176,7 +190,7 @@ public class ArtifactsController {
                 return FileModelAndView.errorSavingFile(filePath);
             }
 
-            success = updateChecksumFile(request, jobIdentifier, filePath);
+            success = updateChecksumFile(multipartRequest, jobIdentifier, filePath);
 
             if (!success) {
                 return FileModelAndView.errorSavingChecksumFile(filePath);
@@ -189,13 +203,88 @@ public class ArtifactsController {
         }
     }
 
+    /*
+     * Reads the upload parts straight off the request as they arrive, unzipping the artifact into place without first
+     * spooling it to a temporary file. Files are checked against the uploaded checksums as they are extracted, or as
+     * soon as the checksums show up if the agent sent them after the artifact. An uploaded file which could not be
+     * written in full, say because the agent went away halfway through, is removed so that the agent's retry can
+     * upload it again.
+     */
+    private ModelAndView streamArtifact(HttpServletRequest request, JobIdentifier jobIdentifier, String filePath, File artifact, int attempt) throws IOException, FileUploadException, IllegalArtifactLocationException {
+        if (!ServletFileUpload.isMultipartContent(request)) {
+            return FileModelAndView.invalidUploadRequest();
+        }
+
+        UploadedArtifactChecksums checksums = new UploadedArtifactChecksums(filePath);
+        byte[] checksumContent = null;
+        boolean artifactUploaded = false;
+
+        boolean fileUploaded = false;
+        try {
+            FileItemIterator parts = new ServletFileUpload().getItemIterator(request);
+            while (parts.hasNext()) {
+                FileItemStream part = parts.next();
+                String partName = part.getFieldName();
+                try (InputStream stream = part.openStream()) {
+                    if (CHECKSUM_MULTIPART_FILENAME.equals(partName)) {
+                        checksumContent = IOUtils.toByteArray(stream);
+                        checksums.expect(checksumsFrom(checksumContent));
+                    } else if (!artifactUploaded && (REGULAR_MULTIPART_FILENAME.equals(partName) || ZIP_MULTIPART_FILENAME.equals(partName))) {
+                        artifactUploaded = true;
+                        fileUploaded = REGULAR_MULTIPART_FILENAME.equals(partName);
+                        if (!artifactsService.saveFile(artifact, stream, !fileUploaded, attempt, checksums)) {
+                            discardPartialUpload(artifact, fileUploaded);
+                            return FileModelAndView.errorSavingFile(filePath);
+                        }
+                    }
+                }
+            }
+        } catch (IOException | FileUploadException e) {
+            discardPartialUpload(artifact, fileUploaded);
+            throw e;
+        }
+
+        if (!artifactUploaded) {
+            return FileModelAndView.invalidUploadRequest();
+        }
+
+        if (!checksums.isValid()) {
+            LOGGER.error("[Artifacts Upload] Checksums of {} file(s) uploaded to path '{}' did not match: {}", checksums.mismatches().size(), filePath, checksums.mismatches());
+            return FileModelAndView.errorSavingFile(filePath);
+        }
+
+        if (!updateChecksumFile(checksumContent == null ? null : new ByteArrayInputStream(checksumContent), jobIdentifier, filePath)) {
+            return FileModelAndView.errorSavingChecksumFile(filePath);
+        }
+
+        return FileModelAndView.fileCreated(filePath);
+    }
+
+    // a partly extracted zip needs no cleanup, the entry being written when the upload broke off is removed as it fails
+    private void discardPartialUpload(File artifact, boolean fileUploaded) {
+        if (fileUploaded && artifact.isFile()) {
+            LOGGER.warn("[Artifacts Upload] Removing the partly uploaded file [{}]", artifact.getAbsolutePath());
+            FileUtils.deleteQuietly(artifact);
+        }
+    }
+
+    private Properties checksumsFrom(byte[] checksumContent) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(checksumContent));
+        return properties;
+    }
+
     private boolean updateChecksumFile(MultipartHttpServletRequest request, JobIdentifier jobIdentifier, String filePath) throws IOException, IllegalArtifactLocationException {
         MultipartFile checksumMultipartFile = getChecksumFile(request);
-        if (checksumMultipartFile != null) {
+        return updateChecksumFile(checksumMultipartFile == null ? null : checksumMultipartFile.getInputStream(), jobIdentifier, filePath);
+    }
+
+    private boolean updateChecksumFile(InputStream checksumContent, JobIdentifier jobIdentifier, String filePath) throws IllegalArtifactLocationException {
+        if (checksumContent != null) {
             String checksumFilePath = String.format("%s/%s/%s", artifactsService.findArtifactRoot(jobIdentifier), ArtifactLogUtil.CRUISE_OUTPUT_FOLDER, ArtifactLogUtil.MD5_CHECKSUM_FILENAME);
             File checksumFile = artifactsService.getArtifactLocation(checksumFilePath);
             synchronized (checksumFilePath.intern()) {
-                return artifactsService.saveOrAppendFile(checksumFile, checksumMultipartFile.getInputStream());
+                return artifactsService.saveOrAppendFile(checksumFile, checksumContent);
             }
         } else {
             LOGGER.warn("[Artifacts Upload] Checksum file not uploaded for artifact at path '{}'", filePath);
@@ -17,6 +17,10 @@ package com.thoughtworks.go.server.dao;
 
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
+/**
+ * @understands a job that is yet to complete. Has no setters (the fields are populated by the sql mapper) so the
+ * instances held in the cache can be handed out without copying them.
+ */
 public class ActiveJob {
     private long id;
     private String pipelineName;
@@ -46,34 +50,18 @@ public class ActiveJob {
         return pipelineName;
     }
 
-    public void setPipelineName(String pipelineName) {
-        this.pipelineName = pipelineName;
-    }
-
     public String getBuildName() {
         return buildName;
     }
 
-    public void setBuildName(String buildName) {
-        this.buildName = buildName;
-    }
-
     public String getStageName() {
         return stageName;
     }
 
-    public void setStageName(String stageName) {
-        this.stageName = stageName;
-    }
-
     public String getPipelineLabel() {
         return pipelineLabel;
     }
 
-    public void setPipelineLabel(String pipelineLabel) {
-        this.pipelineLabel = pipelineLabel;
-    }
-
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this);
@@ -83,10 +71,6 @@ public class ActiveJob {
         return pipelineCounter;
     }
 
-    public void setPipelineCounter(Integer pipelineCounter) {
-        this.pipelineCounter = pipelineCounter;
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -178,7 +178,7 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
                 }
             }
         }
-        return activeJob;//TODO: clone it, caller may mutate
+        return activeJob;
     }
 
     private List<Long> getActiveJobIds() {
@@ -199,7 +199,7 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
     }
 
     private void cacheActiveJob(ActiveJob activeJob) {
-        goCache.put(cacheKeyForActiveJob(activeJob.getId()), cloner.deepClone(activeJob));//TODO: we should clone while serving the object out, and not while adding it to cache
+        goCache.put(cacheKeyForActiveJob(activeJob.getId()), activeJob);
     }
 
     @Override
@@ -229,6 +229,10 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
 
     @Override
     public void save(long jobId, JobPlan jobPlan) {
+        String jobPlanKey = cacheKeyForJobPlan(jobId);
+        synchronized (jobPlanKey) {
+            goCache.remove(jobPlanKey);
+        }
         for (Resource resource : jobPlan.getResources()) {
             resourceRepository.saveCopyOf(jobId, resource);
         }
@@ -541,22 +545,36 @@ public class JobInstanceSqlMapDao extends SqlMapClientDaoSupport implements JobI
     public List<JobPlan> orderedScheduledBuilds() {
         List<Long> jobIds = (List<Long>) getSqlMapClientTemplate().queryForList("scheduledPlanIds");
 
-        List<JobPlan> plans = new ArrayList<>();
+        List<JobPlan> plans = new ArrayList<>(jobIds.size());
         for (Long jobId : jobIds) {
-            String cacheKey = cacheKeyForJobPlan(jobId);
-            synchronized (cacheKey) {
-                JobPlan jobPlan = (JobPlan) goCache.get(cacheKey);
-                if (jobPlan == null) {
-                    jobPlan = _loadJobPlan(jobId);
-                }
+            JobPlan jobPlan = scheduledJobPlan(jobId);
+            if (jobPlan != null) {
+                plans.add(jobPlan);
+            }
+        }
+        return plans;
+    }
+
+    // Plans of scheduled jobs are handed out as cached instead of being copied on every assignment tick, so every caller
+    // shares the same instance and must treat it as read-only. Callers which need to change a plan take their own copy:
+    // the elastic agent service resolves secrets on copies of the profiles and an assigned plan is copied before it
+    // goes into the build assignment.
+    private JobPlan scheduledJobPlan(Long jobId) {
+        String cacheKey = cacheKeyForJobPlan(jobId);
+        JobPlan jobPlan = (JobPlan) goCache.get(cacheKey);
+        if (jobPlan != null) {
+            return jobPlan;
+        }
+        synchronized (cacheKey) {
+            jobPlan = (JobPlan) goCache.get(cacheKey);
+            if (jobPlan == null) {
+                jobPlan = _loadJobPlan(jobId);
                 if (jobPlan != null) {
-                    jobPlan = cloner.deepClone(jobPlan);
                     goCache.put(cacheKey, jobPlan);
-                    plans.add(jobPlan);
                 }
             }
+            return jobPlan;
         }
-        return plans;
     }
 
     private JobPlan _loadJobPlan(Long jobId) {
@@ -65,6 +65,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.thoughtworks.go.util.IBatisUtil.arguments;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -511,9 +512,8 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
                 continue;
             }
             models.add(model);
-            loadPipelineHistoryBuildCause(model);
-
         }
+        loadPipelineHistoryBuildCauses(models);
         return PipelineInstanceModels.createPipelineInstanceModels(models);
     }
 
@@ -755,9 +755,7 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
                 .and("to", Collections.max(ids)).asMap();
         PipelineInstanceModels history = PipelineInstanceModels.createPipelineInstanceModels(
                 (List<PipelineInstanceModel>) getSqlMapClientTemplate().queryForList("getPipelineHistoryByName", args));
-        for (PipelineInstanceModel pipelineInstanceModel : history) {
-            loadPipelineHistoryBuildCause(pipelineInstanceModel);
-        }
+        loadPipelineHistoryBuildCauses(history);
         return history;
     }
 
@@ -800,6 +798,18 @@ public class PipelineSqlMapDao extends SqlMapClientDaoSupport implements Initial
         return pipeline;
     }
 
+    private void loadPipelineHistoryBuildCauses(List<PipelineInstanceModel> pipelines) {
+        if (pipelines.isEmpty()) {
+            return;
+        }
+        Map<Long, MaterialRevisions> materialRevisions = materialRepository.findMaterialRevisionsForPipelines(
+                pipelines.stream().map(PipelineInstanceModel::getId).collect(Collectors.toList()));
+        for (PipelineInstanceModel pipeline : pipelines) {
+            pipeline.setMaterialRevisionsOnBuildCause(materialRevisions.get(pipeline.getId()));
+            pipeline.getBuildCause().setApprover(pipeline.getApprovedBy());
+        }
+    }
+
     static String getLatestRevisionFromOrderedLists(List<Modification> orderedList1, List<Modification> orderedList2) {
         Modification latestModification = null;
 
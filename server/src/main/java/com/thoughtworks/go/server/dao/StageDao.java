@@ -43,6 +43,11 @@ public interface StageDao extends JobDurationStrategy {
 
     Stage stageById(long stageId);
 
+    /**
+     * Same as {@link #stageById(long)}, but hands out the cached stage instead of a copy of it. Callers must not modify it.
+     */
+    Stage readOnlyStageById(long stageId);
+
     Stage getStageByBuild(long buildInstanceId);
 
     Stage mostRecentPassed(String pipelineName, String stageName);
@@ -63,6 +68,12 @@ public interface StageDao extends JobDurationStrategy {
 
     Stage findStageWithIdentifier(StageIdentifier stageIdentifier);
 
+    /**
+     * Same as {@link #findStageWithIdentifier(StageIdentifier)}, but hands out the cached stage instead of a copy of it.
+     * Callers must not modify it.
+     */
+    Stage findReadOnlyStageWithIdentifier(StageIdentifier stageIdentifier);
+
     Stage mostRecentCompleted(StageConfigIdentifier identifier);
 
     Stage mostRecentStage(StageConfigIdentifier identifier);
@@ -104,6 +115,8 @@ public interface StageDao extends JobDurationStrategy {
 
     void markArtifactsDeletedFor(Stage stage);
 
+    void markArtifactsDeletedFor(List<Stage> stages);
+
     void clearCachedStage(StageIdentifier stageIdentifier);
 
     int getTotalStageCountForChart(String pipelineName, String stageName);
@@ -57,6 +57,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.thoughtworks.go.util.IBatisUtil.arguments;
 import static java.lang.String.format;
@@ -197,6 +198,12 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
 
     @Override
     public Stage findStageWithIdentifier(StageIdentifier identifier) {
+        Stage stage = findReadOnlyStageWithIdentifier(identifier);
+        return stage instanceof NullStage ? stage : cloner.deepClone(stage);
+    }
+
+    @Override
+    public Stage findReadOnlyStageWithIdentifier(StageIdentifier identifier) {
         String cachekey = cacheKeyForStageIdentifier(identifier);
         String cacheKeyForIdentifiers = cacheKeyForListOfStageIdentifiers(identifier);
         synchronized (cacheKeyForIdentifiers) {
@@ -216,7 +223,7 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
                 }
                 goCache.put(cacheKeyForIdentifiers, cachekey, stage);
             }
-            return cloner.deepClone(stage);
+            return stage;
         }
     }
 
@@ -354,7 +361,7 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
 
     @Override
     public List<StageAsDMR> getPassedStagesAfter(StageIdentifier stageIdentifier, int limit, int offset) {
-        Stage laterThan = findStageWithIdentifier(stageIdentifier);
+        Stage laterThan = findReadOnlyStageWithIdentifier(stageIdentifier);
 
         Map<String, Object> toGet = arguments("pipelineName", stageIdentifier.getPipelineName()).and("stageName", stageIdentifier.getStageName())
             .and("laterThan", laterThan.getId()).and("limit", limit).and("offset", offset).asMap();
@@ -677,6 +684,11 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
 
     @Override
     public Stage stageById(long id) {
+        return cloner.deepClone(readOnlyStageById(id));
+    }
+
+    @Override
+    public Stage readOnlyStageById(long id) {
         String key = cacheKeyForStageById(id);
         Stage stage = (Stage) goCache.get(key);
 
@@ -692,7 +704,7 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
                 }
             }
         }
-        return cloner.deepClone(stage);
+        return stage;
     }
 
     String cacheKeyForStageById(long id) {
@@ -779,6 +791,15 @@ public class StageSqlMapDao extends SqlMapClientDaoSupport implements StageDao,
         getSqlMapClientTemplate().update("markStageArtifactDeleted", arguments("stageId", stage.getId()).asMap());
     }
 
+    @Override
+    public void markArtifactsDeletedFor(List<Stage> stages) {
+        if (stages.isEmpty()) {
+            return;
+        }
+        List<Long> stageIds = stages.stream().map(Stage::getId).collect(Collectors.toList());
+        getSqlMapClientTemplate().update("markStagesArtifactDeleted", arguments("stageIds", stageIds).asMap());
+    }
+
     String cacheKeyForPipelineAndCounter(String pipelineName, int counter) {
         return cacheKeyGenerator.generate("allStagesOfPipelineInstance", pipelineName, counter);
     }
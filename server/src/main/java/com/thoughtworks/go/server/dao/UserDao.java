@@ -15,6 +15,7 @@
  */
 package com.thoughtworks.go.server.dao;
 
+import com.thoughtworks.go.domain.NotificationSubscriptions;
 import com.thoughtworks.go.domain.User;
 import com.thoughtworks.go.domain.Users;
 
@@ -28,6 +29,8 @@ public interface UserDao {
 
     Users findNotificationSubscribingUsers();
 
+    NotificationSubscriptions findNotificationSubscriptions();
+
     Users allUsers();
 
     long enabledUserCount();
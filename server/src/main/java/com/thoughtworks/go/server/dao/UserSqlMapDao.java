@@ -18,6 +18,7 @@ package com.thoughtworks.go.server.dao;
 import com.thoughtworks.go.config.exceptions.EntityType;
 import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
 import com.thoughtworks.go.domain.NullUser;
+import com.thoughtworks.go.domain.NotificationSubscriptions;
 import com.thoughtworks.go.domain.User;
 import com.thoughtworks.go.domain.Users;
 import com.thoughtworks.go.server.cache.GoCache;
@@ -49,6 +50,7 @@ public class UserSqlMapDao extends HibernateDaoSupport implements UserDao {
     private final AccessTokenDao accessTokenDao;
     private final TransactionSynchronizationManager transactionSynchronizationManager;
     protected static final String ENABLED_USER_COUNT_CACHE_KEY = "ENABLED_USER_COUNT_CACHE_KEY".intern();
+    protected static final String NOTIFICATION_SUBSCRIPTIONS_CACHE_KEY = "NOTIFICATION_SUBSCRIPTIONS_CACHE_KEY".intern();
 
     @Autowired
     public UserSqlMapDao(SessionFactory sessionFactory,
@@ -73,6 +75,7 @@ public class UserSqlMapDao extends HibernateDaoSupport implements UserDao {
                     @Override
                     public void afterCommit() {
                         clearEnabledUserCountFromCache();
+                        clearNotificationSubscriptionsFromCache();
                     }
                 });
                 sessionFactory.getCurrentSession().saveOrUpdate(copyLoginToDisplayNameIfNotPresent(user));
@@ -102,6 +105,23 @@ public class UserSqlMapDao extends HibernateDaoSupport implements UserDao {
         });
     }
 
+    @Override
+    public NotificationSubscriptions findNotificationSubscriptions() {
+        NotificationSubscriptions subscriptions = (NotificationSubscriptions) goCache.get(NOTIFICATION_SUBSCRIPTIONS_CACHE_KEY);
+        if (subscriptions != null) {
+            return subscriptions;
+        }
+
+        synchronized (NOTIFICATION_SUBSCRIPTIONS_CACHE_KEY) {
+            subscriptions = (NotificationSubscriptions) goCache.get(NOTIFICATION_SUBSCRIPTIONS_CACHE_KEY);
+            if (subscriptions == null) {
+                subscriptions = new NotificationSubscriptions(findNotificationSubscribingUsers());
+                goCache.put(NOTIFICATION_SUBSCRIPTIONS_CACHE_KEY, subscriptions);
+            }
+            return subscriptions;
+        }
+    }
+
     @Override
     public Users allUsers() {
         return new Users((List<User>) transactionTemplate.execute((TransactionCallback) transactionStatus -> {
@@ -171,6 +191,7 @@ public class UserSqlMapDao extends HibernateDaoSupport implements UserDao {
     @Override
     public boolean deleteUser(final String username, String byWhom) {
         return (Boolean) transactionTemplate.execute((TransactionCallback) status -> {
+            clearNotificationSubscriptionsFromCacheAfterCommit();
             User user = findUser(username);
             if (user instanceof NullUser) {
                 throw new RecordNotFoundException(EntityType.User, username);
@@ -187,6 +208,7 @@ public class UserSqlMapDao extends HibernateDaoSupport implements UserDao {
     @Override
     public boolean deleteUsers(List<String> userNames, String byWhom) {
         return (Boolean) transactionTemplate.execute((TransactionCallback) status -> {
+            clearNotificationSubscriptionsFromCacheAfterCommit();
             String queryString = "delete from User where name in (:userNames)";
             Query query = sessionFactory.getCurrentSession().createQuery(queryString);
             query.setParameterList("userNames", userNames);
@@ -202,6 +224,21 @@ public class UserSqlMapDao extends HibernateDaoSupport implements UserDao {
         }
     }
 
+    private void clearNotificationSubscriptionsFromCache() {
+        synchronized (NOTIFICATION_SUBSCRIPTIONS_CACHE_KEY) {
+            goCache.remove(NOTIFICATION_SUBSCRIPTIONS_CACHE_KEY);
+        }
+    }
+
+    private void clearNotificationSubscriptionsFromCacheAfterCommit() {
+        transactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                clearNotificationSubscriptionsFromCache();
+            }
+        });
+    }
+
     protected HibernateTemplate hibernateTemplate() {
         return getHibernateTemplate();
     }
@@ -227,6 +264,7 @@ public class UserSqlMapDao extends HibernateDaoSupport implements UserDao {
                     @Override
                     public void afterCommit() {
                         clearEnabledUserCountFromCache();
+                        clearNotificationSubscriptionsFromCache();
                     }
                 });
                 String queryString = String.format("update %s set enabled = :enabled where name in (:userNames)", User.class.getName());
@@ -16,6 +16,7 @@
 package com.thoughtworks.go.server.dashboard;
 
 import com.thoughtworks.go.config.CaseInsensitiveString;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -23,6 +24,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /* Understands how to cache dashboard statuses, for every pipeline. */
 @Component
@@ -36,6 +38,7 @@ public class GoDashboardCache {
      */
     private LinkedHashMap<CaseInsensitiveString, GoDashboardPipeline> cache;
     private volatile GoDashboardPipelines dashboardPipelines;
+    private final List<GoDashboardCacheChangeListener> listeners = new CopyOnWriteArrayList<>();
 
     @Autowired
     public GoDashboardCache(TimeStampBasedCounter timeStampBasedCounter) {
@@ -45,26 +48,54 @@ public class GoDashboardCache {
     }
 
     public void put(GoDashboardPipeline pipeline) {
-        cache.put(pipeline.name(), pipeline);
-        cacheHasChanged();
+        GoDashboardPipeline previous = cache.put(pipeline.name(), pipeline);
+        cacheHasChanged(previous == null || !StringUtils.equals(previous.groupName(), pipeline.groupName()));
     }
 
     public void remove(CaseInsensitiveString pipelineName) {
-        cache.remove(pipelineName);
+        if (cache.remove(pipelineName) != null) {
+            cacheHasChanged(true);
+        }
     }
 
     public void replaceAllEntriesInCacheWith(List<GoDashboardPipeline> newPipelinesToCache) {
         cache.clear();
         cache.putAll(createMapFor(newPipelinesToCache));
-        cacheHasChanged();
+        cacheHasChanged(true);
+    }
+
+    /**
+     * Puts every one of these pipelines in the cache, leaving the others alone. Unlike
+     * {@link #replaceAllEntriesInCacheWith(List)}, clients only need a full refresh if a pipeline is new to the cache or has
+     * moved to another group.
+     */
+    public void updateEntriesInCacheWith(List<GoDashboardPipeline> updatedPipelines) {
+        boolean structureHasChanged = false;
+        for (GoDashboardPipeline pipeline : updatedPipelines) {
+            GoDashboardPipeline previous = cache.put(pipeline.name(), pipeline);
+            structureHasChanged |= previous == null || !StringUtils.equals(previous.groupName(), pipeline.groupName());
+        }
+        cacheHasChanged(structureHasChanged);
+    }
+
+    public void addListener(GoDashboardCacheChangeListener listener) {
+        listeners.add(listener);
     }
 
     public GoDashboardPipelines allEntries() {
         return dashboardPipelines;
     }
 
-    private void cacheHasChanged() {
-        dashboardPipelines = new GoDashboardPipelines(new HashMap<>(cache), timeStampBasedCounter);
+    private void cacheHasChanged(boolean structureHasChanged) {
+        if (structureHasChanged) {
+            dashboardPipelines = new GoDashboardPipelines(new HashMap<>(cache), timeStampBasedCounter);
+        } else {
+            dashboardPipelines = new GoDashboardPipelines(new HashMap<>(cache), timeStampBasedCounter, dashboardPipelines.structureLastChangedTimeStamp());
+        }
+
+        for (GoDashboardCacheChangeListener listener : listeners) {
+            listener.cacheChanged(dashboardPipelines);
+        }
     }
 
     private Map<CaseInsensitiveString, GoDashboardPipeline> createMapFor(List<GoDashboardPipeline> pipelines) {
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.dashboard;
+
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.DashboardFilter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/* Represents the pipelines on the dashboard which changed since a given version of it. */
+public class GoDashboardChanges {
+    private final long version;
+    private final boolean fullRefreshRequired;
+    private final List<GoDashboardPipeline> pipelines;
+
+    private GoDashboardChanges(long version, boolean fullRefreshRequired, List<GoDashboardPipeline> pipelines) {
+        this.version = version;
+        this.fullRefreshRequired = fullRefreshRequired;
+        this.pipelines = pipelines;
+    }
+
+    public static GoDashboardChanges since(GoDashboardPipelines snapshot, long version) {
+        if (!snapshot.canBeCaughtUpFrom(version)) {
+            return new GoDashboardChanges(snapshot.lastUpdatedTimeStamp(), true, Collections.emptyList());
+        }
+        return new GoDashboardChanges(snapshot.lastUpdatedTimeStamp(), false, snapshot.changedSince(version));
+    }
+
+    public GoDashboardChanges visibleTo(Username user, DashboardFilter filter) {
+        String userName = user.getUsername().toString();
+        List<GoDashboardPipeline> visiblePipelines = pipelines.stream()
+                .filter(pipeline -> pipeline.canBeViewedBy(userName) && filter.isPipelineVisible(pipeline.name()))
+                .collect(Collectors.toList());
+        return new GoDashboardChanges(version, fullRefreshRequired, visiblePipelines);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public boolean isFullRefreshRequired() {
+        return fullRefreshRequired;
+    }
+
+    public List<GoDashboardPipeline> pipelines() {
+        return pipelines;
+    }
+
+    public boolean isEmpty() {
+        return !fullRefreshRequired && pipelines.isEmpty();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.thoughtworks.go.server.dashboard;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.thoughtworks.go.config.*;
 import com.thoughtworks.go.config.security.GoConfigPipelinePermissionsAuthority;
@@ -33,12 +34,18 @@ import com.thoughtworks.go.server.service.PipelineLockService;
 import com.thoughtworks.go.server.service.PipelinePauseService;
 import com.thoughtworks.go.server.service.PipelineUnlockApiService;
 import com.thoughtworks.go.server.service.SchedulingCheckerService;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static com.thoughtworks.go.config.CaseInsensitiveString.str;
 import static com.thoughtworks.go.domain.buildcause.BuildCause.createWithEmptyModifications;
@@ -50,6 +57,7 @@ import static com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceM
 @Component
 public class GoDashboardCurrentStateLoader {
     private static final Logger LOGGER = LoggerFactory.getLogger(GoDashboardCurrentStateLoader.class);
+    private static final ThreadFactory HISTORY_LOADER_THREAD_FACTORY = new BasicThreadFactory.Builder().namingPattern("dashboard-history-loader-%d").daemon(true).build();
     private PipelineDao pipelineDao;
     private TriggerMonitor triggerMonitor;
     private PipelinePauseService pipelinePauseService;
@@ -58,7 +66,8 @@ public class GoDashboardCurrentStateLoader {
     private SchedulingCheckerService schedulingCheckerService;
     private GoConfigPipelinePermissionsAuthority permissionsAuthority;
     private TimeStampBasedCounter timeStampBasedCounter;
-    private boolean everLoadedCurrentState = false;
+    private SystemEnvironment systemEnvironment;
+    private volatile boolean everLoadedCurrentState = false;
     private PipelineInstanceModels historyForDashboard = PipelineInstanceModels.createPipelineInstanceModels();
     private Set<CaseInsensitiveString> lastKnownPipelineNames = new HashSet<>();
 
@@ -66,7 +75,8 @@ public class GoDashboardCurrentStateLoader {
     public GoDashboardCurrentStateLoader(PipelineDao pipelineDao, TriggerMonitor triggerMonitor,
                                          PipelinePauseService pipelinePauseService, PipelineLockService pipelineLockService,
                                          PipelineUnlockApiService pipelineUnlockApiService, SchedulingCheckerService schedulingCheckerService,
-                                         GoConfigPipelinePermissionsAuthority permissionsAuthority, TimeStampBasedCounter timeStampBasedCounter) {
+                                         GoConfigPipelinePermissionsAuthority permissionsAuthority, TimeStampBasedCounter timeStampBasedCounter,
+                                         SystemEnvironment systemEnvironment) {
         this.pipelineDao = pipelineDao;
         this.triggerMonitor = triggerMonitor;
         this.pipelinePauseService = pipelinePauseService;
@@ -75,9 +85,21 @@ public class GoDashboardCurrentStateLoader {
         this.schedulingCheckerService = schedulingCheckerService;
         this.permissionsAuthority = permissionsAuthority;
         this.timeStampBasedCounter = timeStampBasedCounter;
+        this.systemEnvironment = systemEnvironment;
     }
 
     public List<GoDashboardPipeline> allPipelines(CruiseConfig config) {
+        return allPipelines(config, partiallyLoadedPipelines -> {
+        });
+    }
+
+    /**
+     * Same as {@link #allPipelines(CruiseConfig)}, but when history has to be loaded for more pipelines than fit in one
+     * chunk (say, on startup), every pipeline is handed to <code>partialLoadListener</code> after each chunk is loaded,
+     * with the ones still waiting for their history marked as such. That way, the dashboard can be shown before all of
+     * it has loaded. The listener is called on the calling thread.
+     */
+    public List<GoDashboardPipeline> allPipelines(CruiseConfig config, Consumer<List<GoDashboardPipeline>> partialLoadListener) {
         List<CaseInsensitiveString> allPipelineNames = config.getAllPipelineNames();
 
         HashSet<CaseInsensitiveString> currentPipelineNames = new HashSet<>(allPipelineNames);
@@ -85,8 +107,21 @@ public class GoDashboardCurrentStateLoader {
         Collection<CaseInsensitiveString> pipelinesToRemove = Sets.difference(lastKnownPipelineNames, currentPipelineNames);
         Collection<CaseInsensitiveString> pipelinesToAdd = Sets.difference(currentPipelineNames, lastKnownPipelineNames);
 
+        LOGGER.debug("Loading permissions from authority");
+        final Map<CaseInsensitiveString, Permissions> pipelinesAndTheirPermissions = permissionsAuthority.pipelinesAndTheirPermissions();
+
         if (!pipelinesToAdd.isEmpty()) {
-            historyForDashboard.addAll(loadHistoryForPipelines(new ArrayList<>(CaseInsensitiveString.toStringList(pipelinesToAdd))));
+            boolean loadedCurrentStateBefore = everLoadedCurrentState;
+            try {
+                PipelineInstanceModels addedHistory = loadHistoryInChunks(new ArrayList<>(CaseInsensitiveString.toStringList(pipelinesToAdd)), (historyLoadedSoFar, pipelinesStillLoading) -> {
+                    this.everLoadedCurrentState = true;
+                    partialLoadListener.accept(dashboardPipelinesFor(config, pipelinesAndTheirPermissions, historyIncluding(historyLoadedSoFar), pipelinesStillLoading));
+                });
+                historyForDashboard.addAll(addedHistory);
+            } catch (RuntimeException e) {
+                this.everLoadedCurrentState = loadedCurrentStateBefore;
+                throw e;
+            }
         }
 
         for (CaseInsensitiveString pipelineNameToRemove : new ArrayList<>(pipelinesToRemove)) {
@@ -95,9 +130,17 @@ public class GoDashboardCurrentStateLoader {
 
         lastKnownPipelineNames = currentPipelineNames;
 
-        LOGGER.debug("Loading permissions from authority");
-        final Map<CaseInsensitiveString, Permissions> pipelinesAndTheirPermissions = permissionsAuthority.pipelinesAndTheirPermissions();
+        final List<GoDashboardPipeline> pipelines = dashboardPipelinesFor(config, pipelinesAndTheirPermissions, historyForDashboard, Collections.emptySet());
+        this.everLoadedCurrentState = true;
+        return pipelines;
+    }
+
+    public boolean hasEverLoadedCurrentState() {
+        return everLoadedCurrentState;
+    }
 
+    private List<GoDashboardPipeline> dashboardPipelinesFor(CruiseConfig config, Map<CaseInsensitiveString, Permissions> pipelinesAndTheirPermissions,
+                                                            PipelineInstanceModels history, Set<CaseInsensitiveString> pipelinesStillLoading) {
         final List<GoDashboardPipeline> pipelines = new ArrayList<>(1024);
 
         LOGGER.debug("Populating dashboard pipelines");
@@ -105,17 +148,60 @@ public class GoDashboardCurrentStateLoader {
             long start = System.currentTimeMillis();
             Permissions permissions = permissionsFor(pipelineConfig, pipelinesAndTheirPermissions);
 
-            pipelines.add(createGoDashboardPipeline(pipelineConfig, permissions, historyForDashboard, group));
+            pipelines.add(createGoDashboardPipeline(pipelineConfig, permissions, history, group, pipelinesStillLoading.contains(pipelineConfig.name())));
 
             LOGGER.debug("It took {}ms to process pipeline {}", (System.currentTimeMillis() - start), pipelineConfig.getName());
         }));
         LOGGER.debug("Done populating dashboard pipelines");
-        this.everLoadedCurrentState = true;
         return pipelines;
     }
 
-    public boolean hasEverLoadedCurrentState() {
-        return everLoadedCurrentState;
+    private PipelineInstanceModels historyIncluding(PipelineInstanceModels historyLoadedSoFar) {
+        PipelineInstanceModels history = createPipelineInstanceModels();
+        history.addAll(historyForDashboard);
+        history.addAll(historyLoadedSoFar);
+        return history;
+    }
+
+    /**
+     * Nothing is added to {@link #historyForDashboard} here, so that a chunk failing to load leaves behind neither the
+     * history of the chunks before it nor pipelines which are known without their history. The caller adds what is
+     * returned once every chunk has loaded.
+     */
+    private PipelineInstanceModels loadHistoryInChunks(List<String> pipelineNames, BiConsumer<PipelineInstanceModels, Set<CaseInsensitiveString>> chunkLoadedListener) {
+        List<List<String>> chunks = Lists.partition(pipelineNames, Math.max(1, systemEnvironment.getDashboardHistoryLoadChunkSize()));
+        if (chunks.size() == 1) {
+            return loadHistoryForPipelines(pipelineNames);
+        }
+
+        LOGGER.info("Loading history for dashboard with {} pipelines in {} chunks", pipelineNames.size(), chunks.size());
+        long start = System.currentTimeMillis();
+        PipelineInstanceModels loadedHistory = createPipelineInstanceModels();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, systemEnvironment.getDashboardHistoryLoadThreads()), HISTORY_LOADER_THREAD_FACTORY);
+        try {
+            List<Future<PipelineInstanceModels>> loads = chunks.stream()
+                    .map(chunk -> executor.submit(() -> loadHistoryForPipelines(chunk)))
+                    .collect(Collectors.toList());
+
+            Set<CaseInsensitiveString> pipelinesStillLoading = pipelineNames.stream().map(CaseInsensitiveString::new).collect(Collectors.toSet());
+            for (int i = 0; i < chunks.size(); i++) {
+                loadedHistory.addAll(loads.get(i).get());
+                chunks.get(i).forEach(pipelineName -> pipelinesStillLoading.remove(new CaseInsensitiveString(pipelineName)));
+
+                if (!pipelinesStillLoading.isEmpty()) {
+                    chunkLoadedListener.accept(loadedHistory, pipelinesStillLoading);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        LOGGER.info("Done loading history for dashboard with {} pipelines in {}ms", pipelineNames.size(), System.currentTimeMillis() - start);
+        return loadedHistory;
     }
 
     private PipelineInstanceModels loadHistoryForPipelines(List<String> pipelineNames) {
@@ -132,7 +218,7 @@ public class GoDashboardCurrentStateLoader {
         PipelineInstanceModels pipelineHistoryForDashboard = loadHistoryForPipelines(pipelineNames);
         syncHistoryForDashboard(pipelineHistoryForDashboard, pipelineConfig.name());
         Permissions permissions = permissionsAuthority.permissionsForPipeline(pipelineConfig.name());
-        return createGoDashboardPipeline(pipelineConfig, permissions, pipelineHistoryForDashboard, groupConfig);
+        return createGoDashboardPipeline(pipelineConfig, permissions, pipelineHistoryForDashboard, groupConfig, false);
     }
 
     private void syncHistoryForDashboard(PipelineInstanceModels pipelineHistoryForDashboard, final CaseInsensitiveString pipelineName) {
@@ -141,9 +227,9 @@ public class GoDashboardCurrentStateLoader {
         lastKnownPipelineNames.add(pipelineName);
     }
 
-    private GoDashboardPipeline createGoDashboardPipeline(PipelineConfig pipelineConfig, Permissions permissions, PipelineInstanceModels historyForDashboard, PipelineConfigs group) {
+    private GoDashboardPipeline createGoDashboardPipeline(PipelineConfig pipelineConfig, Permissions permissions, PipelineInstanceModels historyForDashboard, PipelineConfigs group, boolean historyLoading) {
         PipelineModel pipelineModel = pipelineModelFor(pipelineConfig, historyForDashboard);
-        return new GoDashboardPipeline(pipelineModel, permissions, group.getGroup(), timeStampBasedCounter, pipelineConfig);
+        return new GoDashboardPipeline(pipelineModel, permissions, group.getGroup(), timeStampBasedCounter, pipelineConfig, historyLoading);
     }
 
     private PipelineModel pipelineModelFor(PipelineConfig pipelineConfig, PipelineInstanceModels historyForDashboard) {
@@ -25,7 +25,11 @@ import com.thoughtworks.go.presentation.pipelinehistory.PipelineInstanceModel;
 import com.thoughtworks.go.presentation.pipelinehistory.PipelineModel;
 import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModel;
 
+import java.util.LinkedHashSet;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /* Represents a pipeline on the dashboard. Cacheable, since the permissions are not specific to a user. */
 public class GoDashboardPipeline {
@@ -34,11 +38,20 @@ public class GoDashboardPipeline {
     private final String groupName;
     private final TrackingTool trackingTool;
     private final long lastUpdatedTimeStamp;
+    private final boolean historyLoading;
     private ConfigOrigin origin;
     private int displayOrderWeight;
     private PipelineConfig pipelineConfig;
+    private volatile Set<String> stageNamesInModel;
+    private final ConcurrentHashMap<String, String> renderedFragments = new ConcurrentHashMap<>();
+    private static final int MAX_RENDERED_FRAGMENTS = 32;
 
     public GoDashboardPipeline(PipelineModel pipelineModel, Permissions permissions, String groupName, Counter timeStampBasedCounter, PipelineConfig pipelineConfig) {
+        this(pipelineModel, permissions, groupName, timeStampBasedCounter, pipelineConfig, false);
+    }
+
+    public GoDashboardPipeline(PipelineModel pipelineModel, Permissions permissions, String groupName, Counter timeStampBasedCounter, PipelineConfig pipelineConfig, boolean historyLoading) {
+        this.historyLoading = historyLoading;
         this.pipelineModel = pipelineModel;
         this.permissions = permissions;
         this.groupName = groupName;
@@ -105,6 +118,58 @@ public class GoDashboardPipeline {
         return lastUpdatedTimeStamp;
     }
 
+    /**
+     * @return true if this pipeline is on the dashboard before its history has been loaded, which can happen while
+     * history for a lot of pipelines is loaded at once (say, on startup)
+     */
+    public boolean isHistoryLoading() {
+        return historyLoading;
+    }
+
+    /**
+     * Two users with the same fingerprint are allowed to do exactly the same things with this pipeline, as it appears
+     * on the dashboard right now, so they can be shown the same rendered pipeline.
+     */
+    public String permissionFingerprintFor(String userName) {
+        Set<String> stageNames = stageNamesInModel();
+        StringBuilder fingerprint = new StringBuilder(3 + stageNames.size());
+        fingerprint.append(isPipelineOperator(userName) ? '1' : '0')
+                .append(canBeAdministeredBy(userName) ? '1' : '0')
+                .append(canBeOperatedBy(userName) ? '1' : '0');
+        for (String stageName : stageNames) {
+            fingerprint.append(isStageOperator(stageName, userName) ? '1' : '0');
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Renders this pipeline once per key (say, a permission fingerprint) and reuses that for as long as this entry is in
+     * the dashboard cache, since a changed pipeline always gets a new entry.
+     */
+    public String renderedFragment(String key, Supplier<String> renderer) {
+        String fragment = renderedFragments.get(key);
+        if (fragment == null) {
+            fragment = renderer.get();
+            if (renderedFragments.size() < MAX_RENDERED_FRAGMENTS) {
+                renderedFragments.putIfAbsent(key, fragment);
+            }
+        }
+        return fragment;
+    }
+
+    private Set<String> stageNamesInModel() {
+        if (stageNamesInModel == null) {
+            Set<String> stageNames = new LinkedHashSet<>();
+            pipelineModel.getActivePipelineInstances().forEach(instance -> instance.getStageHistory().forEach(stage -> {
+                for (StageInstanceModel current = stage; current != null; current = current.getPreviousStage()) {
+                    stageNames.add(current.getName());
+                }
+            }));
+            stageNamesInModel = stageNames;
+        }
+        return stageNamesInModel;
+    }
+
     @Override
     public String toString() {
         return String.format("GoDashboardPipeline{name='%s',groupName='%s'}", name(), groupName);
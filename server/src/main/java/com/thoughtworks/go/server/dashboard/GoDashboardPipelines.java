@@ -19,20 +19,49 @@ import com.thoughtworks.go.config.CaseInsensitiveString;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public class GoDashboardPipelines {
     private HashMap<CaseInsensitiveString, GoDashboardPipeline> pipelines;
     private long lastUpdatedTimeStamp;
+    private long structureLastChangedTimeStamp;
 
     public GoDashboardPipelines(HashMap<CaseInsensitiveString, GoDashboardPipeline> pipelines, TimeStampBasedCounter timeStampBasedCounter) {
         this.pipelines = pipelines;
         this.lastUpdatedTimeStamp = timeStampBasedCounter.getNext();
+        this.structureLastChangedTimeStamp = lastUpdatedTimeStamp;
+    }
+
+    GoDashboardPipelines(HashMap<CaseInsensitiveString, GoDashboardPipeline> pipelines, TimeStampBasedCounter timeStampBasedCounter, long structureLastChangedTimeStamp) {
+        this.pipelines = pipelines;
+        this.lastUpdatedTimeStamp = timeStampBasedCounter.getNext();
+        this.structureLastChangedTimeStamp = structureLastChangedTimeStamp;
     }
 
     public long lastUpdatedTimeStamp() {
         return lastUpdatedTimeStamp;
     }
 
+    public long structureLastChangedTimeStamp() {
+        return structureLastChangedTimeStamp;
+    }
+
+    /**
+     * A client which has seen this snapshot as of <code>version</code> can catch up by applying only the pipelines
+     * which changed since, as long as no pipeline has been added, removed or moved to another group in the meantime.
+     * A version from the future (say, from before a server restart) cannot be caught up with either.
+     */
+    public boolean canBeCaughtUpFrom(long version) {
+        return version >= structureLastChangedTimeStamp && version <= lastUpdatedTimeStamp;
+    }
+
+    public List<GoDashboardPipeline> changedSince(long version) {
+        return pipelines.values().stream()
+                .filter(pipeline -> pipeline.getLastUpdatedTimeStamp() > version)
+                .collect(Collectors.toList());
+    }
+
     public Collection<GoDashboardPipeline> getPipelines() {
         return pipelines.values();
     }
@@ -23,7 +23,7 @@ import com.thoughtworks.go.domain.materials.Material;
  */
 public class MaterialUpdateCompletedMessage implements GoMessage {
     private final Material material;
-    private long trackingId;
+    private final long trackingId;
 
     public MaterialUpdateCompletedMessage(Material material, long trackingId) {
         this.material = material;
@@ -27,7 +27,7 @@ import static org.apache.commons.lang3.builder.HashCodeBuilder.reflectionHashCod
 public class MaterialUpdateMessage implements GoMessage {
     private final Material material;
 
-    private long trackingId;
+    private final long trackingId;
 
     public MaterialUpdateMessage(Material material, long trackingId) {
         this.material = material;
@@ -53,8 +53,6 @@ import org.springframework.stereotype.Service;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import static com.thoughtworks.go.serverhealth.HealthStateType.general;
 import static com.thoughtworks.go.serverhealth.ServerHealthState.warning;
@@ -84,6 +82,7 @@ public class MaterialUpdateService implements GoMessageListener<MaterialUpdateCo
     private final MaterialConfigConverter materialConfigConverter;
     private final Set<MaterialSource> materialSources = new HashSet<>();
     private final Set<MaterialUpdateCompleteListener> materialUpdateCompleteListeners = new HashSet<>();
+    private volatile PostCommitMaterials postCommitMaterials;
     public static final String TYPE = "post_commit_hook_material_type";
 
     @Autowired
@@ -172,17 +171,23 @@ public class MaterialUpdateService implements GoMessageListener<MaterialUpdateCo
     }
 
     public boolean updateGitMaterial(String branchName, Collection<String> possibleUrls, List<String> scmNames) {
-        final CruiseConfig cruiseConfig = goConfigService.currentCruiseConfig();
-        Set<Material> allUniquePostCommitSchedulableMaterials = materialConfigConverter.toMaterials(cruiseConfig.getAllUniquePostCommitSchedulableMaterials());
-
-        Predicate<Material> predicate = scmNames.isEmpty() ? new MaterialPredicate(branchName, possibleUrls) : new PluggableScmPredicate(scmNames);
-        Set<Material> allGitMaterials = allUniquePostCommitSchedulableMaterials.stream().filter(predicate).collect(Collectors.toSet());
+        PostCommitMaterials postCommitMaterials = postCommitMaterials(goConfigService.currentCruiseConfig());
+        Set<Material> allGitMaterials = scmNames.isEmpty() ? postCommitMaterials.gitMaterials(branchName, possibleUrls) : postCommitMaterials.pluggableScmMaterials(scmNames);
 
         allGitMaterials.forEach(MaterialUpdateService.this::updateMaterial);
 
         return !allGitMaterials.isEmpty();
     }
 
+    private PostCommitMaterials postCommitMaterials(CruiseConfig cruiseConfig) {
+        PostCommitMaterials cached = postCommitMaterials;
+        if (cached == null || cached.cruiseConfig != cruiseConfig) {
+            cached = new PostCommitMaterials(cruiseConfig, materialConfigConverter.toMaterials(cruiseConfig.getAllUniquePostCommitSchedulableMaterials()));
+            postCommitMaterials = cached;
+        }
+        return cached;
+    }
+
     public boolean updateMaterial(MaterialConfig config) {
         return updateMaterial(materialConfigConverter.toMaterial(config));
     }
@@ -311,34 +316,43 @@ public class MaterialUpdateService implements GoMessageListener<MaterialUpdateCo
         this.materialUpdateCompleteListeners.add(materialUpdateCompleteListener);
     }
 
-    private static class MaterialPredicate implements Predicate<Material> {
-        private final String branchName;
-        private final Set<String> possibleUrls;
-
-        public MaterialPredicate(String branchName, Collection<String> possibleUrls) {
-            this.branchName = branchName;
-            this.possibleUrls = new HashSet<>(possibleUrls);
-        }
-
-        @Override
-        public boolean test(Material material) {
-            return material instanceof GitMaterial &&
-                    ((GitMaterial) material).getBranch().equals(branchName) &&
-                    possibleUrls.contains(((GitMaterial) material).getUrlArgument().withoutCredentials());
+    // Webhooks arrive far more often than the config changes, so the post commit schedulable materials are indexed by
+    // git branch and url, and by scm name, once for each config that gets loaded.
+    private static class PostCommitMaterials {
+        private final CruiseConfig cruiseConfig;
+        private final Map<String, Map<String, Set<Material>>> gitMaterialsByBranchAndUrl = new HashMap<>();
+        private final Map<String, Set<Material>> pluggableScmMaterialsByName = new HashMap<>();
+
+        private PostCommitMaterials(CruiseConfig cruiseConfig, Set<Material> materials) {
+            this.cruiseConfig = cruiseConfig;
+            for (Material material : materials) {
+                if (material instanceof GitMaterial) {
+                    GitMaterial gitMaterial = (GitMaterial) material;
+                    gitMaterialsByBranchAndUrl.computeIfAbsent(gitMaterial.getBranch(), branch -> new HashMap<>())
+                            .computeIfAbsent(gitMaterial.getUrlArgument().withoutCredentials(), url -> new HashSet<>())
+                            .add(material);
+                } else if (material instanceof PluggableSCMMaterial) {
+                    pluggableScmMaterialsByName.computeIfAbsent(((PluggableSCMMaterial) material).getScmConfig().getName(), name -> new HashSet<>())
+                            .add(material);
+                }
+            }
         }
-    }
 
-    private static class PluggableScmPredicate implements Predicate<Material> {
-        private final List<String> scmNames;
-
-        public PluggableScmPredicate(List<String> scmNames) {
-            this.scmNames = scmNames;
+        Set<Material> gitMaterials(String branchName, Collection<String> possibleUrls) {
+            Map<String, Set<Material>> materialsByUrl = gitMaterialsByBranchAndUrl.getOrDefault(branchName, Collections.emptyMap());
+            Set<Material> gitMaterials = new HashSet<>();
+            for (String url : possibleUrls) {
+                gitMaterials.addAll(materialsByUrl.getOrDefault(url, Collections.emptySet()));
+            }
+            return gitMaterials;
         }
 
-        @Override
-        public boolean test(Material material) {
-            return material instanceof PluggableSCMMaterial &&
-                    scmNames.contains(((PluggableSCMMaterial) material).getScmConfig().getName());
+        Set<Material> pluggableScmMaterials(List<String> scmNames) {
+            Set<Material> pluggableScmMaterials = new HashSet<>();
+            for (String scmName : scmNames) {
+                pluggableScmMaterials.addAll(pluggableScmMaterialsByName.getOrDefault(scmName, Collections.emptySet()));
+            }
+            return pluggableScmMaterials;
         }
     }
 }
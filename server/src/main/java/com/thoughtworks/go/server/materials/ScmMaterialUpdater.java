@@ -16,19 +16,24 @@
 package com.thoughtworks.go.server.materials;
 
 import com.thoughtworks.go.config.materials.SubprocessExecutionContext;
+import com.thoughtworks.go.config.materials.git.GitMaterial;
 import com.thoughtworks.go.domain.MaterialInstance;
 import com.thoughtworks.go.domain.MaterialRevisions;
 import com.thoughtworks.go.domain.materials.Material;
 import com.thoughtworks.go.domain.materials.Modification;
 import com.thoughtworks.go.domain.materials.Modifications;
+import com.thoughtworks.go.domain.materials.Revision;
+import com.thoughtworks.go.server.perf.MDUPerformanceLogger;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
 import com.thoughtworks.go.server.service.MaterialService;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
 
 @Component
@@ -39,21 +44,31 @@ class ScmMaterialUpdater implements MaterialUpdater {
     private LegacyMaterialChecker materialChecker;
     private final SubprocessExecutionContext subprocessExecutionContext;
     private final MaterialService materialService;
+    private final SystemEnvironment systemEnvironment;
+    private final MDUPerformanceLogger mduPerformanceLogger;
 
     @Autowired
     ScmMaterialUpdater(MaterialRepository materialRepository, LegacyMaterialChecker materialChecker,
-                       SubprocessExecutionContext subprocessExecutionContext, MaterialService materialService) {
+                       SubprocessExecutionContext subprocessExecutionContext, MaterialService materialService,
+                       SystemEnvironment systemEnvironment, MDUPerformanceLogger mduPerformanceLogger) {
         this.materialRepository = materialRepository;
         this.materialChecker = materialChecker;
         this.subprocessExecutionContext = subprocessExecutionContext;
         this.materialService = materialService;
+        this.systemEnvironment = systemEnvironment;
+        this.mduPerformanceLogger = mduPerformanceLogger;
     }
 
     @Override
     public void insertLatestOrNewModifications(Material material, MaterialInstance materialInstance, File folder, Modifications list) {
-        List<Modification> newChanges = list.isEmpty() ?
-                materialChecker.findLatestModification(folder, material, subprocessExecutionContext) :
-                materialService.modificationsSince(material, folder, list.latestRevision(material), subprocessExecutionContext);
+        List<Modification> newChanges;
+        if (list.isEmpty()) {
+            newChanges = materialChecker.findLatestModification(folder, material, subprocessExecutionContext);
+        } else if (isRemoteHeadAt(material, list.latestRevision(material))) {
+            newChanges = Collections.emptyList();
+        } else {
+            newChanges = materialService.modificationsSince(material, folder, list.latestRevision(material), subprocessExecutionContext);
+        }
         if (newChanges.isEmpty()) {
             LOGGER.debug("[Material Update] Did not find any new modifications for material '{}' with flyweight '{}' using working directory '{}'", material, material.getFingerprint(), folder.getAbsolutePath());
         } else {
@@ -63,6 +78,24 @@ class ScmMaterialUpdater implements MaterialUpdater {
         }
     }
 
+    // Probing the remote with ls-remote is much cheaper than fetching into the flyweight working copy and running git log,
+    // and most polls of a git material find that its branch has not moved.
+    private boolean isRemoteHeadAt(Material material, Revision latestKnownRevision) {
+        if (!(material instanceof GitMaterial) || !systemEnvironment.isGitRemoteHeadProbeEnabled()) {
+            return false;
+        }
+        String remoteHeadRevision;
+        try {
+            remoteHeadRevision = ((GitMaterial) material).remoteHeadRevision();
+        } catch (Exception e) {
+            LOGGER.debug("[Material Update] Could not probe the remote head of material '{}', falling back to a fetch", material, e);
+            remoteHeadRevision = null;
+        }
+        boolean unchanged = remoteHeadRevision != null && remoteHeadRevision.equals(latestKnownRevision.getRevision());
+        mduPerformanceLogger.gitRemoteHeadProbed(material, unchanged);
+        return unchanged;
+    }
+
     @Override
     public void addNewMaterialWithModifications(Material material, File folder) {
         MaterialRevisions materialRevisions = materialRepository.findLatestModification(material);
@@ -16,7 +16,7 @@
 package com.thoughtworks.go.server.messaging;
 
 public class GoTextMessage implements GoMessage {
-    private String text;
+    private final String text;
 
     public GoTextMessage(String text) {
         this.text = text;
@@ -19,8 +19,8 @@ import com.thoughtworks.go.domain.JobIdentifier;
 import com.thoughtworks.go.domain.JobResult;
 
 public class JobResultMessage implements GoMessage {
-    private JobIdentifier jobIdentifier;
-    private JobResult result;
+    private final JobIdentifier jobIdentifier;
+    private final JobResult result;
     private final String agentUuid;
 
     public JobResultMessage(JobIdentifier jobIdentifier, JobResult result, String agentUuid) {
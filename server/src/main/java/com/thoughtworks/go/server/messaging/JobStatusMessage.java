@@ -20,9 +20,9 @@ import com.thoughtworks.go.domain.JobState;
 import com.thoughtworks.go.domain.StageIdentifier;
 
 public class JobStatusMessage implements GoMessage {
-    private JobIdentifier jobIdentifier;
-    private JobState state;
-    private String agentUuid;
+    private final JobIdentifier jobIdentifier;
+    private final JobState state;
+    private final String agentUuid;
 
     public JobStatusMessage(JobIdentifier jobIdentifier, JobState state, String agentUuid) {
         this.jobIdentifier = jobIdentifier;
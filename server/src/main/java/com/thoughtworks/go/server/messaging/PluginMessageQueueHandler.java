@@ -63,7 +63,10 @@ public abstract class PluginMessageQueueHandler<T extends PluginAwareMessage> im
         }
     }
 
-    public void post(T message, long timeToLive) {
+    /**
+     * @return true if the message made it onto the plugin's queue, false if there is no queue for the plugin or posting failed
+     */
+    public boolean post(T message, long timeToLive) {
         String pluginId = message.pluginId();
         try {
             if (queues.containsKey(pluginId)) {
@@ -71,6 +74,7 @@ public abstract class PluginMessageQueueHandler<T extends PluginAwareMessage> im
                 LOGGER.debug("Posting message {} to queue {}", message, queue.queueName);
                 queue.post(message, timeToLive);
                 LOGGER.debug("Message {} posted to queue {}", message, queue.queueName);
+                return true;
             } else {
                 LOGGER.error("Could not find a queue for {}", pluginId);
                 //TODO: Add server health error
@@ -78,5 +82,6 @@ public abstract class PluginMessageQueueHandler<T extends PluginAwareMessage> im
         } catch (Exception e) {
             LOGGER.error("Failed while posting to queue for plugin {}. The error was {}", pluginId, e.getMessage(), e);
         }
+        return false;
     }
 }
@@ -22,7 +22,7 @@ import com.thoughtworks.go.server.domain.Username;
 public class StageResultMessage implements GoMessage {
     private final StageIdentifier stageIdentifier;
     private final StageEvent event;
-    private Username cancelledBy;
+    private final Username cancelledBy;
 
     public StageResultMessage(StageIdentifier stageIdentifier, StageEvent event, Username cancelledBy) {
         this.stageIdentifier = stageIdentifier;
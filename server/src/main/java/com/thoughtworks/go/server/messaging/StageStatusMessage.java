@@ -21,9 +21,9 @@ import com.thoughtworks.go.domain.StageState;
 import com.thoughtworks.go.server.domain.Username;
 
 public class StageStatusMessage implements GoMessage {
-    private StageIdentifier stageIdentifier;
-    private StageState stageState;
-    private StageResult result;
+    private final StageIdentifier stageIdentifier;
+    private final StageState stageState;
+    private final StageResult result;
     private final Username userName;
 
     public StageStatusMessage(StageIdentifier stageIdentifier, StageState stageState, StageResult result) {
@@ -17,7 +17,7 @@ package com.thoughtworks.go.server.messaging;
 
 public class StartServerBackupMessage implements GoMessage {
 
-    private long id;
+    private final long id;
 
     public StartServerBackupMessage(long id) {
         this.id = id;
@@ -35,16 +35,16 @@ import static com.thoughtworks.go.serverhealth.HealthStateScope.GLOBAL;
 public class JMSMessageListenerAdapter implements Runnable {
     private static final Logger LOG = LoggerFactory.getLogger(JMSMessageListenerAdapter.class);
 
-    private final MessageConsumer consumer;
+    private final MessageSource source;
     private final GoMessageListener listener;
     private final DaemonThreadStatsCollector daemonThreadStatsCollector;
     private SystemEnvironment systemEnvironment;
     private ServerHealthService serverHealthService;
     public Thread thread;
 
-    private JMSMessageListenerAdapter(MessageConsumer consumer, GoMessageListener listener, DaemonThreadStatsCollector daemonThreadStatsCollector,
+    private JMSMessageListenerAdapter(MessageSource source, GoMessageListener listener, DaemonThreadStatsCollector daemonThreadStatsCollector,
                                       SystemEnvironment systemEnvironment, ServerHealthService serverHealthService) {
-        this.consumer = consumer;
+        this.source = source;
         this.listener = listener;
         this.daemonThreadStatsCollector = daemonThreadStatsCollector;
         this.systemEnvironment = systemEnvironment;
@@ -67,20 +67,19 @@ public class JMSMessageListenerAdapter implements Runnable {
     }
 
     public void stop() throws JMSException {
-        consumer.close();
+        source.close();
     }
 
     protected boolean runImpl() {
         try {
-            Message message = consumer.receive();
+            GoMessage message = source.receive();
             if (message == null) {
                 LOG.debug("Message consumer was closed.");
                 return true;
             }
 
-            ObjectMessage omessage = (ObjectMessage) message;
             daemonThreadStatsCollector.captureStats(thread.getId());
-            listener.onMessage((GoMessage) omessage.getObject());
+            listener.onMessage(message);
         } catch (JMSException e) {
             slowDownAndWarnAboutPossibleProblems(e);
         } catch (Exception e) {
@@ -107,7 +106,47 @@ public class JMSMessageListenerAdapter implements Runnable {
 
     public static JMSMessageListenerAdapter startListening(MessageConsumer consumer, GoMessageListener listener, DaemonThreadStatsCollector daemonThreadStatsCollector, SystemEnvironment systemEnvironment, ServerHealthService serverHealthService)
             throws JMSException {
-        return new JMSMessageListenerAdapter(consumer, listener, daemonThreadStatsCollector, systemEnvironment, serverHealthService);
+        return startListening(new ConsumerMessageSource(consumer), listener, daemonThreadStatsCollector, systemEnvironment, serverHealthService);
+    }
+
+    public static JMSMessageListenerAdapter startListening(MessageSource source, GoMessageListener listener, DaemonThreadStatsCollector daemonThreadStatsCollector, SystemEnvironment systemEnvironment, ServerHealthService serverHealthService) {
+        return new JMSMessageListenerAdapter(source, listener, daemonThreadStatsCollector, systemEnvironment, serverHealthService);
+    }
+
+    /**
+     * @understands handing out messages, one at a time, to a listener thread
+     */
+    public interface MessageSource {
+        /**
+         * Blocks until a message is available.
+         *
+         * @return the next message, or <code>null</code> if the source has been closed
+         */
+        GoMessage receive() throws JMSException;
+
+        void close() throws JMSException;
+    }
+
+    private static class ConsumerMessageSource implements MessageSource {
+        private final MessageConsumer consumer;
+
+        private ConsumerMessageSource(MessageConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public GoMessage receive() throws JMSException {
+            Message message = consumer.receive();
+            if (message == null) {
+                return null;
+            }
+            return (GoMessage) ((ObjectMessage) message).getObject();
+        }
+
+        @Override
+        public void close() throws JMSException {
+            consumer.close();
+        }
     }
 
 }
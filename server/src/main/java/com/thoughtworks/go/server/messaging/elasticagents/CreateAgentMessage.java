@@ -27,7 +27,7 @@ public class CreateAgentMessage implements PluginAwareMessage {
     private final String autoregisterKey;
     private final String environment;
     private final Map<String, String> configuration;
-    private Map<String, String> clusterProfile;
+    private final Map<String, String> clusterProfile;
     private final JobIdentifier jobIdentifier;
     private final String pluginId;
 
@@ -25,7 +25,7 @@ import java.util.stream.Collectors;
 
 public class ServerPingMessage implements PluginAwareMessage {
     private final String pluginId;
-    private List<ClusterProfile> clusterProfiles;
+    private final List<ClusterProfile> clusterProfiles;
 
     public ServerPingMessage(String pluginId, List<ClusterProfile> clusterProfiles) {
         this.pluginId = pluginId;
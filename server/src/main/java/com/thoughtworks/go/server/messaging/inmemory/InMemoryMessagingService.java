@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.inmemory;
+
+import com.thoughtworks.go.server.messaging.GoMessageListener;
+import com.thoughtworks.go.server.messaging.MessageSender;
+import com.thoughtworks.go.server.messaging.MessagingService;
+import com.thoughtworks.go.server.messaging.activemq.JMSMessageListenerAdapter;
+import com.thoughtworks.go.server.service.support.DaemonThreadStatsCollector;
+import com.thoughtworks.go.serverhealth.ServerHealthService;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.thoughtworks.go.util.ExceptionUtils.bombIf;
+import static com.thoughtworks.go.util.SystemEnvironment.IN_MEMORY_MESSAGING_DESTINATION_CAPACITY;
+import static com.thoughtworks.go.util.SystemEnvironment.IN_MEMORY_MESSAGING_SEND_TIMEOUT_IN_MILLIS;
+
+/**
+ * @understands delivering messages between components of the server without going through a message broker.
+ * Messages are handed over by reference, so unlike the ActiveMQ implementation they are never serialized or copied.
+ */
+public class InMemoryMessagingService implements MessagingService {
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryMessagingService.class);
+    private final Map<String, InMemoryQueue> queues = new ConcurrentHashMap<>();
+    private final Map<String, InMemoryTopic> topics = new ConcurrentHashMap<>();
+    private final DaemonThreadStatsCollector daemonThreadStatsCollector;
+    private final SystemEnvironment systemEnvironment;
+    private final ServerHealthService serverHealthService;
+    private final int capacity;
+    private final long sendTimeoutMillis;
+    private volatile boolean stopped;
+
+    public InMemoryMessagingService(DaemonThreadStatsCollector daemonThreadStatsCollector, SystemEnvironment systemEnvironment, ServerHealthService serverHealthService) {
+        this.daemonThreadStatsCollector = daemonThreadStatsCollector;
+        this.systemEnvironment = systemEnvironment;
+        this.serverHealthService = serverHealthService;
+        this.capacity = systemEnvironment.get(IN_MEMORY_MESSAGING_DESTINATION_CAPACITY);
+        this.sendTimeoutMillis = systemEnvironment.get(IN_MEMORY_MESSAGING_SEND_TIMEOUT_IN_MILLIS);
+    }
+
+    @Override
+    public MessageSender createSender(String topic) {
+        return new InMemoryMessageSender((message, timeToLive) -> topic(topic).send(message, timeToLive));
+    }
+
+    @Override
+    public JMSMessageListenerAdapter addListener(String topic, GoMessageListener listener) {
+        return JMSMessageListenerAdapter.startListening(topic(topic).subscribe(), listener, daemonThreadStatsCollector, systemEnvironment, serverHealthService);
+    }
+
+    /**
+     * The sender looks the queue up on every message, so a queue removed in the meantime is created again, as a broker
+     * would on the next message sent to it.
+     */
+    @Override
+    public MessageSender createQueueSender(String queueName) {
+        return new InMemoryMessageSender((message, timeToLive) -> {
+            while (!queue(queueName).send(message, timeToLive)) {
+                LOG.debug("Queue {} was removed while a message was being sent to it, sending it again", queueName);
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public JMSMessageListenerAdapter addQueueListener(String queueName, GoMessageListener listener) {
+        return JMSMessageListenerAdapter.startListening(queue(queueName).consumer(), listener, daemonThreadStatsCollector, systemEnvironment, serverHealthService);
+    }
+
+    @Override
+    public void removeQueue(String queueName) {
+        InMemoryQueue queue = queues.remove(queueName);
+        if (queue != null) {
+            queue.close();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        queues.values().forEach(InMemoryQueue::close);
+        queues.clear();
+        topics.values().forEach(InMemoryTopic::close);
+        topics.clear();
+    }
+
+    private InMemoryQueue queue(String queueName) {
+        bombIf(stopped, () -> "Messaging has been stopped, cannot use queue " + queueName);
+        return queues.computeIfAbsent(queueName, name -> new InMemoryQueue(name, capacity, sendTimeoutMillis));
+    }
+
+    private InMemoryTopic topic(String topicName) {
+        bombIf(stopped, () -> "Messaging has been stopped, cannot use topic " + topicName);
+        return topics.computeIfAbsent(topicName, name -> new InMemoryTopic(name, capacity, sendTimeoutMillis));
+    }
+}
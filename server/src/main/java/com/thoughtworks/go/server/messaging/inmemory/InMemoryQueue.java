@@ -0,0 +1,183 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.inmemory;
+
+import com.thoughtworks.go.server.messaging.GoMessage;
+import com.thoughtworks.go.server.messaging.activemq.JMSMessageListenerAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static com.thoughtworks.go.util.ExceptionUtils.bomb;
+
+/**
+ * @understands a bounded point-to-point destination, every message is received by exactly one of the competing consumers.
+ * Messages are queued by reference. Senders wait a while for room once the destination is full and then fail, except
+ * for the destination's own listeners, which would otherwise wait on themselves.
+ */
+class InMemoryQueue implements InMemoryDestination {
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryQueue.class);
+
+    private final String name;
+    private final long sendTimeoutMillis;
+    private final BlockingQueue<Envelope> messages = new LinkedBlockingQueue<>();
+    private final Semaphore room;
+    private final Set<Consumer> consumers = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    InMemoryQueue(String name, int capacity, long sendTimeoutMillis) {
+        this.name = name;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.room = new Semaphore(capacity);
+    }
+
+    @Override
+    public boolean send(GoMessage message, long timeToLive) {
+        if (closed) {
+            LOG.debug("Not sending message {} to removed destination {}", message, name);
+            return false;
+        }
+        boolean tookRoom = isOwnListener() ? room.tryAcquire() : waitForRoom(message);
+        if (!tookRoom) {
+            LOG.warn("Destination {} is full, queueing message {} from one of its own listeners above its capacity", name, message);
+        }
+        Envelope envelope = new Envelope(message, timeToLive, tookRoom);
+        messages.add(envelope);
+        if (closed && messages.remove(envelope)) {
+            if (tookRoom) {
+                // hands the wake-up from close() on to the next sender waiting for room
+                room.release();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isOwnListener() {
+        Thread current = Thread.currentThread();
+        return consumers.stream().anyMatch(consumer -> consumer.thread == current);
+    }
+
+    private boolean waitForRoom(GoMessage message) {
+        try {
+            if (room.tryAcquire(sendTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw bomb(e);
+        }
+        LOG.error("Destination {} has been full for {}ms, its listeners are not keeping up. Giving up on sending message {}", name, sendTimeoutMillis, message);
+        throw bomb(String.format("Timed out after %sms waiting for room on destination %s", sendTimeoutMillis, name));
+    }
+
+    JMSMessageListenerAdapter.MessageSource consumer() {
+        Consumer consumer = new Consumer();
+        consumers.add(consumer);
+        return consumer;
+    }
+
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        messages.clear();
+        consumers.forEach(Consumer::close);
+        // wakes up senders waiting for room, they find the destination closed
+        room.release(room.getQueueLength() + 1);
+    }
+
+    int size() {
+        return messages.size();
+    }
+
+    private class Consumer implements JMSMessageListenerAdapter.MessageSource {
+        private volatile Thread thread;
+        private boolean consumerClosed;
+        private boolean waiting;
+
+        @Override
+        public GoMessage receive() {
+            thread = Thread.currentThread();
+            while (true) {
+                synchronized (this) {
+                    if (consumerClosed) {
+                        return null;
+                    }
+                    waiting = true;
+                }
+                Envelope envelope;
+                try {
+                    envelope = messages.take();
+                } catch (InterruptedException e) {
+                    synchronized (this) {
+                        waiting = false;
+                        if (!consumerClosed) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    return null;
+                }
+                synchronized (this) {
+                    waiting = false;
+                    // clears an interrupt from a close() that came after the message was taken
+                    Thread.interrupted();
+                }
+                if (envelope.tookRoom) {
+                    room.release();
+                }
+                if (!envelope.hasExpired()) {
+                    return envelope.message;
+                }
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (consumerClosed) {
+                return;
+            }
+            consumerClosed = true;
+            consumers.remove(this);
+            if (waiting) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    static class Envelope {
+        private final GoMessage message;
+        private final long expiresAt;
+        private final boolean tookRoom;
+
+        Envelope(GoMessage message, long timeToLive, boolean tookRoom) {
+            this.message = message;
+            this.expiresAt = timeToLive > 0 ? System.currentTimeMillis() + timeToLive : 0;
+            this.tookRoom = tookRoom;
+        }
+
+        boolean hasExpired() {
+            return expiresAt != 0 && System.currentTimeMillis() > expiresAt;
+        }
+    }
+}
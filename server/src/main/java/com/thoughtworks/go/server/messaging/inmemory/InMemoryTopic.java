@@ -0,0 +1,71 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.inmemory;
+
+import com.thoughtworks.go.server.messaging.GoMessage;
+import com.thoughtworks.go.server.messaging.activemq.JMSMessageListenerAdapter;
+
+import javax.jms.JMSException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @understands a publish-subscribe destination, every message is received by each of the subscribers present when it was sent
+ */
+class InMemoryTopic implements InMemoryDestination {
+    private final String name;
+    private final int capacity;
+    private final long sendTimeoutMillis;
+    private final List<InMemoryQueue> subscriptions = new CopyOnWriteArrayList<>();
+
+    InMemoryTopic(String name, int capacity, long sendTimeoutMillis) {
+        this.name = name;
+        this.capacity = capacity;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    @Override
+    public boolean send(GoMessage message, long timeToLive) {
+        for (InMemoryQueue subscription : subscriptions) {
+            subscription.send(message, timeToLive);
+        }
+        return true;
+    }
+
+    JMSMessageListenerAdapter.MessageSource subscribe() {
+        InMemoryQueue subscription = new InMemoryQueue(name, capacity, sendTimeoutMillis);
+        subscriptions.add(subscription);
+        JMSMessageListenerAdapter.MessageSource consumer = subscription.consumer();
+        return new JMSMessageListenerAdapter.MessageSource() {
+            @Override
+            public GoMessage receive() throws JMSException {
+                return consumer.receive();
+            }
+
+            @Override
+            public void close() throws JMSException {
+                subscriptions.remove(subscription);
+                subscription.close();
+                consumer.close();
+            }
+        };
+    }
+
+    void close() {
+        subscriptions.forEach(InMemoryQueue::close);
+        subscriptions.clear();
+    }
+}
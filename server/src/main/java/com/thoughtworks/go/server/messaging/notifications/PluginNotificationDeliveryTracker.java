@@ -0,0 +1,176 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.notifications;
+
+import com.thoughtworks.go.domain.notificationdata.AgentNotificationData;
+import com.thoughtworks.go.plugin.access.notification.NotificationExtension;
+import com.thoughtworks.go.util.Clock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @understands how far behind each notification plugin is, and which agent status notifications have been superseded
+ * by a newer notification for the same agent before they could be delivered
+ */
+@Component
+public class PluginNotificationDeliveryTracker {
+    private final Clock clock;
+    private final AtomicLong sequence = new AtomicLong();
+    // the newest sequence posted per agent is kept until the plugin is unloaded, so that an older notification picked up
+    // late by another listener thread is still recognised as superseded
+    private final Map<String, Long> latestAgentStatusSequence = new ConcurrentHashMap<>();
+    private final Map<String, PluginDeliveryStats> stats = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PluginNotificationDeliveryTracker(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Reserves room for the message among the plugin's pending notifications and stamps it, or counts it as dropped
+     * when the plugin already has {@code capacity} notifications pending. A capacity of zero or less is unbounded.
+     * An accepted message must be followed by either {@link #queued} or {@link #notQueued} once it has been posted.
+     */
+    public boolean accept(PluginNotificationMessage message, long timeToLive, int capacity) {
+        PluginDeliveryStats pluginStats = statsFor(message.pluginId());
+        synchronized (pluginStats) {
+            if (capacity > 0 && pluginStats.pending() >= capacity) {
+                pluginStats.dropped.incrementAndGet();
+                return false;
+            }
+            pluginStats.posted.incrementAndGet();
+        }
+        long postedAt = clock.currentTimeMillis();
+        message.markPosted(sequence.incrementAndGet(), postedAt, timeToLive > 0 ? postedAt + timeToLive : 0);
+        return true;
+    }
+
+    public void queued(PluginNotificationMessage message) {
+        String agentStatusKey = agentStatusKey(message);
+        if (agentStatusKey != null) {
+            latestAgentStatusSequence.merge(agentStatusKey, message.getSequence(), Math::max);
+        }
+    }
+
+    public void notQueued(PluginNotificationMessage message) {
+        statsFor(message.pluginId()).posted.decrementAndGet();
+    }
+
+    public boolean isSuperseded(PluginNotificationMessage message) {
+        String agentStatusKey = agentStatusKey(message);
+        if (agentStatusKey == null) {
+            return false;
+        }
+        Long latest = latestAgentStatusSequence.get(agentStatusKey);
+        return latest != null && latest > message.getSequence();
+    }
+
+    public boolean hasExpired(PluginNotificationMessage message) {
+        return message.hasExpired(clock.currentTimeMillis());
+    }
+
+    public boolean isAgentStatus(PluginNotificationMessage message) {
+        return agentStatusKey(message) != null;
+    }
+
+    public void coalesced(PluginNotificationMessage message) {
+        statsFor(message.pluginId()).coalesced.incrementAndGet();
+    }
+
+    public void expired(PluginNotificationMessage message) {
+        PluginDeliveryStats pluginStats = statsFor(message.pluginId());
+        pluginStats.expired.incrementAndGet();
+        pluginStats.recordLag(lagOf(message));
+    }
+
+    public void delivered(PluginNotificationMessage message) {
+        PluginDeliveryStats pluginStats = statsFor(message.pluginId());
+        pluginStats.delivered.incrementAndGet();
+        pluginStats.recordLag(lagOf(message));
+    }
+
+    public void failed(PluginNotificationMessage message) {
+        PluginDeliveryStats pluginStats = statsFor(message.pluginId());
+        pluginStats.failed.incrementAndGet();
+        pluginStats.recordLag(lagOf(message));
+    }
+
+    public void pluginUnloaded(String pluginId) {
+        stats.remove(pluginId);
+        latestAgentStatusSequence.keySet().removeIf(key -> key.startsWith(pluginId + "/"));
+    }
+
+    public Map<String, Object> asJson() {
+        Map<String, Object> json = new TreeMap<>();
+        stats.forEach((pluginId, pluginStats) -> json.put(pluginId, pluginStats.asJson()));
+        return json;
+    }
+
+    PluginDeliveryStats statsFor(String pluginId) {
+        return stats.computeIfAbsent(pluginId, id -> new PluginDeliveryStats());
+    }
+
+    private long lagOf(PluginNotificationMessage message) {
+        return message.getPostedAt() == 0 ? 0 : Math.max(0, clock.currentTimeMillis() - message.getPostedAt());
+    }
+
+    private String agentStatusKey(PluginNotificationMessage message) {
+        if (NotificationExtension.AGENT_STATUS_CHANGE_NOTIFICATION.equals(message.getRequestName()) && message.getData() instanceof AgentNotificationData) {
+            return message.pluginId() + "/" + ((AgentNotificationData) message.getData()).getUuid();
+        }
+        return null;
+    }
+
+    static class PluginDeliveryStats {
+        final AtomicLong posted = new AtomicLong();
+        final AtomicLong delivered = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong coalesced = new AtomicLong();
+        final AtomicLong expired = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicLong lastLagMillis = new AtomicLong();
+        final AtomicLong maxLagMillis = new AtomicLong();
+
+        void recordLag(long lagMillis) {
+            lastLagMillis.set(lagMillis);
+            maxLagMillis.accumulateAndGet(lagMillis, Math::max);
+        }
+
+        long pending() {
+            return Math.max(0, posted.get() - delivered.get() - failed.get() - coalesced.get() - expired.get());
+        }
+
+        Map<String, Object> asJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("Posted", posted.get());
+            json.put("Delivered", delivered.get());
+            json.put("Failed", failed.get());
+            json.put("Coalesced", coalesced.get());
+            json.put("Expired", expired.get());
+            json.put("Pending", pending());
+            json.put("Dropped", dropped.get());
+            json.put("Last lag in milliseconds", lastLagMillis.get());
+            json.put("Max lag in milliseconds", maxLagMillis.get());
+            return json;
+        }
+    }
+}
@@ -21,9 +21,12 @@ import java.io.Serializable;
 import java.util.Objects;
 
 public class PluginNotificationMessage<T extends Serializable> implements PluginAwareMessage {
-    private String pluginId;
+    private final String pluginId;
     private final String requestName;
     private final T data;
+    private long sequence;
+    private long postedAt;
+    private long expiresAt;
 
     public PluginNotificationMessage(String pluginId, String requestName, T data) {
         this.pluginId = pluginId;
@@ -31,6 +34,24 @@ public class PluginNotificationMessage<T extends Serializable> implements Plugin
         this.data = data;
     }
 
+    void markPosted(long sequence, long postedAt, long expiresAt) {
+        this.sequence = sequence;
+        this.postedAt = postedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    long getPostedAt() {
+        return postedAt;
+    }
+
+    boolean hasExpired(long now) {
+        return expiresAt != 0 && now > expiresAt;
+    }
+
     public String getRequestName() {
         return requestName;
     }
@@ -29,15 +29,31 @@ import org.slf4j.LoggerFactory;
 public class PluginNotificationMessageListener implements GoMessageListener<PluginNotificationMessage> {
     private NotificationExtension notificationExtension;
     private ServerHealthService serverHealthService;
+    private PluginNotificationDeliveryTracker deliveryTracker;
     private static final Logger LOGGER = LoggerFactory.getLogger(PluginNotificationMessageListener.class);
 
-    public PluginNotificationMessageListener(NotificationExtension notificationExtension, ServerHealthService serverHealthService) {
+    public PluginNotificationMessageListener(NotificationExtension notificationExtension, ServerHealthService serverHealthService,
+                                             PluginNotificationDeliveryTracker deliveryTracker) {
         this.notificationExtension = notificationExtension;
         this.serverHealthService = serverHealthService;
+        this.deliveryTracker = deliveryTracker;
     }
 
     @Override
     public void onMessage(PluginNotificationMessage message) {
+        if (deliveryTracker.isSuperseded(message)) {
+            LOGGER.debug("Skipping {} notification message {} for plugin {}, a newer one has been posted", message.getRequestName(), message, message.pluginId());
+            deliveryTracker.coalesced(message);
+            return;
+        }
+
+        // the latest agent status is delivered however late it is, the older ones have already been dropped in its favour
+        if (deliveryTracker.hasExpired(message) && !deliveryTracker.isAgentStatus(message)) {
+            LOGGER.debug("Dropping {} notification message {} for plugin {}, it has outlived its time to live", message.getRequestName(), message, message.pluginId());
+            deliveryTracker.expired(message);
+            return;
+        }
+
         HealthStateScope scope = HealthStateScope.aboutPlugin(message.pluginId());
         try {
             LOGGER.debug("Sending {} notification message {} for plugin {}", message.getRequestName(), message, message.pluginId());
@@ -45,12 +61,15 @@ public class PluginNotificationMessageListener implements GoMessageListener<Plug
 
             if (result.isSuccessful()) {
                 serverHealthService.removeByScope(scope);
+                deliveryTracker.delivered(message);
                 LOGGER.debug("Successfully sent {} notification message {} for plugin {}", message.getRequestName(), message, message.pluginId());
             } else {
                 String errorDescription = result.getMessages() == null ? null : StringUtils.join(result.getMessages(), ", ");
+                deliveryTracker.failed(message);
                 handlePluginNotifyError(message.pluginId(), scope, errorDescription, null);
             }
         } catch (Exception e) {
+            deliveryTracker.failed(message);
             String errorDescription = e.getMessage() == null ? "Unknown error" : e.getMessage();
             handlePluginNotifyError(message.pluginId(), scope, errorDescription, e);
         }
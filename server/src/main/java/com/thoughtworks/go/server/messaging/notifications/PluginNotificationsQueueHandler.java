@@ -29,10 +29,13 @@ import java.util.Map;
 @Component
 public class PluginNotificationsQueueHandler extends PluginMessageQueueHandler<PluginNotificationMessage> {
     private final static String QUEUE_NAME_PREFIX = PluginNotificationsQueueHandler.class.getSimpleName() + ".";
+    private final SystemEnvironment systemEnvironment;
+    private final PluginNotificationDeliveryTracker deliveryTracker;
 
     @Autowired
     public PluginNotificationsQueueHandler(final MessagingService messaging, NotificationExtension notificationExtension,
-        PluginManager pluginManager, final SystemEnvironment systemEnvironment, ServerHealthService serverHealthService) {
+        PluginManager pluginManager, final SystemEnvironment systemEnvironment, ServerHealthService serverHealthService,
+        PluginNotificationDeliveryTracker deliveryTracker) {
         super(notificationExtension, messaging, pluginManager, new QueueFactory() {
             @Override
             public PluginAwareMessageQueue create(GoPluginDescriptor pluginDescriptor) {
@@ -42,9 +45,35 @@ public class PluginNotificationsQueueHandler extends PluginMessageQueueHandler<P
             }
 
             public ListenerFactory listener() {
-                return () -> new PluginNotificationMessageListener(notificationExtension, serverHealthService);
+                return () -> new PluginNotificationMessageListener(notificationExtension, serverHealthService, deliveryTracker);
             }
         });
+        this.systemEnvironment = systemEnvironment;
+        this.deliveryTracker = deliveryTracker;
+    }
+
+    @Override
+    public boolean post(PluginNotificationMessage message, long timeToLive) {
+        if (!deliveryTracker.accept(message, timeToLive, systemEnvironment.getNotificationQueueCapacityForPlugin(message.pluginId()))) {
+            return false;
+        }
+        // expiry is left to the listener rather than the broker, so that an expired notification is still accounted for
+        // and the pending count the capacity is checked against stays accurate
+        if (super.post(message, 0)) {
+            deliveryTracker.queued(message);
+            return true;
+        }
+        deliveryTracker.notQueued(message);
+        return false;
+    }
+
+    @Override
+    public void pluginUnLoaded(GoPluginDescriptor pluginDescriptor) {
+        try {
+            super.pluginUnLoaded(pluginDescriptor);
+        } finally {
+            deliveryTracker.pluginUnloaded(pluginDescriptor.id());
+        }
     }
 
     Map<String, PluginAwareMessageQueue> getQueues() {
@@ -20,7 +20,7 @@ import com.thoughtworks.go.server.service.AgentRuntimeInfo;
 import com.thoughtworks.go.remote.AgentIdentifier;
 
 public class IdleAgentMessage implements GoMessage {
-    private AgentRuntimeInfo agent;
+    private final AgentRuntimeInfo agent;
 
     public IdleAgentMessage(AgentRuntimeInfo agent) {
         this.agent = agent;
@@ -20,8 +20,8 @@ import com.thoughtworks.go.remote.work.Work;
 import com.thoughtworks.go.server.messaging.GoMessage;
 
 public class WorkAssignedMessage implements GoMessage {
-    private AgentIdentifier agent;
-    private Work work;
+    private final AgentIdentifier agent;
+    private final Work work;
 
     public WorkAssignedMessage(AgentIdentifier agentIdentifier, Work work) {
         this.agent = agentIdentifier;
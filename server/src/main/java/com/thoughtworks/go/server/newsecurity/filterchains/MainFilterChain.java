@@ -20,6 +20,7 @@ import com.thoughtworks.go.server.newsecurity.filters.ThreadLocalUserFilter;
 import com.thoughtworks.go.server.newsecurity.handlers.RequestRejectedExceptionHandler;
 import com.thoughtworks.go.server.web.BackupFilter;
 import com.thoughtworks.go.server.web.FlashLoadingFilter;
+import com.thoughtworks.go.server.web.RequestInstrumentationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.web.FilterChainProxy;
@@ -40,7 +41,8 @@ public class MainFilterChain extends FilterChainProxy {
     private static final RequestRejectedExceptionHandler REQUEST_REJECTED_EXCEPTION_HANDLER = new RequestRejectedExceptionHandler();
 
     @Autowired
-    public MainFilterChain(BackupFilter backupFilter,
+    public MainFilterChain(RequestInstrumentationFilter requestInstrumentationFilter,
+                           BackupFilter backupFilter,
                            ModeAwareFilter modeAwareFilter,
                            CreateSessionFilterChain createSessionFilterChain,
                            RememberLastRequestUrlFilterChain rememberLastRequestUrlFilterChain,
@@ -55,6 +57,7 @@ public class MainFilterChain extends FilterChainProxy {
 
         super(FilterChainBuilder.newInstance()
                 .addFilterChain("/**",
+                        requestInstrumentationFilter,
                         backupFilter,
                         modeAwareFilter,
                         createSessionFilterChain,
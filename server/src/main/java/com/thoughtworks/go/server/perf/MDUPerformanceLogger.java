@@ -19,10 +19,14 @@ import com.thoughtworks.go.domain.materials.Material;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 @Component
 public class MDUPerformanceLogger {
     private PerformanceLogger performanceLogger;
     private static long currentTrackingId = 0;
+    private final AtomicLong gitFetchesSkipped = new AtomicLong();
+    private final AtomicLong gitFetchesNeeded = new AtomicLong();
 
     @Autowired
     public MDUPerformanceLogger(PerformanceLogger performanceLogger) {
@@ -52,4 +56,10 @@ public class MDUPerformanceLogger {
         performanceLogger.log("MDU-QUEUE-REMOVE {} {} {}", trackingId, material.getFingerprint(), material.getDisplayName());
     }
 
+    public void gitRemoteHeadProbed(Material material, boolean fetchSkipped) {
+        long skipped = fetchSkipped ? gitFetchesSkipped.incrementAndGet() : gitFetchesSkipped.get();
+        long needed = fetchSkipped ? gitFetchesNeeded.get() : gitFetchesNeeded.incrementAndGet();
+        performanceLogger.log("MDU-GIT-PROBE {} {} {} skipped={} fetched={}", fetchSkipped ? "SKIP" : "FETCH", material.getFingerprint(), material.getDisplayName(), skipped, needed);
+    }
+
 }
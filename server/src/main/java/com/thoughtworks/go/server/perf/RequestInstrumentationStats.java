@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.perf;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+/**
+ * @understands aggregating the metrics of instrumented requests by route
+ */
+@Component
+public class RequestInstrumentationStats {
+    static final int MAX_ROUTES = 1000;
+    static final String OTHER_ROUTES = "(other)";
+    private static final long[] DURATION_BUCKETS_IN_MILLIS = {10, 50, 100, 500, 1000, 5000};
+    private static final long[] SQL_BUCKETS = {0, 10, 50, 100, 500};
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+
+    public void record(String method, String route, RequestMetrics metrics) {
+        statsFor(method + " " + NUMERIC_SEGMENT.matcher(route).replaceAll("/:number")).record(metrics);
+    }
+
+    public Map<String, Object> asJson() {
+        Map<String, Object> json = new TreeMap<>();
+        routes.forEach((route, stats) -> json.put(route, stats.asJson()));
+        return json;
+    }
+
+    public void reset() {
+        routes.clear();
+    }
+
+    private RouteStats statsFor(String route) {
+        RouteStats stats = routes.get(route);
+        if (stats != null) {
+            return stats;
+        }
+        if (routes.size() >= MAX_ROUTES) {
+            return routes.computeIfAbsent(OTHER_ROUTES, key -> new RouteStats());
+        }
+        return routes.computeIfAbsent(route, key -> new RouteStats());
+    }
+
+    private static class RouteStats {
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+        private final AtomicLong sqlStatements = new AtomicLong();
+        private final AtomicLong maxSqlStatements = new AtomicLong();
+        private final AtomicLong sqlMillis = new AtomicLong();
+        private final AtomicLong hibernateStatements = new AtomicLong();
+        private final AtomicLong cacheHits = new AtomicLong();
+        private final AtomicLong cacheMisses = new AtomicLong();
+        private final AtomicLong cacheMillis = new AtomicLong();
+        private final AtomicLongArray durationHistogram = new AtomicLongArray(DURATION_BUCKETS_IN_MILLIS.length + 1);
+        private final AtomicLongArray sqlHistogram = new AtomicLongArray(SQL_BUCKETS.length + 1);
+
+        void record(RequestMetrics metrics) {
+            long elapsedMillis = metrics.elapsedMillis();
+            int statements = metrics.getSqlStatements() + metrics.getHibernateStatements();
+            requests.incrementAndGet();
+            totalMillis.addAndGet(elapsedMillis);
+            maxMillis.accumulateAndGet(elapsedMillis, Math::max);
+            sqlStatements.addAndGet(metrics.getSqlStatements());
+            maxSqlStatements.accumulateAndGet(statements, Math::max);
+            sqlMillis.addAndGet(metrics.getSqlMillis());
+            hibernateStatements.addAndGet(metrics.getHibernateStatements());
+            cacheHits.addAndGet(metrics.getCacheHits());
+            cacheMisses.addAndGet(metrics.getCacheMisses());
+            cacheMillis.addAndGet(metrics.getCacheMillis());
+            durationHistogram.incrementAndGet(bucketOf(DURATION_BUCKETS_IN_MILLIS, elapsedMillis));
+            sqlHistogram.incrementAndGet(bucketOf(SQL_BUCKETS, statements));
+        }
+
+        Map<String, Object> asJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("Requests", requests.get());
+            json.put("Total time in milliseconds", totalMillis.get());
+            json.put("Max time in milliseconds", maxMillis.get());
+            json.put("iBatis statements", sqlStatements.get());
+            json.put("Time in iBatis statements in milliseconds", sqlMillis.get());
+            json.put("Hibernate statements", hibernateStatements.get());
+            json.put("Max statements in a request", maxSqlStatements.get());
+            json.put("Cache hits", cacheHits.get());
+            json.put("Cache misses", cacheMisses.get());
+            json.put("Time in cache lookups in milliseconds", cacheMillis.get());
+            json.put("Requests by time in milliseconds", histogram(DURATION_BUCKETS_IN_MILLIS, durationHistogram));
+            json.put("Requests by statements", histogram(SQL_BUCKETS, sqlHistogram));
+            return json;
+        }
+
+        private static int bucketOf(long[] bounds, long value) {
+            for (int i = 0; i < bounds.length; i++) {
+                if (value <= bounds[i]) {
+                    return i;
+                }
+            }
+            return bounds.length;
+        }
+
+        private static Map<String, Long> histogram(long[] bounds, AtomicLongArray counts) {
+            Map<String, Long> json = new LinkedHashMap<>();
+            for (int i = 0; i < bounds.length; i++) {
+                json.put("<= " + bounds[i], counts.get(i));
+            }
+            json.put("> " + bounds[bounds.length - 1], counts.get(bounds.length));
+            return json;
+        }
+    }
+}
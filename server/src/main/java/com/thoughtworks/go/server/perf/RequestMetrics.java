@@ -0,0 +1,102 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.perf;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @understands the SQL statements and cache lookups made while serving a single request
+ */
+public class RequestMetrics {
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private int sqlStatements;
+    private long sqlNanos;
+    private int hibernateStatements;
+    private int cacheHits;
+    private int cacheMisses;
+    private long cacheNanos;
+
+    public static RequestMetrics start() {
+        RequestMetrics metrics = new RequestMetrics();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the metrics of the request being served on this thread, or {@code null} when it is not being instrumented
+     */
+    public static RequestMetrics current() {
+        return CURRENT.get();
+    }
+
+    public void sqlExecuted(long nanos) {
+        sqlStatements++;
+        sqlNanos += nanos;
+    }
+
+    public void hibernateStatementPrepared() {
+        hibernateStatements++;
+    }
+
+    public void cacheLookedUp(boolean hit, long nanos) {
+        if (hit) {
+            cacheHits++;
+        } else {
+            cacheMisses++;
+        }
+        cacheNanos += nanos;
+    }
+
+    public int getSqlStatements() {
+        return sqlStatements;
+    }
+
+    public long getSqlMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(sqlNanos);
+    }
+
+    public int getHibernateStatements() {
+        return hibernateStatements;
+    }
+
+    public int getCacheHits() {
+        return cacheHits;
+    }
+
+    public int getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public long getCacheMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(cacheNanos);
+    }
+
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+
+    public String serverTiming() {
+        return String.format(Locale.ROOT, "sql;desc=\"%d iBatis, %d Hibernate statements\";dur=%.3f, cache;desc=\"%d hits, %d misses\";dur=%.3f, total;dur=%.3f",
+                sqlStatements, hibernateStatements, sqlNanos / 1e6, cacheHits, cacheMisses, cacheNanos / 1e6, (System.nanoTime() - startedAt) / 1e6);
+    }
+}
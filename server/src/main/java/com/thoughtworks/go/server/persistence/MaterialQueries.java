@@ -26,6 +26,7 @@ import static com.thoughtworks.go.server.dao.FeedModifier.*;
 public class MaterialQueries {
     private static Map<FeedModifier, String> modificationsQueryMap;
     private static Map<FeedModifier, String> modificationsForPatternQueryMap;
+    private static Map<FeedModifier, String> modificationsForPatternWithinCandidatesQueryMap;
 
     private static final String latestModification =
             "SELECT * " +
@@ -84,6 +85,38 @@ public class MaterialQueries {
                     "    LIMIT :size) as LikeMatchBeforeSpecifiedCursor " +
                     "ORDER BY id DESC";
 
+    private static final String latestModificationForPatternWithinCandidates =
+            "SELECT * " +
+                    "FROM modifications " +
+                    "WHERE materialid = :materialId AND id IN (:candidateIds) " +
+                    "  AND (LOWER(modifications.comment) LIKE :pattern " +
+                    "  OR LOWER(userName) LIKE :pattern " +
+                    "  OR LOWER(revision) LIKE :pattern ) " +
+                    "ORDER BY id DESC " +
+                    "LIMIT :size";
+
+    private static final String afterModificationForPatternWithinCandidates =
+            "SELECT * " +
+                    "FROM modifications " +
+                    "WHERE materialid = :materialId AND id < :cursor AND id IN (:candidateIds) " +
+                    "  AND (LOWER(modifications.comment) LIKE :pattern " +
+                    "  OR LOWER(userName) LIKE :pattern " +
+                    "  OR LOWER(revision) LIKE :pattern ) " +
+                    "ORDER BY id DESC " +
+                    "LIMIT :size";
+
+    private static final String beforeModificationForPatternWithinCandidates =
+            "SELECT * " +
+                    "FROM ( SELECT * " +
+                    "    FROM modifications " +
+                    "    WHERE materialid = :materialId AND id > :cursor AND id IN (:candidateIds) " +
+                    "      AND (LOWER(modifications.comment) LIKE :pattern " +
+                    "      OR LOWER(userName) LIKE :pattern " +
+                    "      OR LOWER(revision) LIKE :pattern ) " +
+                    "    ORDER BY id DESC " +
+                    "    LIMIT :size) as LikeMatchBeforeSpecifiedCursor " +
+                    "ORDER BY id DESC";
+
     static {
         modificationsQueryMap = new HashMap<>();
         modificationsQueryMap.put(Latest, latestModification);
@@ -94,6 +127,11 @@ public class MaterialQueries {
         modificationsForPatternQueryMap.put(Latest, latestModificationForPattern);
         modificationsForPatternQueryMap.put(After, afterModificationForPattern);
         modificationsForPatternQueryMap.put(Before, beforeModificationForPattern);
+
+        modificationsForPatternWithinCandidatesQueryMap = new HashMap<>();
+        modificationsForPatternWithinCandidatesQueryMap.put(Latest, latestModificationForPatternWithinCandidates);
+        modificationsForPatternWithinCandidatesQueryMap.put(After, afterModificationForPatternWithinCandidates);
+        modificationsForPatternWithinCandidatesQueryMap.put(Before, beforeModificationForPatternWithinCandidates);
     }
 
     public static String loadModificationQuery(FeedModifier modifier) {
@@ -103,4 +141,8 @@ public class MaterialQueries {
     public static String loadModificationMatchingPatternQuery(FeedModifier modifier) {
         return modificationsForPatternQueryMap.get(modifier);
     }
+
+    public static String loadModificationMatchingPatternWithinCandidatesQuery(FeedModifier modifier) {
+        return modificationsForPatternWithinCandidatesQueryMap.get(modifier);
+    }
 }
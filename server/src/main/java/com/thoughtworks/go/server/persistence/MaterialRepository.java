@@ -74,6 +74,7 @@ public class MaterialRepository extends HibernateDaoSupport {
     private final CacheKeyGenerator cacheKeyGenerator;
     private int latestModificationsCacheLimit;
     private MaterialExpansionService materialExpansionService;
+    private final ModificationSearchIndex modificationSearchIndex;
 
     @Autowired
     public MaterialRepository(SessionFactory sessionFactory,
@@ -82,13 +83,15 @@ public class MaterialRepository extends HibernateDaoSupport {
                               TransactionSynchronizationManager transactionSynchronizationManager,
                               MaterialConfigConverter materialConfigConverter,
                               MaterialExpansionService materialExpansionService,
-                              Database databaseStrategy) {
+                              Database databaseStrategy,
+                              ModificationSearchIndex modificationSearchIndex) {
         this.goCache = goCache;
         this.latestModificationsCacheLimit = latestModificationsCacheLimit;
         this.transactionSynchronizationManager = transactionSynchronizationManager;
         this.materialConfigConverter = materialConfigConverter;
         this.materialExpansionService = materialExpansionService;
         this.queryExtensions = databaseStrategy.getQueryExtensions();
+        this.modificationSearchIndex = modificationSearchIndex;
         setSessionFactory(sessionFactory);
         this.cacheKeyGenerator = new CacheKeyGenerator(getClass());
     }
@@ -224,6 +227,21 @@ public class MaterialRepository extends HibernateDaoSupport {
         return materialRevisions;
     }
 
+    public Map<Long, MaterialRevisions> findMaterialRevisionsForPipelines(Collection<Long> pipelineIds) {
+        Set<Long> pipelineIdsNotInCache = pipelineIds.stream()
+                .filter(pipelineId -> goCache.get(pipelinePmrsKey(pipelineId)) == null)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (!pipelineIdsNotInCache.isEmpty()) {
+            cacheMaterialRevisionsForPipelines(pipelineIdsNotInCache);
+        }
+
+        Map<Long, MaterialRevisions> materialRevisions = new HashMap<>();
+        for (Long pipelineId : pipelineIds) {
+            materialRevisions.put(pipelineId, findMaterialRevisionsForPipeline(pipelineId));
+        }
+        return materialRevisions;
+    }
+
     public void cacheMaterialRevisionsForPipelines(Set<Long> pipelineIds) {
         List<Long> ids = new ArrayList<>(pipelineIds);
 
@@ -272,17 +290,14 @@ public class MaterialRepository extends HibernateDaoSupport {
     private void loadPMRByPipelineIds(List<Long> pipelineIds) {
         List<PipelineMaterialRevision> pmrs = (List<PipelineMaterialRevision>) getHibernateTemplate().findByCriteria(buildPMRDetachedQuery(pipelineIds));
         sortPersistentObjectsById(pmrs, true);
-        final Set<PipelineMaterialRevision> uniquePmrs = new HashSet<>();
+        Map<Long, List<PipelineMaterialRevision>> pmrsByPipelineId = new HashMap<>();
         for (PipelineMaterialRevision pmr : pmrs) {
-            String cacheKey = pipelinePmrsKey(pmr.getPipelineId());
-            List<PipelineMaterialRevision> pmrsForId = (List<PipelineMaterialRevision>) goCache.get(cacheKey);
-            if (pmrsForId == null) {
-                pmrsForId = new ArrayList<>();
-                goCache.put(cacheKey, pmrsForId);
-            }
-            pmrsForId.add(pmr);
+            pmrsByPipelineId.computeIfAbsent(pmr.getPipelineId(), pipelineId -> new ArrayList<>()).add(pmr);
             putMaterialInstanceIntoCache(pmr.getToModification().getMaterialInstance());
-            uniquePmrs.add(pmr);
+        }
+        final Set<PipelineMaterialRevision> uniquePmrs = new HashSet<>();
+        for (Long pipelineId : pipelineIds) {
+            uniquePmrs.addAll(putIntoCacheIfAbsent(pipelinePmrsKey(pipelineId), pmrsByPipelineId.getOrDefault(pipelineId, new ArrayList<>())));
         }
         loadModificationsIntoCache(uniquePmrs);
     }
@@ -301,6 +316,9 @@ public class MaterialRepository extends HibernateDaoSupport {
     private DetachedCriteria buildPMRDetachedQuery(List<Long> pipelineIds) {
         DetachedCriteria criteria = DetachedCriteria.forClass(PipelineMaterialRevision.class);
         criteria.add(Restrictions.in("pipelineId", pipelineIds));
+        // otherwise each PMR costs a select for its from and to modifications
+        criteria.setFetchMode("fromRevision", FetchMode.JOIN);
+        criteria.setFetchMode("toRevision", FetchMode.JOIN);
         criteria.setResultTransformer(CriteriaSpecification.DISTINCT_ROOT_ENTITY);
         return criteria;
     }
@@ -317,28 +335,45 @@ public class MaterialRepository extends HibernateDaoSupport {
     }
 
     private void loadModificationsForPMR(List<PipelineMaterialRevision> pmrs) {
+        List<PipelineMaterialRevision> pmrsNotInCache = pmrs.stream()
+                .filter(pmr -> goCache.get(pmrModificationsKey(pmr)) == null)
+                .collect(Collectors.toList());
+        if (pmrsNotInCache.isEmpty()) {
+            return;
+        }
         List<Criterion> criterions = new ArrayList<>();
-        for (PipelineMaterialRevision pmr : pmrs) {
-            if (goCache.get(pmrModificationsKey(pmr)) != null) {
-                continue;
-            }
+        for (PipelineMaterialRevision pmr : pmrsNotInCache) {
             final Criterion modificationClause = Restrictions.between("id", pmr.getFromModification().getId(), pmr.getToModification().getId());
             final SimpleExpression idClause = Restrictions.eq("materialInstance", pmr.getMaterialInstance());
             criterions.add(Restrictions.and(idClause, modificationClause));
         }
         List<Modification> modifications = (List<Modification>) getHibernateTemplate().findByCriteria(buildModificationDetachedQuery(criterions));
         sortPersistentObjectsById(modifications, false);
+        Map<String, List<Modification>> modificationsByPmrKey = new HashMap<>();
         for (Modification modification : modifications) {
-            List<String> cacheKeys = pmrModificationsKey(modification, pmrs);
-            for (String cacheKey : cacheKeys) {
-                List<Modification> modificationList = (List<Modification>) goCache.get(cacheKey);
-                if (modificationList == null) {
-                    modificationList = new ArrayList<>();
-                    goCache.put(cacheKey, modificationList);
-                }
-                modificationList.add(modification);
+            for (String cacheKey : pmrModificationsKey(modification, pmrsNotInCache)) {
+                modificationsByPmrKey.computeIfAbsent(cacheKey, key -> new ArrayList<>()).add(modification);
             }
         }
+        for (PipelineMaterialRevision pmr : pmrsNotInCache) {
+            String cacheKey = pmrModificationsKey(pmr);
+            putIntoCacheIfAbsent(cacheKey, modificationsByPmrKey.getOrDefault(cacheKey, new ArrayList<>()));
+        }
+    }
+
+    /**
+     * Caches lists that were loaded in full, leaving alone any list another thread cached meanwhile so entries are
+     * never loaded twice into the same list.
+     */
+    private <T> List<T> putIntoCacheIfAbsent(String cacheKey, List<T> value) {
+        synchronized (cacheKey) {
+            List<T> cached = (List<T>) goCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+            goCache.put(cacheKey, value);
+            return value;
+        }
     }
 
     private DetachedCriteria buildModificationDetachedQuery(List<Criterion> criteria) {
@@ -442,6 +477,7 @@ public class MaterialRepository extends HibernateDaoSupport {
         modification.setMaterialInstance(materialInstance);
         try {
             getHibernateTemplate().saveOrUpdate(modification);
+            modificationSearchIndex.index(materialInstance.getId(), modification);
             removeLatestCachedModification(materialInstance, modification);
             removeCachedModificationCountFor(materialInstance);
             removeCachedModificationsFor(materialInstance);
@@ -767,6 +803,7 @@ public class MaterialRepository extends HibernateDaoSupport {
             checkAndRemoveDuplicates(materialInstance, newChanges, list);
             for (Modification modification : list) {
                 getHibernateTemplate().saveOrUpdate(modification);
+                modificationSearchIndex.index(materialInstance.getId(), modification);
             }
         } catch (Exception e) {
             String message = "Cannot save modification: ";
@@ -895,19 +932,27 @@ public class MaterialRepository extends HibernateDaoSupport {
     }
 
     public List<MatchedRevision> findRevisionsMatching(final MaterialConfig materialConfig, final String searchString) {
+        Material material = materialConfigConverter.toMaterial(materialConfig);
+        long[] candidateIds = modificationSearchCandidates(material, searchString);
+        if (candidateIds != null && candidateIds.length == 0) {
+            return new ArrayList<>();
+        }
         return (List<MatchedRevision>) getHibernateTemplate().execute((HibernateCallback) session -> {
             String sql = "SELECT m.*"
                     + " FROM modifications AS m"
                     + " INNER JOIN materials mat ON mat.id = m.materialId"
                     + " WHERE mat.fingerprint = :finger_print"
+                    + (candidateIds == null ? "" : " AND m.id IN (:candidate_ids)")
                     + " AND (m.revision || ' ' || COALESCE(m.username, '') || ' ' || COALESCE(m.comment, '') LIKE :search_string OR m.pipelineLabel LIKE :search_string)"
                     + " ORDER BY m.id DESC"
                     + " LIMIT 5";
             SQLQuery query = session.createSQLQuery(sql);
             query.addEntity("m", Modification.class);
-            Material material = materialConfigConverter.toMaterial(materialConfig);
             query.setString("finger_print", material.getFingerprint());
             query.setString("search_string", "%" + searchString + "%");
+            if (candidateIds != null) {
+                query.setParameterList("candidate_ids", toList(candidateIds));
+            }
             final List<MatchedRevision> list = new ArrayList<>();
             for (Modification mod : (List<Modification>) query.list()) {
                 list.add(material.createMatchedRevision(mod, searchString));
@@ -1097,13 +1142,64 @@ public class MaterialRepository extends HibernateDaoSupport {
                 "cursor", cursor
         );
 
-        String finalQueryString = MaterialQueries.loadModificationMatchingPatternQuery(modifier);
+        long[] candidateIds = modificationSearchIndex.candidatesFor(materialId, pattern, this::scanModificationsForSearchIndex);
+        if (candidateIds != null && candidateIds.length == 0) {
+            return new ArrayList<>();
+        }
+
+        String finalQueryString = candidateIds == null
+                ? MaterialQueries.loadModificationMatchingPatternQuery(modifier)
+                : MaterialQueries.loadModificationMatchingPatternWithinCandidatesQuery(modifier);
 
         return (List<Modification>) getHibernateTemplate().execute((HibernateCallback) session -> {
             SQLQuery query = session.createSQLQuery(finalQueryString);
             query.setProperties(params);
+            if (candidateIds != null) {
+                query.setParameterList("candidateIds", toList(candidateIds));
+            }
             return query.addEntity("modifications", Modification.class)
                     .list();
         });
     }
+
+    private long[] modificationSearchCandidates(Material material, String searchString) {
+        if (!modificationSearchIndex.isEnabled()) {
+            return null;
+        }
+        MaterialInstance materialInstance = findMaterialInstance(material);
+        if (materialInstance == null) {
+            return null;
+        }
+        return modificationSearchIndex.candidatesFor(materialInstance.getId(), searchString, this::scanModificationsForSearchIndex);
+    }
+
+    private void scanModificationsForSearchIndex(long materialId, ModificationSearchIndex.ModificationSink sink) {
+        final int batchSize = 5000;
+        long lastId = 0;
+        while (true) {
+            final long afterId = lastId;
+            List<Object[]> rows = (List<Object[]>) getHibernateTemplate().execute((HibernateCallback) session -> session
+                    .createSQLQuery("SELECT id, revision, userName, comment, pipelineLabel FROM modifications WHERE materialId = :materialId AND id > :afterId ORDER BY id LIMIT :size")
+                    .addScalar("id", new LongType())
+                    .addScalar("revision", new StringType())
+                    .addScalar("userName", new StringType())
+                    .addScalar("comment", new StringType())
+                    .addScalar("pipelineLabel", new StringType())
+                    .setLong("materialId", materialId)
+                    .setLong("afterId", afterId)
+                    .setInteger("size", batchSize)
+                    .list());
+            for (Object[] row : rows) {
+                lastId = (Long) row[0];
+                sink.add(lastId, (String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+            }
+            if (rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private List<Long> toList(long[] ids) {
+        return Arrays.stream(ids).boxed().collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.persistence;
+
+import com.thoughtworks.go.domain.materials.Modification;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * @understands narrowing down which modifications of a material can possibly contain a search pattern, using a
+ * trigram index over their revision, user name, comment and pipeline label. The index of a material is built from the
+ * database in the background the first time that material is searched, and kept up to date as modifications are saved.
+ * Candidates are always a superset of the actual matches, so callers must still apply their own match condition.
+ * The indices together hold at most a configured number of entries; the least recently searched materials are
+ * forgotten first, and rebuilt if they are searched again.
+ */
+@Component
+public class ModificationSearchIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModificationSearchIndex.class);
+    static final int GRAM_LENGTH = 3;
+
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final long maxEntries;
+    // access ordered, so that the least recently used index comes first; guarded by itself
+    private final LinkedHashMap<Long, MaterialIndex> indices = new LinkedHashMap<>(16, 0.75f, true);
+    private final ExecutorService builder;
+
+    @Autowired
+    public ModificationSearchIndex(SystemEnvironment systemEnvironment) {
+        this(systemEnvironment.isModificationSearchIndexEnabled(), systemEnvironment.getModificationSearchIndexMaxCandidates(),
+                systemEnvironment.getModificationSearchIndexMaxEntries(),
+                Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder().namingPattern("modification-search-index-%d").daemon(true).build()));
+    }
+
+    ModificationSearchIndex(boolean enabled, int maxCandidates, long maxEntries, ExecutorService builder) {
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+        this.maxEntries = maxEntries;
+        this.builder = builder;
+    }
+
+    /**
+     * @return ids of the modifications of the material which may match the pattern, in ascending order; or
+     * {@code null} if the index cannot narrow the search down and the caller has to look at every modification
+     */
+    public long[] candidatesFor(long materialId, String pattern, ModificationScanner scanner) {
+        if (!enabled || !canBeAnsweredFromIndex(pattern)) {
+            return null;
+        }
+        MaterialIndex index = indexOf(materialId);
+        if (index == null) {
+            scheduleBuild(materialId, scanner);
+            return null;
+        }
+        if (!index.ready) {
+            return null;
+        }
+        return index.candidates(gramsOf(pattern.toLowerCase(Locale.ROOT)), maxCandidates);
+    }
+
+    public void index(long materialId, Modification modification) {
+        MaterialIndex index = indexOf(materialId);
+        if (index != null) {
+            index.add(modification.getId(), modification.getRevision(), modification.getUserName(), modification.getComment(), modification.getPipelineLabel());
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void scheduleBuild(long materialId, ModificationScanner scanner) {
+        MaterialIndex index = new MaterialIndex();
+        synchronized (indices) {
+            if (indices.putIfAbsent(materialId, index) != null) {
+                return;
+            }
+        }
+        builder.submit(() -> {
+            try {
+                long start = System.currentTimeMillis();
+                scanner.scan(materialId, index::add);
+                index.ready = true;
+                evictLeastRecentlyUsed();
+                LOGGER.info("Built search index for modifications of material {} in {}ms.", materialId, System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                LOGGER.warn("Could not build search index for modifications of material {}.", materialId, e);
+                synchronized (indices) {
+                    indices.remove(materialId, index);
+                }
+            }
+        });
+    }
+
+    private MaterialIndex indexOf(long materialId) {
+        synchronized (indices) {
+            return indices.get(materialId);
+        }
+    }
+
+    // the most recently used index is always kept, even when it alone holds more entries than allowed
+    private void evictLeastRecentlyUsed() {
+        synchronized (indices) {
+            long entries = indices.values().stream().mapToLong(index -> index.entries).sum();
+            Iterator<Map.Entry<Long, MaterialIndex>> leastRecentlyUsed = indices.entrySet().iterator();
+            while (entries > maxEntries && indices.size() > 1) {
+                Map.Entry<Long, MaterialIndex> evicted = leastRecentlyUsed.next();
+                leastRecentlyUsed.remove();
+                entries -= evicted.getValue().entries;
+                LOGGER.info("Evicted search index for modifications of material {} to stay within {} entries.", evicted.getKey(), maxEntries);
+            }
+        }
+    }
+
+    static boolean canBeAnsweredFromIndex(String pattern) {
+        if (pattern == null || pattern.length() < GRAM_LENGTH) {
+            return false;
+        }
+        for (char c : pattern.toCharArray()) {
+            if (c > 127 || c == '%' || c == '_' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Set<String> gramsOf(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    @FunctionalInterface
+    public interface ModificationScanner {
+        void scan(long materialId, ModificationSink sink);
+    }
+
+    @FunctionalInterface
+    public interface ModificationSink {
+        void add(long modificationId, String revision, String userName, String comment, String pipelineLabel);
+    }
+
+    private static class MaterialIndex {
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private volatile boolean ready;
+        private volatile long entries;
+
+        synchronized void add(long modificationId, String revision, String userName, String comment, String pipelineLabel) {
+            String searchableText = (Objects.toString(revision, "") + " " + Objects.toString(userName, "") + " " + Objects.toString(comment, "")).toLowerCase(Locale.ROOT);
+            Set<String> grams = gramsOf(searchableText);
+            if (pipelineLabel != null) {
+                grams.addAll(gramsOf(pipelineLabel.toLowerCase(Locale.ROOT)));
+            }
+            for (String gram : grams) {
+                if (postings.computeIfAbsent(gram, g -> new PostingList()).add(modificationId)) {
+                    entries++;
+                }
+            }
+        }
+
+        synchronized long[] candidates(Set<String> grams, int maxCandidates) {
+            List<PostingList> lists = new ArrayList<>();
+            for (String gram : grams) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    return new long[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            PostingList smallest = lists.get(0);
+            long[] candidates = new long[Math.min(smallest.size, maxCandidates + 1)];
+            int found = 0;
+            for (int i = 0; i < smallest.size; i++) {
+                long id = smallest.ids[i];
+                if (lists.stream().skip(1).allMatch(list -> list.contains(id))) {
+                    if (found == maxCandidates) {
+                        return null;
+                    }
+                    candidates[found++] = id;
+                }
+            }
+            return Arrays.copyOf(candidates, found);
+        }
+    }
+
+    private static class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        boolean add(long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return false;
+                }
+                insertAt(-position - 1, id);
+                return true;
+            }
+            insertAt(size, id);
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void insertAt(int position, long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+    }
+}
@@ -18,8 +18,8 @@ package com.thoughtworks.go.server.scheduling;
 import com.thoughtworks.go.server.messaging.GoMessage;
 
 public class ScheduleCheckCompletedMessage implements GoMessage {
-    private String pipelineName;
-    private long trackingId;
+    private final String pipelineName;
+    private final long trackingId;
 
     public ScheduleCheckCompletedMessage(String pipelineName, long trackingId) {
         this.pipelineName = pipelineName;
@@ -18,8 +18,8 @@ package com.thoughtworks.go.server.scheduling;
 import com.thoughtworks.go.server.messaging.GoMessage;
 
 public class ScheduleCheckMessage implements GoMessage {
-    private String pipelineName;
-    private long trackingId;
+    private final String pipelineName;
+    private final long trackingId;
 
     public ScheduleCheckMessage(String pipelineName, long trackingId) {
         this.pipelineName = pipelineName;
@@ -22,13 +22,17 @@ import com.thoughtworks.go.server.service.result.OperationResult;
 import com.thoughtworks.go.server.service.result.ServerHealthStateOperationResult;
 import com.thoughtworks.go.util.GoConstants;
 import com.thoughtworks.go.util.SystemEnvironment;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
 
 public class ArtifactsDiskCleaner extends DiskSpaceChecker {
     private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactsDiskCleaner.class);
+    private static final ThreadFactory PURGE_THREAD_FACTORY = new BasicThreadFactory.Builder().namingPattern("artifacts-purge-%d").daemon(true).build();
     private final Object triggerCleanup = new Object();
     private final Thread cleaner;
     private final ArtifactsService artifactService;
@@ -62,24 +66,61 @@ public class ArtifactsDiskCleaner extends DiskSpaceChecker {
         Double requiredSpaceInGb = serverConfig.getPurgeUpto();
         if (serverConfig.isArtifactPurgingAllowed()) {
             double requiredSpace = requiredSpaceInGb * GoConstants.GIGA_BYTE;
-            LOGGER.info("Clearing old artifacts as the disk space is low. Current space: '{}'. Need to clear till we hit: '{}'.", availableSpace(), requiredSpace);
+            long spaceBeforePurge = availableSpace();
+            long startedAt = System.currentTimeMillis();
+            LOGGER.info("Clearing old artifacts as the disk space is low. Current space: '{}'. Need to clear till we hit: '{}'.", spaceBeforePurge, requiredSpace);
+            int purgeThreads = Math.max(1, systemEnvironment.getNumberOfArtifactsPurgeThreads());
+            ExecutorService purgeExecutor = purgeThreads > 1 ? Executors.newFixedThreadPool(purgeThreads, PURGE_THREAD_FACTORY) : null;
             List<Stage> stages;
             int numberOfStagesPurged = 0;
-            do {
-                configDbStateRepository.flushConfigState();
-                stages = stageService.oldestStagesWithDeletableArtifacts();
-                for (Stage stage : stages) {
-                    if (availableSpace() > requiredSpace) {
-                        break;
+            try {
+                do {
+                    configDbStateRepository.flushConfigState();
+                    stages = stageService.oldestStagesWithDeletableArtifacts();
+                    for (int from = 0; from < stages.size(); from += purgeThreads) {
+                        if (availableSpace() > requiredSpace) {
+                            break;
+                        }
+                        List<Stage> batch = stages.subList(from, Math.min(from + purgeThreads, stages.size()));
+                        deleteArtifacts(batch, purgeExecutor);
+                        artifactService.markArtifactsDeletedFor(batch);
+                        numberOfStagesPurged += batch.size();
                     }
-                    numberOfStagesPurged++;
-                    artifactService.purgeArtifactsForStage(stage);
+                } while ((availableSpace() < requiredSpace) && !stages.isEmpty());
+            } finally {
+                if (purgeExecutor != null) {
+                    purgeExecutor.shutdownNow();
                 }
-            } while ((availableSpace() < requiredSpace) && !stages.isEmpty());
+            }
             if (availableSpace() < requiredSpace) {
                 LOGGER.warn("Ran out of stages to clear artifacts from but the disk space is still low");
             }
-            LOGGER.info("Finished clearing old artifacts. Deleted artifacts for '{}' stages. Current space: '{}'", numberOfStagesPurged, availableSpace());
+            long spaceAfterPurge = availableSpace();
+            long reclaimedBytes = Math.max(0, spaceAfterPurge - spaceBeforePurge);
+            long elapsedMillis = Math.max(1, System.currentTimeMillis() - startedAt);
+            LOGGER.info("Finished clearing old artifacts. Deleted artifacts for '{}' stages. Current space: '{}'. Reclaimed '{}' bytes in '{}' ms ('{}' bytes per second).",
+                    numberOfStagesPurged, spaceAfterPurge, reclaimedBytes, elapsedMillis, reclaimedBytes * 1000 / elapsedMillis);
+        }
+    }
+
+    private void deleteArtifacts(List<Stage> stages, ExecutorService purgeExecutor) {
+        if (purgeExecutor == null) {
+            stages.forEach(artifactService::deleteArtifactsForStage);
+            return;
+        }
+        List<Future<?>> deletions = new ArrayList<>();
+        for (Stage stage : stages) {
+            deletions.add(purgeExecutor.submit(() -> artifactService.deleteArtifactsForStage(stage)));
+        }
+        for (Future<?> deletion : deletions) {
+            try {
+                deletion.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                LOGGER.error("Error occurred while clearing artifacts. Error: '{}'", e.getCause().getMessage(), e.getCause());
+            }
         }
     }
 
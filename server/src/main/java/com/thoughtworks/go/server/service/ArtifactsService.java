@@ -36,6 +36,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.List;
 import java.util.zip.ZipInputStream;
 
 import static java.lang.String.format;
@@ -74,10 +75,16 @@ public class ArtifactsService implements ArtifactUrlReader {
     }
 
     public boolean saveFile(File dest, InputStream stream, boolean shouldUnzip, int attempt) {
+        return saveFile(dest, stream, shouldUnzip, attempt, null);
+    }
+
+    public boolean saveFile(File dest, InputStream stream, boolean shouldUnzip, int attempt, ZipUtil.ExtractedFileHandler extractedFileHandler) {
         String destPath = dest.getAbsolutePath();
         try {
             LOGGER.trace("Saving file [{}]", destPath);
-            if (shouldUnzip) {
+            if (shouldUnzip && extractedFileHandler != null) {
+                zipUtil.unzip(new ZipInputStream(stream), dest, extractedFileHandler);
+            } else if (shouldUnzip) {
                 zipUtil.unzip(new ZipInputStream(stream), dest);
             } else {
                 try (FileOutputStream out = FileUtils.openOutputStream(dest, true)) {
@@ -159,6 +166,17 @@ public class ArtifactsService implements ArtifactUrlReader {
     }
 
     public void purgeArtifactsForStage(Stage stage) {
+        deleteArtifactsForStage(stage);
+        stageDao.markArtifactsDeletedFor(stage);
+        LOGGER.debug("Marked stage '{}' as artifacts deleted.", stage.getIdentifier().entityLocator());
+    }
+
+    public void markArtifactsDeletedFor(List<Stage> stages) {
+        stageDao.markArtifactsDeletedFor(stages);
+        LOGGER.debug("Marked {} stages as artifacts deleted.", stages.size());
+    }
+
+    public void deleteArtifactsForStage(Stage stage) {
         StageIdentifier stageIdentifier = stage.getIdentifier();
         try {
             File stageRoot = chooser.findArtifact(stageIdentifier, "");
@@ -172,8 +190,6 @@ public class ArtifactsService implements ArtifactUrlReader {
         } catch (Exception e) {
             LOGGER.error("Error occurred while clearing artifacts for '{}'. Error: '{}'", stageIdentifier.entityLocator(), e.getMessage(), e);
         }
-        stageDao.markArtifactsDeletedFor(stage);
-        LOGGER.debug("Marked stage '{}' as artifacts deleted.", stageIdentifier.entityLocator());
     }
 
     private boolean deleteArtifactsExceptCruiseOutputAndPluggableArtifactMetadata(File stageRoot) throws IOException {
@@ -40,6 +40,7 @@ import org.apache.commons.io.DirectoryWalker;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,9 @@ import org.springframework.stereotype.Service;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -91,6 +95,7 @@ public class BackupService implements BackupStatusProvider {
     private static final String VERSION_BACKUP_FILE = "version.txt";
 
     private static final Object BACKUP_MUTEX = new Object();
+    private static final ThreadFactory BACKUP_THREAD_FACTORY = new BasicThreadFactory.Builder().namingPattern("server-backup-%d").daemon(true).build();
 
     @Autowired
     public BackupService(ArtifactsDirHolder artifactsDirHolder,
@@ -172,10 +177,7 @@ public class BackupService implements BackupStatusProvider {
                     return backup;
                 }
                 backupVersion(destDir, backupUpdateListeners);
-                backupConfig(destDir, backupUpdateListeners);
-                boolean backedUpWrapperConfig = backupWrapperConfig(destDir, backupUpdateListeners);
-                backupConfigRepo(backupUpdateListeners, destDir);
-                backupDb(destDir, backupUpdateListeners);
+                boolean backedUpWrapperConfig = backupConfigAndDb(destDir, backupUpdateListeners);
                 boolean passed = executePostBackupScript(backup.getUsername(), initiatedBy, backup, backupUpdateListeners);
                 if (passed) {
                     sendBackupSuccessEmail(backup.getUsername(), mailSender, destDir);
@@ -194,6 +196,87 @@ public class BackupService implements BackupStatusProvider {
         return backup;
     }
 
+    // The config dir, wrapper config, config repo and database backups write to separate files, so they run side by side
+    // and the server spends only as long as the slowest of them in the backup state. Progress is still reported one step
+    // at a time, in the order the steps used to run in, so that the reported status never goes backwards.
+    private boolean backupConfigAndDb(File destDir, List<BackupUpdateListener> backupUpdateListeners) throws Exception {
+        Optional<String> wrapperConfigDirPath = systemEnvironment.wrapperConfigDirPath();
+        if (wrapperConfigDirPath.isEmpty()) {
+            notifyErrorToListeners(backupUpdateListeners, "Skipping wrapper config backups.");
+            LOGGER.warn("[Backup] Not backing up Wrapper Config dir as `WRAPPER_CONF_DIR` env variable not set.");
+        }
+
+        Map<BackupProgressStatus, Callable<Object>> steps = new LinkedHashMap<>();
+        steps.put(BackupProgressStatus.BACKUP_CONFIG, () -> {
+            backupConfig(destDir);
+            return null;
+        });
+        wrapperConfigDirPath.ifPresent(path -> steps.put(BackupProgressStatus.BACKUP_WRAPPER_CONFIG, () -> {
+            backupWrapperConfig(destDir, path);
+            return null;
+        }));
+        steps.put(BackupProgressStatus.BACKUP_CONFIG_REPO, () -> {
+            backupConfigRepo(destDir);
+            return null;
+        });
+        steps.put(BackupProgressStatus.BACKUP_DATABASE, () -> {
+            backupDb(destDir);
+            return null;
+        });
+        runSideBySide(steps, backupUpdateListeners);
+        return wrapperConfigDirPath.isPresent();
+    }
+
+    private void runSideBySide(Map<BackupProgressStatus, Callable<Object>> steps, List<BackupUpdateListener> backupUpdateListeners) throws Exception {
+        // a pool per backup, as backups are rare and its threads are not worth keeping around in between
+        ExecutorService backupExecutor = Executors.newFixedThreadPool(Math.max(1, systemEnvironment.getNumberOfServerBackupThreads()), BACKUP_THREAD_FACTORY);
+        ExecutorCompletionService<Object> completionService = new ExecutorCompletionService<>(backupExecutor);
+        CountDownLatch stepsFinished = new CountDownLatch(steps.size());
+        List<AtomicBoolean> stepsClaimed = new ArrayList<>();
+        List<BackupProgressStatus> statuses = new ArrayList<>(steps.keySet());
+        List<Future<Object>> futures = new ArrayList<>();
+        steps.values().forEach(step -> {
+            AtomicBoolean claimed = new AtomicBoolean();
+            stepsClaimed.add(claimed);
+            futures.add(completionService.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return step.call();
+                } finally {
+                    stepsFinished.countDown();
+                }
+            }));
+        });
+
+        Set<Future<Object>> completed = new HashSet<>();
+        int reported = 0;
+        notifyUpdateToListeners(backupUpdateListeners, statuses.get(reported));
+        try {
+            while (completed.size() < futures.size()) {
+                Future<Object> step = completionService.take();
+                step.get();
+                completed.add(step);
+                while (reported < statuses.size() - 1 && completed.contains(futures.get(reported))) {
+                    notifyUpdateToListeners(backupUpdateListeners, statuses.get(++reported));
+                }
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            // the steps still running are stopped and the ones yet to start never will, but nothing should still be writing
+            // into the backup dir when it is cleaned up after a failure
+            futures.forEach(future -> future.cancel(true));
+            stepsClaimed.stream().filter(claimed -> claimed.compareAndSet(false, true)).forEach(claimed -> stepsFinished.countDown());
+            try {
+                stepsFinished.await();
+            } finally {
+                backupExecutor.shutdownNow();
+            }
+        }
+    }
+
     private ServerBackup createServerBackup(Username username) {
         DateTime backupTime = timeProvider.currentDateTime();
         ServerBackup serverBackup = new ServerBackup(getBackupDir(backupTime).getAbsolutePath(), backupTime.toDate(), username.getUsername().toString(), "Backup scheduled");
@@ -201,13 +284,14 @@ public class BackupService implements BackupStatusProvider {
         return serverBackup;
     }
 
-    private void backupConfigRepo(List<BackupUpdateListener> backupUpdateListeners, File destDir) throws IOException {
-        notifyUpdateToListeners(backupUpdateListeners, BackupProgressStatus.BACKUP_CONFIG_REPO);
+    private void backupConfigRepo(File destDir) throws IOException {
         configRepository.doLocked(new VoidThrowingFn<IOException>() {
             @Override
             public void run() throws IOException {
                 File configRepoDir = systemEnvironment.getConfigRepoDir();
                 try (ZipOutputStream configRepoZipStream = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(new File(destDir, CONFIG_REPOSITORY_BACKUP_ZIP))))) {
+                    // Git objects are already zlib compressed, compressing them hard again only costs time
+                    configRepoZipStream.setLevel(Deflater.BEST_SPEED);
                     new DirectoryStructureWalker(configRepoDir.getAbsolutePath(), configRepoZipStream).walk();
                 }
             }
@@ -216,12 +300,16 @@ public class BackupService implements BackupStatusProvider {
 
     private void notifyUpdateToListeners(List<BackupUpdateListener> listeners, BackupProgressStatus status) {
         LOGGER.debug(status.getMessage());
-        listeners.forEach(backupUpdateListener -> backupUpdateListener.updateStep(status));
+        synchronized (listeners) {
+            listeners.forEach(backupUpdateListener -> backupUpdateListener.updateStep(status));
+        }
     }
 
     private void notifyErrorToListeners(List<BackupUpdateListener> listeners, String message) {
         LOGGER.debug(message);
-        listeners.forEach(backupUpdateListener -> backupUpdateListener.error(message));
+        synchronized (listeners) {
+            listeners.forEach(backupUpdateListener -> backupUpdateListener.error(message));
+        }
     }
 
     private void notifyCompletionToListeners(List<BackupUpdateListener> listeners, boolean backedupWrapperConfig) {
@@ -295,25 +383,13 @@ public class BackupService implements BackupStatusProvider {
         FileUtils.writeStringToFile(versionFile, CurrentGoCDVersion.getInstance().formatted(), UTF_8);
     }
 
-    private boolean backupWrapperConfig(File backupDir, List<BackupUpdateListener> backupUpdateListeners) throws IOException {
-        Optional<String> wrapperConfigDirPath = systemEnvironment.wrapperConfigDirPath();
-
-        if (wrapperConfigDirPath.isEmpty()) {
-            notifyErrorToListeners(backupUpdateListeners, "Skipping wrapper config backups.");
-            LOGGER.warn("[Backup] Not backing up Wrapper Config dir as `WRAPPER_CONF_DIR` env variable not set.");
-
-            return false;
-        }
-
-        notifyUpdateToListeners(backupUpdateListeners, BackupProgressStatus.BACKUP_WRAPPER_CONFIG);
+    private void backupWrapperConfig(File backupDir, String wrapperConfigDirPath) throws IOException {
         try (ZipOutputStream configZip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(new File(backupDir, WRAPPER_CONFIG_BACKUP_ZIP))))) {
-            new DirectoryStructureWalker(wrapperConfigDirPath.get(), configZip).walk();
+            new DirectoryStructureWalker(wrapperConfigDirPath, configZip).walk();
         }
-        return true;
     }
 
-    private void backupConfig(File backupDir, List<BackupUpdateListener> backupUpdateListeners) throws IOException {
-        notifyUpdateToListeners(backupUpdateListeners, BackupProgressStatus.BACKUP_CONFIG);
+    private void backupConfig(File backupDir) throws IOException {
         String configDirectory = systemEnvironment.getConfigDir();
         try (ZipOutputStream configZip = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(new File(backupDir, CONFIG_BACKUP_ZIP))))) {
             File cruiseConfigFile = new File(systemEnvironment.getCruiseConfigFile());
@@ -334,8 +410,7 @@ public class BackupService implements BackupStatusProvider {
         }
     }
 
-    private void backupDb(File backupDir, List<BackupUpdateListener> backupUpdateListener) {
-        notifyUpdateToListeners(backupUpdateListener, BackupProgressStatus.BACKUP_DATABASE);
+    private void backupDb(File backupDir) {
         databaseStrategy.backup(backupDir);
     }
 
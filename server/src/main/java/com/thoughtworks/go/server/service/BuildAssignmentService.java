@@ -15,6 +15,7 @@
  */
 package com.thoughtworks.go.server.service;
 
+import com.rits.cloning.Cloner;
 import com.thoughtworks.go.config.*;
 import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
 import com.thoughtworks.go.config.materials.PackageMaterial;
@@ -34,6 +35,7 @@ import com.thoughtworks.go.server.messaging.JobStatusMessage;
 import com.thoughtworks.go.server.messaging.JobStatusTopic;
 import com.thoughtworks.go.server.service.builders.BuilderFactory;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
+import com.thoughtworks.go.util.ClonerFactory;
 import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.command.EnvironmentVariableContext;
 import org.apache.commons.collections4.CollectionUtils;
@@ -61,6 +63,7 @@ import static org.apache.commons.collections4.CollectionUtils.forAllDo;
 @Service
 public class BuildAssignmentService implements ConfigChangedListener {
     private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(BuildAssignmentService.class.getName());
+    private static final Cloner cloner = ClonerFactory.instance();
     public static final NoWork NO_WORK = new NoWork();
     public static final String GO_PIPELINE_GROUP_NAME = "GO_PIPELINE_GROUP_NAME";
     public static final String GO_AGENT_RESOURCES = "GO_AGENT_RESOURCES";
@@ -183,7 +186,8 @@ public class BuildAssignmentService implements ConfigChangedListener {
             scheduleService.rescheduleAbandonedBuildIfNecessary(agent.getAgentIdentifier());
             final JobPlan job = findMatchingJob(agent);
             if (job != null) {
-                Work buildWork = createWork(agent, job);
+                // queued plans are shared through the job plan cache, the assignment gets a copy of its own
+                Work buildWork = createWork(agent, cloner.deepClone(job));
                 AgentBuildingInfo buildingInfo = new AgentBuildingInfo(job.getIdentifier().buildLocatorForDisplay(),
                         job.getIdentifier().buildLocator());
                 agentService.building(agent.getUuid(), buildingInfo);
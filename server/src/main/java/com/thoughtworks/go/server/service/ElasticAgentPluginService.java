@@ -16,6 +16,7 @@
 package com.thoughtworks.go.server.service;
 
 import com.google.common.collect.Sets;
+import com.rits.cloning.Cloner;
 import com.thoughtworks.go.config.elastic.ClusterProfile;
 import com.thoughtworks.go.config.elastic.ElasticProfile;
 import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
@@ -23,6 +24,7 @@ import com.thoughtworks.go.domain.AgentInstance;
 import com.thoughtworks.go.domain.JobIdentifier;
 import com.thoughtworks.go.domain.JobInstance;
 import com.thoughtworks.go.domain.JobPlan;
+import com.thoughtworks.go.domain.config.Configuration;
 import com.thoughtworks.go.domain.exception.IllegalArtifactLocationException;
 import com.thoughtworks.go.plugin.access.elastic.ElasticAgentMetadataStore;
 import com.thoughtworks.go.plugin.access.elastic.ElasticAgentPluginRegistry;
@@ -44,6 +46,7 @@ import com.thoughtworks.go.server.messaging.elasticagents.ServerPingQueueHandler
 import com.thoughtworks.go.serverhealth.HealthStateScope;
 import com.thoughtworks.go.serverhealth.ServerHealthService;
 import com.thoughtworks.go.serverhealth.ServerHealthState;
+import com.thoughtworks.go.util.ClonerFactory;
 import com.thoughtworks.go.util.TimeProvider;
 import com.thoughtworks.go.utils.Timeout;
 import org.apache.commons.lang3.StringUtils;
@@ -70,6 +73,7 @@ import static java.util.stream.Collectors.toList;
 @Service
 public class ElasticAgentPluginService {
     private static final Logger LOGGER = LoggerFactory.getLogger(ElasticAgentPluginService.class);
+    private static final Cloner cloner = ClonerFactory.instance();
 
     private final PluginManager pluginManager;
     private ElasticAgentPluginRegistry elasticAgentPluginRegistry;
@@ -212,8 +216,8 @@ public class ElasticAgentPluginService {
 
         for (JobPlan plan : plansThatRequireElasticAgent) {
             jobCreationTimeMap.put(plan.getJobId(), timeProvider.currentTimeMillis());
-            ElasticProfile elasticProfile = plan.getElasticProfile();
-            ClusterProfile clusterProfile = plan.getClusterProfile();
+            ElasticProfile elasticProfile = forResolvingSecrets(plan.getElasticProfile());
+            ClusterProfile clusterProfile = forResolvingSecrets(plan.getClusterProfile());
             JobIdentifier jobIdentifier = plan.getIdentifier();
             if (clusterProfile == null) {
                 String cancellationMessage = "\nThis job was cancelled by GoCD. The version of your GoCD server requires elastic profiles to be associated with a cluster(required from Version 19.3.0). " +
@@ -252,10 +256,12 @@ public class ElasticAgentPluginService {
             return false;
         }
 
-        resolveSecrets(clusterProfile, elasticProfile);
-        Map<String, String> clusterProfileProperties = clusterProfile.getConfigurationAsMap(true, true);
+        ClusterProfile resolvedClusterProfile = forResolvingSecrets(clusterProfile);
+        ElasticProfile resolvedElasticProfile = forResolvingSecrets(elasticProfile);
+        resolveSecrets(resolvedClusterProfile, resolvedElasticProfile);
+        Map<String, String> clusterProfileProperties = resolvedClusterProfile.getConfigurationAsMap(true, true);
         GoPluginDescriptor pluginDescriptor = pluginManager.getPluginDescriptorFor(metadata.elasticPluginId());
-        Map<String, String> configuration = elasticProfile.getConfigurationAsMap(true, true);
+        Map<String, String> configuration = resolvedElasticProfile.getConfigurationAsMap(true, true);
 
         return elasticAgentPluginRegistry.shouldAssignWork(pluginDescriptor, toAgentMetadata(metadata), environment, configuration, clusterProfileProperties, identifier);
     }
@@ -387,6 +393,12 @@ public class ElasticAgentPluginService {
         return true;
     }
 
+    // profiles of scheduled jobs are shared through the job plan cache and are only ever read, so a profile is copied
+    // only when it has secrets to resolve
+    private static <T extends Configuration> T forResolvingSecrets(T profile) {
+        return profile != null && profile.hasSecretParams() ? cloner.deepClone(profile) : profile;
+    }
+
     private void resolveSecrets(ClusterProfile clusterProfile, ElasticProfile elasticProfile) {
         if (clusterProfile != null)
             secretParamResolver.resolve(clusterProfile);
@@ -22,8 +22,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializer;
 import com.thoughtworks.go.config.ConfigCache;
 import com.thoughtworks.go.config.EnvironmentVariableConfig;
-import com.thoughtworks.go.config.MagicalGoConfigXmlWriter;
-import com.thoughtworks.go.config.registry.ConfigElementImplementationRegistry;
+import com.thoughtworks.go.config.GoConfigDigester;
 import com.thoughtworks.go.domain.config.ConfigurationProperty;
 import com.thoughtworks.go.domain.materials.Modification;
 import com.thoughtworks.go.plugin.domain.common.PluginInfo;
@@ -43,11 +42,11 @@ public class EntityHashes implements DigestMixin {
             registerTypeAdapter(Modification.class, Serializers.MODIFICATION).
             create();
 
-    private final MagicalGoConfigXmlWriter xmlSerializer;
+    private final GoConfigDigester configDigester;
 
     @Autowired
-    public EntityHashes(ConfigCache configCache, ConfigElementImplementationRegistry registry) {
-        xmlSerializer = new MagicalGoConfigXmlWriter(configCache, registry);
+    public EntityHashes(ConfigCache configCache) {
+        configDigester = new GoConfigDigester(configCache);
     }
 
     /**
@@ -66,18 +65,21 @@ public class EntityHashes implements DigestMixin {
                 collect(Collectors.joining(SEP_CHAR)));
     }
 
+    /**
+     * Computes a cryptographic digest of a config entity from the fields that make up its XML, without serializing
+     * it to XML
+     *
+     * @param entity a config entity
+     * @return a cryptographic hex digest ({@link String})
+     */
     public String digestDomainConfigEntity(Object entity) {
-        return digest(serializeDomainEntity(entity));
+        return configDigester.digest(entity);
     }
 
     public String digestDomainNonConfigEntity(Object entity) {
         return digest(GSON.toJson(entity));
     }
 
-    protected String serializeDomainEntity(Object domainObject) {
-        return xmlSerializer.toXmlPartial(domainObject);
-    }
-
     private interface Serializers {
         /**
          * Custom serializer for encrypted data to ensure stable JSON output when crypto salt changes
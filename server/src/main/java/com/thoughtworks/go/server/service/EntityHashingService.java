@@ -370,9 +370,22 @@ public class EntityHashingService implements ConfigChangedListener, Initializer
         );
     }
 
+    /**
+     * Digests a pipeline group from the digest of its own settings and the cached digests of its pipelines, so that a
+     * change to one pipeline only requires that pipeline to be digested again.
+     *
+     * @param pipelineConfigs a pipeline group
+     * @return the calculated hash
+     */
     public String hashForEntity(PipelineConfigs pipelineConfigs) {
-        String cacheKey = cacheKey(pipelineConfigs, pipelineConfigs.getGroup());
-        return getConfigEntityDigestFromCache(cacheKey, pipelineConfigs);
+        String groupName = pipelineConfigs.getGroup();
+        String groupDigest = getFromCache(cacheKey(pipelineConfigs, groupName),
+                () -> hashes.digest(groupName, hashes.digestDomainConfigEntity(pipelineConfigs.getAuthorization())));
+
+        return hashes.digest(Stream.concat(
+                Stream.of(groupDigest),
+                pipelineConfigs.getPipelines().stream().map(pipelineConfig -> hashForEntity(pipelineConfig, groupName))
+        ).toArray(String[]::new));
     }
 
     public String hashForEntity(PipelineGroups pipelineGroups) {
@@ -82,6 +82,14 @@ public class GoDashboardService {
         return pipelineGroups;
     }
 
+    public long currentDashboardVersion() {
+        return cache.allEntries().lastUpdatedTimeStamp();
+    }
+
+    public GoDashboardChanges dashboardChangesSince(long version, DashboardFilter filter, Username user) {
+        return GoDashboardChanges.since(cache.allEntries(), version).visibleTo(user, filter);
+    }
+
     public void updateCacheForPipeline(CaseInsensitiveString pipelineName) {
         PipelineConfigs group = goConfigService.findGroupByPipeline(pipelineName);
         if (group == null) {
@@ -98,7 +106,7 @@ public class GoDashboardService {
     }
 
     public void updateCacheForAllPipelinesIn(CruiseConfig config) {
-        cache.replaceAllEntriesInCacheWith(dashboardCurrentStateLoader.allPipelines(config));
+        cache.replaceAllEntriesInCacheWith(dashboardCurrentStateLoader.allPipelines(config, cache::updateEntriesInCacheWith));
     }
 
     public boolean hasEverLoadedCurrentState() {
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.config.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @understands which pipeline groups of one loaded config a user may view, operate and administer, worked out once per
+ * user and kept as bitsets over the groups of that config
+ */
+class PipelineGroupPermissions {
+    private final CruiseConfig cruiseConfig;
+    private final boolean everyoneIsAllowedIfNoAuthIsDefined;
+    private final long pluginRolesRevision;
+    private final PluginRoleUsersStore pluginRoleUsersStore;
+    private final List<PipelineConfigs> groups = new ArrayList<>();
+    private final Map<String, Integer> groupIndex = new HashMap<>();
+    private final Map<CaseInsensitiveString, UserPermissions> users = new ConcurrentHashMap<>();
+
+    PipelineGroupPermissions(CruiseConfig cruiseConfig, boolean everyoneIsAllowedIfNoAuthIsDefined, PluginRoleUsersStore pluginRoleUsersStore) {
+        this.cruiseConfig = cruiseConfig;
+        this.everyoneIsAllowedIfNoAuthIsDefined = everyoneIsAllowedIfNoAuthIsDefined;
+        this.pluginRoleUsersStore = pluginRoleUsersStore;
+        this.pluginRolesRevision = pluginRoleUsersStore.rolesRevision();
+        for (PipelineConfigs group : cruiseConfig.getGroups()) {
+            groupIndex.putIfAbsent(group.getGroup().toLowerCase(), groups.size());
+            groups.add(group);
+        }
+    }
+
+    boolean isFor(CruiseConfig cruiseConfig, boolean everyoneIsAllowedIfNoAuthIsDefined) {
+        return this.cruiseConfig == cruiseConfig
+                && this.everyoneIsAllowedIfNoAuthIsDefined == everyoneIsAllowedIfNoAuthIsDefined
+                && this.pluginRolesRevision == pluginRoleUsersStore.rolesRevision();
+    }
+
+    boolean hasGroup(String groupName) {
+        return groupName != null && groupIndex.containsKey(groupName.toLowerCase());
+    }
+
+    boolean canView(CaseInsensitiveString username, String groupName) {
+        return permissionsOf(username).viewable.get(indexOf(groupName));
+    }
+
+    boolean canOperate(CaseInsensitiveString username, String groupName) {
+        return permissionsOf(username).operable.get(indexOf(groupName));
+    }
+
+    boolean canAdminister(CaseInsensitiveString username, String groupName) {
+        return permissionsOf(username).administrable.get(indexOf(groupName));
+    }
+
+    List<String> administrableGroups(CaseInsensitiveString username) {
+        BitSet administrable = permissionsOf(username).administrable;
+        List<String> result = new ArrayList<>();
+        for (int i = administrable.nextSetBit(0); i >= 0; i = administrable.nextSetBit(i + 1)) {
+            result.add(groups.get(i).getGroup());
+        }
+        return result;
+    }
+
+    private int indexOf(String groupName) {
+        return groupIndex.get(groupName.toLowerCase());
+    }
+
+    private UserPermissions permissionsOf(CaseInsensitiveString username) {
+        long revision = pluginRoleUsersStore.revisionFor(username);
+        UserPermissions permissions = users.get(username);
+        if (permissions == null || permissions.pluginRolesRevision != revision) {
+            permissions = computePermissions(username, revision);
+            users.put(username, permissions);
+        }
+        return permissions;
+    }
+
+    private UserPermissions computePermissions(CaseInsensitiveString username, long revision) {
+        SecurityConfig security = cruiseConfig.server().security();
+        List<Role> roles = security.getRoles().memberRoles(new AdminUser(username));
+        SecurityService.UserRoleMatcherImpl matcher = new SecurityService.UserRoleMatcherImpl(security);
+
+        UserPermissions permissions = new UserPermissions(revision, groups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            PipelineConfigs group = groups.get(i);
+            boolean isGroupAdmin = group.isUserAnAdmin(username, roles);
+            permissions.administrable.set(i, isGroupAdmin);
+            permissions.viewable.set(i, isGroupAdmin || group.hasViewPermission(username, matcher, everyoneIsAllowedIfNoAuthIsDefined));
+            permissions.operable.set(i, isGroupAdmin || group.hasOperatePermission(username, matcher, everyoneIsAllowedIfNoAuthIsDefined));
+        }
+        return permissions;
+    }
+
+    private static class UserPermissions {
+        private final long pluginRolesRevision;
+        private final BitSet viewable;
+        private final BitSet operable;
+        private final BitSet administrable;
+
+        private UserPermissions(long pluginRolesRevision, int numberOfGroups) {
+            this.pluginRolesRevision = pluginRolesRevision;
+            this.viewable = new BitSet(numberOfGroups);
+            this.operable = new BitSet(numberOfGroups);
+            this.administrable = new BitSet(numberOfGroups);
+        }
+    }
+}
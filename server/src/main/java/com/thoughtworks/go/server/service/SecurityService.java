@@ -32,6 +32,8 @@ import static com.thoughtworks.go.util.SystemEnvironment.ALLOW_EVERYONE_TO_VIEW_
 public class SecurityService {
     private final SystemEnvironment systemEnvironment;
     private GoConfigService goConfigService;
+    private final PluginRoleUsersStore pluginRoleUsersStore = PluginRoleUsersStore.instance();
+    private volatile PipelineGroupPermissions groupPermissions;
 
     @Autowired
     public SecurityService(GoConfigService goConfigService, SystemEnvironment systemEnvironment) {
@@ -59,8 +61,13 @@ public class SecurityService {
             return true;
         }
 
-        PipelineConfigs group = cruiseConfig.getGroups().findGroup(pipelineGroupName);
         boolean everyoneIsAllowedToViewIfNoAuthIsDefined = systemEnvironment.get(ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP);
+        PipelineGroupPermissions permissions = groupPermissions(cruiseConfig, everyoneIsAllowedToViewIfNoAuthIsDefined);
+        if (permissions.hasGroup(pipelineGroupName)) {
+            return permissions.canView(username, pipelineGroupName);
+        }
+
+        PipelineConfigs group = cruiseConfig.getGroups().findGroup(pipelineGroupName);
         return isUserAdminOfGroup(username, group) || group.hasViewPermission(username, new UserRoleMatcherImpl(cruiseConfig.server().security()), everyoneIsAllowedToViewIfNoAuthIsDefined);
     }
 
@@ -104,8 +111,13 @@ public class SecurityService {
             return true;
         }
 
-        PipelineConfigs group = cruiseConfig.getGroups().findGroup(groupName);
         boolean everyoneIsAllowedToOperateIfNoAuthIsDefined = systemEnvironment.get(ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP);
+        PipelineGroupPermissions permissions = groupPermissions(cruiseConfig, everyoneIsAllowedToOperateIfNoAuthIsDefined);
+        if (permissions.hasGroup(groupName)) {
+            return permissions.canOperate(username, groupName);
+        }
+
+        PipelineConfigs group = cruiseConfig.getGroups().findGroup(groupName);
         return isUserAdminOfGroup(username, group) || group.hasOperatePermission(username, new UserRoleMatcherImpl(cruiseConfig.server().security()), everyoneIsAllowedToOperateIfNoAuthIsDefined);
     }
 
@@ -191,13 +203,9 @@ public class SecurityService {
         if (isUserAdmin(userName)) {
             return goConfigService.allGroups();
         }
-        List<String> modifiableGroups = new ArrayList<>();
-        for (String group : goConfigService.allGroups()) {
-            if (isUserAdminOfGroup(userName.getUsername(), group)) {
-                modifiableGroups.add(group);
-            }
-        }
-        return modifiableGroups;
+        CruiseConfig cruiseConfig = goConfigService.getCurrentConfig();
+        boolean everyoneIsAllowedIfNoAuthIsDefined = systemEnvironment.get(ALLOW_EVERYONE_TO_VIEW_OPERATE_GROUPS_WITH_NO_GROUP_AUTHORIZATION_SETUP);
+        return groupPermissions(cruiseConfig, everyoneIsAllowedIfNoAuthIsDefined).administrableGroups(userName.getUsername());
     }
 
     public boolean isAuthorizedToViewAndEditTemplates(Username username) {
@@ -239,6 +247,15 @@ public class SecurityService {
         return hasPermission;
     }
 
+    private PipelineGroupPermissions groupPermissions(CruiseConfig cruiseConfig, boolean everyoneIsAllowedIfNoAuthIsDefined) {
+        PipelineGroupPermissions permissions = groupPermissions;
+        if (permissions == null || !permissions.isFor(cruiseConfig, everyoneIsAllowedIfNoAuthIsDefined)) {
+            permissions = new PipelineGroupPermissions(cruiseConfig, everyoneIsAllowedIfNoAuthIsDefined, pluginRoleUsersStore);
+            groupPermissions = permissions;
+        }
+        return permissions;
+    }
+
     public boolean noAdminsConfigured() {
         return goConfigService.security().noAdminsConfigured();
     }
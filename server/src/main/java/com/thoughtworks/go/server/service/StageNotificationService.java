@@ -62,7 +62,7 @@ public class StageNotificationService {
         if (users.isEmpty()) {
             return;
         }
-        Stage stage = stageService.findStageWithIdentifier(stageIdentifier);
+        Stage stage = stageService.findReadOnlyStageWithIdentifier(stageIdentifier);
         Pipeline pipeline = pipelineService.fullPipelineById(stage.getPipelineId());
         MaterialRevisions materialRevisions = pipeline.getMaterialRevisions();
 
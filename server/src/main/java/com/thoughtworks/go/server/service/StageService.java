@@ -187,6 +187,13 @@ public class StageService implements StageFinder {
         return stageDao.findStageWithIdentifier(identifier);
     }
 
+    /**
+     * @return the cached stage, which callers must not modify
+     */
+    public Stage findReadOnlyStageWithIdentifier(StageIdentifier identifier) {
+        return stageDao.findReadOnlyStageWithIdentifier(identifier);
+    }
+
     public StageSummaryModel findStageSummaryByIdentifier(StageIdentifier stageId,
                                                           Username username,
                                                           LocalizedOperationResult result) {
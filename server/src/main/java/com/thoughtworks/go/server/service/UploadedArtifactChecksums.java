@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.util.ZipUtil;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.*;
+
+import static org.apache.commons.lang3.StringUtils.removeStart;
+
+/**
+ * @understands checking the files extracted from an uploaded artifact against the md5 checksums the agent sent along
+ * with it, whichever of the two shows up first in the upload
+ */
+public class UploadedArtifactChecksums implements ZipUtil.ExtractedFileHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadedArtifactChecksums.class);
+
+    private final String destPath;
+    private final Map<String, String> extractedChecksums = new LinkedHashMap<>();
+    private final Map<String, File> extractedFiles = new HashMap<>();
+    private final List<String> mismatches = new ArrayList<>();
+    private Properties expectedChecksums;
+
+    public UploadedArtifactChecksums(String destPath) {
+        this.destPath = destPath;
+    }
+
+    @Override
+    public void handleExtractedFile(String entryName, File extractedFile, String md5) {
+        String path = effectivePath(entryName);
+        if (expectedChecksums == null) {
+            extractedChecksums.put(path, md5);
+            extractedFiles.put(path, extractedFile);
+        } else {
+            verify(path, extractedFile, md5);
+        }
+    }
+
+    public void expect(Properties checksums) {
+        expectedChecksums = checksums;
+        for (Map.Entry<String, String> extracted : extractedChecksums.entrySet()) {
+            verify(extracted.getKey(), extractedFiles.get(extracted.getKey()), extracted.getValue());
+        }
+        extractedChecksums.clear();
+        extractedFiles.clear();
+    }
+
+    public boolean isValid() {
+        return mismatches.isEmpty();
+    }
+
+    public List<String> mismatches() {
+        return Collections.unmodifiableList(mismatches);
+    }
+
+    private void verify(String path, File extractedFile, String md5) {
+        String expected = expectedChecksums.getProperty(path);
+        if (expected != null && !expected.equalsIgnoreCase(md5)) {
+            LOGGER.error("[Artifacts Upload] Checksum of uploaded file '{}' does not match. Expected '{}' but was '{}'.", path, expected, md5);
+            FileUtils.deleteQuietly(extractedFile);
+            mismatches.add(path);
+        }
+    }
+
+    private String effectivePath(String entryName) {
+        File artifactDest = destPath.isEmpty() ? new File(entryName) : new File(destPath, entryName);
+        return removeStart(FilenameUtils.separatorsToUnix(artifactDest.getPath()), "/");
+    }
+}
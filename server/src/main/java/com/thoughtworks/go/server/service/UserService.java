@@ -62,6 +62,7 @@ public class UserService {
     private final GoConfigService goConfigService;
     private final TransactionTemplate transactionTemplate;
     private SystemEnvironment systemEnvironment;
+    private final VerifiedAccessTokenCache verifiedAccessTokenCache;
 
     private final Object disableUserMutex = new Object();
     private final Object enableUserMutex = new Object();
@@ -71,12 +72,14 @@ public class UserService {
                        SecurityService securityService,
                        GoConfigService goConfigService,
                        TransactionTemplate transactionTemplate,
-                       SystemEnvironment systemEnvironment) {
+                       SystemEnvironment systemEnvironment,
+                       VerifiedAccessTokenCache verifiedAccessTokenCache) {
         this.userDao = userDao;
         this.securityService = securityService;
         this.goConfigService = goConfigService;
         this.transactionTemplate = transactionTemplate;
         this.systemEnvironment = systemEnvironment;
+        this.verifiedAccessTokenCache = verifiedAccessTokenCache;
     }
 
     public void disable(final List<String> usersToBeDisabled, LocalizedOperationResult result) {
@@ -91,6 +94,7 @@ public class UserService {
                     userDao.disableUsers(usersToBeDisabled);
                 }
             });
+            verifiedAccessTokenCache.invalidateTokensOf(usersToBeDisabled);
         }
     }
 
@@ -268,6 +272,7 @@ public class UserService {
     public void deleteUser(String username, String byWhom, HttpLocalizedOperationResult result) {
         try {
             userDao.deleteUser(username, byWhom);
+            verifiedAccessTokenCache.invalidateTokensOf(Collections.singletonList(username));
             result.setMessage(EntityType.User.deleteSuccessful(username));
         } catch (RecordNotFoundException e) {
             result.notFound(EntityType.User.notFoundMessage(username), general(GLOBAL));
@@ -281,6 +286,7 @@ public class UserService {
             boolean isValid = performUserDeletionValidation(userNames, result);
             if (isValid) {
                 userDao.deleteUsers(userNames, byWhom);
+                verifiedAccessTokenCache.invalidateTokensOf(userNames);
                 result.setMessage(EntityType.User.deleteSuccessful(userNames));
             }
         }
@@ -536,9 +542,8 @@ public class UserService {
     }
 
     public Users findValidSubscribers(final StageConfigIdentifier identifier) {
-        Users users = userDao.findNotificationSubscribingUsers();
-        return users.filter(user -> user.hasSubscribedFor(identifier.getPipelineName(), identifier.getStageName()) &&
-            securityService.hasViewPermissionForPipeline(user.getUsername(), identifier.getPipelineName()));
+        Users users = userDao.findNotificationSubscriptions().subscribersFor(identifier.getPipelineName(), identifier.getStageName());
+        return users.filter(user -> securityService.hasViewPermissionForPipeline(user.getUsername(), identifier.getPipelineName()));
     }
 
     public void validate(User user) throws ValidationException {
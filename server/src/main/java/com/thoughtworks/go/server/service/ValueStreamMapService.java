@@ -42,9 +42,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 @Service
 public class ValueStreamMapService {
@@ -56,6 +54,7 @@ public class ValueStreamMapService {
     private final RunStagesPopulator runStagesPopulator;
     private final UnrunStagesPopulator unrunStagePopulator;
     private SecurityService securityService;
+    private volatile DownstreamPipelines downstreamPipelines;
     private static final Logger LOGGER = LoggerFactory.getLogger(ValueStreamMapService.class);
 
     @Autowired
@@ -100,9 +99,9 @@ public class ValueStreamMapService {
         }
         String label = pipelineService.findPipelineByNameAndCounter(pipelineName.toString(), counter).getLabel();
         ValueStreamMap valueStreamMap = new ValueStreamMap(pipelineName, new PipelineRevision(pipelineName.toString(), counter, label));
-        Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap = cruiseConfig.generatePipelineVsDownstreamMap();
+        Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap = pipelineToDownstreamMap(cruiseConfig);
 
-        traverseDownstream(pipelineName, pipelineToDownstreamMap, valueStreamMap, new ArrayList<>());
+        traverseDownstream(pipelineName, pipelineToDownstreamMap, valueStreamMap, new HashSet<>());
         traverseUpstream(pipelineName, buildCauseForPipeline, valueStreamMap, new ArrayList<>());
 
         if (valueStreamMap.hasCycle()) {
@@ -182,9 +181,9 @@ public class ValueStreamMapService {
     private ValueStreamMap buildValueStreamMap(Material material, MaterialInstance materialInstance, Modification modification, List<PipelineConfig> downstreamPipelines, Username username, LocalizedOperationResult result) {
         CruiseConfig cruiseConfig = goConfigService.currentCruiseConfig();
         ValueStreamMap valueStreamMap = new ValueStreamMap(material, materialInstance, modification);
-        Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap = cruiseConfig.generatePipelineVsDownstreamMap();
+        Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap = pipelineToDownstreamMap(cruiseConfig);
 
-        traverseDownstream(new CaseInsensitiveString(material.getFingerprint()), downstreamPipelines, pipelineToDownstreamMap, valueStreamMap, new ArrayList<>());
+        traverseDownstream(new CaseInsensitiveString(material.getFingerprint()), downstreamPipelines, pipelineToDownstreamMap, valueStreamMap, new HashSet<>());
 
         addInstanceInformationToTheGraph(valueStreamMap);
         removeRevisionsBasedOnPermissionAndCurrentConfig(valueStreamMap, username, result);
@@ -234,26 +233,46 @@ public class ValueStreamMapService {
         }
     }
 
-    private void traverseDownstream(CaseInsensitiveString upstreamPipelineName, Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap, ValueStreamMap graph, List<PipelineConfig> visitedNodes) {
+    private void traverseDownstream(CaseInsensitiveString upstreamPipelineName, Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap, ValueStreamMap graph, Set<CaseInsensitiveString> visitedNodes) {
         List<PipelineConfig> downstreamPipelines = pipelineToDownstreamMap.get(upstreamPipelineName);
         traverseDownstream(upstreamPipelineName, downstreamPipelines, pipelineToDownstreamMap, graph, visitedNodes);
     }
 
-    private void traverseDownstream(CaseInsensitiveString materialId, List<PipelineConfig> downstreamPipelines, Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap, ValueStreamMap graph, List<PipelineConfig> visitedNodes) {
+    private void traverseDownstream(CaseInsensitiveString materialId, List<PipelineConfig> downstreamPipelines, Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap, ValueStreamMap graph, Set<CaseInsensitiveString> visitedNodes) {
         for (PipelineConfig downstreamPipeline : downstreamPipelines) {
             graph.addDownstreamNode(new PipelineDependencyNode(downstreamPipeline.name(),
                     downstreamPipeline.name().toString()), materialId);
-            if (visitedNodes.contains(downstreamPipeline)) {
+            if (!visitedNodes.add(downstreamPipeline.name())) {
                 continue;
             }
-            visitedNodes.add(downstreamPipeline);
             traverseDownstream(downstreamPipeline.name(), pipelineToDownstreamMap, graph, visitedNodes);
         }
     }
 
+    private Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap(CruiseConfig cruiseConfig) {
+        DownstreamPipelines cached = downstreamPipelines;
+        if (cached == null || cached.cruiseConfig != cruiseConfig) {
+            cached = new DownstreamPipelines(cruiseConfig);
+            downstreamPipelines = cached;
+        }
+        return cached.pipelineToDownstreamMap;
+    }
+
     private void addInstanceInformationToTheGraph(ValueStreamMap valueStreamMap) {
         downstreamInstancePopulator.apply(valueStreamMap);
         runStagesPopulator.apply(valueStreamMap);
         unrunStagePopulator.apply(valueStreamMap);
     }
+
+    // The downstream pipelines only depend on the config, so they are computed once for each config that gets loaded
+    // rather than once for every value stream map request.
+    private static class DownstreamPipelines {
+        private final CruiseConfig cruiseConfig;
+        private final Map<CaseInsensitiveString, List<PipelineConfig>> pipelineToDownstreamMap;
+
+        private DownstreamPipelines(CruiseConfig cruiseConfig) {
+            this.cruiseConfig = cruiseConfig;
+            this.pipelineToDownstreamMap = Collections.unmodifiableMap(cruiseConfig.generatePipelineVsDownstreamMap());
+        }
+    }
 }
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.config.CruiseConfig;
+import com.thoughtworks.go.config.SecurityConfig;
+import com.thoughtworks.go.domain.AccessToken;
+import com.thoughtworks.go.listener.SecurityConfigChangeListener;
+import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.apache.commons.codec.binary.Hex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * @understands remembering, for a short while, which presented access tokens were already verified against their
+ * PBKDF2 digest, so that API requests using the same token do not pay for the digest every time
+ */
+@Component
+public class VerifiedAccessTokenCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VerifiedAccessTokenCache.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Clock clock;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+    private final LinkedHashMap<String, VerifiedToken> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    private SecurityConfig securityConfig;
+    private long generation;
+
+    @Autowired
+    public VerifiedAccessTokenCache(GoConfigService goConfigService, Clock clock, SystemEnvironment systemEnvironment) {
+        this(clock, TimeUnit.SECONDS.toMillis(systemEnvironment.getAccessTokenVerificationCacheTtlSeconds()), systemEnvironment.getAccessTokenVerificationCacheSize());
+        goConfigService.register(new SecurityConfigChangeListener() {
+            @Override
+            public void onEntityConfigChange(Object entity) {
+                invalidateAll();
+            }
+
+            @Override
+            public void onConfigChange(CruiseConfig newCruiseConfig) {
+                onSecurityConfigChange(newCruiseConfig.server().security());
+            }
+        });
+    }
+
+    VerifiedAccessTokenCache(Clock clock, long ttlMillis, int maxSize) {
+        this.clock = clock;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        this.entries = new LinkedHashMap<String, VerifiedToken>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > VerifiedAccessTokenCache.this.maxSize;
+            }
+        };
+    }
+
+    public AccessToken get(String actualToken) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        String cacheKey = cacheKey(actualToken);
+        synchronized (entries) {
+            VerifiedToken verifiedToken = entries.get(cacheKey);
+            if (verifiedToken != null && clock.currentTimeMillis() - verifiedToken.verifiedAt < ttlMillis) {
+                hits.incrementAndGet();
+                return verifiedToken.token;
+            }
+            if (verifiedToken != null) {
+                entries.remove(cacheKey);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Moves on whenever verified tokens are invalidated. Read it before loading a token, and hand it over to
+     * {@link #put(String, AccessToken, long)} once the token is verified, so that a token loaded before it was revoked
+     * does not make it into the cache after the revocation.
+     */
+    public long generation() {
+        synchronized (entries) {
+            return generation;
+        }
+    }
+
+    public void put(String actualToken, AccessToken token, long generationWhenLoaded) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        String cacheKey = cacheKey(actualToken);
+        synchronized (entries) {
+            if (generationWhenLoaded != generation) {
+                return;
+            }
+            entries.put(cacheKey, new VerifiedToken(token, clock.currentTimeMillis()));
+        }
+    }
+
+    public void invalidate(AccessToken token) {
+        synchronized (entries) {
+            generation++;
+            removeIf(verifiedToken -> verifiedToken.token.getId() == token.getId());
+        }
+    }
+
+    public void invalidateTokensOf(Collection<String> usernames) {
+        synchronized (entries) {
+            generation++;
+            removeIf(verifiedToken -> usernames.stream().anyMatch(username -> username.equalsIgnoreCase(verifiedToken.token.getUsername())));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation++;
+            invalidations.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public Map<String, Object> asJson() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("Enabled", isEnabled());
+        json.put("Size", size());
+        json.put("Max size", maxSize);
+        json.put("TTL in milliseconds", ttlMillis);
+        json.put("Hits", hitCount);
+        json.put("Misses", missCount);
+        json.put("Hit rate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        json.put("Invalidations", invalidations.get());
+        return json;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void onSecurityConfigChange(SecurityConfig newSecurityConfig) {
+        if (securityConfig != null && !Objects.equals(securityConfig, newSecurityConfig)) {
+            LOGGER.debug("[Access Token] Security configuration changed, forgetting all verified access tokens.");
+            invalidateAll();
+        }
+        securityConfig = newSecurityConfig;
+    }
+
+    private void removeIf(Predicate<VerifiedToken> predicate) {
+        int sizeBefore = entries.size();
+        entries.values().removeIf(predicate);
+        invalidations.addAndGet(sizeBefore - entries.size());
+    }
+
+    private boolean isEnabled() {
+        return ttlMillis > 0 && maxSize > 0;
+    }
+
+    private String cacheKey(String actualToken) {
+        return Hex.encodeHexString(macs.get().doFinal(actualToken.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class VerifiedToken {
+        private final AccessToken token;
+        private final long verifiedAt;
+
+        private VerifiedToken(AccessToken token, long verifiedAt) {
+            this.token = token;
+            this.verifiedAt = verifiedAt;
+        }
+    }
+}
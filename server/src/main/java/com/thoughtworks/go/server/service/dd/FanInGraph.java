@@ -230,6 +230,10 @@ public class FanInGraph {
     private List<MaterialRevision> createFinalRevisionsForScmChildren(PipelineTimelineEntry latestRootNodeInstance, List<RootFanInNode> scmChildren, List<DependencyFanInNode> depChildren) {
         Set<FaninScmMaterial> scmMaterialsFromDepChildren = scmMaterialsOfDepChildren(depChildren);
         List<MaterialRevision> finalRevisions = new ArrayList<>();
+        PipelineInstanceModel latestRootPipeline = null;
+        if (latestRootNodeInstance != null && !scmChildren.isEmpty()) {
+            latestRootPipeline = pipelineDao.findPipelineHistoryByNameAndCounter(latestRootNodeInstance.getPipelineName(), latestRootNodeInstance.getCounter());
+        }
 
         for (RootFanInNode child : scmChildren) {
             child.setScmRevision(scmMaterialsFromDepChildren);
@@ -237,9 +241,8 @@ public class FanInGraph {
             MaterialConfig materialConfig = child.materialConfig;
             Material material = materialConfigConverter.toMaterial(materialConfig);
             MaterialRevision revision = new MaterialRevision(material);
-            if (latestRootNodeInstance != null) {
-                PipelineInstanceModel pipeline = pipelineDao.findPipelineHistoryByNameAndCounter(latestRootNodeInstance.getPipelineName(), latestRootNodeInstance.getCounter());
-                for (MaterialRevision materialRevision : pipeline.getCurrentRevisions()) {
+            if (latestRootPipeline != null) {
+                for (MaterialRevision materialRevision : latestRootPipeline.getCurrentRevisions()) {
                     if (materialRevision.getMaterial().getFingerprint().equals(child.materialConfig.getFingerprint())) {
                         List<Modification> modificationsSince = materialRepository.findModificationsSinceAndUptil(material, materialRevision, child.scmRevision);
                         revision.addModifications(modificationsSince);
@@ -15,11 +15,13 @@
  */
 package com.thoughtworks.go.server.service.dd;
 
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
+import com.thoughtworks.go.config.CaseInsensitiveString;
 import com.thoughtworks.go.config.materials.dependency.DependencyMaterialConfig;
+import com.thoughtworks.go.domain.PipelineTimelineEntry;
 import com.thoughtworks.go.domain.materials.MaterialConfig;
+import com.thoughtworks.go.domain.materials.dependency.DependencyMaterialRevision;
 import com.thoughtworks.go.server.dao.PipelineDao;
 import com.thoughtworks.go.server.domain.PipelineTimeline;
 
@@ -31,4 +33,39 @@ public class FanInGraphContext {
     public Map<String, DependencyMaterialConfig> fingerprintDepMaterialMap;
     public PipelineDao pipelineDao;
     public int maxBackTrackLimit;
+
+    // Memoized for the lifetime of a single fan-in resolution. Timeline entries never change once created, and the
+    // backtracking of every child walks through the same upstream instances again and again.
+    private final Map<PipelineTimelineEntry, Set<PipelineTimelineEntry>> upstreamEntries = new IdentityHashMap<>();
+
+    List<FaninScmMaterial> scmMaterialsReachableFrom(PipelineTimelineEntry entry) {
+        List<FaninScmMaterial> scmMaterials = new ArrayList<>();
+        for (PipelineTimelineEntry reachableEntry : entriesReachableFrom(entry)) {
+            for (Map.Entry<String, List<PipelineTimelineEntry.Revision>> revisionList : reachableEntry.revisions().entrySet()) {
+                String fingerprint = revisionList.getKey();
+                if (fingerprintScmMaterialMap.containsKey(fingerprint)) {
+                    scmMaterials.add(new FaninScmMaterial(fingerprint, revisionList.getValue().get(0)));
+                }
+            }
+        }
+        return scmMaterials;
+    }
+
+    private Set<PipelineTimelineEntry> entriesReachableFrom(PipelineTimelineEntry entry) {
+        Set<PipelineTimelineEntry> reachable = upstreamEntries.get(entry);
+        if (reachable != null) {
+            return reachable;
+        }
+        reachable = Collections.newSetFromMap(new IdentityHashMap<>());
+        reachable.add(entry);
+        for (Map.Entry<String, List<PipelineTimelineEntry.Revision>> revisionList : entry.revisions().entrySet()) {
+            if (fingerprintDepMaterialMap.containsKey(revisionList.getKey())) {
+                DependencyMaterialRevision dmr = DependencyMaterialRevision.create(revisionList.getValue().get(0).revision, null);
+                PipelineTimelineEntry upstream = pipelineTimeline.getEntryFor(new CaseInsensitiveString(dmr.getPipelineName()), dmr.getPipelineCounter());
+                reachable.addAll(entriesReachableFrom(upstream));
+            }
+        }
+        upstreamEntries.put(entry, reachable);
+        return reachable;
+    }
 }
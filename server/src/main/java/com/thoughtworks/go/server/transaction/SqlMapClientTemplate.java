@@ -16,10 +16,12 @@
 package com.thoughtworks.go.server.transaction;
 
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.perf.RequestMetrics;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 public class SqlMapClientTemplate {
     private GoCache goCache;
@@ -30,31 +32,50 @@ public class SqlMapClientTemplate {
         this.delegate = new org.mybatis.spring.SqlSessionTemplate(sqlSessionFactory);
     }
 
+    // The metrics are looked up before building the instrumented statement, so that nothing is allocated for it when
+    // requests are not being instrumented.
     public Object queryForObject(String statementName, Object parameter) {
-        return delegate.selectOne(statementName, parameter);
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics == null) {
+            return delegate.selectOne(statementName, parameter);
+        }
+        return instrumented(metrics, () -> delegate.selectOne(statementName, parameter));
     }
 
     public List queryForList(String statementName, Object parameter) {
-        return delegate.selectList(statementName, parameter);
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics == null) {
+            return delegate.selectList(statementName, parameter);
+        }
+        return instrumented(metrics, () -> delegate.selectList(statementName, parameter));
     }
 
     public List queryForList(String statementName) {
-        return delegate.selectList(statementName);
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics == null) {
+            return delegate.selectList(statementName);
+        }
+        return instrumented(metrics, () -> delegate.selectList(statementName));
     }
 
     public void insert(String statementName, Object parameter) {
         goCache.stopServingForTransaction();
-        delegate.insert(statementName, parameter);
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics == null) {
+            delegate.insert(statementName, parameter);
+        } else {
+            instrumented(metrics, () -> delegate.insert(statementName, parameter));
+        }
     }
 
     public int update(String statementName, Object parameter) {
         goCache.stopServingForTransaction();
-        return delegate.update(statementName, parameter);
+        return executeUpdate(statementName, parameter);
     }
 
     public void update(String statementName, Object parameter, int requiredRowsAffected) {
         goCache.stopServingForTransaction();
-        int actualRowsAffected = delegate.update(statementName, parameter);
+        int actualRowsAffected = executeUpdate(statementName, parameter);
         if (actualRowsAffected != requiredRowsAffected) {
             throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(
                     statementName, requiredRowsAffected, actualRowsAffected);
@@ -63,6 +84,28 @@ public class SqlMapClientTemplate {
 
     public void delete(String statementName, Object parameter) {
         goCache.stopServingForTransaction();
-        delegate.delete(statementName, parameter);
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics == null) {
+            delegate.delete(statementName, parameter);
+        } else {
+            instrumented(metrics, () -> delegate.delete(statementName, parameter));
+        }
+    }
+
+    private int executeUpdate(String statementName, Object parameter) {
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics == null) {
+            return delegate.update(statementName, parameter);
+        }
+        return instrumented(metrics, () -> delegate.update(statementName, parameter));
+    }
+
+    private <T> T instrumented(RequestMetrics metrics, Supplier<T> statement) {
+        long startedAt = System.nanoTime();
+        try {
+            return statement.get();
+        } finally {
+            metrics.sqlExecuted(System.nanoTime() - startedAt);
+        }
     }
 }
@@ -18,6 +18,7 @@ package com.thoughtworks.go.server.transaction;
 import java.io.Serializable;
 
 import com.thoughtworks.go.server.cache.GoCache;
+import com.thoughtworks.go.server.perf.RequestMetrics;
 import org.hibernate.EmptyInterceptor;
 import org.hibernate.type.Type;
 
@@ -44,6 +45,14 @@ public class TransactionCacheInterceptor extends EmptyInterceptor {
         super.onDelete(entity, id, state, propertyNames, types);
     }
 
+    @Override public String onPrepareStatement(String sql) {
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics != null) {
+            metrics.hibernateStatementPrepared();
+        }
+        return super.onPrepareStatement(sql);
+    }
+
     private void stopServingFromCache() {
         goCache.stopServingForTransaction();
     }
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.web;
+
+import com.thoughtworks.go.server.perf.RequestInstrumentationStats;
+import com.thoughtworks.go.server.perf.RequestMetrics;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+/**
+ * @understands counting the SQL statements and cache lookups made while serving a request, reporting them in a
+ * Server-Timing header and aggregating them by route
+ */
+@Component
+public class RequestInstrumentationFilter extends OncePerRequestFilter {
+    static final String SERVER_TIMING = "Server-Timing";
+    /**
+     * The route a request was served by, for handlers which do not tell Spring (say, Spark routes)
+     */
+    public static final String ROUTE_PATTERN_ATTRIBUTE = RequestInstrumentationFilter.class.getName() + ".routePattern";
+
+    private final SystemEnvironment systemEnvironment;
+    private final RequestInstrumentationStats stats;
+
+    @Autowired
+    public RequestInstrumentationFilter(SystemEnvironment systemEnvironment, RequestInstrumentationStats stats) {
+        this.systemEnvironment = systemEnvironment;
+        this.stats = stats;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!systemEnvironment.isRequestInstrumentationEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        RequestMetrics metrics = RequestMetrics.start();
+        ServerTimingResponse instrumentedResponse = new ServerTimingResponse(response, metrics);
+        try {
+            chain.doFilter(request, instrumentedResponse);
+        } finally {
+            instrumentedResponse.addServerTimingHeader();
+            RequestMetrics.stop();
+            stats.record(request.getMethod(), routeOf(request), metrics);
+        }
+    }
+
+    private String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            pattern = request.getAttribute(ROUTE_PATTERN_ATTRIBUTE);
+        }
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    // Headers can only be added until the response is committed, so the timings are reported as late as that allows:
+    // once the request has been served, or else right before the body is flushed or could outgrow the response buffer.
+    private static class ServerTimingResponse extends HttpServletResponseWrapper {
+        // the most bytes a char written through the writer can take up once encoded
+        private static final int MAX_BYTES_PER_CHAR = 3;
+        private final RequestMetrics metrics;
+        private boolean serverTimingAdded;
+        private long bytesBuffered;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        ServerTimingResponse(HttpServletResponse response, RequestMetrics metrics) {
+            super(response);
+            this.metrics = metrics;
+        }
+
+        void addServerTimingHeader() {
+            if (!serverTimingAdded && !isCommitted()) {
+                serverTimingAdded = true;
+                setHeader(SERVER_TIMING, metrics.serverTiming());
+            }
+        }
+
+        private void aboutToWrite(long bytes) {
+            if (!serverTimingAdded) {
+                bytesBuffered += bytes;
+                if (bytesBuffered >= getBufferSize()) {
+                    addServerTimingHeader();
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new ServerTimingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new ServerTimingWriter(super.getWriter()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            bytesBuffered = 0;
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            bytesBuffered = 0;
+            serverTimingAdded = false;
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTimingHeader();
+            super.sendRedirect(location);
+        }
+
+        private class ServerTimingOutputStream extends ServletOutputStream {
+            private final ServletOutputStream delegate;
+
+            ServerTimingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                aboutToWrite(1);
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                aboutToWrite(len);
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                addServerTimingHeader();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                addServerTimingHeader();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+
+        private class ServerTimingWriter extends Writer {
+            private final PrintWriter delegate;
+
+            ServerTimingWriter(PrintWriter delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                aboutToWrite((long) len * MAX_BYTES_PER_CHAR);
+                delegate.write(cbuf, off, len);
+            }
+
+            @Override
+            public void write(String str, int off, int len) {
+                aboutToWrite((long) len * MAX_BYTES_PER_CHAR);
+                delegate.write(str, off, len);
+            }
+
+            @Override
+            public void flush() {
+                addServerTimingHeader();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() {
+                addServerTimingHeader();
+                delegate.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.web;
+
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.springframework.web.multipart.commons.CommonsMultipartResolver;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * @understands leaving artifact uploads alone so that they can be read straight off the request, instead of being
+ * spooled to temporary files before the controller gets to them
+ */
+public class StreamingArtifactUploadMultipartResolver extends CommonsMultipartResolver {
+    static final String ARTIFACT_UPLOAD_PATH = "/repository/restful/artifact/POST/";
+
+    private final SystemEnvironment systemEnvironment;
+
+    public StreamingArtifactUploadMultipartResolver(SystemEnvironment systemEnvironment) {
+        this.systemEnvironment = systemEnvironment;
+    }
+
+    @Override
+    public boolean isMultipart(HttpServletRequest request) {
+        return super.isMultipart(request) && !isStreamedArtifactUpload(request);
+    }
+
+    private boolean isStreamedArtifactUpload(HttpServletRequest request) {
+        String requestURI = request.getRequestURI();
+        return systemEnvironment.shouldStreamArtifactUploads() && requestURI != null && requestURI.contains(ARTIFACT_UPLOAD_PATH);
+    }
+}
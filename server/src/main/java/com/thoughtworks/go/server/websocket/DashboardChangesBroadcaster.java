@@ -0,0 +1,78 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.thoughtworks.go.server.dashboard.GoDashboardCache;
+import com.thoughtworks.go.server.dashboard.GoDashboardCacheChangeListener;
+import com.thoughtworks.go.server.dashboard.GoDashboardChanges;
+import com.thoughtworks.go.server.dashboard.GoDashboardPipelines;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @understands telling every connected dashboard which pipelines changed, every time the dashboard cache changes.
+ * Sockets which are at the same version (almost always all of them) share the work of finding what changed, so
+ * only the permission and personalization filtering is done per socket.
+ */
+@Component
+public class DashboardChangesBroadcaster implements GoDashboardCacheChangeListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardChangesBroadcaster.class);
+
+    private final GoDashboardCache cache;
+    private final ConcurrentHashMap<String, DashboardChangesSocket> sockets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public DashboardChangesBroadcaster(GoDashboardCache cache) {
+        this.cache = cache;
+        cache.addListener(this);
+    }
+
+    public void register(DashboardChangesSocket socket) {
+        sockets.put(socket.key(), socket);
+        notify(socket, GoDashboardChanges.since(cache.allEntries(), socket.lastSeenVersion()));
+    }
+
+    public void deregister(DashboardChangesSocket socket) {
+        sockets.remove(socket.key());
+    }
+
+    @Override
+    public void cacheChanged(GoDashboardPipelines snapshot) {
+        Map<Long, GoDashboardChanges> changesByVersion = new HashMap<>();
+        for (DashboardChangesSocket socket : sockets.values()) {
+            notify(socket, changesByVersion.computeIfAbsent(socket.lastSeenVersion(), version -> GoDashboardChanges.since(snapshot, version)));
+        }
+    }
+
+    int numberOfSockets() {
+        return sockets.size();
+    }
+
+    private void notify(DashboardChangesSocket socket, GoDashboardChanges changes) {
+        try {
+            socket.changed(changes);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to notify dashboard changes socket {}, dropping it", socket.key(), e);
+            deregister(socket);
+        }
+    }
+}
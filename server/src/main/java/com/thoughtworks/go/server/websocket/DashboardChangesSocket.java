@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.google.gson.Gson;
+import com.thoughtworks.go.server.dashboard.GoDashboardChanges;
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.DashboardFilter;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes the names of the pipelines a user can see on their dashboard view as soon as they change, so that the
+ * dashboard only needs to fetch those, instead of polling for the whole of it.
+ */
+@WebSocket
+public class DashboardChangesSocket implements SocketEndpoint {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardChangesSocket.class);
+    private static final Gson GSON = new Gson();
+    static final String DASHBOARD_CHANGED = "dashboard_changed";
+
+    private final Username username;
+    private final DashboardFilter filter;
+    private final DashboardChangesBroadcaster broadcaster;
+    private final SocketHealthService socketHealthService;
+    private final String key;
+    private Session session;
+    private volatile long lastSeenVersion;
+
+    DashboardChangesSocket(Username username, DashboardFilter filter, long lastSeenVersion, DashboardChangesBroadcaster broadcaster, SocketHealthService socketHealthService) {
+        this.username = username;
+        this.filter = filter;
+        this.lastSeenVersion = lastSeenVersion;
+        this.broadcaster = broadcaster;
+        this.socketHealthService = socketHealthService;
+        this.key = String.format("dashboard:%s:%d", username.getUsername(), hashCode());
+    }
+
+    @OnWebSocketConnect
+    public void onConnect(Session session) {
+        this.session = session;
+        socketHealthService.register(this);
+        LOGGER.debug("Dashboard changes socket {} connected from version {}", key, lastSeenVersion);
+        broadcaster.register(this);
+    }
+
+    @OnWebSocketError
+    public void onError(Throwable error) {
+        LOGGER.error("Dashboard changes socket {} closing session because an error was thrown", key, error);
+        try {
+            close(StatusCode.SERVER_ERROR, error.getMessage());
+        } finally {
+            deregister();
+        }
+    }
+
+    @OnWebSocketClose
+    public void onClose(int status, String reason) {
+        deregister();
+    }
+
+    long lastSeenVersion() {
+        return lastSeenVersion;
+    }
+
+    synchronized void changed(GoDashboardChanges changes) {
+        if (changes.version() == lastSeenVersion) {
+            return;
+        }
+        lastSeenVersion = changes.version();
+
+        GoDashboardChanges visibleChanges = changes.visibleTo(username, filter);
+        if (!visibleChanges.isEmpty() && isOpen()) {
+            session.getRemote().sendStringByFuture(toJson(visibleChanges));
+        }
+    }
+
+    static String toJson(GoDashboardChanges changes) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", DASHBOARD_CHANGED);
+        message.put("version", changes.version());
+        message.put("full_refresh_required", changes.isFullRefreshRequired());
+        message.put("pipelines", changes.pipelines().stream().map(pipeline -> pipeline.name().toString()).collect(Collectors.toList()));
+        return GSON.toJson(message);
+    }
+
+    @Override
+    public void send(ByteBuffer data) throws IOException {
+        session.getRemote().sendBytes(data);
+    }
+
+    @Override
+    public void ping() throws IOException {
+        session.getRemote().sendString(WebsocketMessages.PING);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return session != null && session.isOpen();
+    }
+
+    @Override
+    public void close() {
+        close(StatusCode.NORMAL, null);
+    }
+
+    @Override
+    public void close(int code, String reason) {
+        if (session != null) {
+            session.close(code, reason);
+        }
+    }
+
+    @Override
+    public String key() {
+        return key;
+    }
+
+    private void deregister() {
+        broadcaster.deregister(this);
+        socketHealthService.deregister(this);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.thoughtworks.go.server.domain.user.DashboardFilter;
+import com.thoughtworks.go.server.domain.user.PipelineSelections;
+import com.thoughtworks.go.server.newsecurity.utils.SessionUtils;
+import com.thoughtworks.go.server.service.PipelineSelectionsService;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.eclipse.jetty.websocket.servlet.ServletUpgradeRequest;
+import org.eclipse.jetty.websocket.servlet.ServletUpgradeResponse;
+import org.eclipse.jetty.websocket.servlet.WebSocketCreator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+import static com.thoughtworks.go.server.domain.user.DashboardFilter.DEFAULT_NAME;
+
+@Component
+public class DashboardChangesSocketCreator implements WebSocketCreator {
+    private static final String COOKIE_NAME = "selected_pipelines";
+    private static final String VIEW_NAME = "viewName";
+    private static final String SINCE = "since";
+
+    private final DashboardChangesBroadcaster broadcaster;
+    private final PipelineSelectionsService pipelineSelectionsService;
+    private final SocketHealthService socketHealthService;
+
+    @Autowired
+    public DashboardChangesSocketCreator(DashboardChangesBroadcaster broadcaster, PipelineSelectionsService pipelineSelectionsService, SocketHealthService socketHealthService) {
+        this.broadcaster = broadcaster;
+        this.pipelineSelectionsService = pipelineSelectionsService;
+        this.socketHealthService = socketHealthService;
+    }
+
+    @Override
+    public Object createWebSocket(ServletUpgradeRequest req, ServletUpgradeResponse resp) {
+        HttpServletRequest request = req.getHttpServletRequest();
+
+        PipelineSelections personalization = pipelineSelectionsService.load(personalizationCookie(request), SessionUtils.getUserId(request));
+        String viewName = request.getParameter(VIEW_NAME);
+        DashboardFilter filter = personalization.namedFilter(StringUtils.isBlank(viewName) ? DEFAULT_NAME : viewName);
+        long since = NumberUtils.toLong(request.getParameter(SINCE), -1);
+
+        return new DashboardChangesSocket(SessionUtils.currentUsername(), filter, since, broadcaster, socketHealthService);
+    }
+
+    private String personalizationCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return null;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+}
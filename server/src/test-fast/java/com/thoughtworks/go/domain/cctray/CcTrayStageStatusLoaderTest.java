@@ -92,7 +92,7 @@ public class CcTrayStageStatusLoaderTest {
         List<Stage> stages = new ArrayList<>();
         for (StageIdentity identity : stageIdentities) {
             Stage stage = StageMother.custom(identity.getPipelineName() + " - " + identity.getStageName());
-            when(stageDao.stageById(identity.getStageId())).thenReturn(stage);
+            when(stageDao.readOnlyStageById(identity.getStageId())).thenReturn(stage);
             stages.add(stage);
         }
 
@@ -22,11 +22,15 @@ import com.thoughtworks.go.server.service.ArtifactsService;
 import com.thoughtworks.go.server.service.ConsoleActivityMonitor;
 import com.thoughtworks.go.server.service.ConsoleService;
 import com.thoughtworks.go.server.service.RestfulService;
+import com.thoughtworks.go.server.service.UploadedArtifactChecksums;
 import com.thoughtworks.go.server.web.ArtifactFolderViewFactory;
 import com.thoughtworks.go.server.web.ResponseCodeView;
 import com.thoughtworks.go.util.SystemEnvironment;
+import com.thoughtworks.go.util.ZipUtil;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.mock.web.MockMultipartHttpServletRequest;
@@ -38,6 +42,7 @@ import java.io.File;
 import java.io.InputStream;
 
 import static com.thoughtworks.go.util.GoConstants.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThat;
@@ -45,6 +50,10 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.*;
 
 public class ArtifactsControllerTest {
+    private static final String BOUNDARY = "artifact-upload-boundary";
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     private ArtifactsController artifactsController;
 
@@ -148,4 +157,78 @@ public class ArtifactsControllerTest {
         assertThat(codeView.getContent(), is("Missing required header 'Confirm'"));
 
     }
+
+    @Test
+    public void shouldStreamAnArtifactUploadThatWasNotResolvedAsMultipart() throws Exception {
+        File artifactFile = new File("junk");
+        JobIdentifier jobIdentifier = new JobIdentifier("pipeline-1", 1, "1", "stage-1", "2", "job-1", 122l);
+        when(restfulService.findJob("pipeline-1", "1", "stage-1", "2", "job-1", 122l)).thenReturn(jobIdentifier);
+        when(artifactService.findArtifact(any(JobIdentifier.class), eq("some-path"))).thenReturn(artifactFile);
+        when(artifactService.saveFile(eq(artifactFile), any(InputStream.class), eq(true), eq(1), any(UploadedArtifactChecksums.class))).thenReturn(true);
+        when(artifactService.getArtifactLocation(anyString())).thenReturn(new File("checksum"));
+        when(artifactService.saveOrAppendFile(any(File.class), any(InputStream.class))).thenReturn(true);
+
+        MockHttpServletRequest streamedRequest = multipartRequest(
+                part(CHECKSUM_MULTIPART_FILENAME, "some-path/foo.txt=d3b07384d113edec49eaa6238ad5ff00\n"),
+                part(ZIP_MULTIPART_FILENAME, "zip-content"));
+
+        ModelAndView modelAndView = artifactsController.postArtifact("pipeline-1", "1", "stage-1", "2", "job-1", 122L, "some-path", 1, streamedRequest);
+
+        assertThat(((ResponseCodeView) modelAndView.getView()).getStatusCode(), is(HttpServletResponse.SC_CREATED));
+        verify(artifactService).saveFile(eq(artifactFile), any(InputStream.class), eq(true), eq(1), any(UploadedArtifactChecksums.class));
+        verify(artifactService).saveOrAppendFile(any(File.class), any(InputStream.class));
+    }
+
+    @Test
+    public void shouldRejectAStreamedArtifactUploadWithoutAnArtifact() throws Exception {
+        JobIdentifier jobIdentifier = new JobIdentifier("pipeline-1", 1, "1", "stage-1", "2", "job-1", 122l);
+        when(restfulService.findJob("pipeline-1", "1", "stage-1", "2", "job-1", 122l)).thenReturn(jobIdentifier);
+        when(artifactService.findArtifact(any(JobIdentifier.class), eq("some-path"))).thenReturn(new File("junk"));
+
+        MockHttpServletRequest streamedRequest = multipartRequest(part(CHECKSUM_MULTIPART_FILENAME, "some-path/foo.txt=d3b07384d113edec49eaa6238ad5ff00\n"));
+
+        ModelAndView modelAndView = artifactsController.postArtifact("pipeline-1", "1", "stage-1", "2", "job-1", 122L, "some-path", 1, streamedRequest);
+
+        assertThat(((ResponseCodeView) modelAndView.getView()).getStatusCode(), is(HttpServletResponse.SC_BAD_REQUEST));
+        verify(artifactService, never()).saveOrAppendFile(any(File.class), any(InputStream.class));
+    }
+
+    @Test
+    public void shouldRemoveAFileWhoseStreamedUploadWasCutShort() throws Exception {
+        File artifactFile = new File(temporaryFolder.newFolder("artifacts"), "some-path");
+        JobIdentifier jobIdentifier = new JobIdentifier("pipeline-1", 1, "1", "stage-1", "2", "job-1", 122l);
+        when(restfulService.findJob("pipeline-1", "1", "stage-1", "2", "job-1", 122l)).thenReturn(jobIdentifier);
+        when(artifactService.findArtifact(any(JobIdentifier.class), eq("some-path"))).thenReturn(artifactFile);
+        ArtifactsService savingService = new ArtifactsService(null, null, null, new ZipUtil());
+        when(artifactService.saveFile(eq(artifactFile), any(InputStream.class), eq(false), eq(1), any(UploadedArtifactChecksums.class)))
+                .thenAnswer(invocation -> savingService.saveFile(artifactFile, invocation.getArgument(1), false, 1, invocation.getArgument(4)));
+
+        MockHttpServletRequest truncatedRequest = new MockHttpServletRequest("POST", "/go/repository/restful/artifact/POST/");
+        truncatedRequest.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        truncatedRequest.setContent((part(CHECKSUM_MULTIPART_FILENAME, "some-path=d3b07384d113edec49eaa6238ad5ff00\n")
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + REGULAR_MULTIPART_FILENAME + "\"; filename=\"" + REGULAR_MULTIPART_FILENAME + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n"
+                + "the first half of the fi").getBytes(UTF_8));
+
+        ModelAndView modelAndView = artifactsController.postArtifact("pipeline-1", "1", "stage-1", "2", "job-1", 122L, "some-path", 1, truncatedRequest);
+
+        assertThat(((ResponseCodeView) modelAndView.getView()).getStatusCode(), is(SC_INTERNAL_SERVER_ERROR));
+        assertThat(artifactFile.exists(), is(false));
+        verify(artifactService, never()).saveOrAppendFile(any(File.class), any(InputStream.class));
+    }
+
+    private MockHttpServletRequest multipartRequest(String... parts) {
+        MockHttpServletRequest multipartRequest = new MockHttpServletRequest("POST", "/go/repository/restful/artifact/POST/");
+        multipartRequest.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+        multipartRequest.setContent((String.join("", parts) + "--" + BOUNDARY + "--\r\n").getBytes(UTF_8));
+        return multipartRequest;
+    }
+
+    private String part(String name, String content) {
+        return "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + name + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n"
+                + content + "\r\n";
+    }
 }
@@ -16,12 +16,21 @@
 package com.thoughtworks.go.server.dashboard;
 
 import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.security.Permissions;
+import com.thoughtworks.go.config.security.permissions.EveryonePermission;
+import com.thoughtworks.go.config.security.users.Everyone;
+import com.thoughtworks.go.util.SystemTimeClock;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.thoughtworks.go.server.dashboard.GoDashboardPipelineMother.pipeline;
 import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertNull;
@@ -86,6 +95,82 @@ public class GoDashboardCacheTest {
         assertThat(cache.allEntries().find(cis("pipeline5")), is(sameInstance(pipeline5)));
     }
 
+    @Test
+    public void shouldAllowCatchingUpWithChangesToExistingPipelines() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new SystemTimeClock());
+        cache = new GoDashboardCache(counter);
+        GoDashboardPipeline pipeline1 = pipeline("pipeline1", "group1", permissions(), counter);
+        cache.replaceAllEntriesInCacheWith(asList(pipeline1, pipeline("pipeline2", "group1", permissions(), counter)));
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+
+        GoDashboardPipeline updatedPipeline1 = pipeline("pipeline1", "group1", permissions(), counter);
+        cache.put(updatedPipeline1);
+
+        assertThat(cache.allEntries().canBeCaughtUpFrom(version), is(true));
+        assertThat(cache.allEntries().changedSince(version), contains(updatedPipeline1));
+        assertThat(cache.allEntries().canBeCaughtUpFrom(cache.allEntries().lastUpdatedTimeStamp() + 1), is(false));
+    }
+
+    @Test
+    public void shouldRequireAFullRefreshOncePipelinesAreAddedRemovedOrRegrouped() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new SystemTimeClock());
+        cache = new GoDashboardCache(counter);
+        cache.replaceAllEntriesInCacheWith(asList(pipeline("pipeline1", "group1", permissions(), counter), pipeline("pipeline2", "group1", permissions(), counter)));
+
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+        cache.put(pipeline("pipeline3", "group1", permissions(), counter));
+        assertThat(cache.allEntries().canBeCaughtUpFrom(version), is(false));
+
+        version = cache.allEntries().lastUpdatedTimeStamp();
+        cache.put(pipeline("pipeline1", "group2", permissions(), counter));
+        assertThat(cache.allEntries().canBeCaughtUpFrom(version), is(false));
+
+        version = cache.allEntries().lastUpdatedTimeStamp();
+        cache.remove(cis("pipeline2"));
+        assertThat(cache.allEntries().canBeCaughtUpFrom(version), is(false));
+        assertThat(cache.allEntries().find(cis("pipeline2")), is(nullValue()));
+    }
+
+    @Test
+    public void shouldOnlyRequireAFullRefreshWhenUpdatingEntriesAddsOrRegroupsAPipeline() {
+        TimeStampBasedCounter counter = new TimeStampBasedCounter(new SystemTimeClock());
+        cache = new GoDashboardCache(counter);
+        cache.replaceAllEntriesInCacheWith(asList(pipeline("pipeline1", "group1", permissions(), counter), pipeline("pipeline2", "group1", permissions(), counter)));
+
+        long version = cache.allEntries().lastUpdatedTimeStamp();
+        GoDashboardPipeline updatedPipeline1 = pipeline("pipeline1", "group1", permissions(), counter);
+        cache.updateEntriesInCacheWith(asList(updatedPipeline1));
+        assertThat(cache.allEntries().canBeCaughtUpFrom(version), is(true));
+        assertThat(cache.allEntries().changedSince(version), contains(updatedPipeline1));
+        assertThat(cache.allEntries().find(cis("pipeline2")), is(notNullValue()));
+
+        version = cache.allEntries().lastUpdatedTimeStamp();
+        cache.updateEntriesInCacheWith(asList(pipeline("pipeline3", "group1", permissions(), counter)));
+        assertThat(cache.allEntries().canBeCaughtUpFrom(version), is(false));
+
+        version = cache.allEntries().lastUpdatedTimeStamp();
+        cache.updateEntriesInCacheWith(asList(pipeline("pipeline2", "group2", permissions(), counter)));
+        assertThat(cache.allEntries().canBeCaughtUpFrom(version), is(false));
+    }
+
+    @Test
+    public void shouldTellListenersAboutEveryNewSnapshot() {
+        List<GoDashboardPipelines> snapshots = new ArrayList<>();
+        cache.addListener(snapshots::add);
+
+        cache.put(pipeline("pipeline1"));
+        GoDashboardPipelines afterPut = cache.allEntries();
+        cache.remove(cis("pipeline1"));
+        GoDashboardPipelines afterRemove = cache.allEntries();
+        cache.remove(cis("pipeline1"));
+
+        assertThat(snapshots, contains(afterPut, afterRemove));
+    }
+
+    private Permissions permissions() {
+        return new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE);
+    }
+
     private CaseInsensitiveString cis(String value) {
         return new CaseInsensitiveString(value);
     }
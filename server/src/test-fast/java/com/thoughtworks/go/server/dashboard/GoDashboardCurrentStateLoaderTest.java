@@ -36,6 +36,7 @@ import com.thoughtworks.go.server.service.PipelinePauseService;
 import com.thoughtworks.go.server.service.PipelineUnlockApiService;
 import com.thoughtworks.go.server.service.SchedulingCheckerService;
 import com.thoughtworks.go.util.Clock;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.hamcrest.Matcher;
 import org.junit.Before;
 import org.junit.Test;
@@ -54,6 +55,7 @@ import static com.thoughtworks.go.util.DataStructureUtils.a;
 import static com.thoughtworks.go.util.DataStructureUtils.m;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.*;
@@ -74,6 +76,8 @@ public class GoDashboardCurrentStateLoaderTest {
     private SchedulingCheckerService schedulingCheckerService;
     @Mock
     private GoConfigPipelinePermissionsAuthority permissionsAuthority;
+    @Mock
+    private SystemEnvironment systemEnvironment;
 
     private GoConfigMother goConfigMother;
     private CruiseConfig config;
@@ -84,8 +88,11 @@ public class GoDashboardCurrentStateLoaderTest {
     @Before
     public void setUp() throws Exception {
         initMocks(this);
+        when(systemEnvironment.getDashboardHistoryLoadChunkSize()).thenReturn(500);
+        when(systemEnvironment.getDashboardHistoryLoadThreads()).thenReturn(2);
         loader = new GoDashboardCurrentStateLoader(pipelineSqlMapDao, triggerMonitor, pipelinePauseService,
-                pipelineLockService, pipelineUnlockApiService, schedulingCheckerService, permissionsAuthority, new TimeStampBasedCounter(mock(Clock.class)));
+                pipelineLockService, pipelineUnlockApiService, schedulingCheckerService, permissionsAuthority, new TimeStampBasedCounter(mock(Clock.class)),
+                systemEnvironment);
 
         goConfigMother = new GoConfigMother();
         config = goConfigMother.defaultCruiseConfig();
@@ -107,6 +114,62 @@ public class GoDashboardCurrentStateLoaderTest {
         assertModel(models.get(0), "group2", pimForP2);
     }
 
+    @Test
+    public void shouldLoadHistoryInChunksAndHandOverPipelinesAsEachChunkIsLoaded() throws Exception {
+        when(systemEnvironment.getDashboardHistoryLoadChunkSize()).thenReturn(1);
+        PipelineConfig p1Config = goConfigMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1", "job1");
+        PipelineConfig p2Config = goConfigMother.addPipelineWithGroup(config, "group2", "pipeline2", "stage2", "job2");
+        PipelineInstanceModel pimForP1 = pim(p1Config);
+        PipelineInstanceModel pimForP2 = pim(p2Config);
+
+        when(pipelineSqlMapDao.loadHistoryForDashboard(singletonList("pipeline1"))).thenReturn(createPipelineInstanceModels(pimForP1));
+        when(pipelineSqlMapDao.loadHistoryForDashboard(singletonList("pipeline2"))).thenReturn(createPipelineInstanceModels(pimForP2));
+
+        List<List<GoDashboardPipeline>> partialLoads = new ArrayList<>();
+        List<GoDashboardPipeline> models = loader.allPipelines(config, partialLoads::add);
+
+        assertThat(partialLoads.size(), is(1));
+        List<GoDashboardPipeline> partialLoad = partialLoads.get(0);
+        assertThat(partialLoad.size(), is(2));
+        assertThat(partialLoad.stream().filter(GoDashboardPipeline::isHistoryLoading).count(), is(1L));
+        GoDashboardPipeline loaded = partialLoad.stream().filter(pipeline -> !pipeline.isHistoryLoading()).findFirst().get();
+        assertModel(loaded, loaded.groupName(), "pipeline1".equals(loaded.model().getName()) ? pimForP1 : pimForP2);
+
+        assertThat(loader.hasEverLoadedCurrentState(), is(true));
+        assertThat(models.size(), is(2));
+        assertModel(models.get(1), "group1", pimForP1);
+        assertModel(models.get(0), "group2", pimForP2);
+        assertThat(models.get(0).isHistoryLoading(), is(false));
+        assertThat(models.get(1).isHistoryLoading(), is(false));
+    }
+
+    @Test
+    public void shouldKeepNoneOfTheHistoryLoadedInChunksWhenOneOfTheChunksFailsToLoad() throws Exception {
+        when(systemEnvironment.getDashboardHistoryLoadChunkSize()).thenReturn(1);
+        PipelineConfig p1Config = goConfigMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1", "job1");
+        PipelineConfig p2Config = goConfigMother.addPipelineWithGroup(config, "group2", "pipeline2", "stage2", "job2");
+        PipelineInstanceModel pimForP1 = pim(p1Config);
+        PipelineInstanceModel pimForP2 = pim(p2Config);
+
+        when(pipelineSqlMapDao.loadHistoryForDashboard(singletonList("pipeline1"))).thenReturn(createPipelineInstanceModels(pimForP1));
+        when(pipelineSqlMapDao.loadHistoryForDashboard(singletonList("pipeline2"))).thenThrow(new RuntimeException("database went away"))
+                .thenReturn(createPipelineInstanceModels(pimForP2));
+
+        try {
+            loader.allPipelines(config, partialLoad -> {
+            });
+            fail("Should have failed to load the history of pipeline2");
+        } catch (RuntimeException expected) {
+        }
+        assertThat(loader.hasEverLoadedCurrentState(), is(false));
+
+        List<GoDashboardPipeline> models = loader.allPipelines(config);
+
+        assertThat(models.size(), is(2));
+        assertModel(models.get(1), "group1", pimForP1);
+        assertModel(models.get(0), "group2", pimForP2);
+    }
+
     @Test
     public void shouldIgnoreActivePipelineModelsNotInConfig() throws Exception {
         PipelineConfig p1Config = goConfigMother.addPipelineWithGroup(config, "group1", "pipeline1", "stage1", "job1");
@@ -28,10 +28,12 @@ import com.thoughtworks.go.presentation.pipelinehistory.PipelineModel;
 import org.junit.Test;
 
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.thoughtworks.go.domain.PipelinePauseInfo.notPaused;
 import static com.thoughtworks.go.util.DataStructureUtils.s;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -110,4 +112,33 @@ public class GoDashboardPipelineTest {
 
         assertThat(pipeline.getLastUpdatedTimeStamp(), is(1000L));
     }
+
+    @Test
+    public void shouldHaveTheSamePermissionFingerprintForUsersAllowedToDoTheSameThings() {
+        PipelineConfig pipelineConfig = PipelineConfigMother.pipelineConfig("pipeline1");
+        Permissions permissions = new Permissions(
+                Everyone.INSTANCE,
+                new AllowedUsers(s("operator1", "operator2"), Collections.emptySet()),
+                new AllowedUsers(s("admin"), Collections.emptySet()),
+                PipelinePermission.from(pipelineConfig, new AllowedUsers(s("operator1", "operator2", "admin"), Collections.emptySet())));
+
+        GoDashboardPipeline pipeline = new GoDashboardPipeline(new PipelineModel("pipeline1", false, false, notPaused()),
+                permissions, "group1", mock(TimeStampBasedCounter.class), pipelineConfig);
+
+        assertThat(pipeline.permissionFingerprintFor("operator1"), is(pipeline.permissionFingerprintFor("operator2")));
+        assertThat(pipeline.permissionFingerprintFor("viewer1"), is(pipeline.permissionFingerprintFor("viewer2")));
+        assertThat(pipeline.permissionFingerprintFor("operator1"), is(not(pipeline.permissionFingerprintFor("viewer1"))));
+        assertThat(pipeline.permissionFingerprintFor("operator1"), is(not(pipeline.permissionFingerprintFor("admin"))));
+    }
+
+    @Test
+    public void shouldRenderAFragmentOnlyOncePerKey() {
+        GoDashboardPipeline pipeline = new GoDashboardPipeline(new PipelineModel("pipeline1", false, false, notPaused()),
+                null, "group1", mock(TimeStampBasedCounter.class), PipelineConfigMother.pipelineConfig("pipeline1"));
+        AtomicInteger renders = new AtomicInteger();
+
+        assertThat(pipeline.renderedFragment("key1", () -> "rendered-" + renders.incrementAndGet()), is("rendered-1"));
+        assertThat(pipeline.renderedFragment("key1", () -> "rendered-" + renders.incrementAndGet()), is("rendered-1"));
+        assertThat(pipeline.renderedFragment("key2", () -> "rendered-" + renders.incrementAndGet()), is("rendered-2"));
+    }
 }
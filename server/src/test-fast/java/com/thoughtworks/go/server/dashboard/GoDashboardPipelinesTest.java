@@ -15,10 +15,17 @@
  */
 package com.thoughtworks.go.server.dashboard;
 
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.config.security.Permissions;
+import com.thoughtworks.go.config.security.permissions.EveryonePermission;
+import com.thoughtworks.go.config.security.users.Everyone;
 import org.junit.Test;
 
 import java.util.HashMap;
 
+import static com.thoughtworks.go.server.dashboard.GoDashboardPipelineMother.pipeline;
+import static org.hamcrest.Matchers.contains;
+
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -32,4 +39,36 @@ public class GoDashboardPipelinesTest {
         GoDashboardPipelines goDashboardPipelines = new GoDashboardPipelines(new HashMap<>(), provider);
         assertThat(goDashboardPipelines.lastUpdatedTimeStamp(), is(100L));
     }
+
+    @Test
+    public void shouldOnlyAllowCatchingUpFromVersionsSinceTheLastStructuralChange() {
+        TimeStampBasedCounter provider = mock(TimeStampBasedCounter.class);
+        when(provider.getNext()).thenReturn(100L);
+        GoDashboardPipelines goDashboardPipelines = new GoDashboardPipelines(new HashMap<>(), provider, 90L);
+
+        assertThat(goDashboardPipelines.canBeCaughtUpFrom(89L), is(false));
+        assertThat(goDashboardPipelines.canBeCaughtUpFrom(90L), is(true));
+        assertThat(goDashboardPipelines.canBeCaughtUpFrom(100L), is(true));
+        assertThat(goDashboardPipelines.canBeCaughtUpFrom(101L), is(false));
+    }
+
+    @Test
+    public void shouldFindPipelinesChangedSinceAVersion() {
+        Counter pipelineCounter = mock(Counter.class);
+        when(pipelineCounter.getNext()).thenReturn(95L, 99L);
+        GoDashboardPipeline older = pipeline("older", "group1", permissions(), pipelineCounter);
+        GoDashboardPipeline newer = pipeline("newer", "group1", permissions(), pipelineCounter);
+
+        HashMap<CaseInsensitiveString, GoDashboardPipeline> pipelines = new HashMap<>();
+        pipelines.put(older.name(), older);
+        pipelines.put(newer.name(), newer);
+        TimeStampBasedCounter provider = mock(TimeStampBasedCounter.class);
+        when(provider.getNext()).thenReturn(100L);
+
+        assertThat(new GoDashboardPipelines(pipelines, provider).changedSince(97L), contains(newer));
+    }
+
+    private Permissions permissions() {
+        return new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE);
+    }
 }
@@ -544,5 +544,35 @@ public class MaterialUpdateServiceTest {
             verifyNoMoreInteractions(mduPerformanceLogger);
             verifyNoMoreInteractions(queue);
         }
+
+        @Test
+        void shouldUpdateGitMaterialsMatchingTheBranchAndOneOfTheUrls() {
+            GitMaterial matching = new GitMaterial("https://example.com/repo.git", "feature");
+            GitMaterial otherBranch = new GitMaterial("https://example.com/repo.git", "master");
+            GitMaterial otherUrl = new GitMaterial("https://example.com/other.git", "feature");
+            when(goConfigService.currentCruiseConfig()).thenReturn(mock(CruiseConfig.class));
+            when(materialConfigConverter.toMaterials(anySet())).thenReturn(Stream.of(matching, otherBranch, otherUrl, svnMaterial).collect(toSet()));
+
+            boolean materialUpdated = service.updateGitMaterial("feature", asList("https://example.com/repo", "https://example.com/repo.git"), emptyList());
+
+            assertThat(materialUpdated).isTrue();
+            verify(queue).post(matchMaterialUpdateMessage(matching));
+            verifyNoMoreInteractions(queue);
+        }
+
+        @Test
+        void shouldIndexThePostCommitMaterialsOnlyOnceForAConfig() {
+            CruiseConfig cruiseConfig = mock(CruiseConfig.class);
+            when(goConfigService.currentCruiseConfig()).thenReturn(cruiseConfig);
+            when(materialConfigConverter.toMaterials(anySet())).thenReturn(Stream.of((Material) gitMaterial("https://example.com/repo.git")).collect(toSet()));
+
+            service.updateGitMaterial("master", singletonList("https://example.com/repo.git"), emptyList());
+            service.updateGitMaterial("master", singletonList("https://example.com/unknown.git"), emptyList());
+            verify(materialConfigConverter, times(1)).toMaterials(anySet());
+
+            when(goConfigService.currentCruiseConfig()).thenReturn(mock(CruiseConfig.class));
+            service.updateGitMaterial("master", singletonList("https://example.com/repo.git"), emptyList());
+            verify(materialConfigConverter, times(2)).toMaterials(anySet());
+        }
     }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.materials;
+
+import com.thoughtworks.go.config.materials.SubprocessExecutionContext;
+import com.thoughtworks.go.config.materials.git.GitMaterial;
+import com.thoughtworks.go.domain.MaterialInstance;
+import com.thoughtworks.go.domain.materials.Modification;
+import com.thoughtworks.go.domain.materials.Modifications;
+import com.thoughtworks.go.domain.materials.Revision;
+import com.thoughtworks.go.server.perf.MDUPerformanceLogger;
+import com.thoughtworks.go.server.persistence.MaterialRepository;
+import com.thoughtworks.go.server.service.MaterialService;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import java.io.File;
+import java.util.Date;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+public class ScmMaterialUpdaterTest {
+    @Mock
+    private MaterialRepository materialRepository;
+    @Mock
+    private LegacyMaterialChecker materialChecker;
+    @Mock
+    private SubprocessExecutionContext subprocessExecutionContext;
+    @Mock
+    private MaterialService materialService;
+    @Mock
+    private SystemEnvironment systemEnvironment;
+    @Mock
+    private MDUPerformanceLogger mduPerformanceLogger;
+    @Mock
+    private GitMaterial material;
+    @Mock
+    private MaterialInstance materialInstance;
+    private ScmMaterialUpdater updater;
+    private File folder;
+    private Modifications knownModifications;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        updater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, materialService, systemEnvironment, mduPerformanceLogger);
+        folder = new File("flyweight");
+        knownModifications = new Modifications(new Modification("user", "comment", "email", new Date(), "known-sha"));
+        when(systemEnvironment.isGitRemoteHeadProbeEnabled()).thenReturn(true);
+    }
+
+    @Test
+    public void shouldNotLookForModificationsWhenTheRemoteHeadIsAtTheLatestKnownRevision() {
+        when(material.remoteHeadRevision()).thenReturn("known-sha");
+
+        updater.insertLatestOrNewModifications(material, materialInstance, folder, knownModifications);
+
+        verify(materialService, never()).modificationsSince(any(), any(), any(), any());
+        verify(materialRepository, never()).saveModifications(any(), any());
+        verify(mduPerformanceLogger).gitRemoteHeadProbed(material, true);
+    }
+
+    @Test
+    public void shouldLookForModificationsWhenTheRemoteHeadHasMoved() {
+        List<Modification> newChanges = singletonList(new Modification("user", "comment", "email", new Date(), "new-sha"));
+        when(material.remoteHeadRevision()).thenReturn("new-sha");
+        when(materialService.modificationsSince(eq(material), eq(folder), any(Revision.class), eq(subprocessExecutionContext))).thenReturn(newChanges);
+
+        updater.insertLatestOrNewModifications(material, materialInstance, folder, knownModifications);
+
+        verify(materialRepository).saveModifications(materialInstance, newChanges);
+        verify(mduPerformanceLogger).gitRemoteHeadProbed(material, false);
+    }
+
+    @Test
+    public void shouldFallBackToLookingForModificationsWhenTheRemoteHeadCannotBeTold() {
+        when(material.remoteHeadRevision()).thenReturn(null);
+
+        updater.insertLatestOrNewModifications(material, materialInstance, folder, knownModifications);
+
+        verify(materialService).modificationsSince(eq(material), eq(folder), any(Revision.class), eq(subprocessExecutionContext));
+    }
+
+    @Test
+    public void shouldFallBackToLookingForModificationsWhenProbingTheRemoteHeadFails() {
+        when(material.remoteHeadRevision()).thenThrow(new RuntimeException("ls-remote failed"));
+
+        updater.insertLatestOrNewModifications(material, materialInstance, folder, knownModifications);
+
+        verify(materialService).modificationsSince(eq(material), eq(folder), any(Revision.class), eq(subprocessExecutionContext));
+        verify(mduPerformanceLogger).gitRemoteHeadProbed(material, false);
+    }
+
+    @Test
+    public void shouldNotProbeTheRemoteHeadWhenTheProbeIsDisabled() {
+        when(systemEnvironment.isGitRemoteHeadProbeEnabled()).thenReturn(false);
+
+        updater.insertLatestOrNewModifications(material, materialInstance, folder, knownModifications);
+
+        verify(material, never()).remoteHeadRevision();
+        verify(materialService).modificationsSince(eq(material), eq(folder), any(Revision.class), eq(subprocessExecutionContext));
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.inmemory;
+
+import com.thoughtworks.go.server.messaging.*;
+import com.thoughtworks.go.server.service.support.DaemonThreadStatsCollector;
+import com.thoughtworks.go.serverhealth.ServerHealthService;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+public class InMemoryMessagingServiceTest {
+    private MessagingService messaging;
+
+    @Before
+    public void setUp() {
+        messaging = new InMemoryMessagingService(new DaemonThreadStatsCollector(), new SystemEnvironment(), new ServerHealthService());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        messaging.stop();
+    }
+
+    @Test
+    public void shouldDeliverTheSameTopicMessageToEverySubscriber() throws Exception {
+        GoMessageTopic<GoTextMessage> topic = new GoMessageTopic<GoTextMessage>(messaging, "topic-name") {};
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        topic.addListener(first);
+        topic.addListener(second);
+
+        GoTextMessage message = new GoTextMessage("Hello World!");
+        topic.post(message);
+
+        first.waitForMessages(1);
+        second.waitForMessages(1);
+        assertThat(first.receivedMessages.get(0), is(sameInstance(message)));
+        assertThat(second.receivedMessages.get(0), is(sameInstance(message)));
+    }
+
+    @Test
+    public void shouldSupportCompetingConsumers() throws Exception {
+        HangingListener hanging = new HangingListener();
+        RecordingListener fast = new RecordingListener();
+
+        GoMessageQueue<GoTextMessage> queue = new GoMessageQueue<GoTextMessage>(messaging, "queue-name") {};
+        queue.addListener(hanging);
+        queue.post(new GoTextMessage("Hello World1"));
+        hanging.started.await();
+        queue.addListener(fast);
+
+        for (int i = 2; i <= 5; i++) {
+            queue.post(new GoTextMessage("Hello World" + i));
+        }
+
+        fast.waitForMessages(4);
+        assertThat(fast.receivedMessages.size(), is(4));
+        hanging.finish.countDown();
+    }
+
+    @Test
+    public void shouldStillReceiveMessagesIfAnExceptionIsThrown() throws Exception {
+        RecordingListener exceptionListener = new RecordingListener() {
+            @Override
+            public void onMessage(GoTextMessage message) {
+                super.onMessage(message);
+                throw new RuntimeException(message.getText());
+            }
+        };
+
+        GoMessageQueue<GoTextMessage> queue = new GoMessageQueue<GoTextMessage>(messaging, "queue-name") {};
+        queue.addListener(exceptionListener);
+        for (int i = 1; i <= 5; i++) {
+            queue.post(new GoTextMessage("Hello World" + i));
+        }
+
+        exceptionListener.waitForMessages(5);
+        assertThat(exceptionListener.receivedMessages.size(), is(5));
+    }
+
+    @Test
+    public void shouldNotDeliverMessagesWhoseTimeToLiveHasPassed() throws Exception {
+        GoMessageQueue<GoTextMessage> queue = new GoMessageQueue<GoTextMessage>(messaging, "queue-name") {};
+        queue.post(new GoTextMessage("expired"), 1);
+        Thread.sleep(10);
+        queue.post(new GoTextMessage("alive"), 60000);
+
+        RecordingListener listener = new RecordingListener();
+        queue.addListener(listener);
+
+        listener.waitForMessages(1);
+        assertThat(listener.receivedMessages.get(0).getText(), is("alive"));
+    }
+
+    @Test
+    public void shouldStopListenersOnceQueueIsRemoved() throws Exception {
+        GoMessageQueue<GoTextMessage> queue = new GoMessageQueue<GoTextMessage>(messaging, "queue-name") {};
+        Thread listenerThread = queue.addListener(new RecordingListener()).thread;
+
+        queue.stop();
+
+        listenerThread.join(5000);
+        assertThat(listenerThread.isAlive(), is(false));
+    }
+
+    @Test
+    public void shouldDeliverMessagesSentThroughAnEarlierSenderOnceTheQueueIsRemovedAndListenedToAgain() throws Exception {
+        MessageSender sender = messaging.createQueueSender("queue-name");
+        messaging.addQueueListener("queue-name", new RecordingListener());
+        messaging.removeQueue("queue-name");
+
+        RecordingListener listener = new RecordingListener();
+        messaging.addQueueListener("queue-name", listener);
+        sender.sendMessage(new GoTextMessage("after the queue was removed"));
+
+        listener.waitForMessages(1);
+        assertThat(listener.receivedMessages.get(0).getText(), is("after the queue was removed"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void shouldFailToSendOnceMessagingIsStopped() {
+        MessageSender sender = messaging.createQueueSender("queue-name");
+        messaging.stop();
+
+        sender.sendMessage(new GoTextMessage("too late"));
+    }
+
+    @Test
+    public void shouldNotBlockAListenerPostingToItsOwnFullQueue() throws Exception {
+        messaging.stop();
+        SystemEnvironment systemEnvironment = spy(new SystemEnvironment());
+        doReturn(1).when(systemEnvironment).get(SystemEnvironment.IN_MEMORY_MESSAGING_DESTINATION_CAPACITY);
+        messaging = new InMemoryMessagingService(new DaemonThreadStatsCollector(), systemEnvironment, new ServerHealthService());
+
+        GoMessageQueue<GoTextMessage> queue = new GoMessageQueue<GoTextMessage>(messaging, "queue-name") {};
+        RecordingListener listener = new RecordingListener() {
+            @Override
+            public void onMessage(GoTextMessage message) {
+                super.onMessage(message);
+                if (message.getText().equals("first")) {
+                    queue.post(new GoTextMessage("second"));
+                    queue.post(new GoTextMessage("third"));
+                }
+            }
+        };
+        queue.addListener(listener);
+
+        queue.post(new GoTextMessage("first"));
+
+        listener.waitForMessages(3);
+        assertThat(listener.receivedMessages.stream().map(GoTextMessage::getText).collect(toList()), contains("first", "second", "third"));
+    }
+
+    @Test
+    public void shouldLetASenderWaitForRoomOnAFullQueue() throws Exception {
+        messaging.stop();
+        SystemEnvironment systemEnvironment = spy(new SystemEnvironment());
+        doReturn(1).when(systemEnvironment).get(SystemEnvironment.IN_MEMORY_MESSAGING_DESTINATION_CAPACITY);
+        messaging = new InMemoryMessagingService(new DaemonThreadStatsCollector(), systemEnvironment, new ServerHealthService());
+
+        GoMessageQueue<GoTextMessage> queue = new GoMessageQueue<GoTextMessage>(messaging, "queue-name") {};
+        queue.post(new GoTextMessage("first"));
+        Thread sender = new Thread(() -> queue.post(new GoTextMessage("second")));
+        sender.start();
+        sender.join(1000);
+        assertThat(sender.isAlive(), is(true));
+
+        RecordingListener listener = new RecordingListener();
+        queue.addListener(listener);
+
+        sender.join(5000);
+        assertThat(sender.isAlive(), is(false));
+        listener.waitForMessages(2);
+        assertThat(listener.receivedMessages.size(), is(2));
+    }
+
+    @Test
+    public void shouldGiveUpSendingWhenAFullQueueHasNoRoomInTime() throws Exception {
+        messaging.stop();
+        SystemEnvironment systemEnvironment = spy(new SystemEnvironment());
+        doReturn(1).when(systemEnvironment).get(SystemEnvironment.IN_MEMORY_MESSAGING_DESTINATION_CAPACITY);
+        doReturn(100).when(systemEnvironment).get(SystemEnvironment.IN_MEMORY_MESSAGING_SEND_TIMEOUT_IN_MILLIS);
+        messaging = new InMemoryMessagingService(new DaemonThreadStatsCollector(), systemEnvironment, new ServerHealthService());
+
+        GoMessageQueue<GoTextMessage> queue = new GoMessageQueue<GoTextMessage>(messaging, "queue-name") {};
+        queue.post(new GoTextMessage("first"));
+        try {
+            queue.post(new GoTextMessage("second"));
+            fail("Should have given up waiting for room on the full queue");
+        } catch (RuntimeException e) {
+            assertThat(e.getMessage(), containsString("Timed out after 100ms waiting for room on destination queue-name"));
+        }
+
+        RecordingListener listener = new RecordingListener();
+        queue.addListener(listener);
+        listener.waitForMessages(1);
+        assertThat(listener.receivedMessages.stream().map(GoTextMessage::getText).collect(toList()), contains("first"));
+    }
+
+    private static class RecordingListener implements GoMessageListener<GoTextMessage> {
+        final List<GoTextMessage> receivedMessages = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onMessage(GoTextMessage message) {
+            receivedMessages.add(message);
+        }
+
+        void waitForMessages(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (receivedMessages.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static class HangingListener implements GoMessageListener<GoTextMessage> {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+
+        @Override
+        public void onMessage(GoTextMessage message) {
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+}
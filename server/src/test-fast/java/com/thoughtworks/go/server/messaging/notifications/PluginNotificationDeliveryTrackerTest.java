@@ -0,0 +1,188 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.messaging.notifications;
+
+import com.thoughtworks.go.domain.notificationdata.AgentNotificationData;
+import com.thoughtworks.go.plugin.access.notification.NotificationExtension;
+import com.thoughtworks.go.util.TestingClock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class PluginNotificationDeliveryTrackerTest {
+    private TestingClock clock;
+    private PluginNotificationDeliveryTracker tracker;
+
+    @Before
+    public void setUp() {
+        clock = new TestingClock();
+        tracker = new PluginNotificationDeliveryTracker(clock);
+    }
+
+    @Test
+    public void shouldConsiderAnAgentStatusNotificationSupersededOnceANewerOneIsPostedForTheSameAgentAndPlugin() {
+        PluginNotificationMessage first = agentStatusMessage("plugin-1", "agent-1");
+        PluginNotificationMessage second = agentStatusMessage("plugin-1", "agent-1");
+        PluginNotificationMessage otherAgent = agentStatusMessage("plugin-1", "agent-2");
+        PluginNotificationMessage otherPlugin = agentStatusMessage("plugin-2", "agent-1");
+
+        posted(tracker, first, 0);
+        posted(tracker, otherAgent, 0);
+        posted(tracker, otherPlugin, 0);
+        assertThat(tracker.isSuperseded(first), is(false));
+
+        posted(tracker, second, 0);
+        assertThat(tracker.isSuperseded(first), is(true));
+        assertThat(tracker.isSuperseded(second), is(false));
+        assertThat(tracker.isSuperseded(otherAgent), is(false));
+        assertThat(tracker.isSuperseded(otherPlugin), is(false));
+    }
+
+    @Test
+    public void shouldNeverConsiderStageStatusNotificationsSuperseded() {
+        PluginNotificationMessage first = new PluginNotificationMessage<>("plugin-1", NotificationExtension.STAGE_STATUS_CHANGE_NOTIFICATION, "stage");
+        PluginNotificationMessage second = new PluginNotificationMessage<>("plugin-1", NotificationExtension.STAGE_STATUS_CHANGE_NOTIFICATION, "stage");
+
+        posted(tracker, first, 0);
+        posted(tracker, second, 0);
+
+        assertThat(tracker.isSuperseded(first), is(false));
+    }
+
+    @Test
+    public void shouldTrackDeliveryCountsAndLagPerPlugin() {
+        PluginNotificationMessage delivered = agentStatusMessage("plugin-1", "agent-1");
+        PluginNotificationMessage failed = agentStatusMessage("plugin-1", "agent-2");
+        PluginNotificationMessage pending = agentStatusMessage("plugin-1", "agent-3");
+        posted(tracker, delivered, 0);
+        posted(tracker, failed, 0);
+        posted(tracker, pending, 0);
+
+        clock.addMillis(250);
+        tracker.delivered(delivered);
+        clock.addMillis(250);
+        tracker.failed(failed);
+
+        Map<String, Object> stats = (Map<String, Object>) tracker.asJson().get("plugin-1");
+        assertThat(stats.get("Posted"), is(3L));
+        assertThat(stats.get("Delivered"), is(1L));
+        assertThat(stats.get("Failed"), is(1L));
+        assertThat(stats.get("Coalesced"), is(0L));
+        assertThat(stats.get("Pending"), is(1L));
+        assertThat(stats.get("Last lag in milliseconds"), is(500L));
+        assertThat(stats.get("Max lag in milliseconds"), is(500L));
+    }
+
+    @Test
+    public void shouldStillConsiderAnOlderAgentStatusNotificationSupersededAfterTheNewerOneHasBeenDelivered() {
+        PluginNotificationMessage older = agentStatusMessage("plugin-1", "agent-1");
+        PluginNotificationMessage newer = agentStatusMessage("plugin-1", "agent-1");
+        posted(tracker, older, 0);
+        posted(tracker, newer, 0);
+
+        tracker.delivered(newer);
+
+        assertThat(tracker.isSuperseded(older), is(true));
+    }
+
+    @Test
+    public void shouldCountExpiredNotificationsAsNoLongerPending() {
+        PluginNotificationMessage message = new PluginNotificationMessage<>("plugin-1", NotificationExtension.STAGE_STATUS_CHANGE_NOTIFICATION, "stage");
+        posted(tracker, message, 1000);
+
+        clock.addMillis(1000);
+        assertThat(tracker.hasExpired(message), is(false));
+        clock.addMillis(1);
+        assertThat(tracker.hasExpired(message), is(true));
+        tracker.expired(message);
+
+        Map<String, Object> stats = (Map<String, Object>) tracker.asJson().get("plugin-1");
+        assertThat(stats.get("Expired"), is(1L));
+        assertThat(stats.get("Pending"), is(0L));
+    }
+
+    @Test
+    public void shouldNeverExpireANotificationPostedWithoutATimeToLive() {
+        PluginNotificationMessage message = new PluginNotificationMessage<>("plugin-1", NotificationExtension.STAGE_STATUS_CHANGE_NOTIFICATION, "stage");
+        posted(tracker, message, 0);
+
+        clock.addYears(10);
+
+        assertThat(tracker.hasExpired(message), is(false));
+    }
+
+    @Test
+    public void shouldForgetAboutAPluginOnceItIsUnloaded() {
+        posted(tracker, agentStatusMessage("plugin-1", "agent-1"), 0);
+
+        tracker.pluginUnloaded("plugin-1");
+
+        assertThat(tracker.asJson(), not(hasKey("plugin-1")));
+    }
+
+    @Test
+    public void shouldDropNotificationsOnceAPluginHasAsManyPendingAsItsCapacity() {
+        PluginNotificationMessage first = agentStatusMessage("plugin-1", "agent-1");
+        PluginNotificationMessage second = agentStatusMessage("plugin-1", "agent-2");
+        PluginNotificationMessage third = agentStatusMessage("plugin-1", "agent-3");
+
+        assertThat(tracker.accept(first, 0, 2), is(true));
+        tracker.queued(first);
+        assertThat(tracker.accept(second, 0, 2), is(true));
+        tracker.queued(second);
+        assertThat(tracker.accept(third, 0, 2), is(false));
+
+        tracker.delivered(first);
+        assertThat(tracker.accept(third, 0, 2), is(true));
+
+        Map<String, Object> stats = (Map<String, Object>) tracker.asJson().get("plugin-1");
+        assertThat(stats.get("Posted"), is(3L));
+        assertThat(stats.get("Dropped"), is(1L));
+        assertThat(stats.get("Pending"), is(2L));
+    }
+
+    @Test
+    public void shouldNotLetANotificationThatCouldNotBeQueuedSupersedeOneThatWas() {
+        PluginNotificationMessage queued = agentStatusMessage("plugin-1", "agent-1");
+        PluginNotificationMessage notQueued = agentStatusMessage("plugin-1", "agent-1");
+
+        posted(tracker, queued, 0);
+        tracker.accept(notQueued, 0, 0);
+        tracker.notQueued(notQueued);
+
+        assertThat(tracker.isSuperseded(queued), is(false));
+        Map<String, Object> stats = (Map<String, Object>) tracker.asJson().get("plugin-1");
+        assertThat(stats.get("Posted"), is(1L));
+        assertThat(stats.get("Pending"), is(1L));
+    }
+
+    private void posted(PluginNotificationDeliveryTracker tracker, PluginNotificationMessage message, long timeToLive) {
+        tracker.accept(message, timeToLive, 0);
+        tracker.queued(message);
+    }
+
+    private PluginNotificationMessage agentStatusMessage(String pluginId, String uuid) {
+        AgentNotificationData data = new AgentNotificationData(uuid, "host", false, "127.0.0.1", "linux", "100", "Enabled", "Idle", "Idle", new Date());
+        return new PluginNotificationMessage<>(pluginId, NotificationExtension.AGENT_STATUS_CHANGE_NOTIFICATION, data);
+    }
+}
@@ -15,14 +15,18 @@
  */
 package com.thoughtworks.go.server.messaging.notifications;
 
+import com.thoughtworks.go.domain.notificationdata.AgentNotificationData;
 import com.thoughtworks.go.plugin.access.notification.NotificationExtension;
 import com.thoughtworks.go.plugin.api.response.Result;
 import com.thoughtworks.go.serverhealth.HealthStateScope;
 import com.thoughtworks.go.serverhealth.ServerHealthService;
 import com.thoughtworks.go.serverhealth.ServerHealthState;
+import com.thoughtworks.go.util.TestingClock;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.util.Date;
+
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -33,7 +37,7 @@ public class PluginNotificationMessageListenerTest {
     public void shouldNotifyPluginOnMessage() {
         NotificationExtension notificationExtension = mock(NotificationExtension.class);
         ServerHealthService serverHealthService = mock(ServerHealthService.class);
-        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService);
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService, new PluginNotificationDeliveryTracker(new TestingClock()));
 
         PluginNotificationMessage message = new PluginNotificationMessage("pid", "request-name", "data");
         when(notificationExtension.notify(message.pluginId(), message.getRequestName(), message.getData())).thenReturn(new Result());
@@ -47,7 +51,7 @@ public class PluginNotificationMessageListenerTest {
     public void shouldAddErrorReturnedByPluginToHealthMessage() {
         NotificationExtension notificationExtension = mock(NotificationExtension.class);
         ServerHealthService serverHealthService = mock(ServerHealthService.class);
-        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService);
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService, new PluginNotificationDeliveryTracker(new TestingClock()));
 
         PluginNotificationMessage message = new PluginNotificationMessage("pid", "request-name", "data");
         Result result = new Result();
@@ -68,7 +72,7 @@ public class PluginNotificationMessageListenerTest {
     public void shouldHandleExceptionDuringPluginNotificationCorrectly() {
         NotificationExtension notificationExtension = mock(NotificationExtension.class);
         ServerHealthService serverHealthService = mock(ServerHealthService.class);
-        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService);
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService, new PluginNotificationDeliveryTracker(new TestingClock()));
 
         PluginNotificationMessage message = new PluginNotificationMessage("pid", "request-name", "data");
         when(notificationExtension.notify(message.pluginId(), message.getRequestName(), message.getData())).thenThrow(new RuntimeException("error!"));
@@ -83,4 +87,98 @@ public class PluginNotificationMessageListenerTest {
         verify(notificationExtension).notify("pid", "request-name", message.getData());
     }
 
+    @Test
+    public void shouldSkipAgentStatusNotificationWhichHasBeenSupersededByANewerOne() {
+        NotificationExtension notificationExtension = mock(NotificationExtension.class);
+        ServerHealthService serverHealthService = mock(ServerHealthService.class);
+        PluginNotificationDeliveryTracker deliveryTracker = new PluginNotificationDeliveryTracker(new TestingClock());
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService, deliveryTracker);
+
+        PluginNotificationMessage olderMessage = agentStatusMessage("pid", "agent-uuid", "Idle");
+        PluginNotificationMessage newerMessage = agentStatusMessage("pid", "agent-uuid", "Building");
+        posted(deliveryTracker, olderMessage, 0);
+        posted(deliveryTracker, newerMessage, 0);
+        when(notificationExtension.notify(anyString(), anyString(), any())).thenReturn(new Result());
+
+        listener.onMessage(olderMessage);
+        listener.onMessage(newerMessage);
+
+        verify(notificationExtension, never()).notify("pid", NotificationExtension.AGENT_STATUS_CHANGE_NOTIFICATION, olderMessage.getData());
+        verify(notificationExtension).notify("pid", NotificationExtension.AGENT_STATUS_CHANGE_NOTIFICATION, newerMessage.getData());
+        assertThat(deliveryTracker.statsFor("pid").coalesced.get(), is(1L));
+        assertThat(deliveryTracker.statsFor("pid").delivered.get(), is(1L));
+    }
+
+    @Test
+    public void shouldDropAnExpiredNotificationAndAccountForIt() {
+        NotificationExtension notificationExtension = mock(NotificationExtension.class);
+        ServerHealthService serverHealthService = mock(ServerHealthService.class);
+        TestingClock clock = new TestingClock();
+        PluginNotificationDeliveryTracker deliveryTracker = new PluginNotificationDeliveryTracker(clock);
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService, deliveryTracker);
+
+        PluginNotificationMessage message = new PluginNotificationMessage<>("pid", NotificationExtension.STAGE_STATUS_CHANGE_NOTIFICATION, "data");
+        posted(deliveryTracker, message, 1000);
+        clock.addMillis(1001);
+
+        listener.onMessage(message);
+
+        verifyNoInteractions(notificationExtension);
+        assertThat(deliveryTracker.statsFor("pid").expired.get(), is(1L));
+        assertThat(deliveryTracker.statsFor("pid").pending(), is(0L));
+    }
+
+    @Test
+    public void shouldDeliverTheLatestAgentStatusNotificationEvenIfItHasExpired() {
+        NotificationExtension notificationExtension = mock(NotificationExtension.class);
+        ServerHealthService serverHealthService = mock(ServerHealthService.class);
+        TestingClock clock = new TestingClock();
+        PluginNotificationDeliveryTracker deliveryTracker = new PluginNotificationDeliveryTracker(clock);
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService, deliveryTracker);
+
+        PluginNotificationMessage olderMessage = agentStatusMessage("pid", "agent-uuid", "Idle");
+        PluginNotificationMessage newerMessage = agentStatusMessage("pid", "agent-uuid", "Building");
+        posted(deliveryTracker, olderMessage, 1000);
+        posted(deliveryTracker, newerMessage, 1000);
+        when(notificationExtension.notify(anyString(), anyString(), any())).thenReturn(new Result());
+        clock.addMillis(1001);
+
+        listener.onMessage(olderMessage);
+        listener.onMessage(newerMessage);
+
+        verify(notificationExtension, never()).notify("pid", NotificationExtension.AGENT_STATUS_CHANGE_NOTIFICATION, olderMessage.getData());
+        verify(notificationExtension).notify("pid", NotificationExtension.AGENT_STATUS_CHANGE_NOTIFICATION, newerMessage.getData());
+        assertThat(deliveryTracker.statsFor("pid").delivered.get(), is(1L));
+        assertThat(deliveryTracker.statsFor("pid").expired.get(), is(0L));
+    }
+
+    @Test
+    public void shouldSkipAnOlderAgentStatusNotificationPickedUpAfterTheNewerOneWasDelivered() {
+        NotificationExtension notificationExtension = mock(NotificationExtension.class);
+        ServerHealthService serverHealthService = mock(ServerHealthService.class);
+        PluginNotificationDeliveryTracker deliveryTracker = new PluginNotificationDeliveryTracker(new TestingClock());
+        PluginNotificationMessageListener listener = new PluginNotificationMessageListener(notificationExtension, serverHealthService, deliveryTracker);
+
+        PluginNotificationMessage olderMessage = agentStatusMessage("pid", "agent-uuid", "Idle");
+        PluginNotificationMessage newerMessage = agentStatusMessage("pid", "agent-uuid", "Building");
+        posted(deliveryTracker, olderMessage, 0);
+        posted(deliveryTracker, newerMessage, 0);
+        when(notificationExtension.notify(anyString(), anyString(), any())).thenReturn(new Result());
+
+        listener.onMessage(newerMessage);
+        listener.onMessage(olderMessage);
+
+        verify(notificationExtension, never()).notify("pid", NotificationExtension.AGENT_STATUS_CHANGE_NOTIFICATION, olderMessage.getData());
+        assertThat(deliveryTracker.statsFor("pid").coalesced.get(), is(1L));
+    }
+
+    private void posted(PluginNotificationDeliveryTracker tracker, PluginNotificationMessage message, long timeToLive) {
+        tracker.accept(message, timeToLive, 0);
+        tracker.queued(message);
+    }
+
+    private PluginNotificationMessage agentStatusMessage(String pluginId, String uuid, String buildState) {
+        AgentNotificationData data = new AgentNotificationData(uuid, "host", false, "127.0.0.1", "linux", "100", "Enabled", buildState, buildState, new Date());
+        return new PluginNotificationMessage<>(pluginId, NotificationExtension.AGENT_STATUS_CHANGE_NOTIFICATION, data);
+    }
 }
@@ -61,7 +61,7 @@ public class MaterialRepositoryTest {
         mockHibernateTemplate = mock(HibernateTemplate.class);
         materialConfigConverter = mock(MaterialConfigConverter.class);
         materialExpansionService = mock(MaterialExpansionService.class);
-        materialRepository = new MaterialRepository(sessionFactory, goCache, 4242, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy);
+        materialRepository = new MaterialRepository(sessionFactory, goCache, 4242, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy, mock(ModificationSearchIndex.class));
         materialRepository.setHibernateTemplate(mockHibernateTemplate);
         when(goCache.get(anyString())).thenAnswer(new Answer<Object>() {
             @Override
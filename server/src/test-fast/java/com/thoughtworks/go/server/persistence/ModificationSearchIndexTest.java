@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.persistence;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.thoughtworks.go.domain.materials.Modification;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+public class ModificationSearchIndexTest {
+    private ModificationSearchIndex index;
+    private int scans;
+
+    @Before
+    public void setUp() {
+        index = new ModificationSearchIndex(true, 2, Long.MAX_VALUE, MoreExecutors.newDirectExecutorService());
+        scans = 0;
+    }
+
+    @Test
+    public void shouldNotAnswerUntilTheIndexOfAMaterialHasBeenBuilt() {
+        assertThat(index.candidatesFor(1L, "fix", this::scan), is(nullValue()));
+        assertThat(scans, is(1));
+
+        assertThat(index.candidatesFor(1L, "fix", this::scan), is(new long[]{10L}));
+        assertThat(scans, is(1));
+    }
+
+    @Test
+    public void shouldFindCandidatesAcrossRevisionUserCommentAndPipelineLabelIgnoringCase() {
+        index.candidatesFor(1L, "abc", this::scan);
+
+        assertThat(index.candidatesFor(1L, "BUG", this::scan), is(new long[]{10L}));
+        assertThat(index.candidatesFor(1L, "rev-20", this::scan), is(new long[]{20L}));
+        assertThat(index.candidatesFor(1L, "alice", this::scan), is(new long[]{10L, 30L}));
+        assertThat(index.candidatesFor(1L, "upstream/4", this::scan), is(new long[]{30L}));
+        assertThat(index.candidatesFor(1L, "nothing like this", this::scan), is(new long[0]));
+    }
+
+    @Test
+    public void shouldIncludeModificationsSavedAfterTheIndexWasBuilt() {
+        index.candidatesFor(1L, "abc", this::scan);
+
+        Modification modification = new Modification("carol", "another fix", null, new Date(), "rev-40");
+        modification.setId(40L);
+        index.index(1L, modification);
+
+        assertThat(index.candidatesFor(1L, "fix", this::scan), is(new long[]{10L, 40L}));
+    }
+
+    @Test
+    public void shouldGiveUpWhenThereAreTooManyCandidates() {
+        index.candidatesFor(1L, "abc", this::scan);
+
+        assertThat(index.candidatesFor(1L, "rev", this::scan), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotAnswerForPatternsItCannotNarrowDown() {
+        index.candidatesFor(1L, "abc", this::scan);
+
+        assertThat(index.candidatesFor(1L, "fi", this::scan), is(nullValue()));
+        assertThat(index.candidatesFor(1L, "fix%bug", this::scan), is(nullValue()));
+        assertThat(index.candidatesFor(1L, "fix_bug", this::scan), is(nullValue()));
+        assertThat(index.candidatesFor(1L, "fïx", this::scan), is(nullValue()));
+    }
+
+    @Test
+    public void shouldNotAnswerWhenDisabled() {
+        index = new ModificationSearchIndex(false, 2, Long.MAX_VALUE, MoreExecutors.newDirectExecutorService());
+
+        assertThat(index.candidatesFor(1L, "fix", this::scan), is(nullValue()));
+        assertThat(index.candidatesFor(1L, "fix", this::scan), is(nullValue()));
+        assertThat(scans, is(0));
+    }
+
+    @Test
+    public void shouldForgetTheLeastRecentlySearchedMaterialOnceThereAreTooManyEntries() {
+        index = new ModificationSearchIndex(true, 2, 1, MoreExecutors.newDirectExecutorService());
+        index.candidatesFor(1L, "abc", this::scan);
+        index.candidatesFor(2L, "abc", this::scan);
+        assertThat(scans, is(2));
+
+        assertThat(index.candidatesFor(2L, "fix", this::scan), is(new long[]{10L}));
+        assertThat(scans, is(2));
+
+        assertThat(index.candidatesFor(1L, "fix", this::scan), is(nullValue()));
+        assertThat(scans, is(3));
+    }
+
+    private void scan(long materialId, ModificationSearchIndex.ModificationSink sink) {
+        scans++;
+        sink.add(10L, "rev-10", "alice", "Fix BUG-1", null);
+        sink.add(20L, "rev-20", "bob", "refactor", null);
+        sink.add(30L, "rev-30", "alice", null, "upstream/42");
+    }
+}
@@ -20,8 +20,9 @@ import com.thoughtworks.go.config.exceptions.RecordNotFoundException;
 import com.thoughtworks.go.domain.AccessToken;
 import com.thoughtworks.go.server.dao.AccessTokenDao;
 import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.exceptions.InvalidAccessTokenException;
+import com.thoughtworks.go.server.exceptions.RevokedAccessTokenException;
 import com.thoughtworks.go.server.service.result.HttpLocalizedOperationResult;
-import com.thoughtworks.go.util.Clock;
 import com.thoughtworks.go.util.TestingClock;
 import org.apache.commons.lang.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,12 +49,14 @@ class AccessTokenServiceTest {
     private HttpLocalizedOperationResult result;
     private String username;
     private String authConfigId;
-    private Clock clock = new TestingClock();
+    private TestingClock clock = new TestingClock();
+    private VerifiedAccessTokenCache verifiedAccessTokenCache;
 
     @BeforeEach
     void setUp() {
         initMocks(this);
-        accessTokenService = new AccessTokenService(accessTokenDao, clock, securityService);
+        verifiedAccessTokenCache = new VerifiedAccessTokenCache(clock, 60_000, 10);
+        accessTokenService = new AccessTokenService(accessTokenDao, clock, securityService, verifiedAccessTokenCache);
         result = new HttpLocalizedOperationResult();
 
         username = "Bob";
@@ -123,6 +126,71 @@ class AccessTokenServiceTest {
         verifyNoMoreInteractions(accessTokenDao);
     }
 
+    @Nested
+    class FindByAccessToken {
+        private AccessToken.AccessTokenWithDisplayValue token;
+
+        @BeforeEach
+        void setUp() {
+            token = randomAccessTokenForUser(username);
+            token.setId(42);
+            when(accessTokenDao.findAccessTokenBySaltId(token.getSaltId())).thenReturn(token);
+            when(accessTokenDao.loadForAdminUser(42)).thenReturn(token);
+        }
+
+        @Test
+        void shouldVerifyAPresentedTokenOnlyOnceWithinTheCacheTtl() {
+            assertThat(accessTokenService.findByAccessToken(token.getDisplayValue())).isEqualTo(token);
+            assertThat(accessTokenService.findByAccessToken(token.getDisplayValue())).isEqualTo(token);
+
+            verify(accessTokenDao, times(1)).findAccessTokenBySaltId(token.getSaltId());
+        }
+
+        @Test
+        void shouldVerifyAPresentedTokenAgainOnceTheCacheTtlHasElapsed() {
+            accessTokenService.findByAccessToken(token.getDisplayValue());
+            clock.addMillis(60_000);
+            accessTokenService.findByAccessToken(token.getDisplayValue());
+
+            verify(accessTokenDao, times(2)).findAccessTokenBySaltId(token.getSaltId());
+        }
+
+        @Test
+        void shouldNotCacheTokensWhichFailVerification() {
+            String tamperedToken = token.getSaltId() + RandomStringUtils.randomAlphanumeric(32);
+
+            assertThatCode(() -> accessTokenService.findByAccessToken(tamperedToken)).isInstanceOf(InvalidAccessTokenException.class);
+            assertThatCode(() -> accessTokenService.findByAccessToken(tamperedToken)).isInstanceOf(InvalidAccessTokenException.class);
+
+            verify(accessTokenDao, times(2)).findAccessTokenBySaltId(token.getSaltId());
+        }
+
+        @Test
+        void shouldStopAcceptingATokenAsSoonAsItIsRevoked() {
+            accessTokenService.findByAccessToken(token.getDisplayValue());
+
+            accessTokenService.revokeAccessTokenByGoCD(42, "compromised");
+
+            assertThatCode(() -> accessTokenService.findByAccessToken(token.getDisplayValue())).isInstanceOf(RevokedAccessTokenException.class);
+        }
+
+        @Test
+        void shouldNotCacheATokenWhichGotRevokedWhileItWasBeingVerified() {
+            AccessToken persistedToken = mock(AccessToken.class);
+            when(persistedToken.getId()).thenReturn(42L);
+            when(accessTokenDao.loadForAdminUser(42)).thenReturn(persistedToken);
+            when(accessTokenDao.findAccessTokenBySaltId(token.getSaltId())).thenAnswer(invocation -> {
+                accessTokenService.revokeAccessTokenByGoCD(42, "compromised");
+                return token;
+            });
+
+            assertThat(accessTokenService.findByAccessToken(token.getDisplayValue())).isEqualTo(token);
+
+            assertThat(verifiedAccessTokenCache.get(token.getDisplayValue())).isNull();
+            verify(persistedToken).revoke(eq("GoCD"), eq("compromised"), any(Timestamp.class));
+        }
+    }
+
     @Nested
     class OnTimer {
 
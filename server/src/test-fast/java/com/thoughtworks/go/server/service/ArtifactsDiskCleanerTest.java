@@ -131,7 +131,7 @@ public class ArtifactsDiskCleanerTest {
                 when(diskSpaceChecker.getUsableSpace(goConfigService.artifactsDir())).thenReturn(6 * GoConstants.GIGA_BYTE);
                 return null;
             }
-        }).when(artifactService).purgeArtifactsForStage(stageOne);
+        }).when(artifactService).deleteArtifactsForStage(stageOne);
 
         doAnswer(new Answer<Object>() {
             @Override
@@ -139,16 +139,42 @@ public class ArtifactsDiskCleanerTest {
                 when(diskSpaceChecker.getUsableSpace(goConfigService.artifactsDir())).thenReturn(10 * GoConstants.GIGA_BYTE);
                 return null;
             }
-        }).when(artifactService).purgeArtifactsForStage(stageTwo);
+        }).when(artifactService).deleteArtifactsForStage(stageTwo);
 
         artifactsDiskCleaner.deleteOldArtifacts();
 
-        verify(artifactService).purgeArtifactsForStage(stageOne);
-        verify(artifactService).purgeArtifactsForStage(stageTwo);
+        verify(artifactService).deleteArtifactsForStage(stageOne);
+        verify(artifactService).deleteArtifactsForStage(stageTwo);
+        verify(artifactService).markArtifactsDeletedFor(Arrays.asList(stageOne));
+        verify(artifactService).markArtifactsDeletedFor(Arrays.asList(stageTwo));
         verify(configDbStateRepository).flushConfigState();
         verifyNoMoreInteractions(artifactService);
     }
 
+    @Test
+    public void shouldDeleteArtifactsOfSeveralStagesInParallelAndMarkThemDeletedTogether() {
+        when(sysEnv.getNumberOfArtifactsPurgeThreads()).thenReturn(2);
+        serverConfig.setPurgeLimits(5.0, 9.0);
+        Stage stageOne = StageMother.passedStageInstance("stage", "build", "pipeline");
+        Stage stageTwo = StageMother.passedStageInstance("another", "job", "with-pipeline");
+        Stage stageThree = StageMother.passedStageInstance("yet-another", "job1", "foo-pipeline");
+
+        when(stageService.oldestStagesWithDeletableArtifacts()).thenReturn(Arrays.asList(stageOne, stageTwo, stageThree));
+        when(diskSpaceChecker.getUsableSpace(goConfigService.artifactsDir())).thenReturn(4 * GoConstants.GIGA_BYTE);
+
+        doAnswer(invocation -> {
+            when(diskSpaceChecker.getUsableSpace(goConfigService.artifactsDir())).thenReturn(10 * GoConstants.GIGA_BYTE);
+            return null;
+        }).when(artifactService).markArtifactsDeletedFor(Arrays.asList(stageOne, stageTwo));
+
+        artifactsDiskCleaner.deleteOldArtifacts();
+
+        verify(artifactService).deleteArtifactsForStage(stageOne);
+        verify(artifactService).deleteArtifactsForStage(stageTwo);
+        verify(artifactService).markArtifactsDeletedFor(Arrays.asList(stageOne, stageTwo));
+        verifyNoMoreInteractions(artifactService);
+    }
+
     @Test
     public void shouldDeleteMultiplePagesOfOldestStagesHavingArtifacts() {
         serverConfig.setPurgeLimits(5.0, 9.0);
@@ -167,7 +193,7 @@ public class ArtifactsDiskCleanerTest {
                 when(stageService.oldestStagesWithDeletableArtifacts()).thenReturn(Arrays.asList(stageThree, stageFour));
                 return null;
             }
-        }).when(artifactService).purgeArtifactsForStage(stageTwo);
+        }).when(artifactService).deleteArtifactsForStage(stageTwo);
 
         doAnswer(new Answer<Object>() {
             @Override
@@ -175,7 +201,7 @@ public class ArtifactsDiskCleanerTest {
                 when(stageService.oldestStagesWithDeletableArtifacts()).thenReturn(Arrays.asList(stageFive));
                 return null;
             }
-        }).when(artifactService).purgeArtifactsForStage(stageFour);
+        }).when(artifactService).deleteArtifactsForStage(stageFour);
 
         doAnswer(new Answer<Object>() {
             @Override
@@ -183,15 +209,20 @@ public class ArtifactsDiskCleanerTest {
                 when(stageService.oldestStagesWithDeletableArtifacts()).thenReturn(new ArrayList<>());
                 return null;
             }
-        }).when(artifactService).purgeArtifactsForStage(stageFive);
+        }).when(artifactService).deleteArtifactsForStage(stageFive);
 
         artifactsDiskCleaner.deleteOldArtifacts();
 
-        verify(artifactService).purgeArtifactsForStage(stageOne);
-        verify(artifactService).purgeArtifactsForStage(stageTwo);
-        verify(artifactService).purgeArtifactsForStage(stageThree);
-        verify(artifactService).purgeArtifactsForStage(stageFour);
-        verify(artifactService).purgeArtifactsForStage(stageFive);
+        verify(artifactService).deleteArtifactsForStage(stageOne);
+        verify(artifactService).deleteArtifactsForStage(stageTwo);
+        verify(artifactService).deleteArtifactsForStage(stageThree);
+        verify(artifactService).deleteArtifactsForStage(stageFour);
+        verify(artifactService).deleteArtifactsForStage(stageFive);
+        verify(artifactService).markArtifactsDeletedFor(Arrays.asList(stageOne));
+        verify(artifactService).markArtifactsDeletedFor(Arrays.asList(stageTwo));
+        verify(artifactService).markArtifactsDeletedFor(Arrays.asList(stageThree));
+        verify(artifactService).markArtifactsDeletedFor(Arrays.asList(stageFour));
+        verify(artifactService).markArtifactsDeletedFor(Arrays.asList(stageFive));
 
         verify(stageService, times(4)).oldestStagesWithDeletableArtifacts();
         verify(configDbStateRepository, times(4)).flushConfigState();
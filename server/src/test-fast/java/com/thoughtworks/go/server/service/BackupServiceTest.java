@@ -17,12 +17,14 @@ package com.thoughtworks.go.server.service;
 
 import com.thoughtworks.go.config.CaseInsensitiveString;
 import com.thoughtworks.go.server.database.Database;
+import com.thoughtworks.go.server.domain.BackupProgressStatus;
 import com.thoughtworks.go.server.domain.BackupStatus;
 import com.thoughtworks.go.server.domain.ServerBackup;
 import com.thoughtworks.go.server.domain.Username;
 import com.thoughtworks.go.server.messaging.StartServerBackupMessage;
 import com.thoughtworks.go.server.messaging.ServerBackupQueue;
 import com.thoughtworks.go.server.persistence.ServerBackupRepository;
+import com.thoughtworks.go.server.service.backup.BackupUpdateListener;
 import com.thoughtworks.go.service.ConfigRepository;
 import com.thoughtworks.go.util.SystemEnvironment;
 import com.thoughtworks.go.util.ThrowingFn;
@@ -39,10 +41,15 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
 
 import static com.thoughtworks.go.server.service.BackupService.ABORTED_BACKUPS_MESSAGE;
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.*;
@@ -183,4 +190,59 @@ public class BackupServiceTest {
 
         verifyZeroInteractions(serverBackupRepository);
     }
+
+    @Test(timeout = 30000)
+    public void shouldReportProgressInOrderAndTheFailureOfTheFirstStepToFailWhileTheOthersAreStillRunning() throws Exception {
+        File backupsDir = temporaryFolder.newFolder("backups");
+        when(artifactsDirHolder.getBackupsDir()).thenReturn(backupsDir);
+        when(timeProvider.currentDateTime()).thenReturn(new DateTime(2019, 2, 19, 0, 0, DateTimeZone.UTC));
+        when(serverBackupRepository.save(any(ServerBackup.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(systemEnvironment.getNumberOfServerBackupThreads()).thenReturn(4);
+        String configDir = systemEnvironment.getConfigDir();
+        when(systemEnvironment.getCruiseConfigFile()).thenReturn(new File(configDir, "cruise-config.xml").getAbsolutePath());
+        when(systemEnvironment.getDESCipherFile()).thenReturn(new File(configDir, "cipher"));
+        when(systemEnvironment.getAESCipherFile()).thenReturn(new File(configDir, "cipher.aes"));
+        when(systemEnvironment.wrapperConfigDirPath()).thenReturn(Optional.of(temporaryFolder.newFolder("wrapper_config").getAbsolutePath()));
+
+        CountDownLatch configRepoBackupStarted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            configRepoBackupStarted.countDown();
+            new CountDownLatch(1).await();
+            return null;
+        }).when(configRepo).doLocked(any(ThrowingFn.class));
+        doAnswer(invocation -> {
+            configRepoBackupStarted.await();
+            throw new RuntimeException("disk full");
+        }).when(databaseStrategy).backup(any(File.class));
+
+        List<String> updates = new ArrayList<>();
+        BackupUpdateListener listener = new BackupUpdateListener() {
+            @Override
+            public void updateStep(BackupProgressStatus status) {
+                updates.add(status.name());
+            }
+
+            @Override
+            public void error(String message) {
+                updates.add(message);
+            }
+
+            @Override
+            public void completed(String message) {
+                updates.add(message);
+            }
+        };
+        BackupService backupService = new BackupService(artifactsDirHolder, mock(GoConfigService.class, Answers.RETURNS_DEEP_STUBS), timeProvider, serverBackupRepository, systemEnvironment, configRepo, databaseStrategy, null);
+
+        ServerBackup backup = backupService.startBackup(new Username("admin"), listener);
+
+        assertThat(backup.hasFailed(), is(true));
+        assertThat(backup.getMessage(), is("Failed to perform backup. Reason: disk full"));
+        assertThat(updates.get(updates.size() - 1), is("Failed to perform backup. Reason: disk full"));
+        List<String> steps = updates.subList(0, updates.size() - 1);
+        List<String> allStepsInOrder = asList("CREATING_DIR", "BACKUP_VERSION_FILE", "BACKUP_CONFIG", "BACKUP_WRAPPER_CONFIG", "BACKUP_CONFIG_REPO", "BACKUP_DATABASE");
+        assertThat(steps.size(), is(greaterThanOrEqualTo(3)));
+        assertThat(steps, is(allStepsInOrder.subList(0, steps.size())));
+        assertThat(new File(backup.getPath()).exists(), is(false));
+    }
 }
@@ -362,6 +362,34 @@ class BuildAssignmentServiceTest {
             assertThat(work.getAssignment().initialEnvironmentVariableContext().hasProperty(GO_AGENT_RESOURCES)).isFalse();
         }
 
+        @Test
+        void shouldHandTheAssignmentACopyOfTheQueuedJobPlan() {
+            final PipelineConfig pipelineConfig = PipelineConfigMother.pipelineConfig(UUID.randomUUID().toString());
+            pipelineConfig.get(0).getJobs().add(JobConfigMother.jobWithNoResourceRequirement());
+
+            final AgentInstance agentInstance = mock(AgentInstance.class);
+            final Pipeline pipeline = mock(Pipeline.class);
+            final JobPlan jobPlan1 = getJobPlan(pipelineConfig.getName(), pipelineConfig.get(0).name(), pipelineConfig.get(0).getJobs().last());
+
+            when(agentInstance.isRegistered()).thenReturn(true);
+            when(agentInstance.getAgent()).thenReturn(mock(Agent.class));
+            when(agentInstance.firstMatching(anyList())).thenReturn(jobPlan1);
+            when(pipeline.getBuildCause()).thenReturn(BuildCause.createNeverRun());
+            when(environmentConfigService.filterJobsByAgent(any(), any())).thenReturn(singletonList(jobPlan1));
+            when(scheduledPipelineLoader.pipelineWithPasswordAwareBuildCauseByBuildId(anyLong())).thenReturn(pipeline);
+            when(scheduleService.updateAssignedInfo(anyString(), any())).thenReturn(false);
+            when(goConfigService.artifactStores()).thenReturn(new ArtifactStores());
+            final int numberOfArtifactPlans = jobPlan1.getArtifactPlans().size();
+
+            BuildWork work = (BuildWork) buildAssignmentService.assignWorkToAgent(agentInstance);
+            work.getAssignment().getArtifactPlans().add(new ArtifactPlan(ArtifactPlanType.file, "src", "dest"));
+            work.getAssignment().getJobIdentifier().setBuildName("changed");
+
+            assertThat(work.getAssignment().getJobIdentifier()).isNotSameAs(jobPlan1.getIdentifier());
+            assertThat(jobPlan1.getArtifactPlans()).hasSize(numberOfArtifactPlans);
+            assertThat(jobPlan1.getIdentifier().getBuildName()).isEqualTo(pipelineConfig.get(0).getJobs().last().name().toString());
+        }
+
         @Test
         void shouldFailJobIfSecretsResolutionFails() throws Exception {
             final MaterialRevisions materialRevisions = new MaterialRevisions();
@@ -307,6 +307,21 @@ class ElasticAgentPluginServiceTest {
         assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, new ClusterProfile("clusterProfileId", elasticPluginId), null)).isTrue();
     }
 
+    @Test
+    void shouldNotCopyProfilesWithoutSecretsToFindOutWhetherToAssignWork() {
+        String uuid = randomUUID().toString();
+        String elasticPluginId = "plugin-1";
+        ElasticAgentMetadata agentMetadata = new ElasticAgentMetadata(uuid, uuid, elasticPluginId, AgentRuntimeStatus.Idle, AgentConfigStatus.Enabled);
+        ElasticProfile elasticProfile = new ElasticProfile("1", "clusterProfileId");
+        ClusterProfile clusterProfile = new ClusterProfile("clusterProfileId", elasticPluginId);
+        when(registry.shouldAssignWork(any(), any(), any(), any(), any(), any())).thenReturn(true);
+
+        service.shouldAssignWork(agentMetadata, null, elasticProfile, clusterProfile, null);
+
+        verify(secretParamResolver).resolve(same(elasticProfile));
+        verify(secretParamResolver).resolve(same(clusterProfile));
+    }
+
     @Test
     void shouldNotAssignJobToAnAgentIfThePluginMatchesForTheAgentAndJob_ButThePluginRefusesToTheAssignment() {
         String uuid = randomUUID().toString();
@@ -631,7 +646,8 @@ class ElasticAgentPluginServiceTest {
             ArgumentCaptor<Long> ttl = ArgumentCaptor.forClass(Long.class);
             when(environmentConfigService.envForPipeline("pipeline-2")).thenReturn("env-2");
             doAnswer(invocation -> {
-                k1.getSecretParams().get(0).setValue("some-resolve-value");
+                ElasticProfile elasticProfile = invocation.getArgument(0);
+                elasticProfile.getSecretParams().get(0).setValue("some-resolve-value");
                 return null;
             }).when(secretParamResolver).resolve(any(ElasticProfile.class));
 
@@ -643,11 +659,32 @@ class ElasticAgentPluginServiceTest {
             CreateAgentMessage createAgentMessage = createAgentMessageArgumentCaptor.getValue();
             assertThat(createAgentMessage.autoregisterKey()).isEqualTo(ephemeralKey);
             assertThat(createAgentMessage.pluginId()).isEqualTo(plan2.getClusterProfile().getPluginId());
-            assertThat(createAgentMessage.configuration()).isEqualTo(plan2.getElasticProfile().getConfigurationAsMap(true, true));
+            assertThat(createAgentMessage.configuration()).isEqualTo(singletonMap("k1", "some-resolve-value"));
             assertThat(createAgentMessage.environment()).isEqualTo("env-2");
             assertThat(createAgentMessage.jobIdentifier()).isEqualTo(plan2.getIdentifier());
         }
 
+        @Test
+        void shouldNotResolveSecretsOnTheProfilesOfTheSharedJobPlan_createAgentsFor() {
+            ConfigurationProperty k1 = ConfigurationPropertyMother.create("k1", "{{SECRET:[config_id][key]}}");
+            JobPlan plan = plan(1, "docker");
+            plan.getElasticProfile().add(k1);
+
+            when(ephemeralAutoRegisterKeyService.autoRegisterKey()).thenReturn(randomUUID().toString());
+            when(goConfigService.elasticJobStarvationThreshold()).thenReturn(10000L);
+            doAnswer(invocation -> {
+                ElasticProfile elasticProfile = invocation.getArgument(0);
+                elasticProfile.getSecretParams().get(0).setValue("some-resolve-value");
+                return null;
+            }).when(secretParamResolver).resolve(any(ElasticProfile.class));
+
+            service.createAgentsFor(emptyList(), singletonList(plan));
+
+            verify(createAgentQueue).post(any(CreateAgentMessage.class), anyLong());
+            assertThat(k1.getSecretParams().get(0).isUnresolved()).isTrue();
+            assertThat(plan.getElasticProfile().getSecretParams().get(0).isUnresolved()).isTrue();
+        }
+
         @Test
         void shouldFailIfSecretResolutionFails_createAgentsFor() throws IOException, IllegalArtifactLocationException {
             ConfigurationProperty k1 = ConfigurationPropertyMother.create("k1", "{{SECRET:[config_id][key]}}");
@@ -686,15 +723,17 @@ class ElasticAgentPluginServiceTest {
             ElasticProfile elasticProfile = new ElasticProfile("1", "clusterProfileId", k1);
 
             doAnswer(invocation -> {
-                k1.getSecretParams().get(0).setValue("some-resolve-value");
+                ElasticProfile profile = invocation.getArgument(0);
+                profile.getSecretParams().get(0).setValue("some-resolve-value");
                 return null;
-            }).when(secretParamResolver).resolve(any(ClusterProfile.class));
+            }).when(secretParamResolver).resolve(any(ElasticProfile.class));
             when(registry.shouldAssignWork(any(), any(), any(), any(), any(), any())).thenReturn(true);
 
             assertThat(service.shouldAssignWork(agentMetadata, null, elasticProfile, new ClusterProfile("clusterProfileId", elasticPluginId), null)).isTrue();
             verify(secretParamResolver).resolve(elasticProfile);
             verify(registry).shouldAssignWork(eq(null), any(AgentMetadata.class), eq(null),
-                    eq(elasticProfile.getConfigurationAsMap(true, true)), eq(emptyMap()), eq(null));
+                    eq(singletonMap("k1", "some-resolve-value")), eq(emptyMap()), eq(null));
+            assertThat(k1.getSecretParams().get(0).isUnresolved()).isTrue();
         }
 
         @Test
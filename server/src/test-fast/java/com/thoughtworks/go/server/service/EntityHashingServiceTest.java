@@ -31,7 +31,6 @@ import com.thoughtworks.go.security.ProductionIVProvider;
 import com.thoughtworks.go.security.TestIVProvider;
 import com.thoughtworks.go.server.cache.GoCache;
 import com.thoughtworks.go.server.domain.PluginSettings;
-import com.thoughtworks.go.util.ConfigElementImplementationRegistryMother;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -54,7 +53,7 @@ public class EntityHashingServiceTest {
     void setUp() {
         this.goConfigService = mock(GoConfigService.class);
         this.goCache = mock(GoCache.class);
-        digests = new EntityHashes(new ConfigCache(), ConfigElementImplementationRegistryMother.withNoPlugins());
+        digests = new EntityHashes(new ConfigCache());
         this.service = new EntityHashingService(this.goConfigService, this.goCache, mock(PartialConfigHelper.class), digests);
     }
 
@@ -220,6 +219,17 @@ public class EntityHashingServiceTest {
         assertNotEquals(hashForPlugin1, hashForPlugin2);
     }
 
+    @Test
+    void digestsAPipelineGroupFromTheCachedDigestsOfItsPipelines() {
+        PipelineConfigs group = new BasicPipelineConfigs("first", new Authorization(), PipelineConfigMother.pipelineConfig("up42"));
+        when(goCache.get(ETAG_CACHE_KEY, "com.thoughtworks.go.config.PipelineConfig.up42")).thenReturn("pipeline-digest");
+
+        final String groupDigest = digests.digest("first", digests.digestDomainConfigEntity(new Authorization()));
+
+        assertEquals(digests.digest(groupDigest, "pipeline-digest"), service.hashForEntity(group));
+        verify(goCache).put(ETAG_CACHE_KEY, "com.thoughtworks.go.config.BasicPipelineConfigs.first", groupDigest);
+    }
+
     private PluginSettings pluginSettings(String id, String key, String secret) {
         final PluginSettings p = new PluginSettings(id);
         final ConfigurationProperty cp = new ConfigurationProperty(new ConfigurationKey(key), new ConfigurationValue(secret));
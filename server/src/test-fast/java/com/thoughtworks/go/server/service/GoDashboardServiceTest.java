@@ -110,7 +110,7 @@ public class GoDashboardServiceTest {
         GoDashboardPipeline pipeline2 = pipeline("pipeline2");
 
         List<GoDashboardPipeline> pipelines = asList(pipeline1, pipeline2);
-        when(dashboardCurrentStateLoader.allPipelines(config)).thenReturn(pipelines);
+        when(dashboardCurrentStateLoader.allPipelines(eq(config), any())).thenReturn(pipelines);
 
         service.updateCacheForAllPipelinesIn(config);
 
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.config.*;
+import com.thoughtworks.go.domain.PipelineGroups;
+import com.thoughtworks.go.helper.GoConfigMother;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.thoughtworks.go.helper.PipelineConfigMother.createPipelineConfig;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class PipelineGroupPermissionsTest {
+    private static final CaseInsensitiveString VIEWER = new CaseInsensitiveString("viewer");
+    private static final CaseInsensitiveString OPERATOR = new CaseInsensitiveString("operator");
+    private static final CaseInsensitiveString GROUP_ADMIN = new CaseInsensitiveString("groupAdmin");
+    private static final CaseInsensitiveString PILOT = new CaseInsensitiveString("pilot");
+
+    private PluginRoleUsersStore pluginRoleUsersStore;
+    private PluginRoleConfig blackbird;
+    private BasicCruiseConfig cruiseConfig;
+
+    @Before
+    public void setUp() {
+        pluginRoleUsersStore = PluginRoleUsersStore.instance();
+        blackbird = new PluginRoleConfig("blackbird", "ldap");
+
+        cruiseConfig = new BasicCruiseConfig();
+        GoConfigMother.enableSecurityWithPasswordFilePlugin(cruiseConfig);
+        cruiseConfig.server().security().addRole(blackbird);
+        Authorization authorization = new Authorization(new ViewConfig(new AdminUser(VIEWER), new AdminRole(blackbird.getName())),
+                new OperationConfig(new AdminUser(OPERATOR)),
+                new AdminsConfig(new AdminUser(GROUP_ADMIN)));
+        cruiseConfig.setGroup(new PipelineGroups(
+                new BasicPipelineConfigs("secured", authorization, createPipelineConfig("up42", "stage", "job")),
+                new BasicPipelineConfigs("open", new Authorization(), createPipelineConfig("down42", "stage", "job"))));
+    }
+
+    @After
+    public void tearDown() {
+        pluginRoleUsersStore.clearAll();
+    }
+
+    @Test
+    public void shouldAnswerGroupPermissionsOfAUserTheWayTheGroupAuthorizationDoes() {
+        PipelineGroupPermissions permissions = new PipelineGroupPermissions(cruiseConfig, false, pluginRoleUsersStore);
+
+        assertThat(permissions.canView(VIEWER, "secured"), is(true));
+        assertThat(permissions.canOperate(VIEWER, "secured"), is(false));
+        assertThat(permissions.canAdminister(VIEWER, "secured"), is(false));
+        assertThat(permissions.canOperate(OPERATOR, "SECURED"), is(true));
+        assertThat(permissions.canView(GROUP_ADMIN, "secured"), is(true));
+        assertThat(permissions.canOperate(GROUP_ADMIN, "secured"), is(true));
+        assertThat(permissions.canAdminister(GROUP_ADMIN, "secured"), is(true));
+        assertThat(permissions.administrableGroups(GROUP_ADMIN), is(singletonList("secured")));
+
+        assertThat(permissions.canView(VIEWER, "open"), is(false));
+        assertThat(permissions.canOperate(VIEWER, "open"), is(false));
+    }
+
+    @Test
+    public void shouldLetEveryoneInToGroupsWithoutAuthorizationOnlyWhenAllowedTo() {
+        PipelineGroupPermissions permissions = new PipelineGroupPermissions(cruiseConfig, true, pluginRoleUsersStore);
+
+        assertThat(permissions.canView(PILOT, "open"), is(true));
+        assertThat(permissions.canOperate(PILOT, "open"), is(true));
+        assertThat(permissions.canView(PILOT, "secured"), is(false));
+    }
+
+    @Test
+    public void shouldRecomputePermissionsOfAUserWhosePluginRolesChange() {
+        PipelineGroupPermissions permissions = new PipelineGroupPermissions(cruiseConfig, false, pluginRoleUsersStore);
+        assertThat(permissions.canView(PILOT, "secured"), is(false));
+
+        pluginRoleUsersStore.assignRole("pilot", blackbird);
+        assertThat(permissions.canView(PILOT, "secured"), is(true));
+
+        pluginRoleUsersStore.revokeAllRolesFor("pilot");
+        assertThat(permissions.canView(PILOT, "secured"), is(false));
+    }
+
+    @Test
+    public void shouldOnlyBeValidForTheConfigAndDefaultPermissionItWasBuiltFor() {
+        PipelineGroupPermissions permissions = new PipelineGroupPermissions(cruiseConfig, false, pluginRoleUsersStore);
+
+        assertThat(permissions.isFor(cruiseConfig, false), is(true));
+        assertThat(permissions.isFor(cruiseConfig, true), is(false));
+        assertThat(permissions.isFor(GoConfigMother.defaultCruiseConfig(), false), is(false));
+
+        pluginRoleUsersStore.remove(blackbird);
+        assertThat(permissions.isFor(cruiseConfig, false), is(false));
+    }
+
+    @Test
+    public void shouldKnowTheGroupsOfTheConfigRegardlessOfCase() {
+        PipelineGroupPermissions permissions = new PipelineGroupPermissions(cruiseConfig, false, pluginRoleUsersStore);
+
+        assertThat(permissions.hasGroup("Secured"), is(true));
+        assertThat(permissions.hasGroup("missing"), is(false));
+        assertThat(permissions.hasGroup(null), is(false));
+    }
+}
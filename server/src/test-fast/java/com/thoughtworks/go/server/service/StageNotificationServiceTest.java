@@ -105,7 +105,7 @@ public class StageNotificationServiceTest {
                         false, null),
                 new DefaultSchedulingContext("loser"), "md5-test", new TimeProvider());
         Stage stage = pipeline.getStages().get(0);
-        when(stageService.findStageWithIdentifier(stageIdentifier)).thenReturn(stage);
+        when(stageService.findReadOnlyStageWithIdentifier(stageIdentifier)).thenReturn(stage);
         stage.setPipelineId(100L);
         when(pipelineService.fullPipelineById(100)).thenReturn(pipeline);
     }
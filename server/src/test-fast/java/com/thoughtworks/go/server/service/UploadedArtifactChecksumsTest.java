@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.migrationsupport.rules.EnableRuleMigrationSupport;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.codec.digest.DigestUtils.md5Hex;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EnableRuleMigrationSupport
+class UploadedArtifactChecksumsTest {
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private Properties expected;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        temporaryFolder.create();
+        expected = new Properties();
+        expected.setProperty("dest/dir/good.txt", md5Hex("good"));
+        expected.setProperty("dest/dir/bad.txt", md5Hex("expected content"));
+    }
+
+    @Test
+    void shouldVerifyFilesAsTheyAreExtractedOnceChecksumsAreKnown() throws IOException {
+        UploadedArtifactChecksums checksums = new UploadedArtifactChecksums("dest");
+        checksums.expect(expected);
+
+        checksums.handleExtractedFile("dir/good.txt", file("good.txt", "good"), md5Hex("good"));
+        assertThat(checksums.isValid()).isTrue();
+
+        File bad = file("bad.txt", "tampered");
+        checksums.handleExtractedFile("dir/bad.txt", bad, md5Hex("tampered"));
+        assertThat(checksums.isValid()).isFalse();
+        assertThat(checksums.mismatches()).containsExactly("dest/dir/bad.txt");
+        assertThat(bad).doesNotExist();
+    }
+
+    @Test
+    void shouldVerifyFilesExtractedBeforeTheChecksumsShowedUp() throws IOException {
+        UploadedArtifactChecksums checksums = new UploadedArtifactChecksums("dest");
+        File bad = file("bad.txt", "tampered");
+
+        checksums.handleExtractedFile("dir/good.txt", file("good.txt", "good"), md5Hex("good"));
+        checksums.handleExtractedFile("dir/bad.txt", bad, md5Hex("tampered"));
+        assertThat(checksums.isValid()).isTrue();
+
+        checksums.expect(expected);
+        assertThat(checksums.mismatches()).containsExactly("dest/dir/bad.txt");
+        assertThat(bad).doesNotExist();
+    }
+
+    @Test
+    void shouldIgnoreFilesThereAreNoChecksumsFor() throws IOException {
+        UploadedArtifactChecksums checksums = new UploadedArtifactChecksums("");
+        checksums.expect(expected);
+
+        checksums.handleExtractedFile("other.txt", file("other.txt", "other"), md5Hex("other"));
+
+        assertThat(checksums.isValid()).isTrue();
+    }
+
+    @Test
+    void shouldBeValidWhenNoChecksumsWereUploaded() throws IOException {
+        UploadedArtifactChecksums checksums = new UploadedArtifactChecksums("dest");
+
+        checksums.handleExtractedFile("dir/bad.txt", file("bad.txt", "tampered"), md5Hex("tampered"));
+
+        assertThat(checksums.isValid()).isTrue();
+    }
+
+    private File file(String name, String content) throws IOException {
+        File file = new File(temporaryFolder.getRoot(), name);
+        FileUtils.writeStringToFile(file, content, UTF_8);
+        return file;
+    }
+}
@@ -45,6 +45,7 @@ import org.junit.jupiter.api.Test;
 import javax.servlet.http.HttpServletResponse;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -63,6 +64,7 @@ public class UserServiceTest {
     private TestTransactionTemplate transactionTemplate;
     private TestTransactionSynchronizationManager transactionSynchronizationManager;
     private SystemEnvironment systemEnvironment;
+    private VerifiedAccessTokenCache verifiedAccessTokenCache;
 
     @BeforeEach
     void setUp() {
@@ -72,7 +74,8 @@ public class UserServiceTest {
         transactionSynchronizationManager = new TestTransactionSynchronizationManager();
         transactionTemplate = new TestTransactionTemplate(transactionSynchronizationManager);
         systemEnvironment = mock(SystemEnvironment.class);
-        userService = new UserService(userDao, securityService, goConfigService, transactionTemplate, systemEnvironment);
+        verifiedAccessTokenCache = mock(VerifiedAccessTokenCache.class);
+        userService = new UserService(userDao, securityService, goConfigService, transactionTemplate, systemEnvironment, verifiedAccessTokenCache);
     }
 
     @Test
@@ -516,6 +519,7 @@ public class UserServiceTest {
         userService.deleteUser(username, "currentUser", result);
         assertThat(result.isSuccessful()).isTrue();
         assertThat(result.hasMessage()).isTrue();
+        verify(verifiedAccessTokenCache).invalidateTokensOf(Collections.singletonList(username));
     }
 
     @Test
@@ -543,6 +547,7 @@ public class UserServiceTest {
         userService.deleteUsers(usernames, "currentUser", result);
 
         verify(userDao).deleteUsers(usernames, "currentUser");
+        verify(verifiedAccessTokenCache).invalidateTokensOf(usernames);
         assertThat(result.isSuccessful()).isTrue();
         assertThat(result.message()).isEqualTo(EntityType.User.deleteSuccessful(Arrays.asList("john", "joan")));
     }
@@ -651,6 +656,7 @@ public class UserServiceTest {
         userService.bulkEnableDisableUsers(usernames, false, result);
 
         verify(userDao).disableUsers(usernames);
+        verify(verifiedAccessTokenCache).invalidateTokensOf(usernames);
         assertThat(result.isSuccessful()).isTrue();
         assertThat(result.message()).isEqualTo("Users 'john, joan' were disabled successfully.");
     }
@@ -727,7 +733,7 @@ public class UserServiceTest {
         User quux = new User("quux", Arrays.asList("qUUX", "Quux"), "quux@cruise.go", false);
         quux.addNotificationFilter(new NotificationFilter("p2", "s2", StageEvent.Passes, true));
 
-        when(userDao.findNotificationSubscribingUsers()).thenReturn(new Users(Arrays.asList(foo, bar, quux)));
+        when(userDao.findNotificationSubscriptions()).thenReturn(new NotificationSubscriptions(new Users(Arrays.asList(foo, bar, quux))));
         when(securityService.hasViewPermissionForPipeline(foo.getUsername(), "p1")).thenReturn(true);
         when(securityService.hasViewPermissionForPipeline(bar.getUsername(), "p1")).thenReturn(false);
         assertThat(userService.findValidSubscribers(new StageConfigIdentifier("p1", "s1"))).containsExactly(foo);
@@ -740,7 +746,7 @@ public class UserServiceTest {
         User bar = new User("bar", Arrays.asList("bAR", "Bar"), "bar@go.com", true);
         bar.addNotificationFilter(new NotificationFilter(GoConstants.ANY_PIPELINE, GoConstants.ANY_STAGE, StageEvent.Passes, true));
 
-        when(userDao.findNotificationSubscribingUsers()).thenReturn(new Users(Arrays.asList(foo, bar)));
+        when(userDao.findNotificationSubscriptions()).thenReturn(new NotificationSubscriptions(new Users(Arrays.asList(foo, bar))));
         when(securityService.hasViewPermissionForPipeline(foo.getUsername(), "p1")).thenReturn(true);
         when(securityService.hasViewPermissionForPipeline(bar.getUsername(), "p1")).thenReturn(false);
         assertThat(userService.findValidSubscribers(new StageConfigIdentifier("p1", "s1"))).containsExactly(foo);
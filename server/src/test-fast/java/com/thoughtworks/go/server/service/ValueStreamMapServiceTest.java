@@ -146,6 +146,30 @@ public class ValueStreamMapServiceTest {
         assertNode(0, secondLevel.get(0), pipelineName, pipelineName, 0);
     }
 
+    @Test
+    public void shouldComputeDownstreamPipelinesOnlyOnceForAConfig() {
+        String pipelineName = "p1";
+        BuildCause buildCause = PipelineMother.pipeline(pipelineName, new Stage()).getBuildCause();
+        MaterialConfig materialConfig = buildCause.getMaterialRevisions().getMaterialRevision(0).getMaterial().config();
+        PipelineConfig p1Config = PipelineConfigMother.pipelineConfig(pipelineName, new MaterialConfigs(materialConfig));
+        BasicCruiseConfig cruiseConfig = spy(new BasicCruiseConfig(new BasicPipelineConfigs(p1Config)));
+
+        when(pipelineService.buildCauseFor(pipelineName, 1)).thenReturn(buildCause);
+        when(goConfigService.currentCruiseConfig()).thenReturn(cruiseConfig);
+        when(pipelineService.findPipelineByNameAndCounter(pipelineName, 1)).thenReturn(new Pipeline(pipelineName, "p1-label", buildCause, new EnvironmentVariables()));
+
+        valueStreamMapService.getValueStreamMap(new CaseInsensitiveString(pipelineName), 1, user, result);
+        valueStreamMapService.getValueStreamMap(new CaseInsensitiveString(pipelineName), 1, user, result);
+        verify(cruiseConfig, times(1)).generatePipelineVsDownstreamMap();
+
+        BasicCruiseConfig updatedConfig = spy(new BasicCruiseConfig(new BasicPipelineConfigs(p1Config)));
+        when(goConfigService.currentCruiseConfig()).thenReturn(updatedConfig);
+
+        valueStreamMapService.getValueStreamMap(new CaseInsensitiveString(pipelineName), 1, user, result);
+        verify(updatedConfig, times(1)).generatePipelineVsDownstreamMap();
+        assertThat(result.isSuccessful(), is(true));
+    }
+
     @Test
     public void shouldGetAllDownstreamPipelinesForVSMOfUpstreamPipelineIfDownstreamPipelineRefersToUpstreamDependencyUsingADifferentCase() {
         /*
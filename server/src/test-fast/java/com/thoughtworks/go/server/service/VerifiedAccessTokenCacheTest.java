@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service;
+
+import com.thoughtworks.go.domain.AccessToken;
+import com.thoughtworks.go.util.TestingClock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static com.thoughtworks.go.helper.AccessTokenMother.randomAccessTokenForUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedAccessTokenCacheTest {
+    private TestingClock clock;
+    private VerifiedAccessTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestingClock();
+        cache = new VerifiedAccessTokenCache(clock, 1000, 2);
+    }
+
+    @Test
+    void shouldRememberAVerifiedTokenOnlyUntilItsTtlElapses() {
+        AccessToken.AccessTokenWithDisplayValue token = randomAccessTokenForUser("bob");
+        cache.put(token.getDisplayValue(), token, cache.generation());
+
+        clock.addMillis(999);
+        assertThat(cache.get(token.getDisplayValue())).isSameAs(token);
+
+        clock.addMillis(1);
+        assertThat(cache.get(token.getDisplayValue())).isNull();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    void shouldEvictTheLeastRecentlyUsedTokenWhenFull() {
+        AccessToken.AccessTokenWithDisplayValue first = randomAccessTokenForUser("bob");
+        AccessToken.AccessTokenWithDisplayValue second = randomAccessTokenForUser("bob");
+        AccessToken.AccessTokenWithDisplayValue third = randomAccessTokenForUser("bob");
+
+        cache.put(first.getDisplayValue(), first, cache.generation());
+        cache.put(second.getDisplayValue(), second, cache.generation());
+        cache.get(first.getDisplayValue());
+        cache.put(third.getDisplayValue(), third, cache.generation());
+
+        assertThat(cache.get(first.getDisplayValue())).isSameAs(first);
+        assertThat(cache.get(second.getDisplayValue())).isNull();
+        assertThat(cache.get(third.getDisplayValue())).isSameAs(third);
+    }
+
+    @Test
+    void shouldForgetTokensOfTheGivenUsersIgnoringCase() {
+        AccessToken.AccessTokenWithDisplayValue bobsToken = randomAccessTokenForUser("bob");
+        AccessToken.AccessTokenWithDisplayValue alicesToken = randomAccessTokenForUser("alice");
+        cache.put(bobsToken.getDisplayValue(), bobsToken, cache.generation());
+        cache.put(alicesToken.getDisplayValue(), alicesToken, cache.generation());
+
+        cache.invalidateTokensOf(Collections.singletonList("BOB"));
+
+        assertThat(cache.get(bobsToken.getDisplayValue())).isNull();
+        assertThat(cache.get(alicesToken.getDisplayValue())).isSameAs(alicesToken);
+    }
+
+    @Test
+    void shouldForgetARevokedToken() {
+        AccessToken.AccessTokenWithDisplayValue token = randomAccessTokenForUser("bob");
+        token.setId(42);
+        cache.put(token.getDisplayValue(), token, cache.generation());
+
+        cache.invalidate(token);
+
+        assertThat(cache.get(token.getDisplayValue())).isNull();
+    }
+
+    @Test
+    void shouldNotRememberATokenLoadedBeforeAnInvalidation() {
+        AccessToken.AccessTokenWithDisplayValue token = randomAccessTokenForUser("bob");
+        token.setId(42);
+        long generationWhenLoaded = cache.generation();
+
+        cache.invalidate(token);
+        cache.put(token.getDisplayValue(), token, generationWhenLoaded);
+        assertThat(cache.get(token.getDisplayValue())).isNull();
+
+        cache.invalidateTokensOf(Collections.singletonList("alice"));
+        cache.put(token.getDisplayValue(), token, cache.generation() - 1);
+        assertThat(cache.get(token.getDisplayValue())).isNull();
+    }
+
+    @Test
+    void shouldNotCacheAnythingWhenDisabled() {
+        cache = new VerifiedAccessTokenCache(clock, 0, 2);
+        AccessToken.AccessTokenWithDisplayValue token = randomAccessTokenForUser("bob");
+
+        cache.put(token.getDisplayValue(), token, cache.generation());
+
+        assertThat(cache.get(token.getDisplayValue())).isNull();
+        assertThat(cache.asJson()).containsEntry("Enabled", false);
+    }
+
+    @Test
+    void shouldReportHitRate() {
+        AccessToken.AccessTokenWithDisplayValue token = randomAccessTokenForUser("bob");
+        cache.get(token.getDisplayValue());
+        cache.put(token.getDisplayValue(), token, cache.generation());
+        cache.get(token.getDisplayValue());
+        cache.get(token.getDisplayValue());
+        cache.get(token.getDisplayValue());
+
+        assertThat(cache.asJson())
+                .containsEntry("Size", 1)
+                .containsEntry("Hits", 3L)
+                .containsEntry("Misses", 1L)
+                .containsEntry("Hit rate", 0.75);
+    }
+}
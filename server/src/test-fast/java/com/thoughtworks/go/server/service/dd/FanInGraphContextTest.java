@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.service.dd;
+
+import com.thoughtworks.go.config.CaseInsensitiveString;
+import com.thoughtworks.go.domain.PipelineTimelineEntry;
+import com.thoughtworks.go.domain.materials.MaterialConfig;
+import com.thoughtworks.go.config.materials.dependency.DependencyMaterialConfig;
+import com.thoughtworks.go.server.domain.PipelineTimeline;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+public class FanInGraphContextTest {
+    private PipelineTimeline pipelineTimeline;
+    private FanInGraphContext context;
+    private PipelineTimelineEntry p1;
+    private PipelineTimelineEntry p2;
+    private PipelineTimelineEntry p3;
+
+    @Before
+    public void setUp() {
+        pipelineTimeline = mock(PipelineTimeline.class);
+        context = new FanInGraphContext();
+        context.pipelineTimeline = pipelineTimeline;
+        context.fingerprintScmMaterialMap = new HashMap<>();
+        context.fingerprintScmMaterialMap.put("git", mock(MaterialConfig.class));
+        context.fingerprintScmMaterialMap.put("hg", mock(MaterialConfig.class));
+        context.fingerprintDepMaterialMap = new HashMap<>();
+        context.fingerprintDepMaterialMap.put("p1-dep", mock(DependencyMaterialConfig.class));
+        context.fingerprintDepMaterialMap.put("p2-dep", mock(DependencyMaterialConfig.class));
+        context.fingerprintDepMaterialMap.put("p3-dep", mock(DependencyMaterialConfig.class));
+
+        p1 = entry("p1", 1, revision("git", "g1"));
+        p2 = entry("p2", 2, revision("p1-dep", "p1/1/stage/1"));
+        p3 = entry("p3", 3, revision("p1-dep", "p1/1/stage/1"), revision("hg", "h1"));
+        when(pipelineTimeline.getEntryFor(new CaseInsensitiveString("p1"), 1)).thenReturn(p1);
+        when(pipelineTimeline.getEntryFor(new CaseInsensitiveString("p2"), 1)).thenReturn(p2);
+        when(pipelineTimeline.getEntryFor(new CaseInsensitiveString("p3"), 1)).thenReturn(p3);
+    }
+
+    @Test
+    public void shouldCollectScmMaterialsOfAllUpstreamInstancesVisitingSharedAncestorsOnlyOnce() {
+        PipelineTimelineEntry p4 = entry("p4", 4, revision("p2-dep", "p2/1/stage/1"), revision("p3-dep", "p3/1/stage/1"));
+
+        List<FaninScmMaterial> scmMaterials = context.scmMaterialsReachableFrom(p4);
+
+        assertThat(scmMaterials, containsInAnyOrder(new FaninScmMaterial("git", p1.revisions().get("git").get(0)), new FaninScmMaterial("hg", p3.revisions().get("hg").get(0))));
+    }
+
+    @Test
+    public void shouldNotLookUpTheSameUpstreamInstanceAgainWithinTheSameResolution() {
+        context.scmMaterialsReachableFrom(p2);
+        context.scmMaterialsReachableFrom(p3);
+        context.scmMaterialsReachableFrom(p2);
+
+        verify(pipelineTimeline, times(1)).getEntryFor(new CaseInsensitiveString("p1"), 1);
+    }
+
+    private PipelineTimelineEntry entry(String pipelineName, long id, PipelineTimelineEntry.Revision... revisions) {
+        Map<String, List<PipelineTimelineEntry.Revision>> revisionsByFingerprint = new HashMap<>();
+        for (PipelineTimelineEntry.Revision revision : revisions) {
+            revisionsByFingerprint.put(revision.folder, Collections.singletonList(revision));
+        }
+        return new PipelineTimelineEntry(pipelineName, id, 1, revisionsByFingerprint);
+    }
+
+    private PipelineTimelineEntry.Revision revision(String fingerprint, String revision) {
+        return new PipelineTimelineEntry.Revision(new Date(), revision, fingerprint, 1);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.web;
+
+import com.thoughtworks.go.server.perf.RequestInstrumentationStats;
+import com.thoughtworks.go.server.perf.RequestMetrics;
+import com.thoughtworks.go.util.SystemEnvironment;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RequestInstrumentationFilterTest {
+    private SystemEnvironment systemEnvironment;
+    private RequestInstrumentationStats stats;
+    private RequestInstrumentationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        systemEnvironment = mock(SystemEnvironment.class);
+        stats = new RequestInstrumentationStats();
+        filter = new RequestInstrumentationFilter(systemEnvironment, stats);
+        request = new MockHttpServletRequest("GET", "/go/api/pipelines/up42/history/12");
+        request.setContextPath("/go");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void shouldNotInstrumentRequestsWhenDisabled() throws Exception {
+        when(systemEnvironment.isRequestInstrumentationEnabled()).thenReturn(false);
+
+        filter.doFilter(request, response, (req, res) -> assertThat(RequestMetrics.current(), is(nullValue())));
+
+        assertThat(response.getHeader(RequestInstrumentationFilter.SERVER_TIMING), is(nullValue()));
+        assertThat(stats.asJson().isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldReportStatementsAndCacheLookupsOfTheRequestInServerTimingHeaderBeforeTheBodyIsWritten() throws Exception {
+        when(systemEnvironment.isRequestInstrumentationEnabled()).thenReturn(true);
+
+        filter.doFilter(request, response, (req, res) -> {
+            RequestMetrics.current().sqlExecuted(2_000_000);
+            RequestMetrics.current().sqlExecuted(1_000_000);
+            RequestMetrics.current().hibernateStatementPrepared();
+            RequestMetrics.current().cacheLookedUp(true, 1000);
+            RequestMetrics.current().cacheLookedUp(false, 1000);
+            res.getWriter().write("body");
+            res.flushBuffer();
+            RequestMetrics.current().sqlExecuted(1_000_000);
+        });
+
+        String serverTiming = response.getHeader(RequestInstrumentationFilter.SERVER_TIMING);
+        assertThat(serverTiming, startsWith("sql;desc=\"2 iBatis, 1 Hibernate statements\";dur=3.000, cache;desc=\"1 hits, 1 misses\""));
+        assertThat(RequestMetrics.current(), is(nullValue()));
+    }
+
+    @Test
+    public void shouldIncludeWorkDoneWhileRenderingTheBodyInServerTimingHeader() throws Exception {
+        when(systemEnvironment.isRequestInstrumentationEnabled()).thenReturn(true);
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.getWriter().write("some");
+            RequestMetrics.current().sqlExecuted(1_000_000);
+            res.getWriter().write("body");
+        });
+
+        assertThat(response.getHeader(RequestInstrumentationFilter.SERVER_TIMING), startsWith("sql;desc=\"1 iBatis, 0 Hibernate statements\""));
+        assertThat(response.getContentAsString(), is("somebody"));
+    }
+
+    @Test
+    public void shouldReportServerTimingBeforeABodyLargerThanTheResponseBufferCommitsTheResponse() throws Exception {
+        when(systemEnvironment.isRequestInstrumentationEnabled()).thenReturn(true);
+
+        filter.doFilter(request, response, (req, res) -> {
+            RequestMetrics.current().sqlExecuted(1_000_000);
+            res.getOutputStream().write(new byte[res.getBufferSize() + 1]);
+            RequestMetrics.current().sqlExecuted(1_000_000);
+        });
+
+        assertThat(response.isCommitted(), is(true));
+        assertThat(response.getHeader(RequestInstrumentationFilter.SERVER_TIMING), startsWith("sql;desc=\"1 iBatis, 0 Hibernate statements\""));
+    }
+
+    @Test
+    public void shouldAggregateMetricsByTheRoutePatternRecordedByTheHandler() throws Exception {
+        when(systemEnvironment.isRequestInstrumentationEnabled()).thenReturn(true);
+
+        filter.doFilter(request, response, (req, res) -> req.setAttribute(RequestInstrumentationFilter.ROUTE_PATTERN_ATTRIBUTE, "/api/pipelines/*"));
+
+        assertThat(stats.asJson().keySet(), contains("GET /api/pipelines/*"));
+    }
+
+    @Test
+    public void shouldAggregateMetricsByRouteWithNumericSegmentsCollapsed() throws Exception {
+        when(systemEnvironment.isRequestInstrumentationEnabled()).thenReturn(true);
+
+        filter.doFilter(request, response, (req, res) -> RequestMetrics.current().sqlExecuted(1000));
+        MockHttpServletRequest anotherRequest = new MockHttpServletRequest("GET", "/go/api/pipelines/up42/history/13");
+        anotherRequest.setContextPath("/go");
+        filter.doFilter(anotherRequest, new MockHttpServletResponse(), (req, res) -> RequestMetrics.current().sqlExecuted(1000));
+
+        Map<String, Object> routeStats = (Map<String, Object>) stats.asJson().get("GET /api/pipelines/up42/history/:number");
+        assertThat(routeStats.get("Requests"), is(2L));
+        assertThat(routeStats.get("iBatis statements"), is(2L));
+    }
+}
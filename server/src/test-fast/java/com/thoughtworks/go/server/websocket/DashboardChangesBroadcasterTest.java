@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 ThoughtWorks, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.thoughtworks.go.server.websocket;
+
+import com.thoughtworks.go.config.security.Permissions;
+import com.thoughtworks.go.config.security.permissions.EveryonePermission;
+import com.thoughtworks.go.config.security.users.AllowedUsers;
+import com.thoughtworks.go.config.security.users.Everyone;
+import com.thoughtworks.go.server.dashboard.GoDashboardCache;
+import com.thoughtworks.go.server.dashboard.GoDashboardPipeline;
+import com.thoughtworks.go.server.dashboard.TimeStampBasedCounter;
+import com.thoughtworks.go.server.domain.Username;
+import com.thoughtworks.go.server.domain.user.Filters;
+import com.thoughtworks.go.util.SystemTimeClock;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static com.thoughtworks.go.server.dashboard.GoDashboardPipelineMother.pipeline;
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class DashboardChangesBroadcasterTest {
+    private TimeStampBasedCounter counter;
+    private GoDashboardCache cache;
+    private DashboardChangesBroadcaster broadcaster;
+    private SocketHealthService socketHealthService;
+    private RemoteEndpoint remote;
+    private Session session;
+
+    @Before
+    public void setUp() {
+        counter = new TimeStampBasedCounter(new SystemTimeClock());
+        cache = new GoDashboardCache(counter);
+        broadcaster = new DashboardChangesBroadcaster(cache);
+        socketHealthService = new SocketHealthService();
+        remote = mock(RemoteEndpoint.class);
+        session = mock(Session.class);
+        when(session.getRemote()).thenReturn(remote);
+        when(session.isOpen()).thenReturn(true);
+        cache.replaceAllEntriesInCacheWith(asList(visiblePipeline("pipeline1"), visiblePipeline("pipeline2")));
+    }
+
+    @Test
+    public void shouldAskASocketConnectingFromAnUnknownVersionForAFullRefresh() {
+        connect(-1);
+
+        verify(remote).sendStringByFuture(fullRefreshMessage());
+    }
+
+    @Test
+    public void shouldNotSendAnythingToASocketConnectingFromTheCurrentVersion() {
+        DashboardChangesSocket socket = connect(cache.allEntries().lastUpdatedTimeStamp());
+
+        verify(remote, never()).sendStringByFuture(anyString());
+        assertThat(broadcaster.numberOfSockets(), is(1));
+
+        socket.onClose(1000, null);
+        assertThat(broadcaster.numberOfSockets(), is(0));
+    }
+
+    @Test
+    public void shouldSendOnlyTheChangedPipelinesWhichTheUserCanSee() {
+        connect(cache.allEntries().lastUpdatedTimeStamp());
+
+        cache.put(pipeline("pipeline2", "group1", new Permissions(new AllowedUsers(Collections.singleton("admin"), Collections.emptySet()), Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE), counter));
+        verify(remote, never()).sendStringByFuture(anyString());
+
+        cache.put(visiblePipeline("pipeline1"));
+        verify(remote).sendStringByFuture(String.format("{\"type\":\"dashboard_changed\",\"version\":%d,\"full_refresh_required\":false,\"pipelines\":[\"pipeline1\"]}", cache.allEntries().lastUpdatedTimeStamp()));
+    }
+
+    @Test
+    public void shouldAskForAFullRefreshWhenPipelinesAreAddedOrRemoved() {
+        connect(cache.allEntries().lastUpdatedTimeStamp());
+
+        cache.remove(visiblePipeline("pipeline2").name());
+
+        verify(remote).sendStringByFuture(fullRefreshMessage());
+    }
+
+    private DashboardChangesSocket connect(long since) {
+        DashboardChangesSocket socket = new DashboardChangesSocket(new Username("bob"), Filters.WILDCARD_FILTER, since, broadcaster, socketHealthService);
+        socket.onConnect(session);
+        return socket;
+    }
+
+    private String fullRefreshMessage() {
+        return String.format("{\"type\":\"dashboard_changed\",\"version\":%d,\"full_refresh_required\":true,\"pipelines\":[]}", cache.allEntries().lastUpdatedTimeStamp());
+    }
+
+    private GoDashboardPipeline visiblePipeline(String name) {
+        return pipeline(name, "group1", new Permissions(Everyone.INSTANCE, Everyone.INSTANCE, Everyone.INSTANCE, EveryonePermission.INSTANCE), counter);
+    }
+}
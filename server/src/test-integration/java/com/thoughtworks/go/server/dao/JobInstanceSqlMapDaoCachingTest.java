@@ -32,6 +32,7 @@ import java.util.*;
 
 import static com.thoughtworks.go.util.IBatisUtil.arguments;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.*;
 
@@ -188,6 +189,19 @@ public class JobInstanceSqlMapDaoCachingTest {
         verify(mockTemplate, times(1)).queryForObject("getActiveJobById", arguments("id", 2L).asMap());
     }
 
+    @Test
+    public void activeJobs_shouldServeCachedActiveJobsWithoutCopyingThem() {
+        final ActiveJob first = new ActiveJob(1L, "pipeline", 1, "label", "stage", "job1");
+
+        when(mockTemplate.queryForList("getActiveJobIds")).thenReturn(Arrays.asList(1L));
+        when(mockTemplate.queryForObject("getActiveJobById", arguments("id", 1L).asMap())).thenReturn(first);
+
+        jobInstanceDao.setSqlMapClientTemplate(mockTemplate);
+
+        assertThat(jobInstanceDao.activeJobs().get(0), is(sameInstance(first)));
+        assertThat(jobInstanceDao.activeJobs().get(0), is(sameInstance(first)));
+    }
+
     @Test
     public void activeJobs_shouldRemoveCacheActiveJobOnUpdateJobStatus() {
         final ActiveJob first = new ActiveJob(1L, "pipeline", 1, "label", "stage", "first");
@@ -663,6 +663,20 @@ public class JobInstanceSqlMapDaoIntegrationTest {
         assertJobInstance(jobPlans.get(2), newestId, PIPELINE_NAME, STAGE_NAME);
     }
 
+    @Test
+    public void shouldServeTheSameCachedPlanOfAScheduledBuildUntilItChangesState() {
+        JobInstance jobInstance = scheduled(projectOne);
+        jobInstanceDao.save(stageId, jobInstance);
+
+        JobPlan plan = findPlan(jobInstanceDao.orderedScheduledBuilds(), projectOne);
+        assertThat(findPlan(jobInstanceDao.orderedScheduledBuilds(), projectOne), is(sameInstance(plan)));
+
+        jobInstance.changeState(JobState.Assigned);
+        jobInstanceDao.updateStateAndResult(jobInstance);
+
+        assertThat(findPlans(jobInstanceDao.orderedScheduledBuilds(), projectOne), is(empty()));
+    }
+
     private long schedule(String jobName, long stageId, Date date, JobIdentifier jobIdentifier) {
         JobInstance newest = new JobInstance(jobName);
         newest.setScheduledDate(date);
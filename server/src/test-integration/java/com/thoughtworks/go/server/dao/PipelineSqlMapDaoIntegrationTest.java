@@ -43,6 +43,7 @@ import com.thoughtworks.go.presentation.pipelinehistory.StageInstanceModels;
 import com.thoughtworks.go.server.cache.GoCache;
 import com.thoughtworks.go.server.domain.Username;
 import com.thoughtworks.go.server.materials.DependencyMaterialUpdateNotifier;
+import com.thoughtworks.go.server.perf.RequestMetrics;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
 import com.thoughtworks.go.server.service.InstanceFactory;
 import com.thoughtworks.go.server.service.PipelinePauseService;
@@ -58,6 +59,8 @@ import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -115,6 +118,8 @@ public class PipelineSqlMapDaoIntegrationTest {
     private InstanceFactory instanceFactory;
     @Autowired
     private DependencyMaterialUpdateNotifier notifier;
+    @Autowired
+    private SessionFactory sessionFactory;
 
     private String md5 = "md5-test";
     private ScheduleTestUtil u;
@@ -147,6 +152,21 @@ public class PipelineSqlMapDaoIntegrationTest {
         return pipeline;
     }
 
+    private String statementsIssuedWhile(Runnable runnable) {
+        Statistics statistics = sessionFactory.getStatistics();
+        boolean wasEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        RequestMetrics metrics = RequestMetrics.start();
+        try {
+            runnable.run();
+            return metrics.getSqlStatements() + " iBatis, " + statistics.getPrepareStatementCount() + " Hibernate";
+        } finally {
+            RequestMetrics.stop();
+            statistics.setStatisticsEnabled(wasEnabled);
+        }
+    }
+
     private void savePipeline(final Pipeline pipeline) {
         transactionTemplate.execute(new TransactionCallbackWithoutResult() {
             @Override
@@ -475,6 +495,26 @@ public class PipelineSqlMapDaoIntegrationTest {
         assertThat(pipelineHistories.get(1).getName(), is("mingle"));
     }
 
+    @Test
+    public void shouldIssueAsManyStatementsToLoadAPageOfPipelineHistoryWhateverThePageSize() throws Exception {
+        PipelineConfig mingleConfig = PipelineMother.twoBuildPlansWithResourcesAndMaterials("mingle", "dev");
+        for (int i = 0; i < 100; i++) {
+            schedulePipelineWithStages(mingleConfig);
+        }
+
+        Map<Integer, String> statementsPerPageSize = new LinkedHashMap<>();
+        for (int pageSize : new int[]{2, 10, 100}) {
+            goCache.clear();
+            statementsPerPageSize.put(pageSize, statementsIssuedWhile(() -> {
+                PipelineInstanceModels history = pipelineDao.loadHistory("mingle", pageSize, 0);
+                assertThat(history.size(), is(pageSize));
+                assertThat(history.first().getBuildCause().getMaterialRevisions().isEmpty(), is(false));
+            }));
+        }
+
+        assertThat(statementsPerPageSize.toString(), new HashSet<>(statementsPerPageSize.values()).size(), is(1));
+    }
+
     @Test
     public void shouldReturnEmptyListWhenThereIsNoPipelineHistory() throws Exception {
         PipelineInstanceModels pipelineHistories = pipelineDao.loadHistory("something not exist", 10, 0);
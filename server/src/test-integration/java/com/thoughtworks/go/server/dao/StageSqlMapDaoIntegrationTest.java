@@ -605,6 +605,37 @@ public class StageSqlMapDaoIntegrationTest {
         verify(mockTemplate, times(2)).queryForObject(eq("findStageWithJobsByIdentifier"), any());
     }
 
+    @Test
+    public void findReadOnlyStageWithIdentifier_shouldShareTheCachedStageWithoutCloningIt() {
+        SqlMapClientTemplate mockTemplate = mock(SqlMapClientTemplate.class);
+
+        Stage stage = StageMother.passedStageInstance("pipeline", "stage", "job", new Date());
+
+        stageDao.setSqlMapClientTemplate(mockTemplate);
+        when(mockTemplate.queryForObject(eq("findStageWithJobsByIdentifier"), any())).thenReturn(stage);
+
+        StageIdentifier identifier = new StageIdentifier("pipeline", 1, "stage", "1");
+        assertThat(stageDao.findReadOnlyStageWithIdentifier(identifier)).isSameAs(stage);
+        assertThat(stageDao.findReadOnlyStageWithIdentifier(identifier)).isSameAs(stage);
+        assertThat(stageDao.findStageWithIdentifier(identifier)).isEqualTo(stage).isNotSameAs(stage);
+        verify(mockTemplate, times(1)).queryForObject(eq("findStageWithJobsByIdentifier"), any());
+    }
+
+    @Test
+    public void readOnlyStageById_shouldShareTheCachedStageWithoutCloningIt() {
+        SqlMapClientTemplate mockTemplate = mock(SqlMapClientTemplate.class);
+
+        Stage stage = StageMother.passedStageInstance("pipeline", "stage", "job", new Date());
+
+        stageDao.setSqlMapClientTemplate(mockTemplate);
+        when(mockTemplate.queryForObject("getStageById", 1L)).thenReturn(stage);
+
+        assertThat(stageDao.readOnlyStageById(1L)).isSameAs(stage);
+        assertThat(stageDao.readOnlyStageById(1L)).isSameAs(stage);
+        assertThat(stageDao.stageById(1L)).isEqualTo(stage).isNotSameAs(stage);
+        verify(mockTemplate, times(1)).queryForObject("getStageById", 1L);
+    }
+
     @Test
     public void findStageHistoryPage_shouldCacheStageHistoryPage() {
         SqlMapClientTemplate mockTemplate = mock(SqlMapClientTemplate.class);
@@ -1433,6 +1464,21 @@ public class StageSqlMapDaoIntegrationTest {
         assertThat(stageDao.oldestStagesHavingArtifacts().size()).isEqualTo(0);
     }
 
+    @Test
+    public void shouldMarkArtifactsDeletedForSeveralStagesAtOnce() {
+        for (int i = 0; i < 3; i++) {
+            dbHelper.pass(dbHelper.schedulePipeline(PipelineConfigMother.createPipelineConfig("foo_" + i, "stage1", "job1"), new TimeProvider()));
+        }
+        List<Stage> stages = stageDao.oldestStagesHavingArtifacts();
+        assertThat(stages.size()).isEqualTo(3);
+
+        stageDao.markArtifactsDeletedFor(stages.subList(0, 2));
+
+        List<Stage> remaining = stageDao.oldestStagesHavingArtifacts();
+        assertThat(remaining.size()).isEqualTo(1);
+        assertThat(remaining.get(0).getIdentifier()).isEqualTo(stages.get(2).getIdentifier());
+    }
+
     @Test
     public void shouldOnlyLoadCompletedStagesAsOldestStagesHavingArtifacts() {
         Pipeline pipeline = dbHelper.schedulePipeline(PipelineConfigMother.createPipelineConfig("foo", "stage1", "job1"), new TimeProvider());
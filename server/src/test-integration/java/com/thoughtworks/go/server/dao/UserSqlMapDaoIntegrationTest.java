@@ -22,6 +22,7 @@ import com.thoughtworks.go.server.domain.Username;
 import com.thoughtworks.go.server.exceptions.UserEnabledException;
 import com.thoughtworks.go.server.service.AccessTokenFilter;
 import com.thoughtworks.go.server.service.AccessTokenService;
+import com.thoughtworks.go.util.GoConstants;
 import org.hamcrest.Matchers;
 import org.hibernate.SessionFactory;
 import org.junit.After;
@@ -33,6 +34,7 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 
@@ -336,6 +338,26 @@ public class UserSqlMapDaoIntegrationTest {
         assertThat(subscribedUsers.get(2).getNotificationFilters().size(), is(1));
     }
 
+    @Test
+    public void shouldRefreshNotificationSubscriptionsWhenUsersChange() {
+        User user = new User("user1");
+        user.addNotificationFilter(new NotificationFilter("p1", "s1", StageEvent.Fails, true));
+        userDao.saveOrUpdate(user);
+
+        assertThat(userDao.findNotificationSubscriptions().subscribersFor("p1", "s1").size(), is(1));
+        assertThat(userDao.findNotificationSubscriptions().subscribersFor("p2", "s1").size(), is(0));
+
+        User reloaded = userDao.findUser("user1");
+        reloaded.addNotificationFilter(new NotificationFilter("p2", GoConstants.ANY_STAGE, StageEvent.All, false));
+        userDao.saveOrUpdate(reloaded);
+
+        assertThat(userDao.findNotificationSubscriptions().subscribersFor("p2", "s1").size(), is(1));
+
+        userDao.disableUsers(Collections.singletonList("user1"));
+
+        assertThat(userDao.findNotificationSubscriptions().subscribersFor("p1", "s1").size(), is(0));
+    }
+
     @Test
     public void shouldDeleteNotificationOnAUser() {
         User user = new User("user1");
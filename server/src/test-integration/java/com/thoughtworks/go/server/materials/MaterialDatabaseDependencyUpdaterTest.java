@@ -31,6 +31,7 @@ import com.thoughtworks.go.domain.materials.Modification;
 import com.thoughtworks.go.server.cache.GoCache;
 import com.thoughtworks.go.server.dao.DatabaseAccessHelper;
 import com.thoughtworks.go.server.dao.DependencyMaterialSourceDao;
+import com.thoughtworks.go.server.perf.MDUPerformanceLogger;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
 import com.thoughtworks.go.server.service.GoConfigService;
 import com.thoughtworks.go.server.service.MaterialExpansionService;
@@ -42,6 +43,7 @@ import com.thoughtworks.go.serverhealth.HealthStateType;
 import com.thoughtworks.go.serverhealth.ServerHealthService;
 import com.thoughtworks.go.serverhealth.ServerHealthState;
 import com.thoughtworks.go.util.ReflectionUtil;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -73,6 +75,8 @@ public class MaterialDatabaseDependencyUpdaterTest {
     @Autowired private MaterialService materialService;
     @Autowired private LegacyMaterialChecker legacyMaterialChecker;
     @Autowired private SubprocessExecutionContext subprocessExecutionContext;
+    @Autowired private SystemEnvironment systemEnvironment;
+    @Autowired private MDUPerformanceLogger mduPerformanceLogger;
     @Autowired private MaterialExpansionService materialExpansionService;
     @Autowired private GoConfigService goConfigService;
 
@@ -89,7 +93,7 @@ public class MaterialDatabaseDependencyUpdaterTest {
         dependencyMaterialSourceDao = Mockito.mock(DependencyMaterialSourceDao.class);
         healthService = Mockito.mock(ServerHealthService.class);
         dependencyMaterialUpdater = new DependencyMaterialUpdater(dependencyMaterialSourceDao, materialRepository);
-        scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, legacyMaterialChecker, subprocessExecutionContext, materialService);
+        scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, legacyMaterialChecker, subprocessExecutionContext, materialService, systemEnvironment, mduPerformanceLogger);
         updater = new MaterialDatabaseUpdater(materialRepository, healthService, transactionTemplate, dependencyMaterialUpdater, scmMaterialUpdater, null, null, materialExpansionService, goConfigService);
     }
 
@@ -24,11 +24,13 @@ import com.thoughtworks.go.domain.materials.git.GitTestRepo;
 import com.thoughtworks.go.plugin.access.packagematerial.PackageRepositoryExtension;
 import com.thoughtworks.go.plugin.access.scm.SCMExtension;
 import com.thoughtworks.go.server.dao.DatabaseAccessHelper;
+import com.thoughtworks.go.server.perf.MDUPerformanceLogger;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
 import com.thoughtworks.go.server.service.*;
 import com.thoughtworks.go.server.transaction.TransactionCallback;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
 import com.thoughtworks.go.serverhealth.ServerHealthService;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -63,6 +65,8 @@ public class MaterialDatabaseUpdaterIntegrationTest {
     @Autowired private PluggableSCMMaterialUpdater pluggableSCMMaterialUpdater;
     @Autowired private MaterialExpansionService materialExpansionService;
     @Autowired private SubprocessExecutionContext subprocessExecutionContext;
+    @Autowired private SystemEnvironment systemEnvironment;
+    @Autowired private MDUPerformanceLogger mduPerformanceLogger;
     @Autowired private GoConfigService goConfigService;
     @Autowired private SecurityService securityService;
     @Autowired private PackageRepositoryExtension packageRepositoryExtension;
@@ -83,7 +87,7 @@ public class MaterialDatabaseUpdaterIntegrationTest {
 
         MaterialService slowMaterialService = new MaterialServiceWhichSlowsDownFirstTimeModificationCheck(materialRepository, goConfigService, securityService, packageRepositoryExtension, scmExtension);
         LegacyMaterialChecker materialChecker = new LegacyMaterialChecker(slowMaterialService, subprocessExecutionContext);
-        ScmMaterialUpdater scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, slowMaterialService);
+        ScmMaterialUpdater scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, slowMaterialService, systemEnvironment, mduPerformanceLogger);
         transactionTemplateWithInvocationCount = new TransactionTemplateWithInvocationCount(transactionTemplate);
         updater = new MaterialDatabaseUpdater(materialRepository, serverHealthService, transactionTemplateWithInvocationCount, dependencyMaterialUpdater,
                 scmMaterialUpdater, packageMaterialUpdater, pluggableSCMMaterialUpdater, materialExpansionService, goConfigService);
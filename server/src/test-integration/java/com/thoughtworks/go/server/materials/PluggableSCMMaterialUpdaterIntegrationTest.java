@@ -28,12 +28,14 @@ import com.thoughtworks.go.plugin.access.scm.*;
 import com.thoughtworks.go.plugin.access.scm.material.MaterialPollResult;
 import com.thoughtworks.go.plugin.access.scm.revision.SCMRevision;
 import com.thoughtworks.go.server.dao.DatabaseAccessHelper;
+import com.thoughtworks.go.server.perf.MDUPerformanceLogger;
 import com.thoughtworks.go.server.persistence.MaterialRepository;
 import com.thoughtworks.go.server.service.MaterialService;
 import com.thoughtworks.go.server.service.materials.MaterialPoller;
 import com.thoughtworks.go.server.service.materials.PluggableSCMMaterialPoller;
 import com.thoughtworks.go.server.transaction.TransactionTemplate;
 import com.thoughtworks.go.util.ReflectionUtil;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -75,6 +77,10 @@ public class PluggableSCMMaterialUpdaterIntegrationTest {
     private LegacyMaterialChecker materialChecker;
     @Autowired
     private MaterialService materialService;
+    @Autowired
+    private SystemEnvironment systemEnvironment;
+    @Autowired
+    private MDUPerformanceLogger mduPerformanceLogger;
 
     private SCMExtension scmExtension;
     private SubprocessExecutionContext subprocessExecutionContext;
@@ -127,7 +133,7 @@ public class PluggableSCMMaterialUpdaterIntegrationTest {
         data.put("k1", "v1");
         when(scmExtension.getLatestRevision(any(String.class), any(SCMPropertyConfiguration.class), any(Map.class), any(String.class))).thenReturn(new MaterialPollResult(data, new SCMRevision()));
         mockSCMExtensionInPoller();
-        scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, materialService);
+        scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, materialService, systemEnvironment, mduPerformanceLogger);
         pluggableSCMMaterialUpdater = new PluggableSCMMaterialUpdater(materialRepository, scmMaterialUpdater, transactionTemplate);
 
         transactionTemplate.execute(new TransactionCallback() {
@@ -155,7 +161,7 @@ public class PluggableSCMMaterialUpdaterIntegrationTest {
         newData.put("k2", "v2");
         when(scmExtension.latestModificationSince(any(String.class), any(SCMPropertyConfiguration.class), any(Map.class), any(String.class), any(SCMRevision.class))).thenReturn(new MaterialPollResult(newData, new SCMRevision()));
         mockSCMExtensionInPoller();
-        scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, materialService);
+        scmMaterialUpdater = new ScmMaterialUpdater(materialRepository, materialChecker, subprocessExecutionContext, materialService, systemEnvironment, mduPerformanceLogger);
         pluggableSCMMaterialUpdater = new PluggableSCMMaterialUpdater(materialRepository, scmMaterialUpdater, transactionTemplate);
 
         transactionTemplate.execute(new TransactionCallback() {
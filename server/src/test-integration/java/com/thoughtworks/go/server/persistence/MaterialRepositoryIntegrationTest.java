@@ -86,7 +86,9 @@ import org.springframework.transaction.support.TransactionCallbackWithoutResult;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Predicate;
 
@@ -130,6 +132,8 @@ public class MaterialRepositoryIntegrationTest {
     private MaterialExpansionService materialExpansionService;
     @Autowired
     private Database databaseStrategy;
+    @Autowired
+    private ModificationSearchIndex modificationSearchIndex;
 
     private HibernateTemplate originalTemplate;
     private String md5 = "md5-test";
@@ -224,7 +228,7 @@ public class MaterialRepositoryIntegrationTest {
         MaterialRevision second = saveOneScmModification(material, "user2", "file2");
 
         goCache.clear();
-        repo = new MaterialRepository(sessionFactory, goCache, 1, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy);
+        repo = new MaterialRepository(sessionFactory, goCache, 1, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy, modificationSearchIndex);
 
         repo.findModificationsSince(material, first);
         assertThat(repo.cachedModifications(repo.findMaterialInstance(material)), is(nullValue()));
@@ -249,7 +253,7 @@ public class MaterialRepositoryIntegrationTest {
                 TestUtils.sleepQuietly(200); // sleep so we can have multiple threads enter the critical section
                 return value;
             }
-        }, 200, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy);
+        }, 200, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy, modificationSearchIndex);
 
         Thread thread1 = new Thread(new Runnable() {
             @Override
@@ -363,7 +367,7 @@ public class MaterialRepositoryIntegrationTest {
         final Material svn = MaterialsMother.svnMaterial("url", null, "username", "password", false, null);
 
         HibernateTemplate mockTemplate = mock(HibernateTemplate.class);
-        repo = new MaterialRepository(repo.getSessionFactory(), goCache, 200, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy) {
+        repo = new MaterialRepository(repo.getSessionFactory(), goCache, 200, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy, modificationSearchIndex) {
             @Override
             public MaterialInstance findMaterialInstance(Material material) {
                 MaterialInstance result = super.findMaterialInstance(material);
@@ -650,7 +654,7 @@ public class MaterialRepositoryIntegrationTest {
         GoCache spyGoCache = spy(goCache);
         when(spyGoCache.get(any(String.class))).thenCallRealMethod();
         Mockito.doCallRealMethod().when(spyGoCache).put(any(String.class), any(Object.class));
-        repo = new MaterialRepository(sessionFactory, spyGoCache, 2, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy);
+        repo = new MaterialRepository(sessionFactory, spyGoCache, 2, transactionSynchronizationManager, materialConfigConverter, materialExpansionService, databaseStrategy, modificationSearchIndex);
 
         pipelineSqlMapDao.save(pipeline);
 
@@ -755,6 +759,58 @@ public class MaterialRepositoryIntegrationTest {
         assertThat(revisionsFor13.getModifications(material).get(0).getRevision(), is("12"));
     }
 
+    @Test
+    public void shouldLoadMaterialRevisionsForManyPipelinesAtOnceTheSameWayAsForEachPipeline() {
+        HgMaterial material = new HgMaterial("sdg", null);
+        MaterialRevision firstRevision = new MaterialRevision(material, new Modifications(modification("10"), modification("9"), modification("8")));
+        saveMaterialRev(firstRevision);
+        Pipeline firstPipeline = createPipeline();
+        savePMR(firstRevision, firstPipeline);
+
+        MaterialRevision secondRevision = new MaterialRevision(material, new Modifications(modification("11")));
+        saveMaterialRev(secondRevision);
+        Pipeline secondPipeline = createPipeline();
+        savePMR(secondRevision, secondPipeline);
+
+        goCache.clear();
+        Map<Long, MaterialRevisions> revisions = repo.findMaterialRevisionsForPipelines(asList(firstPipeline.getId(), secondPipeline.getId()));
+
+        assertThat(revisions.get(firstPipeline.getId()).getModifications(material).size(), is(3));
+        assertThat(revisions.get(firstPipeline.getId()).getModifications(material).get(0).getRevision(), is("10"));
+        assertThat(revisions.get(firstPipeline.getId()).getModifications(material).get(2).getRevision(), is("8"));
+        assertThat(revisions.get(secondPipeline.getId()).getModifications(material).size(), is(1));
+        assertThat(revisions.get(secondPipeline.getId()).getModifications(material).get(0).getRevision(), is("11"));
+
+        goCache.clear();
+        assertThat(revisions.get(firstPipeline.getId()), is(repo.findMaterialRevisionsForPipeline(firstPipeline.getId())));
+        assertThat(revisions.get(secondPipeline.getId()), is(repo.findMaterialRevisionsForPipeline(secondPipeline.getId())));
+    }
+
+    @Test
+    public void shouldNotDuplicateCachedMaterialRevisionsWhenLoadingThemForPipelinesAgain() {
+        HgMaterial material = new HgMaterial("sdg", null);
+        MaterialRevision firstRevision = new MaterialRevision(material, new Modifications(modification("10"), modification("9")));
+        saveMaterialRev(firstRevision);
+        Pipeline firstPipeline = createPipeline();
+        savePMR(firstRevision, firstPipeline);
+
+        MaterialRevision secondRevision = new MaterialRevision(material, new Modifications(modification("11")));
+        saveMaterialRev(secondRevision);
+        Pipeline secondPipeline = createPipeline();
+        savePMR(secondRevision, secondPipeline);
+
+        goCache.clear();
+        repo.findMaterialRevisionsForPipeline(firstPipeline.getId());
+        repo.cacheMaterialRevisionsForPipelines(new HashSet<>(asList(firstPipeline.getId(), secondPipeline.getId())));
+        repo.cacheMaterialRevisionsForPipelines(new HashSet<>(asList(firstPipeline.getId(), secondPipeline.getId())));
+        Map<Long, MaterialRevisions> revisions = repo.findMaterialRevisionsForPipelines(asList(firstPipeline.getId(), secondPipeline.getId()));
+
+        assertThat(repo.findPipelineMaterialRevisions(firstPipeline.getId()).size(), is(1));
+        assertThat(repo.findPipelineMaterialRevisions(secondPipeline.getId()).size(), is(1));
+        assertThat(revisions.get(firstPipeline.getId()).getModifications(material).size(), is(2));
+        assertThat(revisions.get(secondPipeline.getId()).getModifications(material).size(), is(1));
+    }
+
     @Test
     public void shouldFixToAsFromForDependencyMaterialRevisionWhileSavingAndUpdating() throws Exception {
         Material material = new DependencyMaterial(new CaseInsensitiveString("pipeline_name"), new CaseInsensitiveString("stage_name"));
@@ -108,7 +108,7 @@ public class StageNotificationServiceIntegrationTest {
 
     private Stage mockStageServiceWithStage(Pipeline pipeline) {
         Stage ftStage = pipeline.getStages().byName(pipelineFixture.ftStage);
-        when(stageService.findStageWithIdentifier(ftStage.getIdentifier())).thenReturn(ftStage);
+        when(stageService.findReadOnlyStageWithIdentifier(ftStage.getIdentifier())).thenReturn(ftStage);
         return ftStage;
     }
 
@@ -408,6 +408,12 @@ public class JsonOutputWriter {
                 });
                 return this;
             }
+
+            @Override
+            public JsonOutputListWriter addRawJson(String json) {
+                parentWriter.withExceptionHandling((jacksonWriter) -> jacksonWriter.writeRawValue(json));
+                return this;
+            }
         }
 
 
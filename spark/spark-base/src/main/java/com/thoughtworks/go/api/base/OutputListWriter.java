@@ -21,4 +21,9 @@ public interface OutputListWriter {
     OutputListWriter value(String value);
 
     OutputListWriter addChild(Consumer<OutputWriter> consumer);
+
+    /**
+     * Adds an element which has already been rendered, as is. The caller must make sure it is valid JSON.
+     */
+    OutputListWriter addRawJson(String json);
 }
@@ -146,6 +146,7 @@ public class Routes {
 
     public static class Dashboard {
         public static final String SELF = "/api/dashboard";
+        public static final String CHANGES = "/changes";
         public static final String DOC = "https://api.go.cd/current/#dashboard";
     }
 
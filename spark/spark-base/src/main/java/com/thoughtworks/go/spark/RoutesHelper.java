@@ -20,7 +20,9 @@ import com.google.gson.JsonParseException;
 import com.thoughtworks.go.api.ApiVersion;
 import com.thoughtworks.go.config.exceptions.HttpException;
 import com.thoughtworks.go.config.exceptions.UnprocessableEntityException;
+import com.thoughtworks.go.server.web.RequestInstrumentationFilter;
 import com.thoughtworks.go.spark.spring.SparkSpringController;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
@@ -46,16 +48,22 @@ public class RoutesHelper {
 
     private final List<SparkSpringController> controllers;
     private final List<SparkController> sparkControllers;
+    private final SystemEnvironment systemEnvironment;
 
     public RoutesHelper(SparkSpringController... controllers) {
-        this(controllers, null);
+        this(new SystemEnvironment(), controllers);
+    }
+
+    public RoutesHelper(SystemEnvironment systemEnvironment, SparkSpringController... controllers) {
+        this(systemEnvironment, controllers, null);
     }
 
     public RoutesHelper(SparkController... sparkControllers) {
-        this(null, sparkControllers);
+        this(new SystemEnvironment(), null, sparkControllers);
     }
 
-    private RoutesHelper(SparkSpringController[] controllers, SparkController[] apiControllers) {
+    private RoutesHelper(SystemEnvironment systemEnvironment, SparkSpringController[] controllers, SparkController[] apiControllers) {
+        this.systemEnvironment = systemEnvironment;
         this.controllers = controllers == null ? Collections.emptyList() : Arrays.asList(controllers);
         this.sparkControllers = apiControllers == null ? Collections.emptyList() : Arrays.asList(apiControllers);
     }
@@ -65,6 +73,8 @@ public class RoutesHelper {
         before("/*", (request, response) -> response.header("Cache-Control", "max-age=0, private, must-revalidate"));
 
         controllers.forEach(this::addDeprecationHeaders);
+        controllers.stream().filter(SparkController.class::isInstance).map(SparkController.class::cast).forEach(this::recordRoutePatterns);
+        sparkControllers.forEach(this::recordRoutePatterns);
 
         controllers.forEach(SparkSpringController::setupRoutes);
         sparkControllers.forEach(SparkController::setupRoutes);
@@ -109,6 +119,25 @@ public class RoutesHelper {
         });
     }
 
+    // Spark does not tell which route served a request, so requests are aggregated by the controller paths they matched
+    // instead of by their (unbounded) URLs.
+    private void recordRoutePatterns(SparkController controller) {
+        String basePath = controller.controllerBasePath();
+        before(basePath, (request, response) -> recordRoutePattern(request, basePath));
+        before(basePath + "/*", (request, response) -> recordRoutePattern(request, basePath + "/*"));
+    }
+
+    private void recordRoutePattern(Request request, String pattern) {
+        // checked on every request, like the instrumentation filter itself does
+        if (!systemEnvironment.isRequestInstrumentationEnabled()) {
+            return;
+        }
+        String recorded = request.attribute(RequestInstrumentationFilter.ROUTE_PATTERN_ATTRIBUTE);
+        if (recorded == null || pattern.length() > recorded.length()) {
+            request.attribute(RequestInstrumentationFilter.ROUTE_PATTERN_ATTRIBUTE, pattern);
+        }
+    }
+
     private void unprocessableEntity(UnprocessableEntityException exception, Request request, Response response) {
         response.status(HttpStatus.SC_UNPROCESSABLE_ENTITY);
         response.body(GSON.toJson(Collections.singletonMap("message", "Your request could not be processed. " + exception.getMessage())));
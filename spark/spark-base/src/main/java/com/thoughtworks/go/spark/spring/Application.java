@@ -17,6 +17,7 @@ package com.thoughtworks.go.spark.spring;
 
 import com.thoughtworks.go.spark.RerouteLatestApis;
 import com.thoughtworks.go.spark.RoutesHelper;
+import com.thoughtworks.go.util.SystemEnvironment;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import spark.globalstate.ServletFlag;
@@ -28,9 +29,10 @@ public class Application implements SparkApplication {
     @Autowired
     public Application(RouteInformationProvider routeInformationProvider,
                        RerouteLatestApis rerouteLatestApis,
+                       SystemEnvironment systemEnvironment,
                        SparkSpringController... controllers) {
         ServletFlag.runFromServlet();
-        RoutesHelper routesHelper = new RoutesHelper(controllers);
+        RoutesHelper routesHelper = new RoutesHelper(systemEnvironment, controllers);
         routesHelper.init();
         routeInformationProvider.cacheRouteInformation();
         rerouteLatestApis.registerLatest();
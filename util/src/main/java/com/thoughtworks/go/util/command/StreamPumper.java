@@ -20,21 +20,29 @@ import com.thoughtworks.go.util.SystemTimeClock;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.LineIterator;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static com.thoughtworks.go.util.ExceptionUtils.bomb;
 import static java.lang.String.format;
 
 public class StreamPumper implements Runnable {
+    private static final ExecutorService PUMPS = Executors.newCachedThreadPool(new BasicThreadFactory.Builder()
+            .namingPattern("stream-pumper-%d")
+            .daemon(true)
+            .build());
 
     private Reader in;
 
-    private boolean completed;
+    private final CountDownLatch completed = new CountDownLatch(1);
     private final StreamConsumer streamConsumer;
     private final String prefix;
     private long lastHeard;
@@ -64,7 +72,7 @@ public class StreamPumper implements Runnable {
             }
         } catch (Exception ignore) {
         } finally {
-            completed = true;
+            completed.countDown();
         }
     }
 
@@ -81,27 +89,35 @@ public class StreamPumper implements Runnable {
 
 
     public void readToEnd() {
-        while (!completed) {
+        while (!isCompleted()) {
             try {
-                clock.sleepForMillis(100);
+                completed.await();
             } catch (InterruptedException ignored) {
             }
         }
     }
 
+    /**
+     * Pumps run on a shared pool which reuses idle threads, since a pump blocks on its stream for as long as the
+     * process writes to it and a bounded pool could stall a process whose output is not being read.
+     */
     public static StreamPumper pump(InputStream stream, StreamConsumer streamConsumer, String prefix, String encoding) {
         StreamPumper pumper = new StreamPumper(stream, streamConsumer, prefix, encoding);
-        new Thread(pumper).start();
+        PUMPS.execute(pumper);
         return pumper;
     }
 
+    private boolean isCompleted() {
+        return completed.getCount() == 0;
+    }
+
     private Long timeSinceLastLine(TimeUnit unit) {
         long now = clock.currentTimeMillis();
         return unit.convert(now - lastHeard, TimeUnit.MILLISECONDS);
     }
 
     public boolean didTimeout(long duration, TimeUnit unit) {
-        if (completed) { return false; }
+        if (isCompleted()) { return false; }
         return timeSinceLastLine(unit) > duration;
     }
 
@@ -27,6 +27,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 
@@ -83,12 +84,24 @@ public class StreamPumperTest {
         assertThat(pumper.didTimeout(1L, TimeUnit.SECONDS), is(false));
     }
 
+    @Test
+    public void shouldPumpOnPooledThreadsAndFinishReadingAsSoonAsTheStreamEnds() {
+        TestConsumer consumer = new TestConsumer();
+        StreamPumper pumper = StreamPumper.pump(new ByteArrayInputStream("line1\nline2".getBytes()), consumer, "", "utf-8");
+
+        pumper.readToEnd();
+
+        assertThat(consumer.lines, contains("line1", "line2"));
+        assertThat(consumer.threadName.startsWith("stream-pumper-"), is(true));
+    }
+
     /**
      * Used by the test to track whether a line actually got consumed or not.
      */
     class TestConsumer implements StreamConsumer {
 
         private List lines = new ArrayList();
+        private String threadName;
 
         /**
          * Checks to see if this consumer consumed a particular line. This method
@@ -127,6 +140,7 @@ public class StreamPumperTest {
 
         @Override
         public void consumeLine(String line) {
+            threadName = Thread.currentThread().getName();
             lines.add(line);
         }
     }